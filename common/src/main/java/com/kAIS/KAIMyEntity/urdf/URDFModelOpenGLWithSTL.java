@@ -1,6 +1,16 @@
 package com.kAIS.KAIMyEntity.urdf;
 
+import com.kAIS.KAIMyEntity.PhysicsManager;
 import com.kAIS.KAIMyEntity.renderer.IMMDModel;
+import com.kAIS.KAIMyEntity.urdf.control.MotionClip;
+import com.kAIS.KAIMyEntity.urdf.control.MotionEditorScreen;
+import com.kAIS.KAIMyEntity.urdf.physics.PhysicsRobot;
+import com.kAIS.KAIMyEntity.urdf.physics.URDFPhysicsBuilder;
+import com.kAIS.KAIMyEntity.urdf.retarget.RetargetMap;
+import com.kAIS.KAIMyEntity.urdf.retarget.RetargetProfile;
+import com.kAIS.KAIMyEntity.webots.WebotsBridgeRegistry;
+import com.kAIS.KAIMyEntity.webots.WebotsController;
+import com.kAIS.KAIMyEntity.webots.WebotsJointMap;
 import com.mojang.blaze3d.systems.RenderSystem;
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.mojang.blaze3d.vertex.VertexConsumer;
@@ -15,10 +25,12 @@ import org.joml.Quaternionf;
 import org.joml.Vector3f;
 
 import java.io.File;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * URDF 모델 렌더링 (STL 메시 포함)
@@ -42,73 +54,36 @@ public class URDFModelOpenGLWithSTL implements IMMDModel {
     private static final Vector3f DST_FWD = FORWARD_NEG_Z ? new Vector3f(0, 0, -1) : new Vector3f(0, 0, 1);
     private static final Quaternionf Q_ROS2MC = makeUprightQuat(SRC_UP, SRC_FWD, DST_UP, DST_FWD);
 
-    // ✅ 관절 이름 매핑 (VMD 이름 → URDF 이름)
-    private final Map<String, String> jointNameMapping = new HashMap<>();
-    
-    // ✅ 디버그용 플래그
-    private boolean jointMappingInitialized = false;
+    // ✅ 관절 이름 매핑 (리타깃 프로파일 기반, 이름별로 한 번만 해석)
+    private final RetargetProfile retargetProfile;
+    private final Map<String, Integer> jointIndexCache = new ConcurrentHashMap<>(); // -1 = 없음 (네거티브 캐시)
+    private volatile RetargetMap clipRetarget;
+
+    // ✅ 관절 → Webots 모터 매핑 (모델 폴더의 webots.jointmap, 없으면 기본값)
+    private final WebotsJointMap webotsJointMap;
+    private volatile WebotsJointMap.Binding webotsBinding;
+    // ✅ 이 모델이 붙은 Webots 브리지 (null = 기본 브리지)
+    private volatile WebotsController webotsBridge;
+
+    // ✅ 모델별 모션 재생기 (자기 시계를 가짐)
+    private final MotionEditorScreen.VMDPlayer motionPlayer;
+
+    // ✅ 물리 관절체 (모델별로 켜야 생김, 기본 꺼짐 → ClientTickLoop가 켜진 모델만 생성, 클라이언트 스레드 전용)
+    //    재생/슬라이더가 쓴 관절값 = 서보 목표 → 스텝 후 시뮬레이션 관절값으로 덮어써서 그림
+    private static final double PHYSICS_SPACING = 4.0;   // 로봇끼리 겹치지 않도록 x 간격 (m)
+    private static final double PHYSICS_HEIGHT = 2.0;    // 루트 높이 (고정 베이스, 지면 y=0에 닿지 않게)
+    private volatile boolean physicsRequested;
+    private PhysicsRobot physicsRobot;
+    private float[] physicsSynced;   // 마지막으로 물리가 모델에 써 넣은 관절값 (다르면 누가 새 목표를 씀)
 
     public URDFModelOpenGLWithSTL(URDFRobotModel robotModel, String modelDir) {
         this.robotModel = robotModel;
         this.modelDir = modelDir;
+        this.motionPlayer = new MotionEditorScreen.VMDPlayer(this);
+        this.retargetProfile = RetargetProfile.forModelDir(modelDir);
+        this.webotsJointMap = WebotsJointMap.forModelDir(modelDir);
         logger.info("=== URDF renderer Created ===");
         loadAllMeshes();
-        initJointNameMapping();
-    }
-
-    /**
-     * ✅ 관절 이름 매핑 초기화 - VMD 이름을 URDF 이름으로 변환
-     */
-    private void initJointNameMapping() {
-        logger.info("=== Initializing Joint Name Mapping ===");
-        
-        // URDF에 존재하는 모든 관절 이름 수집
-        Set<String> urdfJointNames = new HashSet<>();
-        for (URDFJoint j : robotModel.joints) {
-            urdfJointNames.add(j.name);
-            urdfJointNames.add(j.name.toLowerCase());
-        }
-        
-        // VMD 표준 이름 → 가능한 URDF 이름들
-        Map<String, String[]> vmdToUrdfCandidates = new HashMap<>();
-        
-        // 머리
-        vmdToUrdfCandidates.put("head_pan", new String[]{"head_pan", "HeadYaw", "head_yaw", "Neck", "neck"});
-        vmdToUrdfCandidates.put("head_tilt", new String[]{"head_tilt", "HeadPitch", "head_pitch", "Head", "head"});
-        
-        // 왼팔
-        vmdToUrdfCandidates.put("l_sho_pitch", new String[]{"l_sho_pitch", "LShoulderPitch", "l_shoulder_pitch", "LeftShoulderPitch", "left_shoulder_pitch"});
-        vmdToUrdfCandidates.put("l_sho_roll", new String[]{"l_sho_roll", "LShoulderRoll", "l_shoulder_roll", "LeftShoulderRoll", "left_shoulder_roll"});
-        vmdToUrdfCandidates.put("l_el", new String[]{"l_el", "LElbowYaw", "l_elbow", "LeftElbow", "left_elbow", "LElbowRoll"});
-        
-        // 오른팔
-        vmdToUrdfCandidates.put("r_sho_pitch", new String[]{"r_sho_pitch", "RShoulderPitch", "r_shoulder_pitch", "RightShoulderPitch", "right_shoulder_pitch"});
-        vmdToUrdfCandidates.put("r_sho_roll", new String[]{"r_sho_roll", "RShoulderRoll", "r_shoulder_roll", "RightShoulderRoll", "right_shoulder_roll"});
-        vmdToUrdfCandidates.put("r_el", new String[]{"r_el", "RElbowYaw", "r_elbow", "RightElbow", "right_elbow", "RElbowRoll"});
-        
-        // 하체 (옵션)
-        vmdToUrdfCandidates.put("l_hip_pitch", new String[]{"l_hip_pitch", "LHipPitch", "LeftHipPitch"});
-        vmdToUrdfCandidates.put("r_hip_pitch", new String[]{"r_hip_pitch", "RHipPitch", "RightHipPitch"});
-        
-        // 매핑 생성
-        for (Map.Entry<String, String[]> entry : vmdToUrdfCandidates.entrySet()) {
-            String vmdName = entry.getKey();
-            for (String candidate : entry.getValue()) {
-                // 정확히 일치하는 관절 찾기
-                for (URDFJoint j : robotModel.joints) {
-                    if (j.name.equals(candidate) || j.name.equalsIgnoreCase(candidate)) {
-                        jointNameMapping.put(vmdName, j.name);
-                        logger.info("  Mapped: '{}' -> '{}'", vmdName, j.name);
-                        break;
-                    }
-                }
-                if (jointNameMapping.containsKey(vmdName)) break;
-            }
-        }
-        
-        // 매핑 안 된 VMD 이름은 그대로 사용 (직접 매칭 시도)
-        jointMappingInitialized = true;
-        logger.info("=== Joint Mapping Complete: {} mappings ===", jointNameMapping.size());
     }
 
     private void loadAllMeshes() {
@@ -160,23 +135,9 @@ public class URDFModelOpenGLWithSTL implements IMMDModel {
      * ✅ 즉시 반영(프리뷰): 관절 이름 매핑 포함
      */
     public void setJointPreview(String name, float value) {
-        // 1. 매핑된 이름으로 변환
-        String mappedName = jointNameMapping.getOrDefault(name, name);
-        
-        // 2. 관절 찾기
-        URDFJoint j = getJointByName(mappedName);
-        
-        // 3. 못 찾으면 원본 이름으로 재시도
-        if (j == null && !mappedName.equals(name)) {
-            j = getJointByName(name);
-        }
-        
-        // 4. 대소문자 무시하고 재시도
-        if (j == null) {
-            j = getJointByNameIgnoreCase(name);
-        }
-        
-        if (j != null) {
+        int idx = resolveJointIndex(name);
+        if (idx >= 0) {
+            URDFJoint j = robotModel.joints.get(idx);
             j.currentPosition = value;
             // 디버그 (처음 몇 번만)
             if (renderCount < 5) {
@@ -186,11 +147,175 @@ public class URDFModelOpenGLWithSTL implements IMMDModel {
         } else {
             // 못 찾은 경우 경고 (처음 몇 번만)
             if (renderCount < 5) {
-                logger.warn("✗ Joint NOT FOUND: '{}' (mapped: '{}')", name, mappedName);
+                logger.warn("✗ Joint NOT FOUND: '{}'", name);
+            }
+        }
+    }
+
+    /**
+     * ✅ 클립 포즈 일괄 적용 (클립 열 → 관절 인덱스는 클립이 바뀔 때만 컴파일)
+     * @return 적용된 관절 수
+     */
+    public int applyPose(MotionClip clip, float[] pose) {
+        return getRetargetMap(clip).apply(pose);
+    }
+
+    /**
+     * 클립 열 → 관절 인덱스 맵 (클립이 바뀔 때만 컴파일, 여러 스레드에서 호출 가능)
+     */
+    public RetargetMap getRetargetMap(MotionClip clip) {
+        String[] names = clip.getJointNames();
+        RetargetMap map = clipRetarget;
+        if (map == null || !map.isFor(robotModel, names)) {
+            map = retargetProfile.compile(robotModel, names);
+            clipRetarget = map;
+        }
+        return map;
+    }
+
+    /**
+     * 이름 → robot.joints 인덱스 (없으면 -1). 이름별로 처음 한 번만 프로파일로 해석.
+     */
+    public int resolveJointIndex(String name) {
+        if (name == null) return -1;
+        Integer idx = jointIndexCache.get(name);
+        if (idx == null) {
+            idx = retargetProfile.resolveJoint(robotModel, name);
+            jointIndexCache.put(name, idx);
+        }
+        return idx;
+    }
+
+    public RetargetProfile getRetargetProfile() {
+        return retargetProfile;
+    }
+
+    public WebotsJointMap getWebotsJointMap() {
+        return webotsJointMap;
+    }
+
+    /**
+     * 이 모델의 Webots 브리지 (붙인 엔드포인트가 없으면 기본 브리지)
+     */
+    public WebotsController getWebotsController() {
+        WebotsController bridge = webotsBridge;
+        return bridge != null ? bridge : WebotsController.getInstance();
+    }
+
+    /**
+     * ✅ 이 모델을 ip:port 엔드포인트에 붙임 (브리지는 레지스트리에서 공유, 재생 중이면 소스도 옮김)
+     */
+    public WebotsController attachWebots(String ip, int port) {
+        WebotsController next = WebotsBridgeRegistry.getInstance().bridge(ip, port);
+        moveControlSource(next);
+        logger.info("🔗 {} attached to Webots {}", modelDir, next.getRobotAddress());
+        return next;
+    }
+
+    /** 기본 브리지로 되돌림 */
+    public void detachWebots() {
+        moveControlSource(null);
+    }
+
+    private void moveControlSource(WebotsController next) {
+        WebotsController prev = getWebotsController();
+        webotsBridge = next;
+        WebotsController now = getWebotsController();
+        if (prev != now) {
+            prev.removeControlSource(motionPlayer);
+            if (motionPlayer.isPlaying()) now.addControlSource(motionPlayer);
+        }
+    }
+
+    public boolean isWebotsAttached() {
+        return webotsBridge != null;
+    }
+
+    /**
+     * robot.joints 순서 → Webots 모터 바인딩 (고정 관절은 매핑 없음, 처음 한 번만 생성)
+     * 바인딩은 변환 버퍼를 내장하므로 제어 스레드에서만 사용
+     */
+    public WebotsJointMap.Binding getWebotsBinding() {
+        WebotsJointMap.Binding binding = webotsBinding;
+        if (binding == null) {
+            String[] columns = new String[robotModel.joints.size()];
+            for (int i = 0; i < columns.length; i++) {
+                URDFJoint j = robotModel.joints.get(i);
+                columns[i] = j.isMovable() ? j.name : null;
+            }
+            binding = webotsJointMap.bind(columns);
+            webotsBinding = binding;
+        }
+        return binding;
+    }
+
+    // ===== 물리 =====
+
+    /** 이 모델을 물리로 돌릴지 (기본 false, 다음 틱에 ClientTickLoop가 관절체를 만들거나 지움) */
+    public void setPhysicsEnabled(boolean enable) {
+        physicsRequested = enable;
+    }
+
+    public boolean isPhysicsEnabled() {
+        return physicsRequested;
+    }
+
+    /**
+     * 이 모델의 ODE 관절체 생성 (이미 있으면 그대로)
+     * 렌더링은 엔티티 위치에 관절값만 쓰므로 루트는 월드에 고정 (관절만 동역학: 서보 한계, 정지각, 감쇠, 중력 부하)
+     * 메시 충돌은 경계 상자: 볼록 분해는 클라이언트 스레드를 오래 막고 모델 폴더에 .hulls 캐시를 씀
+     */
+    public PhysicsRobot enablePhysics(PhysicsManager pm) {
+        if (physicsRobot == null) {
+            double x = pm.getRobots().size() * PHYSICS_SPACING;
+            physicsRobot = pm.spawnRobot(robotModel, new URDFPhysicsBuilder()
+                    .position(x, PHYSICS_HEIGHT, 0)
+                    .fixedBase(true)
+                    .meshCollision(URDFPhysicsBuilder.MeshCollision.BOX));
+            physicsSynced = new float[robotModel.joints.size()];
+            Arrays.fill(physicsSynced, Float.NaN); // 첫 push에서 지금 자세 전체를 목표로 (안 주면 관절이 힘없이 처짐)
+            logger.info("✅ Physics enabled for {} ({} bodies)", robotModel.name, physicsRobot.getBodyCount());
+        }
+        return physicsRobot;
+    }
+
+    /** 관절체 제거 → 다시 운동학 재생 (관절값을 그대로 그림) */
+    public void disablePhysics() {
+        if (physicsRobot == null) return;
+        PhysicsManager.GetInst().removeRobot(physicsRobot);
+        physicsRobot = null;
+        physicsSynced = null;
+    }
+
+    /** 물리 관절체 (없으면 null) */
+    public PhysicsRobot getPhysicsRobot() {
+        return physicsRobot;
+    }
+
+    /**
+     * 클라이언트 스레드, 스텝 전: 이번 틱에 새로 써진 관절값을 서보 목표로
+     * (물리가 마지막으로 써 넣은 값과 같으면 아무도 안 쓴 것 → 기존 목표 유지)
+     */
+    public void pushPhysicsTargets(PhysicsManager pm) {
+        PhysicsRobot robot = physicsRobot;
+        if (robot == null) return;
+        for (int i = 0; i < physicsSynced.length; i++) {
+            if (!robot.isActuated(i)) continue;
+            float v = robotModel.joints.get(i).currentPosition;
+            if (Float.floatToIntBits(v) != Float.floatToIntBits(physicsSynced[i])) {
+                pm.submitJointTarget(robot, i, v);
             }
         }
     }
 
+    /** 클라이언트 스레드, 스텝/동기화 후: 모델에 반영된 관절값 기록 */
+    public void markPhysicsSynced() {
+        if (physicsSynced == null) return;
+        for (int i = 0; i < physicsSynced.length; i++) {
+            physicsSynced[i] = robotModel.joints.get(i).currentPosition;
+        }
+    }
+
     /**
      * ✅ 모든 관절 목록 출력 (디버깅용)
      */
@@ -200,9 +325,10 @@ public class URDFModelOpenGLWithSTL implements IMMDModel {
             logger.info("  - '{}' (type: {}, movable: {}, current: {})", 
                 j.name, j.type, j.isMovable(), j.currentPosition);
         }
-        logger.info("=== Joint Name Mappings ({}) ===", jointNameMapping.size());
-        for (Map.Entry<String, String> entry : jointNameMapping.entrySet()) {
-            logger.info("  - '{}' -> '{}'", entry.getKey(), entry.getValue());
+        logger.info("=== Joint Name Aliases ({}: {}) ===", retargetProfile.getName(), retargetProfile.getAliases().size());
+        for (String alias : retargetProfile.getAliases().keySet()) {
+            int idx = resolveJointIndex(alias);
+            logger.info("  - '{}' -> '{}'", alias, idx >= 0 ? robotModel.joints.get(idx).name : "(none)");
         }
     }
 
@@ -382,7 +508,14 @@ public class URDFModelOpenGLWithSTL implements IMMDModel {
 
     // ===== IMMDModel 구현 =====
     @Override public void ChangeAnim(long anim, long layer) { }
-    @Override public void ResetPhysics() { logger.info("ResetPhysics called"); }
+    /** 이 모델이 든 물리 월드를 저장된 리셋 지점(PhysicsManager.saveResetPoint)으로 되돌림, 관절체나 지점이 없으면 아무것도 안 함 */
+    @Override public void ResetPhysics() {
+        if (physicsRobot != null && PhysicsManager.GetInst().resetToSavedPoint()) {
+            logger.info("🔄 Physics restored to reset point");
+        } else {
+            logger.info("ResetPhysics called (no physics reset point)");
+        }
+    }
     @Override public long GetModelLong() { return 0; }
     @Override public String GetModelDir() { return modelDir; }
 
@@ -398,24 +531,8 @@ public class URDFModelOpenGLWithSTL implements IMMDModel {
         return robotModel;
     }
 
-    // ===== 내부 유틸 =====
-    private URDFJoint getJointByName(String name) {
-        if (name == null) return null;
-        for (URDFJoint j : robotModel.joints) {
-            if (name.equals(j.name)) return j;
-        }
-        return null;
-    }
-
-    /**
-     * ✅ 대소문자 무시하고 관절 찾기
-     */
-    private URDFJoint getJointByNameIgnoreCase(String name) {
-        if (name == null) return null;
-        for (URDFJoint j : robotModel.joints) {
-            if (name.equalsIgnoreCase(j.name)) return j;
-        }
-        return null;
+    public MotionEditorScreen.VMDPlayer getMotionPlayer() {
+        return motionPlayer;
     }
 
     // ===== 업라이트 보정 유틸 =====
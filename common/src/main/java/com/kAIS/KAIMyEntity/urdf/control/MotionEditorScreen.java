@@ -1,5 +1,6 @@
 package com.kAIS.KAIMyEntity.urdf.control;
 
+import com.kAIS.KAIMyEntity.PhysicsManager;
 import com.kAIS.KAIMyEntity.urdf.URDFModelOpenGLWithSTL;
 import com.kAIS.KAIMyEntity.urdf.vmd.VMDLoader;
 import com.kAIS.KAIMyEntity.webots.WebotsController;
@@ -14,12 +15,10 @@ import org.apache.logging.log4j.Logger;
 
 import java.io.File;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * MuJoCo 스타일 RL Control GUI
- * - 기존 VMDPlayer 유지
+ * - VMDPlayer (렌더러별 인스턴스)
  * - RL 환경 모니터링 추가
  * - 관절 제어 패널 추가
  * - 센서 시각화 추가
@@ -36,9 +35,10 @@ public final class MotionEditorScreen {
 
     /**
      * 매 틱마다 호출 - VMD 재생 및 Webots 전송
+     * (같은 틱에 ClientTickLoop가 이미 갱신했다면 중복 진행하지 않음)
      */
     public static void tick(URDFModelOpenGLWithSTL renderer) {
-        VMDPlayer.getInstance().tick(renderer, 1f / 20f);
+        MotionPlayerScheduler.tickOne(renderer, 1f / 20f);
     }
 
     /* ======================== RLControlGUI ======================== */
@@ -240,7 +240,7 @@ public final class MotionEditorScreen {
                 cy += LINE_HEIGHT;
                 
                 // VMD Status
-                var vmd = VMDPlayer.getInstance();
+                var vmd = renderer.getMotionPlayer();
                 String vmdStatus = vmd.hasMotion() ? 
                     (vmd.isPlaying() ? "§a▶ Playing" : "§e⏸ Loaded") : "§7○ No Motion";
                 g.drawString(font, "VMD: " + vmdStatus, x + PADDING, cy, TEXT);
@@ -447,12 +447,12 @@ public final class MotionEditorScreen {
             // Webots
             boolean webotsOk = false;
             try {
-                webotsOk = WebotsController.getInstance().isConnected();
+                webotsOk = renderer.getWebotsController().isConnected();
             } catch (Exception ignored) {}
             g.drawString(font, "Webots: " + (webotsOk ? "§a●" : "§7○"), 170, y + 4, TEXT);
             
             // VMD
-            var vmd = VMDPlayer.getInstance();
+            var vmd = renderer.getMotionPlayer();
             if (vmd.hasMotion()) {
                 var st = vmd.getStatus();
                 g.drawString(font, String.format("VMD: %.1f/%.1fs", st.currentTime(), st.duration()), 
@@ -494,14 +494,18 @@ public final class MotionEditorScreen {
         // === Actions ===
         
         private void play() {
+            // 정지 상태에서 시작 = 새 에피소드 → 이 모델이 든 물리 월드의 지금 상태를 리셋 지점으로
+            if (simState == SimState.STOPPED && renderer.getPhysicsRobot() != null) {
+                PhysicsManager.GetInst().saveResetPoint();
+            }
             simState = SimState.RUNNING;
-            VMDPlayer.getInstance().play();
+            renderer.getMotionPlayer().play();
             log(LogLevel.INFO, "Simulation started");
         }
         
         private void pause() {
             simState = SimState.PAUSED;
-            VMDPlayer.getInstance().pause();
+            renderer.getMotionPlayer().pause();
             log(LogLevel.INFO, "Simulation paused");
         }
         
@@ -511,7 +515,8 @@ public final class MotionEditorScreen {
             stepCount = 0;
             episodeReward = 0f;
             lastReward = 0f;
-            VMDPlayer.getInstance().stop();
+            renderer.getMotionPlayer().stop();
+            renderer.ResetPhysics();
             loadJointData();
             log(LogLevel.INFO, "Simulation reset");
         }
@@ -671,139 +676,159 @@ public final class MotionEditorScreen {
         }
     }
 
-    /* ======================== VMDPlayer (기존 유지) ======================== */
-    
-    public static final class VMDPlayer {
+    /* ======================== VMDPlayer (모델별 인스턴스) ======================== */
+
+    /**
+     * 렌더러 하나에 붙는 VMD 재생기
+     * - 시계/커서는 URDFMotionPlayer가 모델별로 보관
+     * - 컴파일된 클립은 CompiledMotion 캐시로 공유, 긴 파일은 VMDStreamingMotion
+     * - 여러 모델의 일괄 갱신은 MotionPlayerScheduler가 담당
+     */
+    public static final class VMDPlayer implements WebotsController.ControlSource {
         private static final Logger logger = LogManager.getLogger();
-        private static volatile VMDPlayer instance;
 
-        private final AtomicBoolean playing = new AtomicBoolean(false);
-        private final AtomicReference<URDFMotion> currentMotion = new AtomicReference<>(null);
+        // 제어 스레드가 마지막 게임 틱보다 앞서 샘플링할 수 있는 최대 시간 (게임이 멈추면 로봇도 멈춤)
+        private static final float MAX_LOOKAHEAD = 0.1f;
+
+        private final URDFModelOpenGLWithSTL renderer;
+        private final URDFMotionPlayer clock = new URDFMotionPlayer();
 
-        private float currentTime = 0f;
-        private int activeJointCount = 0;
+        private volatile int activeJointCount = 0;
         private int debugCounter = 0;
+        private long lastTickId = -1;
 
-        private VMDPlayer() {}
+        // 제어 스레드 샘플링 (clock과 같은 락 안에서 clip.sample 호출 - 스트리밍 클립은 스레드 안전하지 않음)
+        private long lastAdvanceNanos = 0;
+        private float[] controlPose = new float[0];
+        private int controlHint = 0;
+        private float[] controlJointPos = new float[0]; // robot.joints 순서 (NaN = 이번 샘플에 값 없음)
 
-        public static VMDPlayer getInstance() {
-            if (instance == null) {
-                synchronized (VMDPlayer.class) {
-                    if (instance == null) instance = new VMDPlayer();
-                }
-            }
-            return instance;
+        public VMDPlayer(URDFModelOpenGLWithSTL renderer) {
+            this.renderer = renderer;
         }
 
-        public void loadMotion(URDFMotion motion) {
-            currentMotion.set(motion);
-            currentTime = 0f;
-            playing.set(false);
+        public URDFModelOpenGLWithSTL getRenderer() { return renderer; }
+
+        public synchronized void loadMotion(URDFMotion motion) {
+            clock.load(motion);
+            clock.pause();
+            controlHint = 0;
             logger.info("✅ VMD Motion loaded: {} ({} keyframes)", motion.name, motion.keys.size());
         }
 
+        /**
+         * 스트리밍 클립 등 미리 준비된 클립 로드
+         */
+        public synchronized void loadClip(MotionClip clip) {
+            clock.load(clip);
+            clock.pause();
+            controlHint = 0;
+            logger.info("✅ VMD Clip loaded: {} ({} keyframes)", clip.getName(), clip.getKeyCount());
+        }
+
+        /**
+         * 파일 로드 - 큰 파일은 스트리밍(메모리 매핑 + 윈도우 디코딩)으로 연다
+         */
         public void loadFromFile(File vmdFile) {
-            URDFMotion motion = VMDLoader.load(vmdFile);
+            if (VMDLoader.shouldStream(vmdFile)) {
+                MotionClip clip = VMDLoader.openStreaming(vmdFile, renderer.getRobotModel(), renderer.getRetargetProfile());
+                if (clip != null) {
+                    loadClip(clip);
+                }
+                return;
+            }
+            URDFMotion motion = VMDLoader.load(vmdFile, renderer.getRobotModel(), renderer.getRetargetProfile());
             if (motion != null) {
                 loadMotion(motion);
             }
         }
 
         public void play() {
-            if (currentMotion.get() != null) {
-                playing.set(true);
+            synchronized (this) {
+                if (clock.getClip() == null) return;
+                clock.play();
+                lastAdvanceNanos = System.nanoTime();
                 logger.info("▶ VMD Playback started");
             }
+            // Webots 목표는 제어 스레드가 자기 주기로 샘플링 (게임 틱 20 Hz와 별개, 모델이 붙은 브리지로)
+            try {
+                renderer.getWebotsController().addControlSource(this);
+            } catch (Exception ignored) {}
         }
 
-        public void stop() {
-            playing.set(false);
-            currentTime = 0f;
-        }
-
-        public void pause() {
-            playing.set(false);
-        }
-
-        public boolean isPlaying() { return playing.get(); }
-        public boolean hasMotion() { return currentMotion.get() != null; }
-
-        public void tick(URDFModelOpenGLWithSTL renderer, float deltaTime) {
-            if (!playing.get()) return;
+        public synchronized void stop() { clock.stop(); }
+        public synchronized void pause() { clock.pause(); }
 
-            URDFMotion motion = currentMotion.get();
-            if (motion == null || motion.keys.isEmpty()) return;
+        public synchronized boolean isPlaying() { return clock.isPlaying(); }
+        public synchronized boolean hasMotion() { return clock.getClip() != null; }
 
-            currentTime += deltaTime;
-            float maxTime = motion.keys.get(motion.keys.size() - 1).t;
-            if (maxTime <= 0) maxTime = 1f;
-
-            if (motion.loop && currentTime > maxTime) {
-                currentTime = currentTime % maxTime;
-            } else if (!motion.loop && currentTime > maxTime) {
-                playing.set(false);
-                return;
-            }
+        /**
+         * 같은 게임 틱에 두 번 호출되면 두 번째는 무시 (렌더러가 여러 목록에 중복 등록된 경우)
+         */
+        boolean markTick(long tickId) {
+            if (tickId == lastTickId) return false;
+            lastTickId = tickId;
+            return true;
+        }
 
-            // 키프레임 보간
-            URDFMotion.Key prevKey = null, nextKey = null;
-            for (URDFMotion.Key key : motion.keys) {
-                if (key.t <= currentTime) prevKey = key;
-                else { nextKey = key; break; }
+        public void tick(float deltaTime) {
+            MotionClip clip;
+            float[] pose;
+            synchronized (this) {
+                if (!clock.advance(deltaTime)) return;
+                lastAdvanceNanos = System.nanoTime();
+                clip = clock.getClip();
+                pose = clock.getPose();
             }
-            if (prevKey == null) prevKey = motion.keys.get(0);
 
-            float alpha = 0f;
-            if (nextKey != null && nextKey.t > prevKey.t) {
-                alpha = (currentTime - prevKey.t) / (nextKey.t - prevKey.t);
-                if ("cubic".equals(prevKey.interp)) {
-                    alpha = alpha * alpha * (3f - 2f * alpha);
-                }
-            }
-
-            activeJointCount = 0;
-            for (Map.Entry<String, Float> entry : prevKey.pose.entrySet()) {
-                String jointName = entry.getKey();
-                float value = entry.getValue();
-
-                if (nextKey != null && nextKey.pose.containsKey(jointName)) {
-                    value = lerp(value, nextKey.pose.get(jointName), alpha);
-                }
-
-                renderer.setJointPreview(jointName, value);
-                renderer.setJointTarget(jointName, value);
-                activeJointCount++;
-            }
+            // 클립 열 → 관절 인덱스 배열로 일괄 적용 (이름 조회 없음)
+            int active = renderer.applyPose(clip, pose);
+            activeJointCount = active;
 
             if (++debugCounter >= 20) {
                 debugCounter = 0;
-                logger.debug("🎬 VMD: t={:.2f}/{:.2f}s, joints={}", currentTime, maxTime, activeJointCount);
+                logger.debug("🎬 VMD: t={}/{}s, joints={}", clock.getTime(), clip.getDuration(), active);
             }
-
-            sendToWebots(renderer);
         }
 
-        private void sendToWebots(URDFModelOpenGLWithSTL renderer) {
-            try {
-                WebotsController webots = WebotsController.getInstance();
-                if (!webots.isConnected()) return;
-                var robot = renderer.getRobotModel();
-                if (robot == null || robot.joints == null) return;
-                for (var joint : robot.joints) {
-                    if (joint.isMovable()) {
-                        webots.setJoint(joint.name, joint.currentPosition);
-                    }
-                }
-            } catch (Exception ignored) {}
-        }
+        /**
+         * 제어 스레드: 마지막 틱 시각 + 경과 시간 시점의 포즈를 샘플링해 Webots 목표로 기록
+         */
+        @Override
+        public boolean sample(long nowNanos, WebotsController webots) {
+            MotionClip clip;
+            float[] pose;
+            synchronized (this) {
+                clip = clock.getClip();
+                if (!clock.isPlaying() || clip == null) return false;
 
-        private float lerp(float a, float b, float t) { return a + (b - a) * t; }
+                float ahead = Math.max(0f, Math.min((nowNanos - lastAdvanceNanos) / 1e9f, MAX_LOOKAHEAD));
+                float t = clock.getTime() + ahead;
+                float end = clip.getDuration();
+                if (t > end) t = (clip.isLoop() && end > 1e-6f) ? t % end : end;
 
-        public Status getStatus() {
-            URDFMotion motion = currentMotion.get();
-            if (motion == null) return new Status(null, 0, 0f, 0f, false, 0);
-            float maxTime = motion.keys.isEmpty() ? 0f : motion.keys.get(motion.keys.size() - 1).t;
-            return new Status(motion.name, motion.keys.size(), maxTime, currentTime, playing.get(), activeJointCount);
+                if (controlPose.length < clip.getJointCount()) controlPose = new float[clip.getJointCount()];
+                controlHint = clip.sample(t, controlHint, controlPose);
+                pose = controlPose;
+            }
+
+            if (!webots.isConnected()) return true;
+            var robot = renderer.getRobotModel();
+            if (robot == null || robot.joints == null) return true;
+            // 클립 열 → robot.joints 순서 → 모터 (이름 조회 없이 배열 변환)
+            int jointCount = robot.joints.size();
+            if (controlJointPos.length != jointCount) controlJointPos = new float[jointCount];
+            Arrays.fill(controlJointPos, Float.NaN);
+            renderer.getRetargetMap(clip).apply(pose, controlJointPos);
+            webots.setJointPositions(renderer.getWebotsBinding(), controlJointPos);
+            return true;
+        }
+
+        public synchronized Status getStatus() {
+            MotionClip clip = clock.getClip();
+            if (clip == null) return new Status(null, 0, 0f, 0f, false, 0);
+            return new Status(clip.getName(), clip.getKeyCount(), clip.getDuration(), clock.getTime(),
+                    clock.isPlaying(), activeJointCount);
         }
 
         public record Status(String motionName, int keyframeCount, float duration, 
@@ -0,0 +1,95 @@
+package com.kAIS.KAIMyEntity.urdf.control;
+
+import com.kAIS.KAIMyEntity.urdf.URDFModelOpenGLWithSTL;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 모델별 VMDPlayer 일괄 갱신
+ * - 게임 틱마다 한 번 호출 (ClientTickLoop)
+ * - 플레이어당 틱 1회만 진행 (중복 등록된 렌더러 보호)
+ * - 재생 중인 모델이 많으면 워커 스레드에 나눠서 병렬 갱신
+ */
+public final class MotionPlayerScheduler {
+    private static final Logger logger = LogManager.getLogger();
+
+    // 이 수 미만이면 스레드 전환 비용이 더 커서 그냥 순차 처리
+    private static final int PARALLEL_THRESHOLD = 8;
+    private static final int WORKERS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    private static ExecutorService executor;
+    private static long tickId = 0;
+    private static final List<MotionEditorScreen.VMDPlayer> active = new ArrayList<>();
+    private static final List<Future<?>> pending = new ArrayList<>();
+
+    private MotionPlayerScheduler() {}
+
+    /**
+     * 렌더러 목록 전체를 dt만큼 진행
+     */
+    public static void tickAll(Iterable<URDFModelOpenGLWithSTL> renderers, float dt) {
+        tickId++;
+        active.clear();
+        for (URDFModelOpenGLWithSTL r : renderers) {
+            if (r == null) continue;
+            MotionEditorScreen.VMDPlayer p = r.getMotionPlayer();
+            if (p.isPlaying() && p.markTick(tickId)) active.add(p);
+        }
+
+        int n = active.size();
+        if (n == 0) return;
+        if (n < PARALLEL_THRESHOLD || WORKERS == 1) {
+            for (int i = 0; i < n; i++) active.get(i).tick(dt);
+            return;
+        }
+
+        // 연속 구간으로 나눠 워커마다 하나씩, 마지막 구간은 호출 스레드가 직접 처리
+        int chunks = Math.min(WORKERS + 1, n);
+        int per = (n + chunks - 1) / chunks;
+        ExecutorService ex = getExecutor();
+        pending.clear();
+        for (int start = per; start < n; start += per) {
+            final int from = start, to = Math.min(n, start + per);
+            pending.add(ex.submit(() -> {
+                for (int i = from; i < to; i++) active.get(i).tick(dt);
+            }));
+        }
+        for (int i = 0; i < Math.min(per, n); i++) active.get(i).tick(dt);
+
+        for (Future<?> f : pending) {
+            try {
+                f.get();
+            } catch (Exception e) {
+                logger.error("Motion worker failed", e);
+            }
+        }
+        pending.clear();
+    }
+
+    /**
+     * 단일 렌더러 진행 (GUI 등에서 호출). 이번 틱에 이미 진행됐으면 무시.
+     */
+    public static void tickOne(URDFModelOpenGLWithSTL renderer, float dt) {
+        if (renderer == null) return;
+        MotionEditorScreen.VMDPlayer p = renderer.getMotionPlayer();
+        if (p.isPlaying() && p.markTick(tickId)) p.tick(dt);
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(WORKERS, r -> {
+                Thread t = new Thread(r, "Motion-Worker");
+                t.setDaemon(true);
+                return t;
+            });
+            logger.info("MotionPlayerScheduler: {} worker threads", WORKERS);
+        }
+        return executor;
+    }
+}
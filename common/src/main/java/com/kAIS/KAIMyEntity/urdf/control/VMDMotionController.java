@@ -29,7 +29,7 @@ public class VMDMotionController extends Screen {
 
     private final Screen parent;
     private final URDFModelOpenGLWithSTL renderer;
-    private final MotionEditorScreen.VMDPlayer player = MotionEditorScreen.VMDPlayer.getInstance();
+    private final MotionEditorScreen.VMDPlayer player;
 
     private Button loadButton;
     private Button playButton;
@@ -44,6 +44,7 @@ public class VMDMotionController extends Screen {
         super(Component.literal("VMD Motion Controller"));
         this.parent = parent;
         this.renderer = renderer;
+        this.player = renderer.getMotionPlayer();
         scanVmdFiles();
     }
 
@@ -121,7 +122,7 @@ public class VMDMotionController extends Screen {
         File vmdFile = vmdFiles.get(0);
         
         // URDF 관절 이름 전달
-        URDFMotion motion = VMDLoader.load(vmdFile, renderer.getRobotModel());
+        URDFMotion motion = VMDLoader.load(vmdFile, renderer.getRobotModel(), renderer.getRetargetProfile());
         
         if (motion != null) {
             player.loadMotion(motion);
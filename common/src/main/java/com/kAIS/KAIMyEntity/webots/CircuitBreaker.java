@@ -0,0 +1,147 @@
+package com.kAIS.KAIMyEntity.webots;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 연결 회로 차단기 (CLOSED → OPEN → HALF_OPEN → CLOSED/OPEN)
+ * - CLOSED: 정상 전송, 연속 실패가 threshold에 닿으면 OPEN
+ * - OPEN: 전송하지 않음 (명령은 즉시 버림), 대기 시간이 지나면 프로브 하나만 허용 → HALF_OPEN
+ * - HALF_OPEN: 프로브 결과 대기, 성공하면 CLOSED, 실패하면 대기 시간을 두 배로 늘려 다시 OPEN
+ *
+ * 대기 시간 = min(max, base * 2^시도) 의 절반 + 나머지 절반 범위의 무작위 (equal jitter)
+ * → 여러 클라이언트가 같은 순간 재시도하지 않도록
+ *
+ * 제어 스레드(허용 여부/프로브)와 HttpClient 스레드(결과 통보)가 동시에 호출 → 상태는 CAS로만 변경
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long baseBackoffNanos;
+    private final long maxBackoffNanos;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile int attempt = 0;            // 연속 프로브 실패 횟수 (대기 시간 지수)
+    private volatile long nextProbeAt = 0;       // System.nanoTime 기준
+    private volatile long currentBackoffNanos = 0;
+    private volatile long openedAt = 0;
+
+    private final AtomicInteger openCount = new AtomicInteger();
+    private final AtomicInteger probeCount = new AtomicInteger();
+
+    public CircuitBreaker(int failureThreshold, long baseBackoffMs, long maxBackoffMs) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.baseBackoffNanos = Math.max(1, baseBackoffMs) * 1_000_000L;
+        this.maxBackoffNanos = Math.max(baseBackoffMs, maxBackoffMs) * 1_000_000L;
+    }
+
+    /** 지금 전송해도 되는지 (CLOSED일 때만) */
+    public boolean allowRequest() {
+        return state.get() == State.CLOSED;
+    }
+
+    /**
+     * OPEN이고 대기 시간이 지났으면 HALF_OPEN으로 바꾸고 true (호출자가 프로브 하나를 보냄)
+     */
+    public boolean tryStartProbe(long nowNanos) {
+        if (state.get() != State.OPEN || nowNanos - nextProbeAt < 0) return false;
+        if (!state.compareAndSet(State.OPEN, State.HALF_OPEN)) return false;
+        probeCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * 전송/프로브 성공
+     * @return 닫히지 않았던 상태에서 닫혔으면 true (복구 로그용)
+     */
+    public boolean onSuccess() {
+        consecutiveFailures.set(0);
+        State prev = state.getAndSet(State.CLOSED);
+        if (prev != State.CLOSED) {
+            attempt = 0;
+            currentBackoffNanos = 0;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 전송/프로브 실패
+     * @return 이번 실패로 OPEN이 되었으면 true
+     */
+    public boolean onFailure(long nowNanos) {
+        State s = state.get();
+        if (s == State.HALF_OPEN) {
+            // 프로브 실패 → 대기 시간 늘려 다시 OPEN
+            if (state.compareAndSet(State.HALF_OPEN, State.OPEN)) {
+                attempt = Math.min(attempt + 1, 30);
+                scheduleProbe(nowNanos);
+            }
+            return false;
+        }
+        if (s == State.OPEN) return false; // 열리기 전에 보낸 요청이 늦게 실패한 것
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            return trip(nowNanos);
+        }
+        return false;
+    }
+
+    /** 즉시 OPEN (연결 확인 실패 등) */
+    public boolean trip(long nowNanos) {
+        State s = state.get();
+        if (s == State.OPEN || !state.compareAndSet(s, State.OPEN)) return false;
+        attempt = 0;
+        openedAt = nowNanos;
+        openCount.incrementAndGet();
+        scheduleProbe(nowNanos);
+        return true;
+    }
+
+    /** CLOSED로 초기화 (재연결 등) */
+    public void reset() {
+        consecutiveFailures.set(0);
+        attempt = 0;
+        currentBackoffNanos = 0;
+        state.set(State.CLOSED);
+    }
+
+    private void scheduleProbe(long nowNanos) {
+        long backoff = Math.min(maxBackoffNanos, baseBackoffNanos << Math.min(attempt, 20));
+        long half = backoff / 2;
+        long delay = half + ThreadLocalRandom.current().nextLong(half + 1);
+        currentBackoffNanos = delay;
+        nextProbeAt = nowNanos + delay;
+    }
+
+    // ========== 조회 ==========
+
+    public State getState() { return state.get(); }
+
+    public int getConsecutiveFailures() { return consecutiveFailures.get(); }
+
+    /** 연속 프로브 실패 횟수 */
+    public int getAttempt() { return attempt; }
+
+    /** 이번 대기 시간 (ms, 지터 포함) */
+    public long getCurrentBackoffMs() { return currentBackoffNanos / 1_000_000L; }
+
+    /** 다음 프로브까지 남은 시간 (ms, OPEN이 아니면 0) */
+    public long millisUntilProbe(long nowNanos) {
+        if (state.get() != State.OPEN) return 0;
+        return Math.max(0, (nextProbeAt - nowNanos) / 1_000_000L);
+    }
+
+    /** 마지막으로 OPEN된 뒤 경과 시간 (ms, CLOSED면 0) */
+    public long millisSinceOpened(long nowNanos) {
+        if (state.get() == State.CLOSED) return 0;
+        return (nowNanos - openedAt) / 1_000_000L;
+    }
+
+    public int getOpenCount() { return openCount.get(); }
+
+    public int getProbeCount() { return probeCount.get(); }
+}
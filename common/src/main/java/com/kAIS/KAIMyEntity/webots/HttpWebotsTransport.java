@@ -0,0 +1,145 @@
+package com.kAIS.KAIMyEntity.webots;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP GET 전송 (기존 프로토콜, HttpClient.sendAsync 기반)
+ * - set_joints: 프레임 한 번에 전송, seq 파라미터로 순서 표시 (동시 요청이 뒤바뀌어 도착해도 서버가 옛 프레임을 버릴 수 있게)
+ * - 서버가 set_joints를 모르면(400/404) 이후 관절별 set_joint로 대체
+ * - 요청마다 timeout(deadline) 지정, 호출 스레드는 응답을 기다리지 않음
+ */
+public final class HttpWebotsTransport implements WebotsTransport {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final Duration requestTimeout;
+    private final AtomicInteger seq = new AtomicInteger();
+    private volatile boolean batchSupported = true;
+
+    public HttpWebotsTransport(HttpClient httpClient, String ip, int port, int requestTimeoutMs) {
+        this.httpClient = httpClient;
+        this.baseUrl = String.format("http://%s:%d", ip, port);
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+    }
+
+    @Override
+    public String getName() {
+        return batchSupported ? "http" : "http (set_joint fallback)";
+    }
+
+    @Override
+    public void sendFrame(int[] indices, float[] values, int count) throws IOException {
+        await(sendFrameAsync(indices, values, count));
+    }
+
+    @Override
+    public CompletableFuture<Void> sendFrameAsync(int[] indices, float[] values, int count) {
+        // 배열은 반환 전에 복사해 둠 (호출자가 재사용, set_joint 대체 경로는 응답 후에 읽음)
+        int[] idx = Arrays.copyOf(indices, count);
+        float[] val = Arrays.copyOf(values, count);
+
+        if (!batchSupported) {
+            return sendJoints(idx, val);
+        }
+
+        String query = "/?command=set_joints&seq=" + seq.incrementAndGet()
+                + "&values=" + encodeFrame(indices, values, count);
+        return get(query).thenCompose(status -> {
+            if (status == 400 || status == 404) {
+                if (batchSupported) {
+                    batchSupported = false;
+                    LOGGER.warn("⚠️  Webots server does not support set_joints (status {}), falling back to set_joint", status);
+                }
+                return sendJoints(idx, val);
+            }
+            return checkStatus(status);
+        });
+    }
+
+    private CompletableFuture<Void> sendJoints(int[] indices, float[] values) {
+        CompletableFuture<?>[] all = new CompletableFuture<?>[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            String query = String.format(Locale.ROOT, "/?command=set_joint&index=%d&value=%.4f", indices[i], values[i]);
+            all[i] = get(query).thenCompose(HttpWebotsTransport::checkStatus);
+        }
+        return CompletableFuture.allOf(all);
+    }
+
+    private static CompletableFuture<Void> checkStatus(int status) {
+        return status == 200
+                ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.failedFuture(new IOException("Webots returned status " + status));
+    }
+
+    @Override
+    public String requestStats(int timeoutMs) throws IOException {
+        return await(requestStatsAsync(timeoutMs, Runnable::run));
+    }
+
+    @Override
+    public CompletableFuture<String> requestStatsAsync(int timeoutMs, Executor blockingExecutor) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + "/?command=get_stats"))
+                .timeout(Duration.ofMillis(timeoutMs))
+                .GET()
+                .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+            if (response.statusCode() != 200) {
+                throw new CompletionException(new IOException("Webots returned status " + response.statusCode()));
+            }
+            return response.body();
+        });
+    }
+
+    private CompletableFuture<Integer> get(String pathAndQuery) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + pathAndQuery))
+                .timeout(requestTimeout)
+                .GET()
+                .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()).thenApply(HttpResponse::statusCode);
+    }
+
+    private static <T> T await(CompletableFuture<T> f) throws IOException {
+        try {
+            return f.get();
+        } catch (ExecutionException e) {
+            Throwable c = e.getCause();
+            throw c instanceof IOException io ? io : new IOException(c);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        }
+    }
+
+    /** "index:value,index:value" (소수점 4자리, 로케일 무관) */
+    static String encodeFrame(int[] indices, float[] values, int count) {
+        StringBuilder sb = new StringBuilder(count * 10);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(indices[i]).append(':').append(String.format(Locale.ROOT, "%.4f", values[i]));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void close() {
+        // HttpClient는 컨트롤러가 소유 (공유)
+    }
+}
@@ -0,0 +1,85 @@
+package com.kAIS.KAIMyEntity.webots;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 모터별 최신 목표값 버퍼 (고정 크기, lock-free)
+ * - 모터 인덱스마다 슬롯 1개 + dirty 비트 1개
+ * - put(): 값 기록 후 dirty 비트 세팅 (여러 스레드에서 호출 가능)
+ * - drain(): dirty 비트를 워드 단위로 한 번에 가져오며 비우고 해당 슬롯만 읽음 (전송 스레드 1개)
+ *
+ * 같은 모터에 여러 번 쓰면 마지막 값만 전송되고, 메모리는 모터 수만큼으로 고정.
+ * drain 도중에 들어온 값은 다음 drain에서 다시 나갈 수 있음 (최신값은 절대 잃지 않음).
+ *
+ * 슬롯마다 "처음 대기 시작한 시각"도 기록 → drain 시 대기 시간(enqueue → send) 측정용.
+ * 합쳐진 값은 가장 오래된 시각을 유지. drain과 겹치면 시각이 0(알 수 없음)으로 나올 수 있음 (통계용).
+ */
+public final class MotorCommandBuffer {
+    private final int capacity;
+    private final AtomicIntegerArray values;   // Float.floatToRawIntBits
+    private final AtomicLongArray dirty;       // 비트 i = 모터 i 대기 중
+    private final AtomicLongArray enqueuedAt;  // System.nanoTime, 0 = 없음
+
+    public MotorCommandBuffer(int capacity) {
+        this.capacity = capacity;
+        this.values = new AtomicIntegerArray(capacity);
+        this.dirty = new AtomicLongArray((capacity + 63) >>> 6);
+        this.enqueuedAt = new AtomicLongArray(capacity);
+    }
+
+    public int capacity() { return capacity; }
+
+    /**
+     * 모터 목표값 기록
+     * @return 이미 대기 중이던 값을 덮어썼으면 true (전송 전에 합쳐짐)
+     */
+    public boolean put(int index, float value) {
+        values.set(index, Float.floatToRawIntBits(value));
+        if (enqueuedAt.get(index) == 0) enqueuedAt.compareAndSet(index, 0, System.nanoTime());
+        long bit = 1L << (index & 63);
+        long prev = dirty.getAndAccumulate(index >>> 6, bit, (w, b) -> w | b);
+        return (prev & bit) != 0;
+    }
+
+    /**
+     * 대기 중인 값을 전부 꺼내 out 배열에 인덱스 오름차순으로 기록
+     * @return 꺼낸 개수 (out 배열 길이는 capacity 이상이어야 함)
+     */
+    public int drain(int[] outIndices, float[] outValues) {
+        return drain(outIndices, outValues, null);
+    }
+
+    /**
+     * drain + 각 값의 대기 시작 시각 (outEnqueuedNanos[i], 알 수 없으면 0)
+     */
+    public int drain(int[] outIndices, float[] outValues, long[] outEnqueuedNanos) {
+        int n = 0;
+        for (int w = 0; w < dirty.length(); w++) {
+            long word = dirty.getAndSet(w, 0L);
+            while (word != 0) {
+                int bit = Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                int index = (w << 6) + bit;
+                outIndices[n] = index;
+                outValues[n] = Float.intBitsToFloat(values.get(index));
+                long t = enqueuedAt.getAndSet(index, 0L);
+                if (outEnqueuedNanos != null) outEnqueuedNanos[n] = t;
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /** 대기 중인 모터 수 (근사치, 통계용) */
+    public int pendingCount() {
+        int c = 0;
+        for (int w = 0; w < dirty.length(); w++) c += Long.bitCount(dirty.get(w));
+        return c;
+    }
+
+    public void clear() {
+        for (int w = 0; w < dirty.length(); w++) dirty.set(w, 0L);
+        for (int i = 0; i < capacity; i++) enqueuedAt.set(i, 0L);
+    }
+}
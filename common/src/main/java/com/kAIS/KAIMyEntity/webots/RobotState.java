@@ -0,0 +1,47 @@
+package com.kAIS.KAIMyEntity.webots;
+
+/**
+ * Webots 로봇 상태 한 프레임 (관절 엔코더, IMU, 접촉 센서)
+ * - 가변 객체: 읽는 쪽이 하나 만들어 두고 RobotStateBuffer.read()로 계속 덮어써서 재사용
+ * - 관절 인덱스는 WebotsController 모터 인덱스와 같음
+ */
+public final class RobotState {
+    public int seq;                 // 로봇측 프레임 번호
+    public long remoteTimestamp;    // 로봇측 송신 시각 (로봇 시계, 비교용 아님)
+    public long receivedNanos;      // 수신 시각 (System.nanoTime)
+    public double simTime;          // 시뮬레이션 시간 (초)
+
+    public int positionMask;        // 비트 i = positions[i] 유효
+    public final float[] positions = new float[WebotsUdpProtocol.MAX_MOTORS];
+
+    public final float[] orientation = new float[3]; // roll, pitch, yaw (라디안)
+    public final float[] gyro = new float[3];        // rad/s
+    public final float[] accel = new float[3];       // m/s²
+    public int contacts;            // 비트 i = 접촉 센서 i (0 = 오른발, 1 = 왼발)
+
+    public boolean hasPosition(int index) {
+        return index >= 0 && index < 32 && (positionMask & (1 << index)) != 0;
+    }
+
+    public boolean isContact(int sensor) {
+        return (contacts & (1 << sensor)) != 0;
+    }
+
+    /** 수신 후 경과 시간 (ms, 수신 전이면 -1) */
+    public double ageMillis() {
+        return receivedNanos == 0 ? -1 : (System.nanoTime() - receivedNanos) / 1e6;
+    }
+
+    public void copyFrom(RobotState o) {
+        seq = o.seq;
+        remoteTimestamp = o.remoteTimestamp;
+        receivedNanos = o.receivedNanos;
+        simTime = o.simTime;
+        positionMask = o.positionMask;
+        System.arraycopy(o.positions, 0, positions, 0, positions.length);
+        System.arraycopy(o.orientation, 0, orientation, 0, 3);
+        System.arraycopy(o.gyro, 0, gyro, 0, 3);
+        System.arraycopy(o.accel, 0, accel, 0, 3);
+        contacts = o.contacts;
+    }
+}
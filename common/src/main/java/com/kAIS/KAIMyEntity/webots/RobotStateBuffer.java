@@ -0,0 +1,56 @@
+package com.kAIS.KAIMyEntity.webots;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 최신 로봇 상태 1개를 보관하는 lock-free 버퍼 (seqlock)
+ * - 쓰는 쪽은 수신 스레드 1개: publish()
+ * - 읽는 쪽은 여러 스레드 가능: read()는 락/대기 없이 복사만 하고,
+ *   쓰기와 겹쳐 찢어진 값을 읽었으면 몇 번 다시 시도 후 포기 (false)
+ *
+ * 버전이 홀수인 동안은 쓰는 중. 버전/2 = 지금까지 publish된 프레임 수.
+ */
+public final class RobotStateBuffer {
+    private static final int READ_ATTEMPTS = 8;
+
+    private final AtomicLong version = new AtomicLong();
+    private final RobotState slot = new RobotState();
+
+    /** 수신 스레드 전용 */
+    public void publish(RobotState src) {
+        long v = version.get();
+        version.set(v + 1);
+        VarHandle.storeStoreFence(); // 홀수 표시가 데이터보다 먼저 보이도록
+        slot.copyFrom(src);
+        version.set(v + 2);
+    }
+
+    /**
+     * 최신 상태를 dst에 복사
+     * @return 상태가 있고 일관된 복사에 성공하면 true (실패 시 dst는 부분적으로 덮였을 수 있음)
+     */
+    public boolean read(RobotState dst) {
+        for (int attempt = 0; attempt < READ_ATTEMPTS; attempt++) {
+            long v1 = version.get();
+            if (v1 == 0) return false;
+            if ((v1 & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            dst.copyFrom(slot);
+            VarHandle.loadLoadFence(); // 복사가 버전 재확인보다 먼저 끝나도록
+            if (version.get() == v1) return true;
+        }
+        return false;
+    }
+
+    /** 지금까지 받은 상태 프레임 수 (새 상태 도착 여부 확인용) */
+    public long getFrameCount() {
+        return version.get() >>> 1;
+    }
+
+    public void clear() {
+        version.set(0);
+    }
+}
@@ -0,0 +1,74 @@
+package com.kAIS.KAIMyEntity.webots;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+
+/**
+ * 바이너리 UDP 전송 (형식은 WebotsUdpProtocol)
+ * - 프레임은 응답 없이 보냄 (손실 시 다음 틱 프레임이 최신값을 다시 전달)
+ * - 통계 요청만 응답을 기다림 (연결 확인 겸용)
+ * - 패킷 버퍼는 미리 할당해 재사용 → 틱당 할당 없음
+ */
+public final class UdpWebotsTransport implements WebotsTransport {
+    private final DatagramSocket socket;
+
+    // 전송 스레드 전용
+    private final ByteBuffer frameBuf = WebotsUdpProtocol.allocate();
+    private final DatagramPacket framePacket = new DatagramPacket(frameBuf.array(), 0);
+    private int seq = 0;
+
+    // 통계 요청 (동기화)
+    private final ByteBuffer statsBuf = WebotsUdpProtocol.allocate();
+    private final byte[] replyBytes = new byte[WebotsUdpProtocol.MAX_PACKET];
+    private int statsSeq = 0;
+
+    public UdpWebotsTransport(String ip, int port) throws IOException {
+        this.socket = new DatagramSocket();
+        this.socket.connect(new InetSocketAddress(ip, port));
+    }
+
+    @Override
+    public String getName() {
+        return "udp";
+    }
+
+    @Override
+    public void sendFrame(int[] indices, float[] values, int count) throws IOException {
+        WebotsUdpProtocol.writeMotors(frameBuf, ++seq, System.nanoTime(), indices, values, count);
+        framePacket.setData(frameBuf.array(), 0, frameBuf.limit());
+        socket.send(framePacket);
+    }
+
+    @Override
+    public synchronized String requestStats(int timeoutMs) throws IOException {
+        int id = ++statsSeq;
+        WebotsUdpProtocol.writeHeader(statsBuf, WebotsUdpProtocol.TYPE_STATS_REQUEST, id, System.nanoTime(), 0);
+        statsBuf.flip();
+        socket.send(new DatagramPacket(statsBuf.array(), 0, statsBuf.limit()));
+
+        long deadline = System.nanoTime() + timeoutMs * 1_000_000L;
+        DatagramPacket reply = new DatagramPacket(replyBytes, replyBytes.length);
+        while (true) {
+            int remainingMs = (int) ((deadline - System.nanoTime()) / 1_000_000L);
+            if (remainingMs <= 0) throw new SocketTimeoutException("No UDP stats reply within " + timeoutMs + " ms");
+            socket.setSoTimeout(remainingMs);
+            socket.receive(reply);
+
+            ByteBuffer buf = ByteBuffer.wrap(replyBytes, 0, reply.getLength()).slice();
+            if (WebotsUdpProtocol.readType(buf) == WebotsUdpProtocol.TYPE_STATS_REPLY
+                    && WebotsUdpProtocol.readSeq(buf) == id) {
+                return WebotsUdpProtocol.readBody(buf);
+            }
+            // 늦게 도착한 이전 응답 등은 무시
+        }
+    }
+
+    @Override
+    public void close() {
+        socket.close();
+    }
+}
@@ -0,0 +1,266 @@
+package com.kAIS.KAIMyEntity.webots;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 양방향 WebSocket 전송 (JDK HttpClient WebSocket, 바이너리 메시지 = WebotsUdpProtocol 프레임)
+ * - 나가는 방향: MOTORS 프레임, STATS_REQUEST
+ * - 들어오는 방향: STATE 프레임 → RobotStateBuffer에 최신값으로 기록, STATS_REPLY
+ *
+ * 연결은 비동기로 시작하고 (생성자에서 대기 안 함), 첫 전송/통계 요청이 연결 완료를 기다린다.
+ * WebSocket은 보내기가 한 번에 하나만 진행될 수 있어서 전송은 체인으로 직렬화한다.
+ *
+ * 연결이 끊기면 프레임 전송은 바로 실패하고, 다음 통계 요청(= 컨트롤러 회로 차단기의 프로브)이
+ * 새로 연결한다 → 재연결 간격은 차단기의 백오프를 따름.
+ */
+public final class WebSocketWebotsTransport implements WebotsTransport {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final long CONNECT_TIMEOUT_MS = 1000;
+    private static final long SEND_TIMEOUT_MS = 200;
+
+    private final HttpClient client;
+    private final URI uri;
+    private final RobotStateBuffer stateBuffer;
+    private final RobotState incoming = new RobotState(); // 수신 스레드 전용 (리스너 호출은 한 번에 하나)
+
+    // 현재 연결 (끊기면 프로브 때 새로 만듦), sendLock 안에서만 교체
+    private volatile CompletableFuture<WebSocket> connection;
+    private volatile Listener current;
+
+    private final Object sendLock = new Object();
+    private CompletableFuture<?> lastSend; // sendLock으로 보호
+    private int seq = 0;
+
+    private final Map<Integer, CompletableFuture<String>> pendingStats = new ConcurrentHashMap<>();
+    private volatile Throwable lostCause;   // 현재 연결이 끊긴 이유 (연결 중/연결됨이면 null)
+    private volatile boolean closed;        // close() 호출됨 → 재연결 안 함
+    private int reconnects = 0;
+
+    public WebSocketWebotsTransport(HttpClient client, String ip, int port, RobotStateBuffer stateBuffer) {
+        this.client = client;
+        this.uri = URI.create(String.format("ws://%s:%d/", ip, port));
+        this.stateBuffer = stateBuffer;
+        synchronized (sendLock) {
+            this.lastSend = connect();
+        }
+    }
+
+    /** 새 연결 시작 (sendLock 안에서 호출) */
+    private CompletableFuture<WebSocket> connect() {
+        Listener listener = new Listener();
+        current = listener;
+        lostCause = null;
+        CompletableFuture<WebSocket> c = client.newWebSocketBuilder()
+                .connectTimeout(Duration.ofMillis(CONNECT_TIMEOUT_MS))
+                .buildAsync(uri, listener);
+        c.whenComplete((ws, e) -> {
+            if (e != null) onLost(listener, e); // 핸드셰이크 실패는 리스너로 통보되지 않음
+        });
+        connection = c;
+        return c;
+    }
+
+    /** 해당 리스너의 연결이 아직 현재 연결이면 끊김으로 표시 */
+    private void onLost(Listener listener, Throwable cause) {
+        if (listener != current || closed) return;
+        lostCause = cause;
+        failPending(cause);
+    }
+
+    /** 끊긴 뒤 다시 연결한 횟수 */
+    public int getReconnectCount() {
+        synchronized (sendLock) {
+            return reconnects;
+        }
+    }
+
+    /** 연결되어 있거나 연결 중이면 true */
+    public boolean isOpen() {
+        return !closed && lostCause == null;
+    }
+
+    @Override
+    public String getName() {
+        return "websocket";
+    }
+
+    public URI getUri() {
+        return uri;
+    }
+
+    @Override
+    public void sendFrame(int[] indices, float[] values, int count) throws IOException {
+        await(sendFrameAsync(indices, values, count));
+    }
+
+    @Override
+    public CompletableFuture<Void> sendFrameAsync(int[] indices, float[] values, int count) {
+        ByteBuffer msg = ByteBuffer.allocate(WebotsUdpProtocol.HEADER_SIZE + count * 4).order(ByteOrder.BIG_ENDIAN);
+        CompletableFuture<?> send;
+        synchronized (sendLock) {
+            WebotsUdpProtocol.writeMotors(msg, ++seq, System.nanoTime(), indices, values, count);
+            send = enqueue(msg, false);
+        }
+        long deadline = SEND_TIMEOUT_MS + (connection.isDone() ? 0 : CONNECT_TIMEOUT_MS);
+        return send.orTimeout(deadline, TimeUnit.MILLISECONDS).thenApply(ws -> null);
+    }
+
+    @Override
+    public String requestStats(int timeoutMs) throws IOException {
+        return await(requestStatsAsync(timeoutMs, Runnable::run));
+    }
+
+    @Override
+    public CompletableFuture<String> requestStatsAsync(int timeoutMs, Executor blockingExecutor) {
+        ByteBuffer msg = ByteBuffer.allocate(WebotsUdpProtocol.HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+        CompletableFuture<String> reply = new CompletableFuture<>();
+        int id;
+        synchronized (sendLock) {
+            id = ++seq;
+            pendingStats.put(id, reply);
+            WebotsUdpProtocol.writeHeader(msg, WebotsUdpProtocol.TYPE_STATS_REQUEST, id, System.nanoTime(), 0);
+            msg.flip();
+            enqueue(msg, true).whenComplete((r, e) -> {
+                if (e != null) reply.completeExceptionally(e);
+            });
+        }
+        long deadline = timeoutMs + (connection.isDone() ? 0 : CONNECT_TIMEOUT_MS);
+        return reply.orTimeout(deadline, TimeUnit.MILLISECONDS)
+                .whenComplete((r, e) -> pendingStats.remove(id));
+    }
+
+    /**
+     * 이전 전송이 끝난 뒤 보내도록 체인에 연결 (sendLock 안에서 호출)
+     * @param probe 통계 요청이면 true → 끊겨 있으면 새로 연결하고 보냄
+     */
+    private CompletableFuture<?> enqueue(ByteBuffer msg, boolean probe) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IOException("WebSocket closed by client"));
+        }
+        Throwable cause = lostCause;
+        if (cause != null) {
+            if (!probe) {
+                return CompletableFuture.failedFuture(new IOException("WebSocket disconnected: " + cause.getMessage(), cause));
+            }
+            reconnects++;
+            LOGGER.info("🔄 WebSocket reconnecting: {} (#{})", uri, reconnects);
+            connect();
+        }
+        CompletableFuture<WebSocket> conn = connection;
+        CompletableFuture<WebSocket> send = lastSend
+                .handle((r, e) -> null)                       // 이전 프레임 실패와 무관하게 계속
+                .thenCompose(x -> conn)
+                .thenCompose(ws -> ws.sendBinary(msg, true));
+        lastSend = send;
+        return send;
+    }
+
+    private static <T> T await(CompletableFuture<T> f) throws IOException {
+        try {
+            return f.get();
+        } catch (ExecutionException e) {
+            Throwable c = e.getCause();
+            if (c instanceof TimeoutException) throw new IOException("WebSocket timeout", c);
+            throw c instanceof IOException io ? io : new IOException(c);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        connection.thenAccept(ws -> ws.sendClose(WebSocket.NORMAL_CLOSURE, "bye")
+                .orTimeout(SEND_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .whenComplete((r, e) -> ws.abort()));
+        failPending(new IOException("closed by client"));
+    }
+
+    private void failPending(Throwable cause) {
+        pendingStats.values().forEach(f -> f.completeExceptionally(cause));
+    }
+
+    // ========== 수신 ==========
+
+    private void onMessage(ByteBuffer buf) {
+        switch (WebotsUdpProtocol.readType(buf)) {
+            case WebotsUdpProtocol.TYPE_STATE -> {
+                if (WebotsUdpProtocol.readState(buf, incoming)) {
+                    incoming.receivedNanos = System.nanoTime();
+                    stateBuffer.publish(incoming);
+                }
+            }
+            case WebotsUdpProtocol.TYPE_STATS_REPLY -> {
+                CompletableFuture<String> f = pendingStats.remove(WebotsUdpProtocol.readSeq(buf));
+                if (f != null) f.complete(WebotsUdpProtocol.readBody(buf));
+            }
+            default -> { } // 모르는 형식은 무시
+        }
+    }
+
+    private final class Listener implements WebSocket.Listener {
+        private ByteBuffer partial = ByteBuffer.allocate(WebotsUdpProtocol.MAX_PACKET).order(ByteOrder.BIG_ENDIAN);
+
+        @Override
+        public void onOpen(WebSocket ws) {
+            LOGGER.info("✅ WebSocket connected: {}", uri);
+            ws.request(1);
+        }
+
+        @Override
+        public CompletionStage<?> onBinary(WebSocket ws, ByteBuffer data, boolean last) {
+            if (partial.remaining() < data.remaining()) {
+                ByteBuffer grown = ByteBuffer.allocate(partial.position() + data.remaining() * 2).order(ByteOrder.BIG_ENDIAN);
+                partial.flip();
+                grown.put(partial);
+                partial = grown;
+            }
+            partial.put(data);
+            if (last) {
+                partial.flip();
+                onMessage(partial.slice().order(ByteOrder.BIG_ENDIAN));
+                partial.clear();
+            }
+            ws.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket ws, CharSequence data, boolean last) {
+            ws.request(1); // 텍스트 메시지는 사용 안 함
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket ws, int statusCode, String reason) {
+            onLost(this, new IOException("closed by server (" + statusCode + " " + reason + ")"));
+            if (!closed) LOGGER.warn("⚠️  WebSocket closed by server: {} {}", statusCode, reason);
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket ws, Throwable error) {
+            onLost(this, error);
+            if (!closed) LOGGER.warn("⚠️  WebSocket error: {}", error.toString());
+        }
+    }
+}
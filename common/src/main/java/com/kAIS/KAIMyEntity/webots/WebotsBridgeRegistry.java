@@ -0,0 +1,235 @@
+package com.kAIS.KAIMyEntity.webots;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 로봇(엔드포인트)별 Webots 브리지 목록
+ * - 브리지 = 엔드포인트 하나에 대한 WebotsController (IP:Port별로 하나)
+ * - 모든 브리지가 HttpClient(연결 풀/셀렉터), 전송 스레드 풀, 통계 스레드, 제어 스레드를 공유
+ *   → 로봇이 N대여도 스레드/연결 설정 비용은 N배가 되지 않음
+ * - 기본 브리지 = 설정 파일의 마지막 IP/Port (WebotsController.getInstance())
+ */
+public final class WebotsBridgeRegistry {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static WebotsBridgeRegistry instance;
+
+    private static final int HTTP_THREADS = 2;
+
+    private final HttpClient httpClient;
+    private final ExecutorService httpExecutor;
+    private final ExecutorService executor;
+    private final WebotsControlLoop controlLoop;
+
+    private final Map<String, WebotsController> bridges = new HashMap<>();   // "ip:port" → 브리지 (this로 동기화)
+    private final List<WebotsController> ticking = new CopyOnWriteArrayList<>(); // 제어 스레드 순회용
+    private volatile WebotsController defaultBridge;
+
+    private WebotsBridgeRegistry() {
+        AtomicInteger httpThreads = new AtomicInteger();
+        this.httpExecutor = Executors.newFixedThreadPool(HTTP_THREADS, r -> {
+            Thread t = new Thread(r, "Webots-Http-" + httpThreads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        this.httpClient = HttpClient.newBuilder()
+                .version(httpVersion()) // 기본 h2 (서버가 지원하면 연결 하나로 다중화, 아니면 HTTP/1.1)
+                .connectTimeout(Duration.ofMillis(500))
+                .executor(httpExecutor) // 응답 처리/완료 콜백은 공유 풀에서
+                .build();
+
+        // 블로킹 통계 요청(UDP)만 처리, 프레임 전송은 sendAsync
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "Webots-Stats");
+            t.setDaemon(true);
+            return t;
+        });
+
+        this.controlLoop = new WebotsControlLoop("Webots-Control", controlRateHz(), this::controlTick);
+        controlLoop.start();
+    }
+
+    public static synchronized WebotsBridgeRegistry getInstance() {
+        if (instance == null) {
+            instance = new WebotsBridgeRegistry();
+        }
+        return instance;
+    }
+
+    /**
+     * http_version=1.1 이면 h2c 업그레이드 시도 생략
+     * (HTTP/1.1 전용 서버에서는 업그레이드 헤더 때문에 요청마다 왕복 시간이 늘어남 → Round Trip 통계로 확인)
+     */
+    private static HttpClient.Version httpVersion() {
+        try {
+            if ("1.1".equals(WebotsConfigScreen.Config.getInstance().getHttpVersion())) {
+                return HttpClient.Version.HTTP_1_1;
+            }
+        } catch (Exception ignored) {}
+        return HttpClient.Version.HTTP_2;
+    }
+
+    private static int controlRateHz() {
+        try {
+            return Math.max(1, Math.min(1000, WebotsConfigScreen.Config.getInstance().getControlRateHz()));
+        } catch (Exception e) {
+            return 100;
+        }
+    }
+
+    static String key(String ip, int port) {
+        return ip + ":" + port;
+    }
+
+    // ========== 브리지 ==========
+
+    /**
+     * 엔드포인트 브리지 (없으면 생성)
+     */
+    public synchronized WebotsController bridge(String ip, int port) {
+        String key = key(ip, port);
+        WebotsController bridge = bridges.get(key);
+        if (bridge == null) {
+            bridge = new WebotsController(this, ip, port);
+            bridges.put(key, bridge);
+            ticking.add(bridge);
+            LOGGER.info("✅ Webots bridge added: {} ({} total)", key, bridges.size());
+        }
+        return bridge;
+    }
+
+    /** 이미 있는 브리지만 (없으면 null) */
+    public synchronized WebotsController find(String ip, int port) {
+        return bridges.get(key(ip, port));
+    }
+
+    /**
+     * 기본 브리지 (처음 호출 시 설정 파일의 마지막 IP/Port로 생성)
+     */
+    public WebotsController getDefault() {
+        WebotsController bridge = defaultBridge;
+        if (bridge != null) return bridge;
+        synchronized (this) {
+            if (defaultBridge == null) {
+                try {
+                    WebotsConfigScreen.Config config = WebotsConfigScreen.Config.getInstance();
+                    defaultBridge = bridge(config.getLastIp(), config.getLastPort());
+                } catch (Exception e) {
+                    // Config 로드 실패 시 기본값 사용
+                    LOGGER.warn("Failed to load config, using defaults", e);
+                    defaultBridge = bridge("localhost", 8080);
+                }
+            }
+            return defaultBridge;
+        }
+    }
+
+    /**
+     * 기본 브리지를 다른 엔드포인트로 (이전 브리지는 다른 로봇이 쓰고 있을 수 있으므로 남겨 둠)
+     */
+    public synchronized WebotsController setDefault(String ip, int port) {
+        WebotsController bridge = bridge(ip, port);
+        if (defaultBridge != bridge) {
+            LOGGER.info("🔄 Default Webots bridge: {}:{}", ip, port);
+            defaultBridge = bridge;
+        }
+        return bridge;
+    }
+
+    public synchronized List<WebotsController> getBridges() {
+        return new ArrayList<>(bridges.values());
+    }
+
+    public synchronized int size() {
+        return bridges.size();
+    }
+
+    /** 브리지 주소 변경 (WebotsController.reconnect) → 키 갱신 */
+    synchronized void rekey(WebotsController bridge, String oldKey, String newKey) {
+        if (bridges.get(oldKey) == bridge) bridges.remove(oldKey);
+        WebotsController existing = bridges.put(newKey, bridge);
+        if (existing != null && existing != bridge) {
+            // 같은 주소의 브리지가 이미 있으면 그쪽은 정리
+            ticking.remove(existing);
+            existing.closeBridge();
+            if (defaultBridge == existing) defaultBridge = bridge;
+            LOGGER.info("🔄 Webots bridge {} replaced by reconnected bridge", newKey);
+        }
+    }
+
+    /** 브리지 제거 (WebotsController.shutdown) */
+    synchronized void remove(WebotsController bridge) {
+        bridges.values().remove(bridge);
+        ticking.remove(bridge);
+        if (defaultBridge == bridge) defaultBridge = null;
+    }
+
+    // ========== 공유 자원 ==========
+
+    HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /** 모든 브리지가 공유하는 제어 스레드 */
+    public WebotsControlLoop getControlLoop() {
+        return controlLoop;
+    }
+
+    /**
+     * 제어 스레드 1틱: 브리지마다 소스 샘플링 → 프레임 전송 (한 브리지 오류가 다른 브리지를 막지 않음)
+     */
+    private void controlTick() {
+        for (WebotsController bridge : ticking) {
+            try {
+                bridge.controlTick();
+            } catch (RuntimeException e) {
+                LOGGER.error("Webots bridge tick failed: {}", bridge.getRobotAddress(), e);
+            }
+        }
+    }
+
+    /**
+     * 모든 브리지와 공유 스레드 종료
+     */
+    public void shutdown() {
+        LOGGER.info("🛑 Shutting down Webots bridges...");
+        controlLoop.stop();
+        for (WebotsController bridge : getBridges()) {
+            bridge.shutdown();
+        }
+        executor.shutdown();
+        httpExecutor.shutdown();
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+            if (!httpExecutor.awaitTermination(1, TimeUnit.SECONDS)) {
+                httpExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            httpExecutor.shutdownNow();
+        }
+        synchronized (WebotsBridgeRegistry.class) {
+            if (instance == this) instance = null;
+        }
+        LOGGER.info("✅ Webots bridges shutdown complete");
+    }
+}
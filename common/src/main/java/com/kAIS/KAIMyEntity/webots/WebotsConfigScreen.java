@@ -12,6 +12,7 @@ import org.apache.logging.log4j.Logger;
 
 import java.io.*;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Webots 연결 설정 GUI + 설정 관리
@@ -31,6 +32,7 @@ public class WebotsConfigScreen extends Screen {
     private static final int TEXT_COLOR = 0xFFFFFFFF;
     private static final int CONNECTED_COLOR = 0xFF55FF55;
     private static final int DISCONNECTED_COLOR = 0xFFFF5555;
+    private static final int PROBING_COLOR = 0xFFFFAA00;
     
     private final Screen parent;
     private WebotsController controller;
@@ -46,6 +48,10 @@ public class WebotsConfigScreen extends Screen {
     private int statusColor = TEXT_COLOR;
     private int autoRefreshTicker = 0;
     
+    // ✅ 서버 통계는 비동기로 받아 캐시 (렌더 스레드에서 네트워크 대기 안 함)
+    private volatile String cachedStatsJson = null;
+    private CompletableFuture<String> statsRequest = null;
+    
     public WebotsConfigScreen(Screen parent) {
         super(Component.literal("Webots Connection Settings"));
         this.parent = parent;
@@ -226,6 +232,29 @@ public class WebotsConfigScreen extends Screen {
                 String address = "Address: " + controller.getRobotAddress();
                 graphics.drawCenteredString(this.font, address, this.width / 2, 
                         statusY + 12, TEXT_COLOR);
+            } else {
+                // ✅ 회로 차단기 상태 (OPEN: 다음 프로브까지 남은 시간)
+                CircuitBreaker breaker = controller.getCircuitBreaker();
+                String circuit;
+                int circuitColor;
+                switch (breaker.getState()) {
+                    case OPEN -> {
+                        circuit = String.format("Circuit: OPEN - retry in %.1fs (attempt %d, %d dropped)",
+                                breaker.millisUntilProbe(System.nanoTime()) / 1000f, breaker.getAttempt() + 1,
+                                controller.getStats().dropped());
+                        circuitColor = DISCONNECTED_COLOR;
+                    }
+                    case HALF_OPEN -> {
+                        circuit = "Circuit: HALF-OPEN - probing " + controller.getRobotAddress();
+                        circuitColor = PROBING_COLOR;
+                    }
+                    default -> {
+                        circuit = "Circuit: CLOSED (" + breaker.getConsecutiveFailures() + " failures)";
+                        circuitColor = TEXT_COLOR;
+                    }
+                }
+                graphics.drawCenteredString(this.font, circuit, this.width / 2,
+                        statusY + 12, circuitColor);
             }
         } else {
             graphics.drawCenteredString(this.font, "§c● NOT INITIALIZED", 
@@ -244,8 +273,11 @@ public class WebotsConfigScreen extends Screen {
             graphics.drawString(this.font, "=== Statistics ===", 
                     panelX + 20, statsY, TITLE_COLOR, false);
             
-            String statsJson = controller.getStatsJson();
-            if (!statsJson.contains("error")) {
+            String statsJson = cachedStatsJson;
+            if (statsJson == null) {
+                graphics.drawString(this.font, "Server: ...", 
+                        panelX + 20, statsY + 15, TEXT_COLOR, false);
+            } else if (!statsJson.contains("error")) {
                 graphics.drawString(this.font, "Server: OK", 
                         panelX + 20, statsY + 15, CONNECTED_COLOR, false);
             } else {
@@ -260,9 +292,17 @@ public class WebotsConfigScreen extends Screen {
         if (++autoRefreshTicker >= 20) {
             autoRefreshTicker = 0;
             updateButtonStates();
+            refreshStats();
         }
     }
     
+    private void refreshStats() {
+        if (controller == null || !controller.isConnected()) return;
+        if (statsRequest != null && !statsRequest.isDone()) return; // 이전 요청 대기 중
+        statsRequest = controller.getStatsAsync();
+        statsRequest.thenAccept(json -> cachedStatsJson = json);
+    }
+    
     @Override
     public void tick() {
         super.tick();
@@ -295,10 +335,25 @@ public class WebotsConfigScreen extends Screen {
         // 기본값
         private static final String DEFAULT_IP = "localhost";
         private static final int DEFAULT_PORT = 8080;
+        private static final String DEFAULT_TRANSPORT = "http";
+        private static final int DEFAULT_UDP_PORT = 8081;
+        private static final int DEFAULT_WS_PORT = 8082;
+        private static final int DEFAULT_MAX_IN_FLIGHT = 4;
+        private static final int DEFAULT_REQUEST_TIMEOUT_MS = 250;
+        private static final int DEFAULT_CONTROL_RATE_HZ = 100;
+        private static final String DEFAULT_HTTP_VERSION = "2";
         
         // 현재 설정값
         private String lastIp;
         private int lastPort;
+        private String transport = DEFAULT_TRANSPORT; // "http" | "udp" | "websocket" (응답 없으면 http로 대체)
+        private int udpPort = DEFAULT_UDP_PORT;
+        private int wsPort = DEFAULT_WS_PORT;
+        private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;           // 응답 대기 중 프레임 최대 수
+        private int requestTimeoutMs = DEFAULT_REQUEST_TIMEOUT_MS; // 요청별 deadline
+        private int controlRateHz = DEFAULT_CONTROL_RATE_HZ;       // 제어 스레드 주기 (게임 틱과 별개)
+        private String httpVersion = DEFAULT_HTTP_VERSION;         // "2" (h2 우선) | "1.1"
+        private String jointMap = "";                              // 관절 매핑 파일 경로 (비어 있으면 내장 기본값)
         
         // 설정 파일 경로
         private final File configFile;
@@ -343,7 +398,15 @@ public class WebotsConfigScreen extends Screen {
                 props.load(fis);
                 lastIp = props.getProperty("ip", DEFAULT_IP);
                 lastPort = Integer.parseInt(props.getProperty("port", String.valueOf(DEFAULT_PORT)));
-                CONFIG_LOGGER.info("Loaded Webots config: {}:{}", lastIp, lastPort);
+                transport = props.getProperty("transport", DEFAULT_TRANSPORT).trim().toLowerCase();
+                udpPort = Integer.parseInt(props.getProperty("udp_port", String.valueOf(DEFAULT_UDP_PORT)));
+                wsPort = Integer.parseInt(props.getProperty("ws_port", String.valueOf(DEFAULT_WS_PORT)));
+                maxInFlight = Integer.parseInt(props.getProperty("max_in_flight", String.valueOf(DEFAULT_MAX_IN_FLIGHT)));
+                requestTimeoutMs = Integer.parseInt(props.getProperty("request_timeout_ms", String.valueOf(DEFAULT_REQUEST_TIMEOUT_MS)));
+                controlRateHz = Integer.parseInt(props.getProperty("control_rate_hz", String.valueOf(DEFAULT_CONTROL_RATE_HZ)));
+                httpVersion = props.getProperty("http_version", DEFAULT_HTTP_VERSION).trim();
+                jointMap = props.getProperty("joint_map", "").trim();
+                CONFIG_LOGGER.info("Loaded Webots config: {}:{} ({}, udp {}, ws {})", lastIp, lastPort, transport, udpPort, wsPort);
             } catch (Exception e) {
                 CONFIG_LOGGER.warn("Failed to load Webots config, using defaults", e);
                 lastIp = DEFAULT_IP;
@@ -358,6 +421,14 @@ public class WebotsConfigScreen extends Screen {
             Properties props = new Properties();
             props.setProperty("ip", lastIp);
             props.setProperty("port", String.valueOf(lastPort));
+            props.setProperty("transport", transport);
+            props.setProperty("udp_port", String.valueOf(udpPort));
+            props.setProperty("ws_port", String.valueOf(wsPort));
+            props.setProperty("max_in_flight", String.valueOf(maxInFlight));
+            props.setProperty("request_timeout_ms", String.valueOf(requestTimeoutMs));
+            props.setProperty("control_rate_hz", String.valueOf(controlRateHz));
+            props.setProperty("http_version", httpVersion);
+            props.setProperty("joint_map", jointMap);
             
             try (FileOutputStream fos = new FileOutputStream(configFile)) {
                 props.store(fos, "Webots Connection Settings");
@@ -385,6 +456,38 @@ public class WebotsConfigScreen extends Screen {
             return lastPort;
         }
         
+        public String getTransport() {
+            return transport;
+        }
+        
+        public int getUdpPort() {
+            return udpPort;
+        }
+        
+        public int getWsPort() {
+            return wsPort;
+        }
+        
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+        
+        public int getRequestTimeoutMs() {
+            return requestTimeoutMs;
+        }
+        
+        public int getControlRateHz() {
+            return controlRateHz;
+        }
+        
+        public String getHttpVersion() {
+            return httpVersion;
+        }
+        
+        public String getJointMap() {
+            return jointMap;
+        }
+        
         public String getDefaultIp() {
             return DEFAULT_IP;
         }
@@ -4,162 +4,180 @@ package com.kAIS.KAIMyEntity.webots;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.net.URI;
 import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
-import java.util.HashMap;
+import java.io.File;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.*;
-
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Webots 브리지 (엔드포인트 하나 = 로봇 하나)
+ * - HttpClient/스레드/제어 루프는 WebotsBridgeRegistry가 소유하고 모든 브리지가 공유
+ * - getInstance()는 기본 브리지 (설정 파일의 마지막 IP/Port)
+ */
 public class WebotsController {
     private static final Logger LOGGER = LogManager.getLogger();
-    private static WebotsController instance;
 
+    private final WebotsBridgeRegistry registry;
     private final HttpClient httpClient;
     private String webotsUrl;
     private String robotIp;
     private int robotPort;
     private final ExecutorService executor;
-    private final ScheduledExecutorService scheduler;
-    private final BlockingQueue<Command> commandQueue;
-    private final Map<String, Float> lastSent;
+    // 모터별 마지막으로 버퍼에 넣은 값 (float 비트, NaN = 없음) → 변화량이 작으면 건너뜀
+    // 값이 로봇에 닿지 못했을 수 있으면 (버림/전송 실패/회로 열림·닫힘) 전부 지움 → 다음 값은 다시 전송
+    private final AtomicIntegerArray lastSent = new AtomicIntegerArray(MOTOR_COUNT);
+    private static final int NO_VALUE = Float.floatToRawIntBits(Float.NaN);
     private static final float DELTA_THRESHOLD = 0.01f;
 
+    // ✅ 포즈 프레임: 모터 인덱스별 최신 값만 보관 → 제어 틱마다 set_joints 한 번으로 전송
+    //    (같은 모터에 여러 번 쓰면 마지막 값만 남으므로 대기열이 커지지 않음)
+    //    크기 = 프로토콜 최대 모터 수 → 매핑 파일이 허용하는 인덱스(0~31)는 모두 담김
+    static final int MOTOR_COUNT = WebotsUdpProtocol.MAX_MOTORS;
+    // ✅ 제어 틱마다 샘플링되는 목표 소스 (재생 중인 모션 등)
+    private final List<ControlSource> sources = new CopyOnWriteArrayList<>();
+    private final MotorCommandBuffer pending = new MotorCommandBuffer(MOTOR_COUNT);
+    // 제어 틱 전용 (sendFrameAsync는 반환 전에 배열을 다 읽음)
+    private final int[] frameIndices = new int[MOTOR_COUNT];
+    private final float[] frameValues = new float[MOTOR_COUNT];
+    private final long[] frameEnqueued = new long[MOTOR_COUNT];
+
+    // ✅ 동시에 응답 대기 중인 프레임 수 제한 (꽉 차면 값은 버퍼에 남아 다음 틱에 최신값으로 전송)
+    private volatile Semaphore inFlight;
+    private int maxInFlight = 4;
+    private int requestTimeoutMs = 250;
+
+    // ✅ 전송 계층 (http 기본, udp/websocket은 응답 없으면 http로 대체)
+    private volatile WebotsTransport transport;
+    private String transportMode = "http";
+    private int udpPort = 8081;
+    private int wsPort = 8082;
+
+    // ✅ 로봇 상태 피드백 (websocket 전송일 때만 채워짐)
+    private final RobotStateBuffer stateBuffer = new RobotStateBuffer();
+
     private volatile boolean connected = false;
-    private volatile int failureCount = 0;
     private static final int MAX_FAILURES = 10;
 
+    // ✅ 회로 차단기: 연속 실패 시 OPEN → 명령 즉시 버림, 지수 백오프(+지터)로 프로브 하나씩 → 성공하면 CLOSED
+    private static final long BACKOFF_BASE_MS = 250;
+    private static final long BACKOFF_MAX_MS = 10_000;
+    private final CircuitBreaker breaker = new CircuitBreaker(MAX_FAILURES, BACKOFF_BASE_MS, BACKOFF_MAX_MS);
+
     private final Stats stats = new Stats();
 
-    // ==================== ✅ 수정: 충돌 방지를 위한 JOINT_MAP ====================
-    private static final Map<String, JointMapping> JOINT_MAP = new HashMap<>();
-
-    static {
-        // 머리
-        JOINT_MAP.put("head_pan",  new JointMapping("Neck",  18, -1.57f,  1.57f));
-        JOINT_MAP.put("head_tilt", new JointMapping("Head",  19, -0.52f,  0.52f));
-
-        // ✅ 오른쪽 팔 - 충돌 방지를 위한 안전 범위
-        JOINT_MAP.put("r_sho_pitch", new JointMapping("ShoulderR", 0, -1.57f,  0.52f));
-        JOINT_MAP.put("r_sho_roll",  new JointMapping("ArmUpperR", 2, -0.15f,  2.30f));  // ✅ -0.68 → -0.15
-        JOINT_MAP.put("r_el",        new JointMapping("ArmLowerR", 4, -1.57f, -0.10f));
-
-        // ✅ 왼쪽 팔 - 대칭 처리
-        JOINT_MAP.put("l_sho_pitch", new JointMapping("ShoulderL", 1, -1.57f,  0.52f));
-        JOINT_MAP.put("l_sho_roll",  new JointMapping("ArmUpperL", 3, -2.25f,  0.15f));  // ✅ 0.77 → 0.15
-        JOINT_MAP.put("l_el",        new JointMapping("ArmLowerL", 5, -1.57f, -0.10f));
-
-        // 골반
-        JOINT_MAP.put("r_hip_yaw",   new JointMapping("PelvYR", 6, -1.047f, 1.047f));
-        JOINT_MAP.put("l_hip_yaw",   new JointMapping("PelvYL", 7, -0.69f,  2.50f));
-        JOINT_MAP.put("r_hip_roll",  new JointMapping("PelvR",  8, -1.01f,  1.01f));
-        JOINT_MAP.put("l_hip_roll",  new JointMapping("PelvL",  9, -0.35f,  0.35f));
-
-        // 다리
-        JOINT_MAP.put("r_hip_pitch", new JointMapping("LegUpperR", 10, -2.50f, 0.87f));
-        JOINT_MAP.put("l_hip_pitch", new JointMapping("LegUpperL", 11, -2.50f, 0.87f));
-        JOINT_MAP.put("r_hip_roll",  new JointMapping("LegLowerR", 12, -0.35f, 0.35f));
-        JOINT_MAP.put("l_hip_roll",  new JointMapping("LegLowerL", 13, -0.35f, 0.35f));
-
-        JOINT_MAP.put("r_knee", new JointMapping("KneeR", 14, -0.1f, 2.09f));
-        JOINT_MAP.put("l_knee", new JointMapping("KneeL", 15, -0.1f, 2.09f));
-
-        JOINT_MAP.put("r_ank_pitch", new JointMapping("AnkleR", 14, -0.87f, 0.87f));
-        JOINT_MAP.put("l_ank_pitch", new JointMapping("AnkleL", 15, -1.39f, 1.22f));
-        JOINT_MAP.put("r_ank_roll",  new JointMapping("FootR",  16, -0.87f, 0.87f));
-        JOINT_MAP.put("l_ank_roll",  new JointMapping("FootL",  17, -0.87f, 0.87f));
-
-        // 역호환용 Webots 이름
-        JOINT_MAP.put("ShoulderR", new JointMapping("ShoulderR", 0, -1.57f, 0.52f));
-        JOINT_MAP.put("ShoulderL", new JointMapping("ShoulderL", 1, -1.57f, 0.52f));
-        JOINT_MAP.put("ArmUpperR", new JointMapping("ArmUpperR", 2, -0.15f, 2.30f));  // ✅ 수정
-        JOINT_MAP.put("ArmUpperL", new JointMapping("ArmUpperL", 3, -2.25f, 0.15f));  // ✅ 수정
-        JOINT_MAP.put("ArmLowerR", new JointMapping("ArmLowerR", 4, -1.57f, -0.10f));
-        JOINT_MAP.put("ArmLowerL", new JointMapping("ArmLowerL", 5, -1.57f, -0.10f));
-        JOINT_MAP.put("Neck",      new JointMapping("Neck",      18, -1.57f, 1.57f));
-        JOINT_MAP.put("Head",      new JointMapping("Head",      19, -0.52f, 0.52f));
-    }
-
-    private WebotsController(String ip, int port) {
+    // ✅ 관절 이름 → 모터 매핑 (파일 기반, 기본값: assets/kaimyentity/webots/default.jointmap)
+    private volatile WebotsJointMap jointMap;
+
+    WebotsController(WebotsBridgeRegistry registry, String ip, int port) {
+        this(registry, ip, port, null);
+    }
+
+    /**
+     * @param transport null이 아니면 설정 대신 이 전송 계층 사용 (테스트용)
+     */
+    WebotsController(WebotsBridgeRegistry registry, String ip, int port, WebotsTransport transport) {
+        this.registry = registry;
         this.robotIp = ip;
         this.robotPort = port;
         this.webotsUrl = String.format("http://%s:%d", ip, port);
 
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofMillis(500))
-                .build();
-
-        this.executor = Executors.newSingleThreadExecutor(r -> {
-            Thread t = new Thread(r, "Webots-Sender");
-            t.setDaemon(true);
-            return t;
-        });
+        // 공유 자원 (브리지마다 새로 만들지 않음)
+        this.httpClient = registry.getHttpClient();
+        this.executor = registry.getExecutor();
 
-        this.scheduler = Executors.newScheduledThreadPool(1, r -> {
-            Thread t = new Thread(r, "Webots-Scheduler");
-            t.setDaemon(true);
-            return t;
-        });
+        clearLastSent();
+        this.jointMap = loadJointMap();
 
-        this.commandQueue = new LinkedBlockingQueue<>();
-        this.lastSent = new ConcurrentHashMap<>();
+        loadTransportSettings();
+        this.inFlight = new Semaphore(maxInFlight);
+        this.transport = transport != null ? transport : createTransport();
 
-        scheduler.scheduleAtFixedRate(this::processQueue, 0, 20, TimeUnit.MILLISECONDS);
         testConnection();
 
-        LOGGER.info("✅ WebotsController initialized: {}", webotsUrl);
+        LOGGER.info("✅ WebotsController initialized: {} ({})", webotsUrl, transport.getName());
     }
 
     /**
-     * ✅ 개선: WebotsConfigScreen.Config에서 기본값 로드
+     * 설정의 joint_map 경로 (비어 있으면 내장 기본 매핑)
      */
-    public static WebotsController getInstance() {
-        if (instance == null) {
-            // WebotsConfigScreen.Config에서 마지막 저장된 IP/Port 가져오기
+    private static WebotsJointMap loadJointMap() {
+        String path = "";
+        try {
+            path = WebotsConfigScreen.Config.getInstance().getJointMap();
+        } catch (Exception ignored) {}
+        if (path == null || path.isBlank()) return WebotsJointMap.getDefault();
+        try {
+            WebotsJointMap map = WebotsJointMap.load(new File(path));
+            LOGGER.info("✅ Webots joint map loaded: {} ({} motors)", path, map.getMotorCount());
+            return map;
+        } catch (Exception e) {
+            LOGGER.error("Failed to load Webots joint map {}, using default", path, e);
+            return WebotsJointMap.getDefault();
+        }
+    }
+
+    private void loadTransportSettings() {
+        try {
+            WebotsConfigScreen.Config config = WebotsConfigScreen.Config.getInstance();
+            transportMode = config.getTransport();
+            udpPort = config.getUdpPort();
+            wsPort = config.getWsPort();
+            maxInFlight = Math.max(1, config.getMaxInFlight());
+            requestTimeoutMs = Math.max(10, config.getRequestTimeoutMs());
+        } catch (Exception e) {
+            LOGGER.warn("Failed to load transport config, using HTTP", e);
+            transportMode = "http";
+        }
+    }
+
+    /**
+     * 설정에 따라 전송 계층 생성 (udp 소켓 생성 실패 시 http)
+     */
+    private WebotsTransport createTransport() {
+        if ("websocket".equals(transportMode)) {
+            return new WebSocketWebotsTransport(httpClient, robotIp, wsPort, stateBuffer);
+        }
+        if ("udp".equals(transportMode)) {
             try {
-                WebotsConfigScreen.Config config = WebotsConfigScreen.Config.getInstance();
-                instance = new WebotsController(config.getLastIp(), config.getLastPort());
+                return new UdpWebotsTransport(robotIp, udpPort);
             } catch (Exception e) {
-                // Config 로드 실패 시 기본값 사용
-                LOGGER.warn("Failed to load config, using defaults", e);
-                instance = new WebotsController("localhost", 8080);
+                LOGGER.warn("⚠️  UDP transport unavailable ({}), using HTTP", e.getMessage());
             }
         }
-        return instance;
+        return new HttpWebotsTransport(httpClient, robotIp, robotPort, requestTimeoutMs);
+    }
+
+    private void switchTransport(WebotsTransport next) {
+        WebotsTransport prev = transport;
+        transport = next;
+        if (prev != null && prev != next) prev.close();
     }
 
     /**
-     * ✅ 개선: Config 저장 포함
+     * ✅ 기본 브리지 (WebotsConfigScreen.Config의 마지막 IP/Port)
+     */
+    public static WebotsController getInstance() {
+        return WebotsBridgeRegistry.getInstance().getDefault();
+    }
+
+    /**
+     * ✅ 기본 브리지를 ip:port로 (Config 저장 포함)
+     * 이전 기본 브리지는 다른 로봇이 붙어 있을 수 있으므로 종료하지 않음
      */
     public static WebotsController getInstance(String ip, int port) {
-        if (instance != null) {
-            if (!instance.robotIp.equals(ip) || instance.robotPort != port) {
-                LOGGER.info("🔄 Recreating WebotsController with new address: {}:{}", ip, port);
-                instance.shutdown();
-                instance = new WebotsController(ip, port);
-                
-                // ✅ Config에 저장
-                try {
-                    WebotsConfigScreen.Config config = WebotsConfigScreen.Config.getInstance();
-                    config.update(ip, port);
-                } catch (Exception e) {
-                    LOGGER.warn("Failed to save config", e);
-                }
-            }
-        } else {
-            instance = new WebotsController(ip, port);
-            
-            // ✅ Config에 저장
-            try {
-                WebotsConfigScreen.Config config = WebotsConfigScreen.Config.getInstance();
-                config.update(ip, port);
-            } catch (Exception e) {
-                LOGGER.warn("Failed to save config", e);
-            }
+        WebotsController bridge = WebotsBridgeRegistry.getInstance().setDefault(ip, port);
+
+        // ✅ Config에 저장
+        try {
+            WebotsConfigScreen.Config config = WebotsConfigScreen.Config.getInstance();
+            config.update(ip, port);
+        } catch (Exception e) {
+            LOGGER.warn("Failed to save config", e);
         }
-        return instance;
+        return bridge;
     }
 
     /**
@@ -167,14 +185,20 @@ public class WebotsController {
      */
     public void reconnect(String ip, int port) {
         LOGGER.info("🔄 Reconnecting to {}:{}", ip, port);
+        String oldKey = WebotsBridgeRegistry.key(robotIp, robotPort);
         this.robotIp = ip;
         this.robotPort = port;
         this.webotsUrl = String.format("http://%s:%d", ip, port);
-        this.failureCount = 0;
         this.connected = false;
+        breaker.reset();
 
-        commandQueue.clear();
-        lastSent.clear();
+        pending.clear();
+        clearLastSent();
+        stateBuffer.clear();
+        loadTransportSettings();
+        inFlight = new Semaphore(maxInFlight);
+        switchTransport(createTransport());
+        registry.rekey(this, oldKey, WebotsBridgeRegistry.key(ip, port));
 
         testConnection();
         
@@ -187,37 +211,54 @@ public class WebotsController {
         }
     }
 
+    /**
+     * 연결 확인 (생성/재연결 시, 그리고 회로가 열려 있을 때 프로브로 사용)
+     */
     private void testConnection() {
-        executor.submit(() -> {
-            try {
-                String url = webotsUrl + "/?command=get_stats";
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(url))
-                        .timeout(Duration.ofMillis(500))
-                        .GET()
-                        .build();
-
-                HttpResponse<String> response = httpClient.send(request,
-                        HttpResponse.BodyHandlers.ofString());
-
-                if (response.statusCode() == 200) {
-                    connected = true;
-                    failureCount = 0;
-                    LOGGER.info("✅ Connected to Webots: {}", webotsUrl);
-                } else {
-                    LOGGER.warn("⚠️  Webots returned status {}", response.statusCode());
-                }
-
-            } catch (Exception e) {
-                connected = false;
-                LOGGER.error("❌ Failed to connect to Webots: {}", e.getMessage());
+        WebotsTransport t = transport;
+        t.requestStatsAsync(500, executor).whenComplete((json, e) -> {
+            if (e == null) {
+                connected = true;
+                if (breaker.onSuccess()) clearLastSent(); // 회로가 열려 있던 동안의 값은 전달 안 됨
+                LOGGER.info("✅ Connected to Webots: {} ({})", webotsUrl, t.getName());
+                return;
+            }
+            Throwable cause = unwrap(e);
+            if (!(t instanceof HttpWebotsTransport) && breaker.getState() != CircuitBreaker.State.HALF_OPEN) {
+                // 처음부터 UDP/WebSocket 응답 없음 → HTTP로 대체 후 다시 확인
+                // (쓰던 연결이 끊긴 뒤의 프로브 실패는 그대로 두고 백오프 후 같은 전송으로 재연결)
+                LOGGER.warn("⚠️  No {} reply from {} ({}), falling back to HTTP", t.getName(), robotIp, cause.getMessage());
+                switchTransport(new HttpWebotsTransport(httpClient, robotIp, robotPort, requestTimeoutMs));
+                testConnection();
+                return;
+            }
+            connected = false;
+            long now = System.nanoTime();
+            if (breaker.getState() == CircuitBreaker.State.HALF_OPEN) {
+                breaker.onFailure(now);
+                LOGGER.warn("⚠️  Webots probe failed (attempt {}): {} - next probe in {} ms",
+                           breaker.getAttempt(), cause.toString(), breaker.getCurrentBackoffMs());
+            } else {
+                if (breaker.trip(now)) clearLastSent();
+                LOGGER.error("❌ Failed to connect to Webots: {} - retrying in {} ms",
+                            cause.toString(), breaker.getCurrentBackoffMs());
             }
         });
     }
 
+    private static Throwable unwrap(Throwable e) {
+        return (e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null
+                ? e.getCause() : e;
+    }
+
     public void setJoint(String jointName, float value) {
-        JointMapping mapping = JOINT_MAP.get(jointName);
-        if (mapping == null) {
+        if (!breaker.allowRequest()) {
+            stats.dropped.increment(); // 회로 열림: 변환/조회 없이 버림
+            return;
+        }
+        WebotsJointMap map = jointMap;
+        int entry = map.entryOf(jointName);
+        if (entry < 0) {
             if (stats.unknownJointWarnings.computeIfAbsent(jointName, k -> 0) < 3) {
                 LOGGER.warn("Unknown joint: {} (warning {} of 3)", jointName,
                            stats.unknownJointWarnings.merge(jointName, 1, Integer::sum));
@@ -225,223 +266,340 @@ public class WebotsController {
             return;
         }
 
-        // URDF → Webots 변환 (부호 반전 + 범위 매핑)
-        float webotsValue = convertUrdfToWebots(jointName, value);
+        // URDF → Webots 변환 (매핑 파일의 선형 변환 + 범위 제한)
+        float clamped = map.convert(entry, value);
+        if (Math.abs(clamped - map.convertUnclamped(entry, value)) > 0.001f) {
+            stats.rangeClamped.increment();
+        }
+        submitMotor(map.motorOf(entry), clamped);
+    }
 
-        Float last = lastSent.get(jointName);
-        if (last != null && Math.abs(webotsValue - last) < DELTA_THRESHOLD) {
-            stats.deltaSkipped++;
+    /**
+     * 관절 배열 한 번에 기록 (재생 등 매 틱 같은 관절 집합을 쓰는 경우)
+     * - 이름 조회 없이 바인딩의 열별 계수로 일괄 변환
+     * @param positions 바인딩 열 순서의 관절 값 (NaN = 이번에 쓰지 않음)
+     */
+    public void setJointPositions(WebotsJointMap.Binding binding, float[] positions) {
+        if (!breaker.allowRequest()) {
+            stats.dropped.add(binding.getMappedCount());
             return;
         }
-
-        float clamped = clamp(webotsValue, mapping.min, mapping.max);
-        if (Math.abs(clamped - value) > 0.001f) {
-            stats.rangeClamped++;
+        float[] out = binding.convert(positions);
+        int n = binding.getColumnCount();
+        for (int c = 0; c < n; c++) {
+            float v = out[c];
+            if (Float.isNaN(v)) continue;
+            if (Math.abs(v - binding.unclamped(c, positions[c])) > 0.001f) {
+                stats.rangeClamped.increment();
+            }
+            submitMotor(binding.motorOf(c), v);
         }
+    }
 
-        if (commandQueue.offer(new Command(mapping.index, clamped))) {
-            lastSent.put(jointName, clamped);
-            stats.queued++;
-        } else {
-            stats.queueFull++;
+    private void submitMotor(int motor, float value) {
+        float last = Float.intBitsToFloat(lastSent.get(motor));
+        if (!Float.isNaN(last) && Math.abs(value - last) < DELTA_THRESHOLD) {
+            stats.deltaSkipped.increment();
+            return;
+        }
+        if (pending.put(motor, value)) {
+            stats.coalesced.increment();
         }
+        lastSent.set(motor, Float.floatToRawIntBits(value));
+        stats.queued.increment();
+    }
+
+    private void clearLastSent() {
+        for (int i = 0; i < MOTOR_COUNT; i++) lastSent.set(i, NO_VALUE);
+    }
+
+    public WebotsJointMap getJointMap() {
+        return jointMap;
+    }
+
+    /** 매핑 교체 (모터 버퍼/변화량 기준 초기화) */
+    public void setJointMap(WebotsJointMap map) {
+        jointMap = map != null ? map : WebotsJointMap.getDefault();
+        pending.clear();
+        clearLastSent();
+        stats.unknownJointWarnings.clear();
     }
 
     public void setJoints(Map<String, Float> joints) {
         joints.forEach(this::setJoint);
     }
 
-    private void processQueue() {
-        Command cmd = commandQueue.poll();
-        if (cmd == null) return;
+    /**
+     * 제어 틱마다 목표값을 써 넣는 소스 (제어 스레드에서 호출됨)
+     */
+    public interface ControlSource {
+        /**
+         * nowNanos(System.nanoTime) 시점의 목표를 target.setJoint()로 기록
+         * @return 계속 샘플링하려면 true, false면 목록에서 빠짐 (재생 끝 등)
+         */
+        boolean sample(long nowNanos, WebotsController target);
+    }
 
-        executor.submit(() -> sendToWebots(cmd.index, cmd.value));
+    /** 소스 등록 (이미 있으면 무시) */
+    public void addControlSource(ControlSource source) {
+        if (!sources.contains(source)) sources.add(source);
     }
 
-    private void sendToWebots(int index, float value) {
-        if (!connected && failureCount > MAX_FAILURES) {
-            return;
-        }
+    public void removeControlSource(ControlSource source) {
+        sources.remove(source);
+    }
 
-        try {
-            String url = String.format("%s/?command=set_joint&index=%d&value=%.4f",
-                                      webotsUrl, index, value);
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .timeout(Duration.ofMillis(100))
-                    .GET()
-                    .build();
-
-            HttpResponse<String> response = httpClient.send(request,
-                    HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == 200) {
-                stats.sent++;
-                failureCount = 0;
-                if (!connected) {
-                    connected = true;
-                    LOGGER.info("✅ Reconnected to Webots");
+    /** 제어 스레드 (모든 브리지 공유) */
+    public WebotsControlLoop getControlLoop() {
+        return registry.getControlLoop();
+    }
+
+    /**
+     * 제어 스레드 1틱: 소스 샘플링 → 프레임 전송 (WebotsBridgeRegistry가 브리지마다 호출)
+     */
+    void controlTick() {
+        if (!sources.isEmpty()) {
+            long now = System.nanoTime();
+            for (ControlSource source : sources) {
+                boolean keep;
+                try {
+                    keep = source.sample(now, this);
+                } catch (RuntimeException e) {
+                    LOGGER.error("Control source failed, removing: {}", source, e);
+                    keep = false;
                 }
-            } else {
-                stats.failed++;
-                LOGGER.warn("⚠️  Webots returned status {}", response.statusCode());
+                if (!keep) sources.remove(source);
             }
+        }
+        processQueue();
+    }
 
-        } catch (Exception e) {
-            stats.failed++;
-            failureCount++;
-
-            if (failureCount == MAX_FAILURES) {
-                connected = false;
-                LOGGER.error("❌ Connection lost to Webots after {} failures", MAX_FAILURES);
-            } else if (failureCount % 50 == 0) {
-                LOGGER.warn("⚠️  Failed to send to Webots ({} failures): {}",
-                           failureCount, e.getMessage());
+    /**
+     * 제어 틱: 쌓인 관절 값을 프레임 하나로 묶어 비동기 전송.
+     * 응답 대기 중인 프레임이 창(maxInFlight)만큼 차 있으면 이번 틱은 건너뜀
+     * (값은 남아 있다가 다음 틱에 최신값으로 전송)
+     */
+    private void processQueue() {
+        if (!breaker.allowRequest()) {
+            // 회로 열림: 남은 값은 버리고 (변화량 기준도 지움), 백오프가 지났으면 프로브 하나만 보냄
+            int dropped = pending.drain(frameIndices, frameValues);
+            if (dropped > 0) {
+                stats.dropped.add(dropped);
+                clearLastSent();
+            }
+            if (breaker.tryStartProbe(System.nanoTime())) {
+                testConnection();
             }
+            return;
         }
-    }
 
-    public String getStatsJson() {
-        try {
-            String url = webotsUrl + "/?command=get_stats";
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .timeout(Duration.ofMillis(200))
-                    .GET()
-                    .build();
+        Semaphore window = inFlight;
+        if (!window.tryAcquire()) {
+            stats.windowFull.increment();
+            return;
+        }
 
-            HttpResponse<String> response = httpClient.send(request,
-                    HttpResponse.BodyHandlers.ofString());
+        int n = pending.drain(frameIndices, frameValues, frameEnqueued);
+        if (n == 0) {
+            window.release();
+            return;
+        }
 
-            return response.body();
+        // 프레임에서 가장 오래 기다린 값 기준
+        long sendStart = System.nanoTime();
+        long oldest = sendStart;
+        for (int i = 0; i < n; i++) {
+            long t = frameEnqueued[i];
+            if (t != 0 && t - oldest < 0) oldest = t;
+        }
+        final long enqueuedAt = oldest;
+        stats.queueLatency.record(sendStart - enqueuedAt);
 
-        } catch (Exception e) {
-            return String.format("{\"error\": \"%s\"}", e.getMessage());
+        CompletableFuture<Void> send;
+        try {
+            send = transport.sendFrameAsync(frameIndices, frameValues, n);
+        } catch (RuntimeException e) {
+            send = CompletableFuture.failedFuture(e);
+        }
+        send.whenComplete((r, e) -> {
+            window.release();
+            if (e == null) {
+                long done = System.nanoTime();
+                stats.roundTrip.record(done - sendStart);
+                stats.poseAge.record(done - enqueuedAt);
+                stats.frames.increment();
+                stats.sent.add(n);
+                onSendSuccess();
+            } else {
+                stats.failed.add(n);
+                onSendFailure(unwrap(e));
+            }
+        });
+    }
+
+    private void onSendSuccess() {
+        if (breaker.onSuccess() || !connected) {
+            clearLastSent();
+            connected = true;
+            LOGGER.info("✅ Reconnected to Webots");
+        }
+    }
+
+    private void onSendFailure(Throwable e) {
+        clearLastSent(); // 이 프레임 값은 전달 안 됨 → 같은 값이 다시 와도 건너뛰지 않도록
+        if (breaker.onFailure(System.nanoTime())) {
+            connected = false;
+            LOGGER.error("❌ Connection lost to Webots after {} failures ({}) - retrying in {} ms",
+                        MAX_FAILURES, e.getMessage(), breaker.getCurrentBackoffMs());
+        } else if (breaker.getConsecutiveFailures() > 0 && breaker.getConsecutiveFailures() % 50 == 0) {
+            LOGGER.warn("⚠️  Failed to send to Webots ({} failures): {}",
+                       breaker.getConsecutiveFailures(), e.getMessage());
         }
     }
 
+    /**
+     * 서버 통계 (비동기, 실패 시 {"error": ...} JSON으로 완료) → 게임/렌더 스레드에서 기다리지 말 것
+     */
+    public CompletableFuture<String> getStatsAsync() {
+        return transport.requestStatsAsync(requestTimeoutMs, executor)
+                .exceptionally(e -> String.format("{\"error\": \"%s\"}", unwrap(e).getMessage()));
+    }
+
     public void printStats() {
         LOGGER.info("=== Webots Controller Stats ===");
         LOGGER.info("  Target: {}:{} {}", robotIp, robotPort, connected ? "✅" : "❌");
-        LOGGER.info("  Queued: {} | Sent: {} | Failed: {}", stats.queued, stats.sent, stats.failed);
-        LOGGER.info("  Delta Skipped: {} | Range Clamped: {} | Queue Full: {}",
-                   stats.deltaSkipped, stats.rangeClamped, stats.queueFull);
-        LOGGER.info("  Queue Size: {} | Failure Count: {}", commandQueue.size(), failureCount);
+        StatsSnapshot s = getStats();
+        LOGGER.info("  Queued: {} | Sent: {} | Failed: {} | Frames: {}{}", s.queued(), s.sent(), s.failed(),
+                   s.frames(), " (" + transport.getName() + ")");
+        LOGGER.info("  Delta Skipped: {} | Range Clamped: {} | Coalesced: {}",
+                   s.deltaSkipped(), s.rangeClamped(), s.coalesced());
+        LOGGER.info("  Pending Motors: {} | Dropped: {} | In Flight: {}/{} | Window Full: {}",
+                   pending.pendingCount(), s.dropped(), maxInFlight - inFlight.availablePermits(), maxInFlight,
+                   s.windowFull());
+        LOGGER.info("  Circuit: {} | Failures: {} | Opened: {} | Probes: {} | Next Probe: {} ms",
+                   breaker.getState(), breaker.getConsecutiveFailures(), breaker.getOpenCount(),
+                   breaker.getProbeCount(), breaker.millisUntilProbe(System.nanoTime()));
+        LOGGER.info("  Queue Latency (enqueue→send): {}", stats.queueLatency.summary());
+        LOGGER.info("  Round Trip (send→ack):        {}", stats.roundTrip.summary());
+        LOGGER.info("  Pose Age (enqueue→ack):       {}", stats.poseAge.summary());
+
+        RobotState state = new RobotState();
+        if (readRobotState(state)) {
+            LOGGER.info("  Robot State: {} frames | sim {}s | age {} ms | contacts {}",
+                       stateBuffer.getFrameCount(), String.format("%.2f", state.simTime),
+                       String.format("%.1f", state.ageMillis()), Integer.toBinaryString(state.contacts));
+        }
 
-        String serverStats = getStatsJson();
-        LOGGER.info("  Server Stats: {}", serverStats);
-    }
+        WebotsControlLoop controlLoop = registry.getControlLoop();
+        LOGGER.info("  Control: {} Hz | {} ticks | {} overruns | {} sources | {} bridges",
+                   controlLoop.getRateHz(), controlLoop.getTickCount(), controlLoop.getOverrunCount(), sources.size(),
+                   registry.size());
+        LOGGER.info("  Control Jitter: {}", controlLoop.getJitter().summary());
+        LOGGER.info("  Control Tick Time: {}", controlLoop.getTickTime().summary());
 
-    public boolean isConnected() {
-        return connected;
+        getStatsAsync().thenAccept(serverStats -> LOGGER.info("  Server Stats: {}", serverStats));
     }
 
-    public String getRobotAddress() {
-        return String.format("%s:%d", robotIp, robotPort);
+    /**
+     * 최신 로봇 상태를 dst에 복사 (락/대기 없음, 틱 스레드에서 호출 가능)
+     * @return 받은 상태가 있으면 true
+     */
+    public boolean readRobotState(RobotState dst) {
+        return stateBuffer.read(dst);
     }
 
-    public void shutdown() {
-        LOGGER.info("🛑 Shutting down WebotsController...");
-        scheduler.shutdown();
-        executor.shutdown();
-        try {
-            if (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
-                executor.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            executor.shutdownNow();
-        }
-        LOGGER.info("✅ WebotsController shutdown complete");
+    public RobotStateBuffer getStateBuffer() {
+        return stateBuffer;
     }
 
-    // ========== 내부 클래스 ==========
+    // ========== 통계 API ==========
 
-    private static class Command {
-        final int index;
-        final float value;
-        final long timestamp;
-
-        Command(int index, float value) {
-            this.index = index;
-            this.value = value;
-            this.timestamp = System.currentTimeMillis();
-        }
+    /** 카운터 스냅샷 (각 값은 읽는 순간 합산, 서로 완전히 일치하지는 않을 수 있음) */
+    public StatsSnapshot getStats() {
+        return new StatsSnapshot(stats.queued.sum(), stats.sent.sum(), stats.failed.sum(), stats.frames.sum(),
+                stats.deltaSkipped.sum(), stats.rangeClamped.sum(), stats.coalesced.sum(), stats.windowFull.sum(),
+                stats.dropped.sum());
     }
 
-    private static class JointMapping {
-        final String webotsName;
-        final int index;
-        final float min;
-        final float max;
+    /** 값이 버퍼에 들어온 뒤 프레임으로 전송되기까지 (프레임에서 가장 오래 기다린 값, ns) */
+    public LatencyHistogram getQueueLatency() { return stats.queueLatency; }
 
-        JointMapping(String webotsName, int index, float min, float max) {
-            this.webotsName = webotsName;
-            this.index = index;
-            this.min = min;
-            this.max = max;
-        }
-    }
+    /** 전송 시작 → 전송 계층 완료 (HTTP 응답 / WebSocket 쓰기 완료 / UDP 송신, ns) */
+    public LatencyHistogram getRoundTripLatency() { return stats.roundTrip; }
 
-    private static class Stats {
-        long queued = 0;
-        long sent = 0;
-        long failed = 0;
-        long deltaSkipped = 0;
-        long rangeClamped = 0;
-        long queueFull = 0;
-        final Map<String, Integer> unknownJointWarnings = new ConcurrentHashMap<>();
-    }
+    /** 값이 버퍼에 들어온 뒤 로봇 쪽 완료까지 = 종단 간 포즈 나이 (ns) */
+    public LatencyHistogram getPoseAgeLatency() { return stats.poseAge; }
 
-    private static float clamp(float value, float min, float max) {
-        return Math.max(min, Math.min(max, value));
+    public void resetLatencyStats() {
+        stats.queueLatency.reset();
+        stats.roundTrip.reset();
+        stats.poseAge.reset();
+        registry.getControlLoop().getJitter().reset();
+        registry.getControlLoop().getTickTime().reset();
     }
 
-    // ========== 유틸리티 메서드 ==========
+    public record StatsSnapshot(long queued, long sent, long failed, long frames,
+                                long deltaSkipped, long rangeClamped, long coalesced, long windowFull,
+                                long dropped) {}
 
-    public static String[] getSupportedJoints() {
-        return JOINT_MAP.keySet().toArray(new String[0]);
+    /** 연결 회로 차단기 상태 (화면 표시용) */
+    public CircuitBreaker getCircuitBreaker() {
+        return breaker;
     }
 
-    public static JointMapping getJointMapping(String jointName) {
-        return JOINT_MAP.get(jointName);
+    public boolean isConnected() {
+        return connected;
     }
 
-    public static Integer getMotorIndex(String jointName) {
-        JointMapping mapping = JOINT_MAP.get(jointName);
-        return mapping != null ? mapping.index : null;
+    public String getRobotAddress() {
+        return String.format("%s:%d", robotIp, robotPort);
     }
 
-    // ====================== URDF → Webots 변환기 ======================
-    private float convertUrdfToWebots(String jointName, float urdfValue) {
-        return switch (jointName) {
-            // 팔꿈치 (기본 설정)
-            case "r_el" -> map(urdfValue, 0.0f, 2.7925f, -0.10f, -1.57f);
-            case "l_el" -> map(urdfValue, -2.7925f, 0.0f, -1.57f, -0.10f);
+    /**
+     * 이 브리지만 종료 (공유 스레드/HttpClient는 WebotsBridgeRegistry.shutdown()에서)
+     */
+    public void shutdown() {
+        LOGGER.info("🛑 Shutting down Webots bridge {}...", getRobotAddress());
+        registry.remove(this);
+        closeBridge();
+        LOGGER.info("✅ Webots bridge {} shutdown complete", getRobotAddress());
+    }
 
-            // ⚠️ 만약 위 설정으로도 팔이 반대로 꺾인다면, 아래 주석을 해제하고 위 2줄을 주석 처리하세요:
-            // case "r_el" -> map(urdfValue, 0.0f, 2.7925f, -1.57f, -0.10f);
-            // case "l_el" -> map(urdfValue, -2.7925f, 0.0f, -0.10f, -1.57f);
+    void closeBridge() {
+        sources.clear();
+        pending.clear();
+        transport.close();
+    }
 
-            // 무릎 (역방향)
-            case "r_knee", "l_knee" -> map(urdfValue, -2.27f, 0.0f, 2.09f, -0.1f);
+    // ========== 내부 클래스 ==========
 
-            // 머리 (Webots가 더 좁음)
-            case "head_pan"  -> clamp(urdfValue, -1.57f, 1.57f);
-            case "head_tilt" -> clamp(urdfValue, -0.52f, 0.52f);
+    // 게임/제어/HttpClient 스레드가 동시에 갱신 → LongAdder, 히스토그램은 lock-free
+    private static class Stats {
+        final LongAdder queued = new LongAdder();
+        final LongAdder sent = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder frames = new LongAdder();
+        final LongAdder deltaSkipped = new LongAdder();
+        final LongAdder rangeClamped = new LongAdder();
+        final LongAdder coalesced = new LongAdder();
+        final LongAdder windowFull = new LongAdder();
+        final LongAdder dropped = new LongAdder();    // 회로가 열려 있어 버린 값
+        final LatencyHistogram queueLatency = new LatencyHistogram();
+        final LatencyHistogram roundTrip = new LatencyHistogram();
+        final LatencyHistogram poseAge = new LatencyHistogram();
+        final Map<String, Integer> unknownJointWarnings = new ConcurrentHashMap<>();
+    }
 
-            // 기타 미세 차이
-            case "l_ank_pitch" -> clamp(urdfValue, -1.39f, 1.22f);
-            case "r_hip_yaw"   -> clamp(urdfValue, -1.047f, 1.047f);
-            case "l_hip_yaw"   -> clamp(urdfValue, -0.69f, 2.50f);
+    // ========== 유틸리티 메서드 ==========
 
-            default -> urdfValue; // 나머지는 1:1
-        };
+    /** 기본 매핑의 관절 이름들 (모터 이름 포함) */
+    public static String[] getSupportedJoints() {
+        return WebotsJointMap.getDefault().getJointNames();
     }
 
-    private float map(float v, float fromLow, float fromHigh, float toLow, float toHigh) {
-        if (v <= fromLow) return toLow;
-        if (v >= fromHigh) return toHigh;
-        return toLow + (v - fromLow) * (toHigh - toLow) / (fromHigh - fromLow);
+    /** 기본 매핑 기준 모터 인덱스 (없으면 null) */
+    public static Integer getMotorIndex(String jointName) {
+        int motor = WebotsJointMap.getDefault().motorOf(jointName);
+        return motor >= 0 ? motor : null;
     }
 }
\ No newline at end of file
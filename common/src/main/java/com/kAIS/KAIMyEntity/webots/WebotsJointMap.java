@@ -0,0 +1,403 @@
+package com.kAIS.KAIMyEntity.webots;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 관절 이름 → Webots 모터 매핑 (파일 기반, 로봇마다 교체 가능)
+ * - [motors] 모터 이름 = 인덱스 ; 범위
+ * - [joints] 관절 이름 = 모터 이름 ; [범위] [map ...]
+ *
+ * 모든 변환은 "선형(scale, offset) + clamp(lo, hi)" 한 가지 형태로 컴파일된다.
+ * (구간 map의 포화도 clamp로 표현) → 재생 중에는 분기 없는 배열 연산만 사용.
+ *
+ * 기본 매핑: assets/kaimyentity/webots/default.jointmap
+ * 모델별 덮어쓰기: <모델 폴더>/webots.jointmap
+ */
+public final class WebotsJointMap {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    public static final String DEFAULT_RESOURCE = "/assets/kaimyentity/webots/default.jointmap";
+    public static final String MODEL_FILE_NAME = "webots.jointmap";
+
+    private static volatile WebotsJointMap defaultMap;
+
+    private final String name;
+    private final String[] motorNames;        // 인덱스 = 모터 인덱스 (빈 칸은 null)
+    private final Map<String, Integer> entryIndex;
+
+    // 항목별 컴파일 결과 (항목 = 관절 이름 하나)
+    private final String[] entryNames;
+    private final int[] motor;
+    private final float[] scale, offset, lo, hi;
+
+    private WebotsJointMap(String name, String[] motorNames, List<Entry> entries) {
+        this.name = name;
+        this.motorNames = motorNames;
+        int n = entries.size();
+        this.entryNames = new String[n];
+        this.motor = new int[n];
+        this.scale = new float[n];
+        this.offset = new float[n];
+        this.lo = new float[n];
+        this.hi = new float[n];
+        Map<String, Integer> index = new HashMap<>(n * 2);
+        for (int e = 0; e < n; e++) {
+            Entry en = entries.get(e);
+            entryNames[e] = en.joint;
+            motor[e] = en.motor;
+            scale[e] = en.scale;
+            offset[e] = en.offset;
+            lo[e] = en.lo;
+            hi[e] = en.hi;
+            index.put(en.joint, e);
+        }
+        this.entryIndex = Collections.unmodifiableMap(index);
+    }
+
+    private record Entry(String joint, int motor, float scale, float offset, float lo, float hi) {}
+
+    // ========== 로드 ==========
+
+    /** 내장 기본 매핑 (한 번만 읽음) */
+    public static WebotsJointMap getDefault() {
+        WebotsJointMap m = defaultMap;
+        if (m == null) {
+            synchronized (WebotsJointMap.class) {
+                m = defaultMap;
+                if (m == null) {
+                    m = loadDefault();
+                    defaultMap = m;
+                }
+            }
+        }
+        return m;
+    }
+
+    /**
+     * 모델 폴더의 webots.jointmap, 없거나 읽기 실패하면 기본 매핑
+     */
+    public static WebotsJointMap forModelDir(String modelDir) {
+        if (modelDir != null) {
+            File f = new File(modelDir, MODEL_FILE_NAME);
+            if (f.isFile()) {
+                try {
+                    WebotsJointMap m = load(f);
+                    LOGGER.info("✅ Webots joint map loaded: {} ({} motors, {} joints)",
+                            f.getPath(), m.getMotorCount(), m.entryNames.length);
+                    return m;
+                } catch (IOException | IllegalArgumentException e) {
+                    LOGGER.error("Failed to load Webots joint map {}, using default", f.getPath(), e);
+                }
+            }
+        }
+        return getDefault();
+    }
+
+    public static WebotsJointMap load(File file) throws IOException {
+        try (Reader r = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            return parse(file.getName(), r);
+        }
+    }
+
+    private static WebotsJointMap loadDefault() {
+        try (InputStream in = WebotsJointMap.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+            if (in == null) {
+                LOGGER.error("Default Webots joint map missing: {}", DEFAULT_RESOURCE);
+                return new WebotsJointMap("empty", new String[0], List.of());
+            }
+            return parse("default", new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            LOGGER.error("Failed to read default Webots joint map", e);
+            return new WebotsJointMap("empty", new String[0], List.of());
+        }
+    }
+
+    /**
+     * 매핑 텍스트 파싱. 형식은 default.jointmap 주석 참고.
+     * 같은 이름이 두 번 나오면 오류 (조용히 덮어쓰지 않음).
+     */
+    public static WebotsJointMap parse(String name, Reader reader) throws IOException {
+        Map<String, int[]> motorLines = new LinkedHashMap<>();      // 이름 → {인덱스, 줄번호}
+        Map<String, float[]> motorRanges = new HashMap<>();
+        Map<String, String[]> jointLines = new LinkedHashMap<>();   // 이름 → {모터, 스펙, 줄번호}
+        String section = "";
+
+        BufferedReader br = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        String line;
+        int lineNo = 0;
+        while ((line = br.readLine()) != null) {
+            lineNo++;
+            int hash = line.indexOf('#');
+            if (hash >= 0) line = line.substring(0, hash);
+            line = line.strip();
+            if (line.isEmpty()) continue;
+
+            if (line.startsWith("[") && line.endsWith("]")) {
+                section = line.substring(1, line.length() - 1).strip().toLowerCase(Locale.ROOT);
+                continue;
+            }
+
+            int eq = line.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException(name + ":" + lineNo + ": expected 'name = value'");
+            String key = line.substring(0, eq).strip();
+            String rest = line.substring(eq + 1);
+            String spec = "";
+            int semi = rest.indexOf(';');
+            if (semi >= 0) {
+                spec = rest.substring(semi + 1).strip();
+                rest = rest.substring(0, semi);
+            }
+            String value = rest.strip();
+
+            switch (section) {
+                case "motors" -> {
+                    if (motorLines.containsKey(key)) {
+                        throw new IllegalArgumentException(name + ":" + lineNo + ": duplicate motor '" + key + "'");
+                    }
+                    int idx;
+                    try {
+                        idx = Integer.parseInt(value);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException(name + ":" + lineNo + ": bad motor index '" + value + "'");
+                    }
+                    if (idx < 0 || idx >= WebotsUdpProtocol.MAX_MOTORS) {
+                        throw new IllegalArgumentException(name + ":" + lineNo + ": motor index out of range 0.."
+                                + (WebotsUdpProtocol.MAX_MOTORS - 1));
+                    }
+                    float[] range = parseNumbers(name, lineNo, spec);
+                    if (range.length != 2) {
+                        throw new IllegalArgumentException(name + ":" + lineNo + ": motor needs '; min max'");
+                    }
+                    motorLines.put(key, new int[]{idx, lineNo});
+                    motorRanges.put(key, range);
+                }
+                case "joints" -> {
+                    if (jointLines.containsKey(key)) {
+                        throw new IllegalArgumentException(name + ":" + lineNo + ": duplicate joint '" + key + "'");
+                    }
+                    jointLines.put(key, new String[]{value, spec, String.valueOf(lineNo)});
+                }
+                default -> throw new IllegalArgumentException(name + ":" + lineNo + ": entry outside [motors]/[joints]");
+            }
+        }
+
+        // 모터 인덱스 중복 검사
+        int maxIndex = -1;
+        for (int[] m : motorLines.values()) maxIndex = Math.max(maxIndex, m[0]);
+        String[] motorNames = new String[maxIndex + 1];
+        for (Map.Entry<String, int[]> m : motorLines.entrySet()) {
+            int idx = m.getValue()[0];
+            if (motorNames[idx] != null) {
+                throw new IllegalArgumentException(name + ":" + m.getValue()[1] + ": motor index " + idx
+                        + " used by both '" + motorNames[idx] + "' and '" + m.getKey() + "'");
+            }
+            motorNames[idx] = m.getKey();
+        }
+
+        List<Entry> entries = new ArrayList<>();
+        // 모터 이름 자체도 관절 이름으로 (값 그대로, 모터 범위)
+        for (Map.Entry<String, int[]> m : motorLines.entrySet()) {
+            float[] r = motorRanges.get(m.getKey());
+            entries.add(new Entry(m.getKey(), m.getValue()[0], 1f, 0f, r[0], r[1]));
+        }
+        for (Map.Entry<String, String[]> j : jointLines.entrySet()) {
+            String[] v = j.getValue();
+            int lineNo2 = Integer.parseInt(v[2]);
+            int[] m = motorLines.get(v[0]);
+            if (m == null) {
+                throw new IllegalArgumentException(name + ":" + lineNo2 + ": unknown motor '" + v[0] + "'");
+            }
+            if (motorLines.containsKey(j.getKey())) {
+                throw new IllegalArgumentException(name + ":" + lineNo2 + ": joint '" + j.getKey() + "' shadows a motor name");
+            }
+            entries.add(compileJoint(name, lineNo2, j.getKey(), m[0], motorRanges.get(v[0]), v[1]));
+        }
+        return new WebotsJointMap(name, motorNames, entries);
+    }
+
+    private static Entry compileJoint(String name, int lineNo, String joint, int motor, float[] motorRange, String spec) {
+        float min = motorRange[0], max = motorRange[1];
+        float scale = 1f, offset = 0f;
+
+        String rangePart = spec;
+        String mapPart = null;
+        int mapAt = (" " + spec + " ").toLowerCase(Locale.ROOT).indexOf(" map ");
+        if (mapAt >= 0) {
+            rangePart = spec.substring(0, mapAt).strip();
+            mapPart = spec.substring(Math.min(spec.length(), mapAt + 4)).strip();
+        }
+
+        float[] range = parseNumbers(name, lineNo, rangePart);
+        if (range.length == 2) {
+            min = range[0];
+            max = range[1];
+        } else if (range.length != 0) {
+            throw new IllegalArgumentException(name + ":" + lineNo + ": range needs two numbers");
+        }
+
+        if (mapPart != null) {
+            float[] m = parseNumbers(name, lineNo, mapPart);
+            if (m.length != 4 || m[0] == m[1]) {
+                throw new IllegalArgumentException(name + ":" + lineNo + ": map needs 'fromLow fromHigh toLow toHigh' with fromLow != fromHigh");
+            }
+            scale = (m[3] - m[2]) / (m[1] - m[0]);
+            offset = m[2] - m[0] * scale;
+            // 구간 밖은 끝값 = 출력 구간으로 clamp
+            min = Math.max(min, Math.min(m[2], m[3]));
+            max = Math.min(max, Math.max(m[2], m[3]));
+        }
+        if (min > max) {
+            throw new IllegalArgumentException(name + ":" + lineNo + ": empty range for '" + joint + "'");
+        }
+        return new Entry(joint, motor, scale, offset, min, max);
+    }
+
+    private static float[] parseNumbers(String name, int lineNo, String s) {
+        if (s == null || s.isBlank()) return new float[0];
+        String[] tokens = s.strip().split("\\s+");
+        float[] out = new float[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            try {
+                out[i] = Float.parseFloat(tokens[i]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(name + ":" + lineNo + ": bad number '" + tokens[i] + "'");
+            }
+        }
+        return out;
+    }
+
+    // ========== 조회 ==========
+
+    public String getName() { return name; }
+
+    /** 모터 수 (가장 큰 인덱스 + 1) */
+    public int getMotorCount() { return motorNames.length; }
+
+    public String getMotorName(int motorIndex) {
+        return motorIndex >= 0 && motorIndex < motorNames.length ? motorNames[motorIndex] : null;
+    }
+
+    /** 매핑된 관절 이름들 (모터 이름 포함) */
+    public String[] getJointNames() { return entryNames.clone(); }
+
+    /** 관절 이름 → 항목 번호 (없으면 -1) */
+    public int entryOf(String joint) {
+        Integer e = entryIndex.get(joint);
+        return e != null ? e : -1;
+    }
+
+    public int motorOf(int entry) { return motor[entry]; }
+
+    /** 관절 이름 → 모터 인덱스 (없으면 -1) */
+    public int motorOf(String joint) {
+        int e = entryOf(joint);
+        return e >= 0 ? motor[e] : -1;
+    }
+
+    /** 관절 값 → 모터 목표값 (선형 변환 + 범위 제한) */
+    public float convert(int entry, float value) {
+        return Math.min(hi[entry], Math.max(lo[entry], value * scale[entry] + offset[entry]));
+    }
+
+    /** 범위 제한 전 값 (제한 발생 여부 확인용) */
+    public float convertUnclamped(int entry, float value) {
+        return value * scale[entry] + offset[entry];
+    }
+
+    /**
+     * 관절 이름 배열(예: robot.joints 순서)에 대해 열별 변환 계수를 미리 펼친 바인딩
+     */
+    public Binding bind(String[] jointNames) {
+        return new Binding(this, jointNames);
+    }
+
+    /**
+     * 열(관절) 배열 → 모터 목표값 일괄 변환
+     * - 열마다 motor/scale/offset/lo/hi를 연속 배열로 보관 → 변환 루프는 분기 없는 배열 연산 (JIT 벡터화 대상)
+     * - 결과 버퍼를 내장하므로 스레드 하나(바인딩 소유자)에서만 사용
+     */
+    public static final class Binding {
+        private final WebotsJointMap map;
+        private final String[] columns;
+        private final int[] motor;          // 열 → 모터 (-1 = 매핑 없음)
+        private final float[] scale, offset, lo, hi;
+        private final float[] out;
+        private final int mapped;
+
+        private Binding(WebotsJointMap map, String[] columns) {
+            this.map = map;
+            this.columns = columns;
+            int n = columns.length;
+            this.motor = new int[n];
+            this.scale = new float[n];
+            this.offset = new float[n];
+            this.lo = new float[n];
+            this.hi = new float[n];
+            this.out = new float[n];
+            int count = 0;
+            for (int c = 0; c < n; c++) {
+                int e = map.entryOf(columns[c]);
+                if (e >= 0) {
+                    motor[c] = map.motor[e];
+                    scale[c] = map.scale[e];
+                    offset[c] = map.offset[e];
+                    lo[c] = map.lo[e];
+                    hi[c] = map.hi[e];
+                    count++;
+                } else {
+                    // 매핑 없는 열: 결과가 항상 NaN이 되도록
+                    motor[c] = -1;
+                    scale[c] = Float.NaN;
+                    lo[c] = Float.NEGATIVE_INFINITY;
+                    hi[c] = Float.POSITIVE_INFINITY;
+                }
+            }
+            this.mapped = count;
+        }
+
+        public WebotsJointMap getMap() { return map; }
+
+        /** 같은 매핑, 같은 열 배열로 만든 바인딩인지 */
+        public boolean isFor(WebotsJointMap map, String[] columns) {
+            return this.map == map && this.columns == columns;
+        }
+
+        public int getColumnCount() { return columns.length; }
+        public int getMappedCount() { return mapped; }
+        public int motorOf(int column) { return motor[column]; }
+
+        /**
+         * values[열] → 내부 결과 버퍼 (값 없음/매핑 없음 = NaN)
+         * @return 결과 버퍼 (열 순서, 다음 convert 호출 때 덮어씀)
+         */
+        public float[] convert(float[] values) {
+            int n = columns.length;
+            for (int c = 0; c < n; c++) {
+                out[c] = Math.min(hi[c], Math.max(lo[c], values[c] * scale[c] + offset[c]));
+            }
+            return out;
+        }
+
+        /** 열 c의 범위 제한 전 값 */
+        public float unclamped(int column, float value) {
+            return value * scale[column] + offset[column];
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.kAIS.KAIMyEntity.webots;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * WebotsController ↔ Webots 로봇 컨트롤러 사이 전송 계층
+ * - HttpWebotsTransport: 기존 HTTP GET 프로토콜 (기본/대체용)
+ * - UdpWebotsTransport: 바이너리 UDP 프레임 (50~200 Hz 제어 루프용)
+ * - WebSocketWebotsTransport: 양방향 바이너리 스트림 (명령 송신 + 로봇 상태 수신)
+ *
+ * sendFrame()/sendFrameAsync()는 제어 스레드 하나에서만 호출된다.
+ */
+public interface WebotsTransport extends AutoCloseable {
+
+    /** 로그/화면 표시용 이름 (예: "http", "udp") */
+    String getName();
+
+    /**
+     * 모터 목표값 프레임 전송 (완료까지 대기)
+     * @param indices 모터 인덱스 (오름차순)
+     * @param values  목표값 (라디안)
+     * @param count   유효 개수
+     * @throws IOException 전송 실패 (실패 카운트/재연결 판단은 호출자가 함)
+     */
+    void sendFrame(int[] indices, float[] values, int count) throws IOException;
+
+    /**
+     * 비동기 프레임 전송. indices/values는 반환 전에 다 읽으므로 호출자가 바로 재사용해도 됨.
+     * 기본 구현은 sendFrame()을 그 자리에서 호출 (UDP처럼 보내기가 막히지 않는 전송용).
+     */
+    default CompletableFuture<Void> sendFrameAsync(int[] indices, float[] values, int count) {
+        try {
+            sendFrame(indices, values, count);
+            return CompletableFuture.completedFuture(null);
+        } catch (IOException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 서버 통계 요청 (연결 확인 겸용)
+     * @return 서버가 돌려준 JSON 문자열
+     */
+    String requestStats(int timeoutMs) throws IOException;
+
+    /**
+     * 비동기 통계 요청. 기본 구현은 blockingExecutor에서 requestStats()를 실행.
+     */
+    default CompletableFuture<String> requestStatsAsync(int timeoutMs, Executor blockingExecutor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return requestStats(timeoutMs);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, blockingExecutor);
+    }
+
+    @Override
+    void close();
+}
@@ -0,0 +1,153 @@
+package com.kAIS.KAIMyEntity.webots;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Webots 바이너리 프레임 형식 (빅엔디언, UDP 패킷 / WebSocket 바이너리 메시지 공용)
+ *
+ * <pre>
+ *  0  u16  magic 0x4B57 ('KW')
+ *  2  u8   version (1)
+ *  3  u8   type (1 = MOTORS, 2 = STATS_REQUEST, 3 = STATS_REPLY, 4 = STATE)
+ *  4  u32  sequence (패킷마다 +1, STATS_REPLY는 요청 번호를 그대로 돌려줌)
+ *  8  i64  timestamp (송신측 System.nanoTime, 순서/지터 측정용)
+ * 16  u32  motor mask (비트 i = 모터 i 값 포함)
+ * 20  f32 × bitCount(mask)  모터 목표값 (인덱스 오름차순)
+ *     STATS_REPLY는 20 이후가 UTF-8 JSON
+ *
+ * STATE (로봇 → 클라이언트, 마스크 = 엔코더 값이 들어 있는 모터)
+ * 20  f32 × bitCount(mask)  관절 엔코더 값
+ *  +  f32 × 9  IMU (roll, pitch, yaw, gyro xyz, accel xyz)
+ *  +  u32  접촉 센서 비트 (비트 i = 센서 i 접촉)
+ *  +  f64  시뮬레이션 시간 (초)
+ * </pre>
+ *
+ * 20개 모터 전체 프레임 = 100바이트.
+ */
+public final class WebotsUdpProtocol {
+    public static final short MAGIC = 0x4B57;
+    public static final byte VERSION = 1;
+
+    public static final byte TYPE_MOTORS = 1;
+    public static final byte TYPE_STATS_REQUEST = 2;
+    public static final byte TYPE_STATS_REPLY = 3;
+    public static final byte TYPE_STATE = 4;
+
+    public static final int HEADER_SIZE = 20;
+    public static final int MAX_MOTORS = 32;
+    public static final int MAX_PACKET = 1400; // 경로 MTU 안쪽
+
+    private WebotsUdpProtocol() {}
+
+    public static ByteBuffer allocate() {
+        return ByteBuffer.allocate(MAX_PACKET).order(ByteOrder.BIG_ENDIAN);
+    }
+
+    public static void writeHeader(ByteBuffer buf, byte type, int seq, long timestamp, int mask) {
+        buf.clear();
+        buf.putShort(MAGIC).put(VERSION).put(type).putInt(seq).putLong(timestamp).putInt(mask);
+    }
+
+    /**
+     * MOTORS 프레임 작성 (indices는 오름차순, MAX_MOTORS 미만)
+     */
+    public static void writeMotors(ByteBuffer buf, int seq, long timestamp, int[] indices, float[] values, int count) {
+        int mask = 0;
+        for (int i = 0; i < count; i++) {
+            if (indices[i] < 0 || indices[i] >= MAX_MOTORS) {
+                throw new IllegalArgumentException("Motor index out of range for UDP frame: " + indices[i]);
+            }
+            mask |= 1 << indices[i];
+        }
+        writeHeader(buf, TYPE_MOTORS, seq, timestamp, mask);
+        for (int i = 0; i < count; i++) buf.putFloat(values[i]);
+        buf.flip();
+    }
+
+    public static void writeStatsReply(ByteBuffer buf, int seq, long timestamp, String json) {
+        writeHeader(buf, TYPE_STATS_REPLY, seq, timestamp, 0);
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        buf.put(body, 0, Math.min(body.length, buf.remaining()));
+        buf.flip();
+    }
+
+    /**
+     * STATE 프레임 작성 (positionMask 비트의 state.positions 값만 포함)
+     */
+    public static void writeState(ByteBuffer buf, int seq, long timestamp, RobotState state) {
+        writeHeader(buf, TYPE_STATE, seq, timestamp, state.positionMask);
+        for (int m = state.positionMask; m != 0; m &= m - 1) {
+            buf.putFloat(state.positions[Integer.numberOfTrailingZeros(m)]);
+        }
+        for (int i = 0; i < 3; i++) buf.putFloat(state.orientation[i]);
+        for (int i = 0; i < 3; i++) buf.putFloat(state.gyro[i]);
+        for (int i = 0; i < 3; i++) buf.putFloat(state.accel[i]);
+        buf.putInt(state.contacts);
+        buf.putDouble(state.simTime);
+        buf.flip();
+    }
+
+    /** 헤더가 올바르면 type, 아니면 -1 */
+    public static int readType(ByteBuffer buf) {
+        if (buf.remaining() < HEADER_SIZE) return -1;
+        if (buf.getShort(0) != MAGIC || buf.get(2) != VERSION) return -1;
+        return buf.get(3);
+    }
+
+    public static int readSeq(ByteBuffer buf) { return buf.getInt(4); }
+    public static long readTimestamp(ByteBuffer buf) { return buf.getLong(8); }
+    public static int readMask(ByteBuffer buf) { return buf.getInt(16); }
+
+    /**
+     * MOTORS 프레임의 값을 motors[]에 반영
+     * @return 반영한 모터 수 (길이가 마스크와 안 맞으면 -1)
+     */
+    public static int readMotors(ByteBuffer buf, float[] motors) {
+        int mask = readMask(buf);
+        int n = Integer.bitCount(mask);
+        if (buf.limit() < HEADER_SIZE + n * 4) return -1;
+        int off = HEADER_SIZE;
+        for (int m = mask; m != 0; m &= m - 1) {
+            int index = Integer.numberOfTrailingZeros(m);
+            float v = buf.getFloat(off);
+            off += 4;
+            if (index < motors.length) motors[index] = v;
+        }
+        return n;
+    }
+
+    /**
+     * STATE 프레임을 state에 디코딩 (seq/timestamp 포함, receivedNanos는 호출자가 채움)
+     * @return 길이가 맞으면 true
+     */
+    public static boolean readState(ByteBuffer buf, RobotState state) {
+        int mask = readMask(buf);
+        int n = Integer.bitCount(mask);
+        if (buf.limit() < HEADER_SIZE + n * 4 + 9 * 4 + 4 + 8) return false;
+
+        state.seq = readSeq(buf);
+        state.remoteTimestamp = readTimestamp(buf);
+        state.positionMask = mask;
+        int off = HEADER_SIZE;
+        for (int m = mask; m != 0; m &= m - 1) {
+            state.positions[Integer.numberOfTrailingZeros(m)] = buf.getFloat(off);
+            off += 4;
+        }
+        for (int i = 0; i < 3; i++, off += 4) state.orientation[i] = buf.getFloat(off);
+        for (int i = 0; i < 3; i++, off += 4) state.gyro[i] = buf.getFloat(off);
+        for (int i = 0; i < 3; i++, off += 4) state.accel[i] = buf.getFloat(off);
+        state.contacts = buf.getInt(off);
+        state.simTime = buf.getDouble(off + 4);
+        return true;
+    }
+
+    public static String readBody(ByteBuffer buf) {
+        int len = buf.limit() - HEADER_SIZE;
+        if (len <= 0) return "";
+        byte[] body = new byte[len];
+        buf.get(HEADER_SIZE, body);
+        return new String(body, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,89 @@
+package com.kAIS.KAIMyEntity.webots;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * HttpWebotsTransport ↔ WebotsStandInServer 왕복 (set_joints 일괄 전송, seq 순서, get_stats)
+ */
+class HttpWebotsTransportTest {
+    private WebotsStandInServer server;
+    private HttpClient client;
+    private HttpWebotsTransport transport;
+
+    @BeforeEach
+    void start() throws Exception {
+        server = WebotsStandInServer.start(0);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        transport = new HttpWebotsTransport(client, "127.0.0.1", server.getPort(), 2000);
+    }
+
+    @AfterEach
+    void stop() {
+        transport.close();
+        server.close();
+    }
+
+    @Test
+    void encodesFrameWithoutLocale() {
+        assertEquals("0:0.5000,7:-1.2500", HttpWebotsTransport.encodeFrame(new int[]{0, 7}, new float[]{0.5f, -1.25f}, 2));
+        assertEquals("", HttpWebotsTransport.encodeFrame(new int[0], new float[0], 0));
+    }
+
+    @Test
+    void sendsWholeFrameInOneRequest() throws Exception {
+        int[] indices = {0, 3, WebotsController.MOTOR_COUNT - 1};
+        float[] values = {0.25f, -1.5f, 2.125f};
+
+        transport.sendFrame(indices, values, indices.length);
+
+        assertEquals(1, server.getSetJointsCount());
+        assertEquals(0, server.getSetJointCount());
+        for (int i = 0; i < indices.length; i++) {
+            assertEquals(values[i], server.getMotor(indices[i]), 1e-4f);
+        }
+        assertEquals("http", transport.getName());
+    }
+
+    @Test
+    void onlyCountedEntriesAreSent() throws Exception {
+        // 호출자는 배열을 재사용 → count 뒤쪽 값은 보내지 않아야 함
+        transport.sendFrame(new int[]{1, 2}, new float[]{0.5f, 9f}, 1);
+
+        assertEquals(0.5f, server.getMotor(1), 1e-4f);
+        assertEquals(0f, server.getMotor(2));
+    }
+
+    @Test
+    void serverDropsFramesOlderThanLastSeq() throws Exception {
+        transport.sendFrame(new int[]{4}, new float[]{1f}, 1);   // seq 1
+        transport.sendFrame(new int[]{4}, new float[]{2f}, 1);   // seq 2
+
+        // 늦게 도착한 옛 프레임 (seq 1)
+        HttpRequest stale = HttpRequest.newBuilder()
+                .uri(URI.create("http://127.0.0.1:" + server.getPort() + "/?command=set_joints&seq=1&values=4:3.0"))
+                .GET().build();
+        assertEquals(200, client.send(stale, HttpResponse.BodyHandlers.discarding()).statusCode());
+
+        assertEquals(2f, server.getMotor(4), 1e-4f);
+        assertEquals(1, server.getStaleFrameCount());
+    }
+
+    @Test
+    void statsReportBatchedCalls() throws Exception {
+        transport.sendFrame(new int[]{0, 1}, new float[]{0.1f, 0.2f}, 2);
+
+        String json = transport.requestStats(2000);
+
+        assertTrue(json.contains("\"set_joints\": 1"), json);
+        assertTrue(json.contains("\"motor_updates\": 2"), json);
+    }
+}
@@ -0,0 +1,151 @@
+package com.kAIS.KAIMyEntity.webots;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * WebotsUdpProtocol 인코딩/디코딩 + UdpWebotsTransport ↔ WebotsUdpLoopbackServer 왕복
+ */
+class UdpWebotsTransportTest {
+    private WebotsUdpLoopbackServer server;
+    private UdpWebotsTransport transport;
+
+    @BeforeEach
+    void start() throws Exception {
+        server = WebotsUdpLoopbackServer.start(0);
+        transport = new UdpWebotsTransport("127.0.0.1", server.getPort());
+    }
+
+    @AfterEach
+    void stop() {
+        transport.close();
+        server.close();
+    }
+
+    /** 서버 스레드가 frames개를 받을 때까지 대기 (UDP는 응답이 없음) */
+    private void awaitFrames(long frames) throws InterruptedException {
+        long deadline = System.nanoTime() + 2_000_000_000L;
+        while (server.getFrameCount() < frames) {
+            if (System.nanoTime() > deadline) fail("loopback server received " + server.getFrameCount() + "/" + frames + " frames");
+            Thread.sleep(2);
+        }
+    }
+
+    @Test
+    void motorsFrameRoundTrip() {
+        ByteBuffer buf = WebotsUdpProtocol.allocate();
+        int[] indices = {0, 5, WebotsUdpProtocol.MAX_MOTORS - 1};
+        float[] values = {0.5f, -2.25f, 3.75f};
+
+        WebotsUdpProtocol.writeMotors(buf, 42, 123456789L, indices, values, indices.length);
+
+        assertEquals(WebotsUdpProtocol.HEADER_SIZE + indices.length * 4, buf.limit());
+        assertEquals(WebotsUdpProtocol.TYPE_MOTORS, WebotsUdpProtocol.readType(buf));
+        assertEquals(42, WebotsUdpProtocol.readSeq(buf));
+        assertEquals(123456789L, WebotsUdpProtocol.readTimestamp(buf));
+        assertEquals((1 << 0) | (1 << 5) | (1 << 31), WebotsUdpProtocol.readMask(buf));
+
+        float[] motors = new float[WebotsUdpProtocol.MAX_MOTORS];
+        assertEquals(indices.length, WebotsUdpProtocol.readMotors(buf, motors));
+        for (int i = 0; i < indices.length; i++) assertEquals(values[i], motors[indices[i]]);
+        assertEquals(0f, motors[1]);
+    }
+
+    @Test
+    void stateFrameRoundTrip() {
+        RobotState sent = new RobotState();
+        sent.positionMask = (1 << 2) | (1 << 19);
+        sent.positions[2] = 0.75f;
+        sent.positions[19] = -1.5f;
+        sent.orientation[1] = 0.1f;
+        sent.gyro[2] = -0.2f;
+        sent.accel[0] = 9.81f;
+        sent.contacts = 0b101;
+        sent.simTime = 12.5;
+
+        ByteBuffer buf = WebotsUdpProtocol.allocate();
+        WebotsUdpProtocol.writeState(buf, 7, 99L, sent);
+
+        RobotState got = new RobotState();
+        assertEquals(WebotsUdpProtocol.TYPE_STATE, WebotsUdpProtocol.readType(buf));
+        assertTrue(WebotsUdpProtocol.readState(buf, got));
+        assertEquals(7, got.seq);
+        assertEquals(99L, got.remoteTimestamp);
+        assertEquals(sent.positionMask, got.positionMask);
+        assertEquals(0.75f, got.positions[2]);
+        assertEquals(-1.5f, got.positions[19]);
+        assertArrayEquals(sent.orientation, got.orientation);
+        assertArrayEquals(sent.gyro, got.gyro);
+        assertArrayEquals(sent.accel, got.accel);
+        assertEquals(0b101, got.contacts);
+        assertEquals(12.5, got.simTime);
+
+        // 잘린 프레임 → 실패
+        buf.limit(buf.limit() - 1);
+        assertFalse(WebotsUdpProtocol.readState(buf, new RobotState()));
+    }
+
+    @Test
+    void rejectsForeignPacketsAndOutOfRangeIndices() {
+        ByteBuffer buf = WebotsUdpProtocol.allocate();
+        buf.putInt(0xDEADBEEF).flip();
+        assertEquals(-1, WebotsUdpProtocol.readType(buf));
+
+        assertThrows(IllegalArgumentException.class, () -> WebotsUdpProtocol.writeMotors(
+                WebotsUdpProtocol.allocate(), 1, 0L, new int[]{WebotsUdpProtocol.MAX_MOTORS}, new float[]{1f}, 1));
+    }
+
+    @Test
+    void transportDeliversFramesToServer() throws Exception {
+        transport.sendFrame(new int[]{1, 8}, new float[]{0.25f, -0.5f}, 2);
+        transport.sendFrame(new int[]{8, 9}, new float[]{1.5f, 9f}, 1);   // count 뒤쪽(9)은 보내지 않음
+        awaitFrames(2);
+
+        assertEquals(0.25f, server.getMotor(1));
+        assertEquals(1.5f, server.getMotor(8));
+        assertEquals(0f, server.getMotor(9));
+        assertEquals(0, server.getLostCount());
+        assertEquals("udp", transport.getName());
+    }
+
+    @Test
+    void serverDropsStaleAndCountsLostSequences() throws Exception {
+        try (DatagramSocket raw = new DatagramSocket()) {
+            InetSocketAddress target = new InetSocketAddress("127.0.0.1", server.getPort());
+            ByteBuffer buf = WebotsUdpProtocol.allocate();
+            int[] seqs = {1, 4, 3};   // 2, 3 손실 후 3이 늦게 도착
+            float[] values = {1f, 4f, 3f};
+            for (int i = 0; i < seqs.length; i++) {
+                WebotsUdpProtocol.writeMotors(buf, seqs[i], System.nanoTime(), new int[]{0}, new float[]{values[i]}, 1);
+                raw.send(new DatagramPacket(buf.array(), 0, buf.limit(), target));
+                if (i < 2) awaitFrames(i + 1);
+            }
+
+            long deadline = System.nanoTime() + 2_000_000_000L;
+            while (server.getStaleCount() < 1 && System.nanoTime() < deadline) Thread.sleep(2);
+        }
+        assertEquals(1, server.getStaleCount());
+        assertEquals(2, server.getLostCount());
+        assertEquals(4f, server.getMotor(0));
+    }
+
+    @Test
+    void statsRequestGetsMatchingReply() throws Exception {
+        transport.sendFrame(new int[]{0}, new float[]{0.125f}, 1);
+        awaitFrames(1);
+
+        String json = transport.requestStats(2000);
+
+        assertTrue(json.contains("\"frames\": 1"), json);
+        assertTrue(json.contains("0.1250"), json);
+        assertEquals(0, server.getMalformedCount());
+    }
+}
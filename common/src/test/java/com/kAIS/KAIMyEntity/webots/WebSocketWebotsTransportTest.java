@@ -0,0 +1,109 @@
+package com.kAIS.KAIMyEntity.webots;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * WebSocketWebotsTransport ↔ WebotsWebSocketStandInServer 왕복 (MOTORS 송신, STATE 디코딩, 재연결)
+ */
+class WebSocketWebotsTransportTest {
+    private WebotsWebSocketStandInServer server;
+    private RobotStateBuffer states;
+    private WebSocketWebotsTransport transport;
+
+    @BeforeEach
+    void start() throws Exception {
+        server = WebotsWebSocketStandInServer.start(0, 200);
+        states = new RobotStateBuffer();
+        transport = new WebSocketWebotsTransport(HttpClient.newHttpClient(), "127.0.0.1", server.getPort(), states);
+    }
+
+    @AfterEach
+    void stop() {
+        transport.close();
+        server.close();
+    }
+
+    private static void await(String what, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 3_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("timed out waiting for " + what);
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void motorFramesReachServer() throws Exception {
+        transport.sendFrame(new int[]{2, 17}, new float[]{0.5f, -1.25f}, 2);
+        await("motor frame", () -> server.getMotorFrameCount() >= 1);
+
+        assertEquals(0.5f, server.getTarget(2));
+        assertEquals(-1.25f, server.getTarget(17));
+        assertEquals("websocket", transport.getName());
+    }
+
+    @Test
+    void decodesStateFramesIntoBuffer() throws Exception {
+        transport.sendFrame(new int[]{3}, new float[]{1f}, 1);
+
+        // 서버 엔코더는 목표값을 1차 지연으로 따라감 → 몇 프레임 뒤 1에 가까워짐
+        RobotState state = new RobotState();
+        await("encoder tracking", () -> states.read(state) && state.positions[3] > 0.9f);
+
+        assertTrue(state.hasPosition(3));
+        assertTrue(state.hasPosition(WebotsController.MOTOR_COUNT - 1));
+        assertEquals(0f, state.positions[0], 1e-6f);
+        assertEquals(9.81f, state.accel[2], 1e-6f);
+        assertTrue(state.isContact(0) && state.isContact(1));
+        assertTrue(state.simTime > 0);
+        assertTrue(state.seq > 0);
+        assertTrue(state.receivedNanos > 0);
+    }
+
+    @Test
+    void statsRequestGetsReply() throws Exception {
+        transport.sendFrame(new int[]{0}, new float[]{0.25f}, 1);
+        await("motor frame", () -> server.getMotorFrameCount() >= 1);
+
+        String json = transport.requestStats(2000);
+
+        assertTrue(json.contains("\"motor_frames\": 1"), json);
+        assertTrue(json.contains("0.2500"), json);
+    }
+
+    @Test
+    void reconnectsOnProbeAfterServerDrop() throws Exception {
+        transport.requestStats(2000);
+        assertEquals(1, server.getConnectCount());
+
+        server.dropClient();
+        await("disconnect noticed", () -> !transport.isOpen());
+
+        // 끊긴 동안 프레임은 바로 실패 (재연결은 프로브가 함)
+        assertThrows(IOException.class, () -> transport.sendFrame(new int[]{1}, new float[]{2f}, 1));
+        assertEquals(1, server.getConnectCount());
+
+        // 프로브 = 통계 요청 → 새 연결로 성공
+        assertNotNull(transport.requestStats(2000));
+        assertTrue(transport.isOpen());
+        assertEquals(1, transport.getReconnectCount());
+        assertEquals(2, server.getConnectCount());
+
+        transport.sendFrame(new int[]{1}, new float[]{2f}, 1);
+        await("motor frame after reconnect", () -> server.getTarget(1) == 2f);
+    }
+
+    @Test
+    void closedTransportStaysClosed() {
+        transport.close();
+        assertFalse(transport.isOpen());
+        assertThrows(IOException.class, () -> transport.requestStats(500));
+    }
+}
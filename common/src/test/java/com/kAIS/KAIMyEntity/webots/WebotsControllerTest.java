@@ -0,0 +1,130 @@
+package com.kAIS.KAIMyEntity.webots;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * WebotsController 제어 틱 (전송 계층은 켜고 끌 수 있는 가짜)
+ */
+class WebotsControllerTest {
+
+    /** 받은 프레임을 모터별로 기록, up=false면 전송/통계 모두 실패 */
+    static final class FakeTransport implements WebotsTransport {
+        volatile boolean up = true;
+        final float[] motors = new float[WebotsUdpProtocol.MAX_MOTORS];
+        volatile int frames;
+
+        FakeTransport() {
+            Arrays.fill(motors, Float.NaN);
+        }
+
+        @Override
+        public String getName() { return "fake"; }
+
+        @Override
+        public synchronized void sendFrame(int[] indices, float[] values, int count) throws IOException {
+            if (!up) throw new IOException("down");
+            for (int i = 0; i < count; i++) motors[indices[i]] = values[i];
+            frames++;
+        }
+
+        @Override
+        public String requestStats(int timeoutMs) throws IOException {
+            if (!up) throw new IOException("down");
+            return "{}";
+        }
+
+        @Override
+        public void close() {}
+
+        synchronized float motor(int index) { return motors[index]; }
+
+        synchronized void forget() { Arrays.fill(motors, Float.NaN); }
+    }
+
+    private FakeTransport transport;
+    private WebotsController controller;
+
+    @BeforeEach
+    void start() throws Exception {
+        transport = new FakeTransport();
+        controller = new WebotsController(WebotsBridgeRegistry.getInstance(), "127.0.0.1", 0, transport);
+        await("initial connection", controller::isConnected);
+    }
+
+    @AfterEach
+    void stop() {
+        controller.closeBridge();
+    }
+
+    private static void await(String what, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 3_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("timed out waiting for " + what);
+            Thread.sleep(2);
+        }
+    }
+
+    @Test
+    void highestMotorIndexIsSent() throws Exception {
+        int last = WebotsUdpProtocol.MAX_MOTORS - 1;
+        controller.setJointMap(WebotsJointMap.parse("test", new StringReader(
+                "[motors]\nHip = 0 ; -1 1\nTail = " + last + " ; -1 1\n")));
+
+        controller.setJoint("Tail", 0.5f);
+        controller.setJoint("Hip", -0.25f);
+        controller.controlTick();
+
+        assertEquals(0.5f, transport.motor(last));
+        assertEquals(-0.25f, transport.motor(0));
+        assertEquals(1, transport.frames);
+    }
+
+    @Test
+    void heldPoseIsResentAfterBreakerRecovers() throws Exception {
+        // 연속 실패로 회로 열림 (마지막 실패 프레임 값 = 유지할 자세)
+        transport.up = false;
+        float held = 0.3f;
+        for (int i = 0; controller.getCircuitBreaker().getState() == CircuitBreaker.State.CLOSED; i++) {
+            assertTrue(i < 100, "breaker never opened");
+            controller.setJoint("Neck", held - 0.05f * (i % 2));
+            controller.controlTick();
+        }
+        controller.setJoint("Neck", held);   // 회로 열림 → 버려짐
+        controller.controlTick();
+
+        // 복구: 프로브(백오프 후)가 성공하면 같은 자세를 계속 써도 다시 전송돼야 함
+        transport.up = true;
+        int motor = WebotsJointMap.getDefault().motorOf("Neck");
+        float expected = WebotsJointMap.getDefault().convert(WebotsJointMap.getDefault().entryOf("Neck"), held);
+        await("held pose re-sent", () -> {
+            controller.setJoint("Neck", held);
+            controller.controlTick();
+            return transport.motor(motor) == expected;
+        });
+        assertEquals(CircuitBreaker.State.CLOSED, controller.getCircuitBreaker().getState());
+    }
+
+    @Test
+    void valueFromFailedFrameIsResent() throws Exception {
+        int motor = WebotsJointMap.getDefault().motorOf("Neck");
+        transport.up = false;
+        controller.setJoint("Neck", 0.2f);
+        controller.controlTick();            // 실패 (회로는 아직 닫힘)
+
+        transport.up = true;
+        controller.setJoint("Neck", 0.2f);   // 같은 값 → 건너뛰면 로봇은 영영 못 받음
+        controller.controlTick();
+
+        assertEquals(WebotsJointMap.getDefault().convert(WebotsJointMap.getDefault().entryOf("Neck"), 0.2f),
+                transport.motor(motor));
+    }
+}
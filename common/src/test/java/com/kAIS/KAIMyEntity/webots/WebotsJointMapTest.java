@@ -0,0 +1,134 @@
+package com.kAIS.KAIMyEntity.webots;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * WebotsJointMap 파싱 검증 + "선형 + clamp" 컴파일 결과
+ */
+class WebotsJointMapTest {
+    private static final String MAP = """
+            # 테스트 매핑
+            [motors]
+            Neck = 0 ; -1 1
+            Knee = 2 ; 0 2      # 인덱스 1은 비워 둠
+
+            [joints]
+            head_yaw  = Neck ; -0.5 0.5
+            head_gain = Neck ; map -1 1 -0.5 0.5
+            knee      = Knee ; map 0 1 2 0
+            knee_off  = Knee ; 0.2 1.5 map 0 1 1 2
+            """;
+
+    private static WebotsJointMap parse(String text) throws IOException {
+        return WebotsJointMap.parse("test", new StringReader(text));
+    }
+
+    private static IllegalArgumentException rejects(String text) {
+        return assertThrows(IllegalArgumentException.class, () -> parse(text));
+    }
+
+    @Test
+    void rejectsDuplicateNamesAndIndices() {
+        assertTrue(rejects("[motors]\nNeck = 0 ; -1 1\nNeck = 1 ; -1 1\n").getMessage().contains("duplicate motor"));
+        assertTrue(rejects("[motors]\nNeck = 0 ; -1 1\n[joints]\nhead = Neck\nhead = Neck\n")
+                .getMessage().contains("duplicate joint"));
+
+        IllegalArgumentException e = rejects("[motors]\nNeck = 3 ; -1 1\nHead = 3 ; -1 1\n");
+        assertTrue(e.getMessage().contains("motor index 3"), e.getMessage());
+        assertTrue(e.getMessage().startsWith("test:3:"), "reports the second line: " + e.getMessage());
+
+        assertTrue(rejects("[motors]\nNeck = 0 ; -1 1\n[joints]\nNeck = Neck\n").getMessage().contains("shadows"));
+        assertTrue(rejects("[motors]\nNeck = 0 ; -1 1\n[joints]\nhead = Jaw\n").getMessage().contains("unknown motor"));
+    }
+
+    @Test
+    void rejectsBadRangesAndMaps() {
+        assertThrows(IllegalArgumentException.class, () -> parse("[motors]\nNeck = 0\n"));
+        assertThrows(IllegalArgumentException.class,
+                () -> parse("[motors]\nNeck = " + WebotsUdpProtocol.MAX_MOTORS + " ; -1 1\n"));
+        assertThrows(IllegalArgumentException.class, () -> parse("[motors]\nNeck = 0 ; -1 1\n[joints]\nh = Neck ; map 1 1 0 1\n"));
+        // 관절 범위와 map 출력 구간이 겹치지 않음
+        assertThrows(IllegalArgumentException.class, () -> parse("[motors]\nNeck = 0 ; -1 1\n[joints]\nh = Neck ; map 0 1 2 3\n"));
+        assertThrows(IllegalArgumentException.class, () -> parse("Neck = 0 ; -1 1\n"));
+    }
+
+    @Test
+    void compilesScaleOffsetAndClamp() throws IOException {
+        WebotsJointMap map = parse(MAP);
+        assertEquals(3, map.getMotorCount());
+        assertNull(map.getMotorName(1));
+        assertEquals("Knee", map.getMotorName(2));
+
+        // 모터 이름 그대로: 값 그대로 + 모터 범위
+        int neck = map.entryOf("Neck");
+        assertEquals(0.3f, map.convert(neck, 0.3f), 1e-6f);
+        assertEquals(1f, map.convert(neck, 4f), 1e-6f);
+
+        // 범위만: 관절 범위로 clamp
+        int yaw = map.entryOf("head_yaw");
+        assertEquals(0, map.motorOf(yaw));
+        assertEquals(0.5f, map.convert(yaw, 0.9f), 1e-6f);
+        assertEquals(-0.5f, map.convert(yaw, -0.9f), 1e-6f);
+        assertEquals(0.9f, map.convertUnclamped(yaw, 0.9f), 1e-6f);
+
+        // map: scale 0.5, 구간 밖은 출력 끝값
+        int gain = map.entryOf("head_gain");
+        assertEquals(0.25f, map.convert(gain, 0.5f), 1e-6f);
+        assertEquals(0.5f, map.convert(gain, 3f), 1e-6f);
+
+        // 반전 출력 구간: 0 → 2, 1 → 0, 바깥은 [0, 2]
+        int knee = map.entryOf("knee");
+        assertEquals(2f, map.convert(knee, 0f), 1e-6f);
+        assertEquals(1.5f, map.convert(knee, 0.25f), 1e-6f);
+        assertEquals(0f, map.convert(knee, 1f), 1e-6f);
+        assertEquals(0f, map.convert(knee, 5f), 1e-6f);
+        assertEquals(2f, map.convert(knee, -5f), 1e-6f);
+
+        // offset + 관절 범위와 map 출력 구간의 교집합 [1, 1.5]
+        int off = map.entryOf("knee_off");
+        assertEquals(1.25f, map.convert(off, 0.25f), 1e-6f);
+        assertEquals(1.5f, map.convert(off, 0.9f), 1e-6f);
+        assertEquals(1f, map.convert(off, -1f), 1e-6f);
+
+        assertEquals(-1, map.entryOf("missing"));
+        assertEquals(-1, map.motorOf("missing"));
+    }
+
+    @Test
+    void bindingMatchesPerEntryConvert() throws IOException {
+        WebotsJointMap map = parse(MAP);
+        String[] columns = {"knee", "unmapped", "head_gain", "knee_off"};
+        WebotsJointMap.Binding binding = map.bind(columns);
+        assertEquals(3, binding.getMappedCount());
+        assertEquals(2, binding.motorOf(0));
+        assertEquals(-1, binding.motorOf(1));
+        assertTrue(binding.isFor(map, columns));
+
+        float[] values = {0.25f, 0.3f, -4f, 0.9f};
+        float[] out = binding.convert(values);
+        assertEquals(map.convert(map.entryOf("knee"), 0.25f), out[0], 0f);
+        assertTrue(Float.isNaN(out[1]), "unmapped column");
+        assertEquals(map.convert(map.entryOf("head_gain"), -4f), out[2], 0f);
+        assertEquals(map.convert(map.entryOf("knee_off"), 0.9f), out[3], 0f);
+        assertEquals(0.9f + 1f, binding.unclamped(3, 0.9f), 1e-6f);
+
+        // 값 없음(NaN)은 clamp 뒤에도 NaN → 전송하지 않음
+        out = binding.convert(new float[]{Float.NaN, Float.NaN, Float.NaN, 0.5f});
+        assertTrue(Float.isNaN(out[0]));
+        assertTrue(Float.isNaN(out[1]));
+        assertTrue(Float.isNaN(out[2]));
+        assertEquals(1.5f, out[3], 1e-6f);
+    }
+
+    @Test
+    void defaultMapLoads() {
+        WebotsJointMap map = WebotsJointMap.getDefault();
+        assertEquals(20, map.getMotorCount());
+        assertEquals(0, map.motorOf("ShoulderR"));
+    }
+}
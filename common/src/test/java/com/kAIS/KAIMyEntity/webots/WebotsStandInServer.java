@@ -0,0 +1,215 @@
+package com.kAIS.KAIMyEntity.webots;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Webots 로봇 컨트롤러 대역 서버 (테스트 소스, 모드 jar에 포함 안 됨)
+ * - WebotsController와 같은 HTTP 프로토콜: get_stats, set_joint, set_joints
+ * - set_joints의 seq가 이미 받은 것보다 작으면 옛 프레임으로 보고 버림 (동시 요청 순서 뒤바뀜 대비)
+ * - 응답 지연을 넣어 느린 서버 흉내 가능 (setResponseDelayMs)
+ * - 받은 모터 값을 배열에 기록 → 전송 결과/왕복 지연 확인용
+ *
+ * 단독 실행: ./gradlew :common:webotsStandIn --args="[port]"
+ */
+public final class WebotsStandInServer implements AutoCloseable {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    static {
+        // 기본값(Nagle on)이면 응답 헤더/본문 분할 전송이 지연 ACK와 겹쳐 요청마다 ~40 ms 지연
+        // → 서버 쪽 병목으로 측정됨. 첫 HttpServer 생성 전에 설정해야 적용됨
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private final float[] motors = new float[WebotsController.MOTOR_COUNT];
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong setJointCalls = new AtomicLong();
+    private final AtomicLong setJointsCalls = new AtomicLong();
+    private final AtomicLong motorUpdates = new AtomicLong();
+    private final AtomicLong staleFrames = new AtomicLong();
+    private long lastSeq = 0; // motors로 동기화
+    private volatile long lastUpdateNanos;
+    private volatile int responseDelayMs = 0;
+
+    private WebotsStandInServer(int port) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        AtomicInteger threadId = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(4, r -> {
+            Thread t = new Thread(r, "Webots-StandIn-" + threadId.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+    }
+
+    /** port 0 = 빈 포트 자동 선택 */
+    public static WebotsStandInServer start(int port) throws IOException {
+        WebotsStandInServer s = new WebotsStandInServer(port);
+        s.server.start();
+        LOGGER.info("✅ Webots stand-in server listening on 127.0.0.1:{}", s.getPort());
+        return s;
+    }
+
+    public int getPort() { return server.getAddress().getPort(); }
+
+    public float getMotor(int index) {
+        synchronized (motors) {
+            return motors[index];
+        }
+    }
+
+    public long getRequestCount() { return requests.get(); }
+    public long getSetJointCount() { return setJointCalls.get(); }
+    public long getSetJointsCount() { return setJointsCalls.get(); }
+    public long getStaleFrameCount() { return staleFrames.get(); }
+
+    /** 모든 응답 전에 지연 (느린 서버 흉내) */
+    public void setResponseDelayMs(int ms) { this.responseDelayMs = ms; }
+
+    /** 마지막으로 모터 값을 받은 시각 (System.nanoTime 기준, 없으면 0) */
+    public long getLastUpdateNanos() { return lastUpdateNanos; }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // ========== 요청 처리 ==========
+
+    private void handle(HttpExchange ex) throws IOException {
+        requests.incrementAndGet();
+        int delay = responseDelayMs;
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Map<String, String> q = parseQuery(ex.getRequestURI().getRawQuery());
+        String command = q.getOrDefault("command", "");
+
+        try {
+            switch (command) {
+                case "get_stats" -> reply(ex, 200, statsJson());
+                case "set_joint" -> {
+                    int index = Integer.parseInt(q.get("index"));
+                    float value = Float.parseFloat(q.get("value"));
+                    setMotor(index, value);
+                    setJointCalls.incrementAndGet();
+                    reply(ex, 200, "{\"ok\": true}");
+                }
+                case "set_joints" -> {
+                    long seq = Long.parseLong(q.getOrDefault("seq", "0"));
+                    int n = applyFrame(seq, q.getOrDefault("values", ""));
+                    setJointsCalls.incrementAndGet();
+                    reply(ex, 200, "{\"ok\": true, \"count\": " + n + "}");
+                }
+                default -> reply(ex, 400, "{\"error\": \"unknown command: " + command + "\"}");
+            }
+        } catch (RuntimeException e) {
+            reply(ex, 400, "{\"error\": \"" + e.getClass().getSimpleName() + "\"}");
+        }
+    }
+
+    private int applyFrame(long seq, String values) {
+        if (values.isEmpty()) return 0;
+        String[] entries = values.split(",");
+        synchronized (motors) {
+            if (seq > 0) {
+                if (seq <= lastSeq) {
+                    staleFrames.incrementAndGet();
+                    return 0;
+                }
+                lastSeq = seq;
+            }
+            for (String entry : entries) {
+                int colon = entry.indexOf(':');
+                int index = Integer.parseInt(entry.substring(0, colon));
+                float value = Float.parseFloat(entry.substring(colon + 1));
+                motors[index] = value;
+            }
+        }
+        motorUpdates.addAndGet(entries.length);
+        lastUpdateNanos = System.nanoTime();
+        return entries.length;
+    }
+
+    private void setMotor(int index, float value) {
+        synchronized (motors) {
+            motors[index] = value;
+        }
+        motorUpdates.incrementAndGet();
+        lastUpdateNanos = System.nanoTime();
+    }
+
+    private String statsJson() {
+        StringBuilder sb = new StringBuilder("{");
+        sb.append("\"requests\": ").append(requests.get())
+          .append(", \"set_joint\": ").append(setJointCalls.get())
+          .append(", \"set_joints\": ").append(setJointsCalls.get())
+          .append(", \"motor_updates\": ").append(motorUpdates.get())
+          .append(", \"stale\": ").append(staleFrames.get())
+          .append(", \"motors\": [");
+        synchronized (motors) {
+            for (int i = 0; i < motors.length; i++) {
+                if (i > 0) sb.append(", ");
+                sb.append(String.format(Locale.ROOT, "%.4f", motors[i]));
+            }
+        }
+        return sb.append("]}").toString();
+    }
+
+    private static void reply(HttpExchange ex, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = ex.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String raw) {
+        Map<String, String> out = new HashMap<>();
+        if (raw == null || raw.isEmpty()) return out;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String k = eq >= 0 ? pair.substring(0, eq) : pair;
+            String v = eq >= 0 ? pair.substring(eq + 1) : "";
+            out.put(URLDecoder.decode(k, StandardCharsets.UTF_8), URLDecoder.decode(v, StandardCharsets.UTF_8));
+        }
+        return out;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        WebotsStandInServer s = start(port);
+        Runtime.getRuntime().addShutdownHook(new Thread(s::close));
+        while (true) {
+            Thread.sleep(5000);
+            LOGGER.info("Stand-in stats: {}", s.statsJson());
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.kAIS.KAIMyEntity.webots;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+
+/**
+ * UDP 전송 확인용 루프백 서버 (테스트 소스, 모드 jar에 포함 안 됨)
+ * - MOTORS 프레임 수신 → 모터 값 기록, 시퀀스 손실/역순 집계
+ * - STATS_REQUEST → JSON 통계 응답
+ * - 같은 프로세스에서 돌리면 프레임 timestamp로 단방향 지연도 측정
+ *
+ * 단독 실행: ./gradlew :common:webotsUdpLoopback --args="[port]"
+ */
+public final class WebotsUdpLoopbackServer implements AutoCloseable {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private final DatagramSocket socket;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    private final float[] motors = new float[WebotsUdpProtocol.MAX_MOTORS];
+    private volatile long frames;
+    private volatile long lost;
+    private volatile long stale;
+    private volatile long malformed;
+    private volatile long lastLatencyNanos;
+    private volatile long maxLatencyNanos;
+    private volatile long lastFrameNanos;
+    private int lastSeq = 0;
+
+    private WebotsUdpLoopbackServer(int port) throws SocketException {
+        this.socket = new DatagramSocket(new InetSocketAddress("127.0.0.1", port));
+        this.thread = new Thread(this::run, "Webots-UdpLoopback");
+        this.thread.setDaemon(true);
+    }
+
+    /** port 0 = 빈 포트 자동 선택 */
+    public static WebotsUdpLoopbackServer start(int port) throws SocketException {
+        WebotsUdpLoopbackServer s = new WebotsUdpLoopbackServer(port);
+        s.thread.start();
+        LOGGER.info("✅ Webots UDP loopback server listening on 127.0.0.1:{}", s.getPort());
+        return s;
+    }
+
+    public int getPort() { return socket.getLocalPort(); }
+
+    public float getMotor(int index) {
+        synchronized (motors) {
+            return motors[index];
+        }
+    }
+
+    public long getFrameCount() { return frames; }
+    public long getLostCount() { return lost; }
+    public long getStaleCount() { return stale; }
+    public long getMalformedCount() { return malformed; }
+
+    /** 마지막 프레임 수신 시각 (System.nanoTime, 없으면 0) */
+    public long getLastFrameNanos() { return lastFrameNanos; }
+
+    /** 마지막 프레임의 송신→수신 지연 (같은 프로세스일 때만 의미 있음) */
+    public long getLastLatencyNanos() { return lastLatencyNanos; }
+
+    private void run() {
+        byte[] bytes = new byte[WebotsUdpProtocol.MAX_PACKET];
+        DatagramPacket packet = new DatagramPacket(bytes, bytes.length);
+        ByteBuffer reply = WebotsUdpProtocol.allocate();
+
+        while (running) {
+            try {
+                packet.setLength(bytes.length);
+                socket.receive(packet);
+                long now = System.nanoTime();
+                ByteBuffer buf = ByteBuffer.wrap(bytes, 0, packet.getLength()).slice();
+
+                int type = WebotsUdpProtocol.readType(buf);
+                if (type == WebotsUdpProtocol.TYPE_MOTORS) {
+                    onMotors(buf, now);
+                } else if (type == WebotsUdpProtocol.TYPE_STATS_REQUEST) {
+                    WebotsUdpProtocol.writeStatsReply(reply, WebotsUdpProtocol.readSeq(buf), now, statsJson());
+                    socket.send(new DatagramPacket(reply.array(), 0, reply.limit(), packet.getSocketAddress()));
+                } else {
+                    malformed++;
+                }
+            } catch (IOException e) {
+                if (running) LOGGER.warn("UDP loopback receive failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void onMotors(ByteBuffer buf, long now) {
+        int seq = WebotsUdpProtocol.readSeq(buf);
+        if (lastSeq != 0 && seq - lastSeq <= 0) {
+            stale++; // 늦게 도착한 이전 프레임 → 버림 (최신값이 이미 반영됨)
+            return;
+        }
+        if (lastSeq != 0 && seq - lastSeq > 1) lost += seq - lastSeq - 1;
+        lastSeq = seq;
+
+        int n;
+        synchronized (motors) {
+            n = WebotsUdpProtocol.readMotors(buf, motors);
+        }
+        if (n < 0) {
+            malformed++;
+            return;
+        }
+        long latency = now - WebotsUdpProtocol.readTimestamp(buf);
+        lastLatencyNanos = latency;
+        if (latency > maxLatencyNanos) maxLatencyNanos = latency;
+        frames++;
+        lastFrameNanos = now;
+    }
+
+    private String statsJson() {
+        StringBuilder sb = new StringBuilder("{");
+        sb.append("\"frames\": ").append(frames)
+          .append(", \"lost\": ").append(lost)
+          .append(", \"stale\": ").append(stale)
+          .append(", \"malformed\": ").append(malformed)
+          .append(", \"last_latency_us\": ").append(lastLatencyNanos / 1000)
+          .append(", \"max_latency_us\": ").append(maxLatencyNanos / 1000)
+          .append(", \"motors\": [");
+        synchronized (motors) {
+            for (int i = 0; i < WebotsController.MOTOR_COUNT; i++) {
+                if (i > 0) sb.append(", ");
+                sb.append(String.format(Locale.ROOT, "%.4f", motors[i]));
+            }
+        }
+        return sb.append("]}").toString();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        socket.close();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8081;
+        WebotsUdpLoopbackServer s = start(port);
+        Runtime.getRuntime().addShutdownHook(new Thread(s::close));
+        while (true) {
+            Thread.sleep(5000);
+            LOGGER.info("UDP loopback stats: {}", s.statsJson());
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.kAIS.KAIMyEntity.webots;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Webots 로봇 컨트롤러 대역 WebSocket 서버 (테스트 소스, 모드 jar에 포함 안 됨, 최소 RFC 6455 구현)
+ * - 바이너리 메시지 = WebotsUdpProtocol 프레임
+ * - MOTORS를 받으면 목표값 기록, STATS_REQUEST에는 STATS_REPLY(JSON)로 응답
+ * - 일정 주기로 STATE 프레임 전송: 엔코더는 목표값을 1차 지연으로 따라가고,
+ *   IMU는 정지 상태, 양발 접촉 → 상태 수신/지연 확인용
+ *
+ * 한 번에 클라이언트 1개만 처리.
+ * 단독 실행: ./gradlew :common:webotsWsStandIn --args="[port] [stateHz]"
+ */
+public final class WebotsWebSocketStandInServer implements AutoCloseable {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final String WS_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+    private static final int OP_CONTINUATION = 0x0;
+    private static final int OP_BINARY = 0x2;
+    private static final int OP_CLOSE = 0x8;
+    private static final int OP_PING = 0x9;
+    private static final int OP_PONG = 0xA;
+
+    private static final float TRACKING_GAIN = 0.3f; // 상태 주기마다 목표값 쪽으로 30%
+
+    private final ServerSocket serverSocket;
+    private final Thread acceptThread;
+    private final ScheduledExecutorService stateScheduler;
+    private final int stateHz;
+
+    private final float[] targets = new float[WebotsController.MOTOR_COUNT];
+    private final RobotState state = new RobotState();       // stateScheduler 전용
+    private final ByteBuffer stateBuf = WebotsUdpProtocol.allocate();
+    private int stateSeq = 0;
+
+    private volatile Socket client;
+    private volatile OutputStream clientOut;
+    private volatile boolean running = true;
+
+    private final AtomicLong motorFrames = new AtomicLong();
+    private final AtomicLong stateFrames = new AtomicLong();
+    private final AtomicLong statsRequests = new AtomicLong();
+    private final AtomicLong connects = new AtomicLong();
+    private volatile long lastFrameNanos;
+
+    private WebotsWebSocketStandInServer(int port, int stateHz) throws IOException {
+        this.serverSocket = new ServerSocket(port, 1, InetAddress.getLoopbackAddress());
+        this.stateHz = stateHz;
+        this.acceptThread = new Thread(this::acceptLoop, "Webots-WsStandIn");
+        this.acceptThread.setDaemon(true);
+        this.stateScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "Webots-WsStandIn-State");
+            t.setDaemon(true);
+            return t;
+        });
+        state.positionMask = (int) ((1L << targets.length) - 1);
+        state.accel[2] = 9.81f;
+        state.contacts = 0b11;
+    }
+
+    /** port 0 = 빈 포트 자동 선택 */
+    public static WebotsWebSocketStandInServer start(int port, int stateHz) throws IOException {
+        WebotsWebSocketStandInServer s = new WebotsWebSocketStandInServer(port, stateHz);
+        s.acceptThread.start();
+        long periodUs = 1_000_000L / Math.max(1, stateHz);
+        s.stateScheduler.scheduleAtFixedRate(s::pushState, periodUs, periodUs, TimeUnit.MICROSECONDS);
+        LOGGER.info("✅ Webots WebSocket stand-in listening on 127.0.0.1:{} (state {} Hz)", s.getPort(), stateHz);
+        return s;
+    }
+
+    public int getPort() { return serverSocket.getLocalPort(); }
+
+    public float getTarget(int index) {
+        synchronized (targets) {
+            return targets[index];
+        }
+    }
+
+    public long getMotorFrameCount() { return motorFrames.get(); }
+    public long getStateFrameCount() { return stateFrames.get(); }
+
+    /** 접속한 클라이언트 수 (재연결 포함) */
+    public long getConnectCount() { return connects.get(); }
+
+    /** 서버 쪽에서 현재 클라이언트 연결을 끊음 (재연결 확인용, 이후 접속은 계속 받음) */
+    public void dropClient() {
+        closeClient();
+    }
+
+    /** 마지막으로 MOTORS 프레임을 받은 시각 (System.nanoTime 기준, 없으면 0) */
+    public long getLastFrameNanos() { return lastFrameNanos; }
+
+    @Override
+    public void close() {
+        running = false;
+        stateScheduler.shutdownNow();
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+        }
+        closeClient();
+    }
+
+    // ========== 연결 ==========
+
+    private void acceptLoop() {
+        while (running) {
+            try (Socket s = serverSocket.accept()) {
+                s.setTcpNoDelay(true);
+                InputStream in = s.getInputStream();
+                OutputStream out = s.getOutputStream();
+                if (!handshake(in, out)) continue;
+
+                client = s;
+                clientOut = out;
+                connects.incrementAndGet();
+                LOGGER.info("WebSocket client connected: {}", s.getRemoteSocketAddress());
+                readLoop(new DataInputStream(in));
+            } catch (IOException e) {
+                if (running) LOGGER.info("WebSocket client disconnected: {}", e.getMessage());
+            } finally {
+                clientOut = null;
+                client = null;
+            }
+        }
+    }
+
+    private boolean handshake(InputStream in, OutputStream out) throws IOException {
+        String request = readHttpHeader(in);
+        String key = null;
+        for (String line : request.split("\r\n")) {
+            int colon = line.indexOf(':');
+            if (colon > 0 && line.substring(0, colon).trim().equalsIgnoreCase("Sec-WebSocket-Key")) {
+                key = line.substring(colon + 1).trim();
+            }
+        }
+        if (key == null) {
+            out.write("HTTP/1.1 400 Bad Request\r\nContent-Length: 0\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            return false;
+        }
+        String response = "HTTP/1.1 101 Switching Protocols\r\n"
+                + "Upgrade: websocket\r\n"
+                + "Connection: Upgrade\r\n"
+                + "Sec-WebSocket-Accept: " + acceptKey(key) + "\r\n\r\n";
+        out.write(response.getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        return true;
+    }
+
+    /** 빈 줄까지 바이트 단위로 읽음 (뒤따르는 프레임 바이트를 버퍼링하지 않도록) */
+    private static String readHttpHeader(InputStream in) throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        int matched = 0;
+        while (matched < 4) {
+            int b = in.read();
+            if (b < 0) throw new EOFException("handshake");
+            header.write(b);
+            matched = (b == (matched % 2 == 0 ? '\r' : '\n')) ? matched + 1 : (b == '\r' ? 1 : 0);
+        }
+        return header.toString(StandardCharsets.US_ASCII);
+    }
+
+    private static String acceptKey(String key) {
+        try {
+            MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+            byte[] digest = sha1.digest((key + WS_GUID).getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void closeClient() {
+        Socket s = client;
+        if (s != null) {
+            try {
+                s.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    // ========== 프레임 수신 ==========
+
+    private void readLoop(DataInputStream in) throws IOException {
+        ByteArrayOutputStream message = new ByteArrayOutputStream();
+        int messageOp = 0;
+        while (running) {
+            int b0 = in.readUnsignedByte();
+            int b1 = in.readUnsignedByte();
+            boolean fin = (b0 & 0x80) != 0;
+            int op = b0 & 0x0F;
+            long len = b1 & 0x7F;
+            if (len == 126) len = in.readUnsignedShort();
+            else if (len == 127) len = in.readLong();
+            if (len > WebotsUdpProtocol.MAX_PACKET * 16L) throw new IOException("frame too large: " + len);
+
+            byte[] mask = new byte[4];
+            if ((b1 & 0x80) != 0) in.readFully(mask);
+            byte[] payload = new byte[(int) len];
+            in.readFully(payload);
+            for (int i = 0; i < payload.length; i++) payload[i] ^= mask[i & 3];
+
+            switch (op) {
+                case OP_CLOSE -> {
+                    writeFrame(OP_CLOSE, payload, Math.min(payload.length, 2));
+                    return;
+                }
+                case OP_PING -> writeFrame(OP_PONG, payload, payload.length);
+                case OP_PONG -> { }
+                default -> {
+                    if (op != OP_CONTINUATION) {
+                        messageOp = op;
+                        message.reset();
+                    }
+                    message.write(payload);
+                    if (fin && messageOp == OP_BINARY) {
+                        onBinary(ByteBuffer.wrap(message.toByteArray()));
+                    }
+                }
+            }
+        }
+    }
+
+    private void onBinary(ByteBuffer buf) throws IOException {
+        switch (WebotsUdpProtocol.readType(buf)) {
+            case WebotsUdpProtocol.TYPE_MOTORS -> {
+                synchronized (targets) {
+                    WebotsUdpProtocol.readMotors(buf, targets);
+                }
+                motorFrames.incrementAndGet();
+                lastFrameNanos = System.nanoTime();
+            }
+            case WebotsUdpProtocol.TYPE_STATS_REQUEST -> {
+                statsRequests.incrementAndGet();
+                ByteBuffer reply = WebotsUdpProtocol.allocate();
+                WebotsUdpProtocol.writeStatsReply(reply, WebotsUdpProtocol.readSeq(buf), System.nanoTime(), statsJson());
+                writeFrame(OP_BINARY, reply.array(), reply.limit());
+            }
+            default -> { }
+        }
+    }
+
+    // ========== 상태 송신 ==========
+
+    private void pushState() {
+        synchronized (targets) {
+            for (int i = 0; i < targets.length; i++) {
+                state.positions[i] += (targets[i] - state.positions[i]) * TRACKING_GAIN;
+            }
+        }
+        state.simTime += 1.0 / stateHz;
+        if (clientOut == null) return;
+
+        WebotsUdpProtocol.writeState(stateBuf, ++stateSeq, System.nanoTime(), state);
+        try {
+            writeFrame(OP_BINARY, stateBuf.array(), stateBuf.limit());
+            stateFrames.incrementAndGet();
+        } catch (IOException e) {
+            closeClient();
+        }
+    }
+
+    /** 서버 → 클라이언트 프레임 (마스크 없음) */
+    private void writeFrame(int op, byte[] payload, int len) throws IOException {
+        OutputStream out = clientOut;
+        if (out == null) return;
+        byte[] header;
+        if (len < 126) {
+            header = new byte[]{(byte) (0x80 | op), (byte) len};
+        } else if (len < 65536) {
+            header = new byte[]{(byte) (0x80 | op), 126, (byte) (len >>> 8), (byte) len};
+        } else {
+            throw new IOException("frame too large: " + len);
+        }
+        synchronized (this) {
+            out.write(header);
+            out.write(payload, 0, len);
+            out.flush();
+        }
+    }
+
+    private String statsJson() {
+        StringBuilder sb = new StringBuilder("{");
+        sb.append("\"motor_frames\": ").append(motorFrames.get())
+          .append(", \"state_frames\": ").append(stateFrames.get())
+          .append(", \"stats_requests\": ").append(statsRequests.get())
+          .append(", \"sim_time\": ").append(String.format(Locale.ROOT, "%.3f", state.simTime))
+          .append(", \"targets\": [");
+        synchronized (targets) {
+            for (int i = 0; i < targets.length; i++) {
+                if (i > 0) sb.append(", ");
+                sb.append(String.format(Locale.ROOT, "%.4f", targets[i]));
+            }
+        }
+        return sb.append("]}").toString();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8082;
+        int hz = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        WebotsWebSocketStandInServer s = start(port, hz);
+        Runtime.getRuntime().addShutdownHook(new Thread(s::close));
+        while (true) {
+            Thread.sleep(5000);
+            LOGGER.info("WebSocket stand-in stats: {}", s.statsJson());
+        }
+    }
+}
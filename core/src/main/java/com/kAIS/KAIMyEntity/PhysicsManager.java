@@ -0,0 +1,709 @@
+package com.kAIS.KAIMyEntity;
+
+import com.kAIS.KAIMyEntity.urdf.URDFRobotModel;
+import com.kAIS.KAIMyEntity.urdf.physics.BroadphaseConfig;
+import com.kAIS.KAIMyEntity.urdf.physics.ContactPipeline;
+import com.kAIS.KAIMyEntity.urdf.physics.PhysicsCommandRing;
+import com.kAIS.KAIMyEntity.urdf.physics.PhysicsRecording;
+import com.kAIS.KAIMyEntity.urdf.physics.PhysicsRobot;
+import com.kAIS.KAIMyEntity.urdf.physics.PhysicsSnapshot;
+import com.kAIS.KAIMyEntity.urdf.physics.URDFPhysicsBuilder;
+import com.kAIS.KAIMyEntity.webots.WebotsControlLoop;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.ode4j.ode.DBody;
+import org.ode4j.ode.DGeom;
+import org.ode4j.ode.DWorld;
+import org.ode4j.ode.DSpace;
+import org.ode4j.ode.OdeHelper;
+import org.ode4j.ode.internal.Misc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// ODE4J는 순수 자바 라이브러리이므로 NativeFunc 대신 PhysicsManager라는 이름이 더 적절합니다.
+public class PhysicsManager {
+    public static final Logger logger = LogManager.getLogger();
+    private static PhysicsManager inst;
+
+    // ODE4J 핵심 객체
+    private DWorld world;
+    private DSpace space;
+    private BroadphaseConfig broadphase = new BroadphaseConfig(); // 기본 HASH
+    private ContactPipeline contacts;
+    private DGeom ground;                // 지면 평면 (null = 없음)
+    // 물리 시뮬레이션 스텝 설정 (기본값)
+    // 관절체는 큰 스텝에서 불안정 → 작은 고정 스텝을 누적기로 여러 번 (호출 주기와 무관)
+    public static final double DEFAULT_FIXED_STEP = 0.002;  // 2 ms
+    public static final int DEFAULT_MAX_SUBSTEPS = 50;      // 호출 한 번에 최대 100 ms 분량
+    private static final double LEGACY_TICK = 0.05;         // updatePhysics() = 게임 틱 1회 (20 Hz)
+
+    private double fixedStep = DEFAULT_FIXED_STEP;
+    private int maxSubsteps = DEFAULT_MAX_SUBSTEPS;
+    private double accumulator = 0;
+    private double alpha = 1;           // 렌더 보간 계수 (이전 스텝 → 현재 스텝)
+    private double simTime = 0;
+    private long stepCount = 0;
+    private long droppedSteps = 0;      // 한도를 넘어 버린 스텝 수 (프레임 끊김)
+
+    // URDF에서 만든 관절체들
+    private final List<PhysicsRobot> robots = new CopyOnWriteArrayList<>();
+
+    // 물리 스레드 (startThread 후에는 스텝을 이 스레드가 전담, 렌더 프레임 시간을 먹지 않음)
+    // - 관절 명령: 클라이언트 스레드 → SPSC 링 버퍼 → 스텝 직전에 적용
+    // - 상태: 스텝 후 로봇마다 더블 버퍼에 게시 → 렌더러/RL은 락 없이 읽음 (syncRenderState, readState)
+    // - 로봇 추가/제거/중력 같은 드문 구조 변경만 worldLock (스텝 한 번 동안만 잡힘)
+    public static final int COMMAND_CAPACITY = 4096;
+    private final PhysicsCommandRing commands = new PhysicsCommandRing(COMMAND_CAPACITY);
+    private final PhysicsCommandRing.Sink commandSink = this::applyCommand;
+    private final Object worldLock = new Object();
+    private WebotsControlLoop stepLoop;
+    private volatile boolean threaded = false;
+    private long lastTickNanos;
+
+    // 에피소드 리셋 지점 (saveResetPoint → resetToSavedPoint)
+    private PhysicsSnapshot resetPoint;
+
+    // 결정적 모드: 정렬된 접촉 + 시드 고정 난수 → 같은 시작 상태 + 같은 명령 = 비트 단위로 같은 궤적
+    // (자바 17+는 부동소수점 연산이 항상 strict, 스텝 크기는 원래 고정)
+    private boolean deterministic = false;
+    private long seed = 0;
+    private PhysicsRecording recording;          // 기록 중이면 non-null
+    private long recordingStart;                 // 기록 시작 stepCount
+    private final PhysicsSnapshot hashScratch = new PhysicsSnapshot();
+
+    // 자동 잠들기: 가만히 있는 로봇은 ODE가 섬째로 비활성 → 스텝/제어/게시를 건너뜀 (명령이 오면 깨움)
+    private boolean autoSleep = true;
+    private double sleepLinear = PhysicsRobot.DEFAULT_SLEEP_LINEAR;
+    private double sleepAngular = PhysicsRobot.DEFAULT_SLEEP_ANGULAR;
+    private int sleepSteps = PhysicsRobot.DEFAULT_SLEEP_STEPS;
+    private int activeBodies = 0;       // 마지막 스텝 기준
+    private int sleepingBodies = 0;
+    private int sleepingRobots = 0;
+
+    // 싱글톤 인스턴스 가져오기
+    public static PhysicsManager GetInst() {
+        if (inst == null) {
+            inst = new PhysicsManager();
+            inst.Init();
+        }
+        return inst;
+    }
+
+    /** 이미 만들어졌는지 (GetInst()는 없으면 새로 만들어 초기화하므로, 조회만 할 때) */
+    public static boolean isInitialized() {
+        return inst != null;
+    }
+
+    // 초기화 로직
+    private void Init() {
+        try {
+            logger.info("Initializing ODE4J Physics World...");
+            
+            // ODE4J 초기화
+            OdeHelper.initODE();
+            
+            // 월드 생성 (강체 역학 시뮬레이션 공간)
+            world = OdeHelper.createWorld();
+            
+            // 중력 설정 (기본값: 지구 중력 -9.8 m/s^2, Y축이 위쪽인 경우)
+            world.setGravity(0, -9.81, 0);
+            
+            // 충돌 감지 공간 생성 (broadphase는 setBroadphase로 교체 가능)
+            space = broadphase.create(null);
+            contacts = new ContactPipeline(world);
+            world.setContactSurfaceLayer(0.001);     // 1 mm 침투 허용 → 접촉이 매 스텝 생겼다 사라지는 떨림 방지
+            world.setContactMaxCorrectingVel(1.0);   // 깊이 박힌 접촉이 튕겨 나가지 않도록
+            ground = OdeHelper.createPlane(space, 0, 1, 0, 0);
+            
+            logger.info("ODE4J Initialized Successfully.");
+        } catch (Exception e) {
+            logger.error("Failed to initialize ODE4J", e);
+        }
+    }
+
+    // 매 틱마다 호출하여 물리 연산 업데이트 (게임 틱 1회 = 50 ms)
+    public void updatePhysics() {
+        update(LEGACY_TICK);
+    }
+
+    /**
+     * 경과 시간만큼 고정 스텝으로 진행 (누적기)
+     * - 남은 시간은 다음 호출로 넘기고, 그 비율이 보간 계수(getAlpha)
+     * - 한 번에 maxSubsteps를 넘으면 나머지는 버림 (끊김 후 따라잡느라 더 느려지는 것 방지)
+     * @return 이번에 진행한 스텝 수
+     */
+    public int update(double frameSeconds) {
+        if (threaded) return 0; // 물리 스레드가 진행 중 → 렌더 쪽은 syncRenderState()
+        synchronized (worldLock) {
+            return advance(frameSeconds, true);
+        }
+    }
+
+    private int advance(double frameSeconds, boolean syncModel) {
+        if (world == null) return 0;
+        commands.drain(commandSink);
+        if (!(frameSeconds > 0)) return 0;
+
+        accumulator += frameSeconds;
+        int steps = 0;
+        while (accumulator >= fixedStep && steps < maxSubsteps) {
+            step();
+            accumulator -= fixedStep;
+            steps++;
+        }
+        if (accumulator >= fixedStep) {
+            long dropped = (long) (accumulator / fixedStep);
+            droppedSteps += dropped;
+            accumulator -= dropped * fixedStep;
+        }
+        alpha = accumulator / fixedStep;
+
+        // 스텝으로 바뀐 로봇만 게시, 관절 상태를 URDF 모델로 (이전/현재 스텝 사이 보간, 같은 스레드에서 돌 때만)
+        // 잠든 로봇은 마지막 게시/모델 상태 그대로 (잠들 때 이전 = 현재로 고정했으므로 보간할 것도 없음)
+        for (PhysicsRobot robot : robots) {
+            boolean changed = robot.consumeChanged();
+            if (changed) robot.publishState(simTime, stepCount);
+            if (syncModel && (changed || !robot.isSleeping())) robot.syncToModel((float) alpha);
+        }
+        return steps;
+    }
+
+    private void step() {
+        // 서보 모터/감쇠 갱신 → 스텝 → 상태 기록 (이전 상태는 보간용으로 보관), 잠든 로봇은 제어 생략
+        for (PhysicsRobot robot : robots) {
+            if (!robot.isSleeping()) robot.applyControls();
+        }
+
+        // 충돌 → 접촉 관절 (이번 스텝에만 유효)
+        contacts.collide(space, robots);
+
+        // 퀵스텝 방식이 일반적인 게임 물리 엔진에서 더 빠르고 안정적입니다.
+        // (비활성 바디만 있는 섬은 ODE가 통째로 건너뜀)
+        world.quickStep(fixedStep);
+
+        contacts.empty();
+
+        int active = 0, sleepingBodyCount = 0, sleepingRobotCount = 0;
+        for (PhysicsRobot robot : robots) {
+            robot.captureIfAwake();
+            active += robot.getEnabledBodyCount();
+            sleepingBodyCount += robot.getBodyCount() - robot.getEnabledBodyCount();
+            if (robot.isSleeping()) sleepingRobotCount++;
+        }
+        activeBodies = active;
+        sleepingBodies = sleepingBodyCount;
+        sleepingRobots = sleepingRobotCount;
+        simTime += fixedStep;
+        stepCount++;
+
+        if (recording != null) recording.addStep(hashState());
+    }
+
+    // ========== 물리 스레드 ==========
+
+    /**
+     * 전용 물리 스레드 시작 (고정 스텝 주기로 깨어나 경과 시간만큼 진행)
+     * 이후 update()/updatePhysics()는 아무것도 하지 않고, 렌더 스레드는 syncRenderState()로 상태를 받음
+     */
+    public synchronized void startThread() {
+        if (threaded || world == null) return;
+        int hz = (int) Math.round(1.0 / fixedStep);
+        lastTickNanos = System.nanoTime();
+        stepLoop = new WebotsControlLoop("Physics-Step", hz, this::threadTick);
+        threaded = true;
+        stepLoop.start();
+        logger.info("✅ Physics thread started ({} Hz, {} robots)", hz, robots.size());
+    }
+
+    /** 물리 스레드 정지 (이후 다시 update()로 진행) */
+    public synchronized void stopThread() {
+        if (!threaded) return;
+        stepLoop.stop();
+        threaded = false;
+        logger.info("🛑 Physics thread stopped after {} ticks ({} overruns, {} active / {} sleeping bodies)",
+                stepLoop.getTickCount(), stepLoop.getOverrunCount(), activeBodies, sleepingBodies);
+    }
+
+    public boolean isThreaded() {
+        return threaded;
+    }
+
+    /** 물리 스레드 루프 (지터/틱 시간 통계, 스레드 시작 전이면 null) */
+    public WebotsControlLoop getStepLoop() {
+        return stepLoop;
+    }
+
+    private void threadTick() {
+        long now = System.nanoTime();
+        double elapsed = (now - lastTickNanos) / 1e9;
+        lastTickNanos = now;
+        synchronized (worldLock) {
+            advance(elapsed, false);
+        }
+    }
+
+    /**
+     * 렌더 스레드: 각 로봇의 최신 게시 상태를 URDF 모델로
+     * (물리 스레드가 없으면 update()가 이미 반영하므로 아무것도 하지 않음)
+     */
+    public void syncRenderState() {
+        if (!threaded) return;
+        for (PhysicsRobot robot : robots) robot.syncFromSnapshot();
+    }
+
+    // ========== 관절 명령 (클라이언트 스레드 → 물리 스텝) ==========
+
+    /**
+     * 관절 목표 위치 (NaN = 해제), 다음 스텝 직전에 적용
+     * 생산자는 스레드 하나(클라이언트 스레드)만 → 링 버퍼가 가득 차면 false
+     */
+    public boolean submitJointTarget(PhysicsRobot robot, int jointIndex, float position) {
+        return commands.offer(PhysicsCommandRing.OP_TARGET, robot, jointIndex, position);
+    }
+
+    public boolean submitJointTarget(PhysicsRobot robot, String jointName, float position) {
+        int i = robot.indexOf(jointName);
+        return i >= 0 && robot.isActuated(i) && submitJointTarget(robot, i, position);
+    }
+
+    public boolean submitClearTargets(PhysicsRobot robot) {
+        return commands.offer(PhysicsCommandRing.OP_CLEAR_TARGETS, robot, 0, 0f);
+    }
+
+    public boolean submitServoGain(PhysicsRobot robot, float gain) {
+        return commands.offer(PhysicsCommandRing.OP_SERVO_GAIN, robot, 0, gain);
+    }
+
+    public PhysicsCommandRing getCommandRing() {
+        return commands;
+    }
+
+    private void applyCommand(int op, PhysicsRobot robot, int index, float value) {
+        int r = robot != null ? robots.indexOf(robot) : -1;
+        if (r < 0) return; // 이미 제거된 로봇
+        // 다음 스텝 직전에 적용 → 그 스텝 번호로 기록
+        if (recording != null) recording.addCommand(stepCount - recordingStart, op, r, index, value);
+        executeCommand(op, robot, index, value);
+    }
+
+    private static void executeCommand(int op, PhysicsRobot robot, int index, float value) {
+        switch (op) {
+            case PhysicsCommandRing.OP_TARGET -> robot.setJointTarget(index, value);
+            case PhysicsCommandRing.OP_CLEAR_TARGETS -> robot.clearJointTargets();
+            case PhysicsCommandRing.OP_SERVO_GAIN -> robot.setServoGain(value);
+            default -> {}
+        }
+    }
+
+    /** 고정 스텝 크기 (초, 0.0005 ~ 0.02) */
+    public void setFixedStep(double seconds) {
+        this.fixedStep = Math.max(0.0005, Math.min(0.02, seconds));
+    }
+
+    public double getFixedStep() {
+        return fixedStep;
+    }
+
+    /** update() 한 번에 진행할 최대 스텝 수 */
+    public void setMaxSubsteps(int max) {
+        this.maxSubsteps = Math.max(1, max);
+    }
+
+    public int getMaxSubsteps() {
+        return maxSubsteps;
+    }
+
+    /** 렌더 보간 계수 [0, 1): 0 = 이전 스텝, 1에 가까울수록 현재 스텝 */
+    public double getAlpha() {
+        return alpha;
+    }
+
+    public double getSimTime() {
+        return simTime;
+    }
+
+    public long getStepCount() {
+        return stepCount;
+    }
+
+    public long getDroppedSteps() {
+        return droppedSteps;
+    }
+
+    /**
+     * URDF 모델을 관절체로 만들어 월드에 추가 (z-up → y-up 변환, 루트 위치 x,y,z)
+     */
+    public PhysicsRobot spawnRobot(URDFRobotModel model, double x, double y, double z) {
+        synchronized (worldLock) {
+            return addRobot(new URDFPhysicsBuilder().position(x, y, z).build(model, world, space));
+        }
+    }
+
+    /** 빌더 설정(위치, 고정 베이스, 메시 충돌체 등)을 그대로 써서 추가 */
+    public PhysicsRobot spawnRobot(URDFRobotModel model, URDFPhysicsBuilder builder) {
+        synchronized (worldLock) {
+            return addRobot(builder.build(model, world, space));
+        }
+    }
+
+    public PhysicsRobot addRobot(PhysicsRobot robot) {
+        synchronized (worldLock) {
+            robot.setAutoSleep(autoSleep, sleepLinear, sleepAngular, sleepSteps);
+            robot.resetState(); // 이전 = 현재 (첫 보간이 튀지 않도록)
+            robot.publishState(simTime, stepCount);
+            robots.add(robot);
+            return robot;
+        }
+    }
+
+    public void removeRobot(PhysicsRobot robot) {
+        synchronized (worldLock) {
+            if (robots.remove(robot)) robot.destroy();
+        }
+    }
+
+    public List<PhysicsRobot> getRobots() {
+        return robots;
+    }
+
+    // ========== 잠들기 ==========
+
+    /** 모든 로봇(이후 추가할 로봇 포함) 자동 잠들기 켜기/끄기 (로봇별 설정을 덮어씀) */
+    public void setAutoSleep(boolean enable) {
+        synchronized (worldLock) {
+            autoSleep = enable;
+            for (PhysicsRobot robot : robots) robot.setAutoSleep(enable, sleepLinear, sleepAngular, sleepSteps);
+        }
+    }
+
+    /** 로봇 하나만 자동 잠들기 켜기/끄기 (임계값은 공통) */
+    public void setAutoSleep(PhysicsRobot robot, boolean enable) {
+        synchronized (worldLock) {
+            robot.setAutoSleep(enable, sleepLinear, sleepAngular, sleepSteps);
+        }
+    }
+
+    public boolean isAutoSleep() {
+        return autoSleep;
+    }
+
+    /**
+     * 잠들기 임계값 (모든 로봇): 선속도(m/s)/각속도(rad/s)가 이 아래로 idleSteps 스텝 이어지면 잠듦
+     * 자동 잠들기가 꺼진 로봇은 임계값만 바뀌고 계속 깨어 있음
+     */
+    public void setSleepThresholds(double linear, double angular, int idleSteps) {
+        synchronized (worldLock) {
+            sleepLinear = linear;
+            sleepAngular = angular;
+            sleepSteps = Math.max(1, idleSteps);
+            for (PhysicsRobot robot : robots) robot.setAutoSleep(robot.isAutoSleep(), sleepLinear, sleepAngular, sleepSteps);
+        }
+    }
+
+    /** 잠든 로봇 전부 깨우기 (중력/지면처럼 월드가 바뀔 때) */
+    public void wakeAll() {
+        synchronized (worldLock) {
+            for (PhysicsRobot robot : robots) robot.wake();
+        }
+    }
+
+    /** 마지막 스텝 기준 활성 바디 수 (로봇 바디만) */
+    public int getActiveBodyCount() {
+        return activeBodies;
+    }
+
+    /** 마지막 스텝 기준 잠든 바디 수 */
+    public int getSleepingBodyCount() {
+        return sleepingBodies;
+    }
+
+    /** 마지막 스텝 기준 모든 바디가 잠든 로봇 수 */
+    public int getSleepingRobotCount() {
+        return sleepingRobots;
+    }
+
+    /** 스텝/잠들기/물리 스레드 통계를 로그로 (T 키 통계 출력에서 호출) */
+    public void printStats() {
+        logger.info("=== Physics Stats ===");
+        logger.info("  Robots: {} | Steps: {} | Sim: {}s | Dropped: {} | Fixed Step: {} ms",
+                robots.size(), stepCount, String.format("%.2f", simTime), droppedSteps,
+                String.format("%.2f", fixedStep * 1000));
+        logger.info("  Bodies: {} active / {} sleeping | Robots asleep: {}/{} | Auto Sleep: {}",
+                activeBodies, sleepingBodies, sleepingRobots, robots.size(), autoSleep ? "✅" : "❌");
+        WebotsControlLoop loop = stepLoop;
+        if (threaded && loop != null) {
+            logger.info("  Thread: {} Hz | {} ticks | {} overruns | Tick Time: {}",
+                    loop.getRateHz(), loop.getTickCount(), loop.getOverrunCount(), loop.getTickTime().summary());
+        } else {
+            logger.info("  Thread: ❌ (stepped by update())");
+        }
+    }
+
+    // ========== 스냅샷 (에피소드 리셋) ==========
+
+    public PhysicsSnapshot captureSnapshot() {
+        return captureSnapshot(new PhysicsSnapshot());
+    }
+
+    /**
+     * 월드 상태 전체를 dst에 저장 (dst 배열 재사용, 스텝 사이에만 → worldLock)
+     * - 로봇 바디 자세/속도, 관절 목표, 서보 게인, 시뮬레이션 시간/스텝, 누적기, ODE 난수 상태
+     * - createBody()로 만든 단독 바디는 포함 안 함
+     */
+    public PhysicsSnapshot captureSnapshot(PhysicsSnapshot dst) {
+        synchronized (worldLock) {
+            // 잠들기 카운터는 ODE 내부라 담을 수 없음 → 복원 직후(enable로 초기화)와 같도록 여기서도 초기화
+            for (PhysicsRobot robot : robots) robot.resetSleepTimers();
+            dst.capture(robots);
+            dst.simTime = simTime;
+            dst.step = stepCount;
+            dst.accumulator = accumulator;
+            dst.randomSeed = Misc.dRandGetSeed();
+        }
+        return dst;
+    }
+
+    /**
+     * 저장한 상태로 되돌림 (바디를 새로 만들지 않고 값만)
+     * 같은 명령을 다시 주면 같은 궤적 (ODE 난수 상태도 되돌림, 단 다른 월드가 동시에 스텝 중이 아닐 때)
+     * 이미 넣은 관절 명령(링 버퍼)은 그대로 다음 스텝에 적용됨
+     * @return 로봇 구성이 달라 복원하지 않았으면 false
+     */
+    public boolean restoreSnapshot(PhysicsSnapshot snapshot) {
+        synchronized (worldLock) {
+            if (!snapshot.restore(robots)) {
+                logger.warn("⚠️ Snapshot does not match current robots ({} robots now): {}", robots.size(), snapshot);
+                return false;
+            }
+            simTime = snapshot.simTime;
+            stepCount = snapshot.step;
+            accumulator = snapshot.accumulator;
+            alpha = accumulator / fixedStep;
+            Misc.dRandSetSeed(snapshot.randomSeed);
+            for (PhysicsRobot robot : robots) {
+                robot.publishState(simTime, stepCount);
+                if (!threaded) robot.syncToModel();
+            }
+            return true;
+        }
+    }
+
+    /** 지금 상태를 리셋 지점으로 (에피소드 시작) */
+    public void saveResetPoint() {
+        PhysicsSnapshot s = resetPoint != null ? resetPoint : new PhysicsSnapshot();
+        resetPoint = captureSnapshot(s);
+    }
+
+    /** 리셋 지점으로 되돌림 (지점이 없거나 로봇 구성이 바뀌었으면 false) */
+    public boolean resetToSavedPoint() {
+        PhysicsSnapshot s = resetPoint;
+        return s != null && restoreSnapshot(s);
+    }
+
+    public boolean hasResetPoint() {
+        return resetPoint != null;
+    }
+
+    // ========== 결정적 모드 / 기록 / 재생 ==========
+
+    /**
+     * 결정적 모드 (디버깅용 비트 단위 재생)
+     * - 접촉을 broadphase 순서와 무관하게 정렬해서 생성 (스텝마다 정렬 비용)
+     * - ODE 난수(quickStep 제약 순서 섞기)를 seed로 다시 시작
+     * ODE 난수는 프로세스 전역 → 같은 프로세스에서 다른 월드(EnvPool 등)가 동시에 스텝하면 재현 안 됨
+     */
+    public void setDeterministic(boolean enable, long seed) {
+        synchronized (worldLock) {
+            this.deterministic = enable;
+            this.seed = seed;
+            if (contacts != null) contacts.ordered(enable);
+            if (enable) Misc.dRandSetSeed(seed);
+            logger.info("🔄 Physics deterministic mode: {}{}", enable, enable ? " (seed " + seed + ")" : "");
+        }
+    }
+
+    public boolean isDeterministic() {
+        return deterministic;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /** 지금 상태 해시 (로봇 바디/목표/게인 + 난수 상태, 1 ulp 차이도 구분) */
+    public long stateHash() {
+        synchronized (worldLock) {
+            return hashState();
+        }
+    }
+
+    private long hashState() {
+        hashScratch.capture(robots);
+        hashScratch.randomSeed = Misc.dRandGetSeed();
+        return hashScratch.hash();
+    }
+
+    /**
+     * 기록 시작: 결정적 모드를 켜고 난수를 시드로 되돌린 뒤, 이후 관절 명령(submit*)과 스텝마다 상태 해시를 기록
+     * 로봇을 직접 조작(PhysicsRobot.setJointTarget 등)한 것은 기록되지 않음
+     */
+    public void startRecording(long seed) {
+        synchronized (worldLock) {
+            setDeterministic(true, seed);
+            for (PhysicsRobot robot : robots) robot.resetSleepTimers(); // captureSnapshot과 같은 이유
+            recordingStart = stepCount;
+            recording = new PhysicsRecording(seed, hashState());
+            logger.info("⏺ Physics recording started at step {} (seed {})", stepCount, seed);
+        }
+    }
+
+    /** 기록 종료 (기록 중이 아니었으면 null) */
+    public PhysicsRecording stopRecording() {
+        synchronized (worldLock) {
+            PhysicsRecording r = recording;
+            recording = null;
+            if (r != null) logger.info("⏹ Physics recording stopped: {}", r);
+            return r;
+        }
+    }
+
+    public boolean isRecording() {
+        return recording != null;
+    }
+
+    /**
+     * 기록 재생 + 검증 (벽시계와 무관하게 최대 속도, 호출 스레드에서)
+     * 월드를 기록 시작 상태로 맞춘 뒤 호출 (같은 장면 + resetToSavedPoint 등) → 시드를 되돌리고
+     * 기록된 스텝에 같은 명령을 넣으며 스텝마다 해시 비교
+     * @return 처음 어긋난 스텝 번호 (1부터, 시작 상태부터 다르면 0), 끝까지 같으면 -1
+     */
+    public long replay(PhysicsRecording rec) {
+        synchronized (worldLock) {
+            if (recording != null) throw new IllegalStateException("Cannot replay while recording");
+            setDeterministic(true, rec.getSeed());
+            if (hashState() != rec.getStartHash()) {
+                logger.warn("⚠️ Replay start state differs from recording (different scene or reset point?)");
+                return 0;
+            }
+            int c = 0;
+            long mismatch = -1;
+            for (int s = 0; s < rec.getStepCount(); s++) {
+                for (; c < rec.getCommandCount() && rec.getCommandStep(c) == s; c++) {
+                    int r = rec.getCommandRobot(c);
+                    if (r >= 0 && r < robots.size()) {
+                        executeCommand(rec.getCommandOp(c), robots.get(r), rec.getCommandJoint(c), rec.getCommandValue(c));
+                    }
+                }
+                step();
+                if (hashState() != rec.getHash(s)) {
+                    mismatch = s + 1;
+                    break;
+                }
+            }
+            for (PhysicsRobot robot : robots) {
+                robot.publishState(simTime, stepCount);
+                if (!threaded) robot.syncToModel();
+            }
+            if (mismatch < 0) logger.info("✅ Replay matched {} steps", rec.getStepCount());
+            else logger.warn("⚠️ Replay diverged at step {} of {}", mismatch, rec.getStepCount());
+            return mismatch;
+        }
+    }
+
+    // ========== 충돌 ==========
+
+    /**
+     * 최상위 충돌 공간 교체 (장면마다, 로봇이 있어도 됨 → 로봇 공간/지면을 새 공간으로 옮김)
+     */
+    public void setBroadphase(BroadphaseConfig config) {
+        synchronized (worldLock) {
+            broadphase = config;
+            if (space == null) return;
+            DSpace next = config.create(null);
+            List<DGeom> geoms = new ArrayList<>(space.getNumGeoms());
+            for (DGeom g : space.getGeoms()) geoms.add(g); // 순회 중 제거하지 않도록 복사본으로
+            for (DGeom g : geoms) {
+                space.remove(g);
+                next.add(g);
+            }
+            space.destroy();
+            space = next;
+            logger.info("🔄 Physics broadphase: {}", config);
+        }
+    }
+
+    public BroadphaseConfig getBroadphase() {
+        return broadphase;
+    }
+
+    /** 지면 평면 높이 (y, NaN = 지면 없음) */
+    public void setGroundHeight(double y) {
+        synchronized (worldLock) {
+            if (space == null) return;
+            if (ground != null) {
+                ground.destroy();
+                ground = null;
+            }
+            if (!Double.isNaN(y)) ground = OdeHelper.createPlane(space, 0, 1, 0, y);
+            for (PhysicsRobot robot : robots) robot.wake(); // 지면이 사라지면 떠 있지 않도록
+        }
+    }
+
+    /** 접촉 처리 (표면 마찰/반발, 통계) */
+    public ContactPipeline getContacts() {
+        return contacts;
+    }
+
+    // --- 아래는 외부에서 물리 엔진에 접근하기 위한 Getter 및 설정 메서드들 ---
+    // (물리 스레드가 도는 중에는 ODE 객체를 직접 만지지 말고 명령/게시 상태를 쓸 것)
+
+    public DWorld getWorld() {
+        return world;
+    }
+
+    public DSpace getSpace() {
+        return space;
+    }
+
+    // 중력 설정 변경
+    public void setGravity(double x, double y, double z) {
+        synchronized (worldLock) {
+            if (world != null) {
+                world.setGravity(x, y, z);
+                for (PhysicsRobot robot : robots) robot.wake();
+            }
+        }
+    }
+
+    // 시뮬레이션 종료 및 정리
+    public void close() {
+        stopThread();
+        synchronized (worldLock) {
+            for (PhysicsRobot robot : robots) robot.destroy();
+            robots.clear();
+            if (contacts != null) {
+                contacts.destroy();
+                contacts = null;
+            }
+            ground = null; // space와 함께 제거
+            if (space != null) {
+                space.destroy();
+                space = null;
+            }
+            if (world != null) {
+                world.destroy();
+                world = null;
+            }
+        }
+        OdeHelper.closeODE();
+    }
+    
+    // 단독 바디 생성 (URDF 관절체는 spawnRobot 사용)
+    public DBody createBody() {
+        synchronized (worldLock) {
+            return OdeHelper.createBody(world);
+        }
+    }
+}
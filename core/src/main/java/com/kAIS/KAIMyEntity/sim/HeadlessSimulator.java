@@ -0,0 +1,246 @@
+package com.kAIS.KAIMyEntity.sim;
+
+import com.kAIS.KAIMyEntity.urdf.URDFParser;
+import com.kAIS.KAIMyEntity.urdf.URDFRobotModel;
+import com.kAIS.KAIMyEntity.urdf.control.URDFMotion;
+import com.kAIS.KAIMyEntity.urdf.control.URDFMotionPlayer;
+import com.kAIS.KAIMyEntity.urdf.physics.BroadphaseConfig;
+import com.kAIS.KAIMyEntity.urdf.physics.EnvPool;
+import com.kAIS.KAIMyEntity.urdf.physics.URDFPhysicsBuilder;
+import com.kAIS.KAIMyEntity.urdf.vmd.VMDLoader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Minecraft 없이 도는 시뮬레이터 (core 모듈 단독 실행)
+ * - URDF 로봇 N대를 EnvPool로 최대 속도 스텝 (렌더/sleep 없음)
+ * - --vmd가 있으면 모션을 재생해 관절 목표로 사용 (모든 환경 같은 포즈), 없으면 초기 자세 유지
+ * - 벽시계 1초마다 진행 상황, 끝나면 실시간 배율(시뮬 시간 / 벽시계 시간) 출력
+ *
+ * 실행: gradle :core:run --args="--urdf robot.urdf --vmd dance.vmd --envs 16 --seconds 60"
+ */
+public final class HeadlessSimulator {
+
+    // 내장 합성 로봇 (몸통 상자 + 다리 둘 = 힌지 4개, --urdf - 와 테스트 소스의 벤치마크가 사용)
+    private static final String SYNTHETIC_URDF = """
+            <robot name="bench">
+              <link name="torso">
+                <inertial><mass value="4"/><inertia ixx="0.05" iyy="0.05" izz="0.05" ixy="0" ixz="0" iyz="0"/></inertial>
+                <collision><geometry><box size="0.3 0.2 0.3"/></geometry></collision>
+              </link>
+              <link name="l_thigh">
+                <inertial><origin xyz="0 0 -0.15"/><mass value="1"/><inertia ixx="0.01" iyy="0.01" izz="0.002" ixy="0" ixz="0" iyz="0"/></inertial>
+                <collision><origin xyz="0 0 -0.15"/><geometry><cylinder radius="0.04" length="0.3"/></geometry></collision>
+              </link>
+              <link name="l_shin">
+                <inertial><origin xyz="0 0 -0.15"/><mass value="0.8"/><inertia ixx="0.008" iyy="0.008" izz="0.001" ixy="0" ixz="0" iyz="0"/></inertial>
+                <collision><origin xyz="0 0 -0.15"/><geometry><cylinder radius="0.035" length="0.3"/></geometry></collision>
+              </link>
+              <link name="r_thigh">
+                <inertial><origin xyz="0 0 -0.15"/><mass value="1"/><inertia ixx="0.01" iyy="0.01" izz="0.002" ixy="0" ixz="0" iyz="0"/></inertial>
+                <collision><origin xyz="0 0 -0.15"/><geometry><cylinder radius="0.04" length="0.3"/></geometry></collision>
+              </link>
+              <link name="r_shin">
+                <inertial><origin xyz="0 0 -0.15"/><mass value="0.8"/><inertia ixx="0.008" iyy="0.008" izz="0.001" ixy="0" ixz="0" iyz="0"/></inertial>
+                <collision><origin xyz="0 0 -0.15"/><geometry><cylinder radius="0.035" length="0.3"/></geometry></collision>
+              </link>
+              <joint name="l_hip" type="revolute"><parent link="torso"/><child link="l_thigh"/>
+                <origin xyz="0 0.08 -0.1"/><axis xyz="0 1 0"/><limit lower="-1.5" upper="1.5" effort="30" velocity="6"/></joint>
+              <joint name="l_knee" type="revolute"><parent link="l_thigh"/><child link="l_shin"/>
+                <origin xyz="0 0 -0.3"/><axis xyz="0 1 0"/><limit lower="0" upper="2.5" effort="30" velocity="6"/></joint>
+              <joint name="r_hip" type="revolute"><parent link="torso"/><child link="r_thigh"/>
+                <origin xyz="0 -0.08 -0.1"/><axis xyz="0 1 0"/><limit lower="-1.5" upper="1.5" effort="30" velocity="6"/></joint>
+              <joint name="r_knee" type="revolute"><parent link="r_thigh"/><child link="r_shin"/>
+                <origin xyz="0 0 -0.3"/><axis xyz="0 1 0"/><limit lower="0" upper="2.5" effort="30" velocity="6"/></joint>
+            </robot>
+            """;
+
+    private HeadlessSimulator() {}
+
+    /** URDF 경로, "-"면 내장 합성 로봇 */
+    public static URDFRobotModel loadModel(String path) throws IOException {
+        File file;
+        if ("-".equals(path)) {
+            file = File.createTempFile("bench", ".urdf");
+            file.deleteOnExit();
+            Files.writeString(file.toPath(), SYNTHETIC_URDF, StandardCharsets.UTF_8);
+        } else {
+            file = new File(path);
+        }
+        URDFRobotModel model = URDFParser.parse(file);
+        if (model == null) throw new IOException("Failed to parse URDF: " + path);
+        return model;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Options opt;
+        try {
+            opt = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("❌ " + e.getMessage());
+            usage();
+            System.exit(2);
+            return;
+        }
+        if (opt.help) {
+            usage();
+            return;
+        }
+
+        URDFRobotModel model = loadModel(opt.urdf);
+        URDFMotionPlayer player = null;
+        if (opt.vmd != null) {
+            URDFMotion motion = VMDLoader.load(new File(opt.vmd), model);
+            if (motion == null) throw new IOException("Failed to load VMD: " + opt.vmd);
+            player = new URDFMotionPlayer();
+            player.load(motion);
+        }
+
+        EnvPool.Builder builder = EnvPool.builder(model)
+                .envs(opt.envs)
+                .threads(opt.threads)
+                .stepSize(opt.step)
+                .frameSkip(opt.frameSkip)
+                .broadphase(opt.broadphase)
+                .fixedBase(opt.fixedBase)
+                .meshCollision(opt.meshCollision);
+        if (opt.seed != null) builder.deterministic(opt.seed);
+        try (EnvPool pool = builder.build()) {
+            run(pool, model, player, opt);
+        }
+    }
+
+    private static void run(EnvPool pool, URDFRobotModel model, URDFMotionPlayer player, Options opt) {
+        int envs = pool.getEnvCount();
+        int dof = pool.getActionSize();
+        float controlDt = (float) (opt.step * opt.frameSkip);
+        long totalActions = (long) Math.ceil(opt.seconds / controlDt);
+
+        float[] obs = new float[envs * pool.getObservationSize()];
+        float[] actions = null;
+        int[] poseToAction = null;
+        if (player != null) {
+            actions = new float[envs * dof];
+            Arrays.fill(actions, Float.NaN);
+            poseToAction = mapPose(player.getClip().getJointNames(), pool.getActionNames());
+        }
+
+        System.out.printf("▶ '%s': %d envs × %d dof | %d threads | step %.1f ms × %d | %s | %.1f s%s%n",
+                model.name, envs, dof, pool.getThreadCount(), opt.step * 1000, opt.frameSkip,
+                opt.broadphase, opt.seconds, player != null ? " | motion " + opt.vmd : "");
+
+        pool.reset(obs);
+        long start = System.nanoTime();
+        long nextReport = start + 1_000_000_000L;
+        for (long a = 0; a < totalActions; a++) {
+            if (player != null && player.advance(controlDt)) {
+                float[] pose = player.getPose();
+                for (int j = 0; j < poseToAction.length; j++) {
+                    int col = poseToAction[j];
+                    if (col < 0 || Float.isNaN(pose[j])) continue;
+                    for (int e = 0; e < envs; e++) actions[e * dof + col] = pose[j];
+                }
+            }
+            pool.step(actions, obs);
+
+            long now = System.nanoTime();
+            if (now >= nextReport) {
+                double sim = (a + 1) * controlDt;
+                double wall = (now - start) / 1e9;
+                System.out.printf("  t=%.1fs sim / %.1fs wall | %.1fx realtime | %.0f env-steps/s%n",
+                        sim, wall, sim / wall, (a + 1) * (double) opt.frameSkip * envs / wall);
+                nextReport = now + 1_000_000_000L;
+            }
+        }
+
+        double wall = (System.nanoTime() - start) / 1e9;
+        double sim = totalActions * controlDt;
+        System.out.printf("✅ %.1f s simulated in %.2f s wall → %.1fx realtime (%.1fx aggregate over %d envs)%n",
+                sim, wall, sim / wall, sim * envs / wall, envs);
+    }
+
+    /** 클립 관절 순서 → 행동 열 (없으면 -1) */
+    private static int[] mapPose(String[] clipJoints, String[] actionNames) {
+        Map<String, Integer> cols = new HashMap<>();
+        for (int i = 0; i < actionNames.length; i++) cols.put(actionNames[i], i);
+        int[] out = new int[clipJoints.length];
+        for (int j = 0; j < clipJoints.length; j++) out[j] = cols.getOrDefault(clipJoints[j], -1);
+        return out;
+    }
+
+    private static void usage() {
+        System.out.println("""
+                Usage: HeadlessSimulator [options]
+                  --urdf <file|->      URDF 파일 ("-" = 내장 합성 로봇, 기본)
+                  --vmd <file>         재생할 VMD 모션 (선택)
+                  --envs <n>           환경 수 (기본 1)
+                  --threads <n>        작업 스레드 수 (기본 = 코어 수)
+                  --seconds <s>        시뮬레이션 시간 (기본 10)
+                  --step <ms>          물리 스텝 (기본 2)
+                  --frame-skip <n>     행동 하나당 스텝 수 (기본 10)
+                  --broadphase <type>  simple | hash | sap | quadtree (기본 simple)
+                  --fixed-base         루트 링크를 월드에 고정
+                  --mesh-collision <m> box | convex | trimesh (STL 충돌체, 기본 box)
+                  --seed <n>           결정적 모드 (환경별 재현 가능, 스레드 1개)
+                """);
+    }
+
+    private static final class Options {
+        String urdf = "-";
+        String vmd;
+        int envs = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        double seconds = 10;
+        double step = EnvPool.DEFAULT_STEP;
+        int frameSkip = EnvPool.DEFAULT_FRAME_SKIP;
+        BroadphaseConfig broadphase = new BroadphaseConfig(BroadphaseConfig.Type.SIMPLE);
+        boolean fixedBase;
+        URDFPhysicsBuilder.MeshCollision meshCollision = URDFPhysicsBuilder.MeshCollision.BOX;
+        Long seed;
+        boolean help;
+
+        static Options parse(String[] args) {
+            Options o = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String a = args[i];
+                switch (a) {
+                    case "--urdf" -> o.urdf = value(args, ++i, a);
+                    case "--vmd" -> o.vmd = value(args, ++i, a);
+                    case "--envs" -> o.envs = Math.max(1, Integer.parseInt(value(args, ++i, a)));
+                    case "--threads" -> o.threads = Math.max(1, Integer.parseInt(value(args, ++i, a)));
+                    case "--seconds" -> o.seconds = Double.parseDouble(value(args, ++i, a));
+                    case "--step" -> o.step = Double.parseDouble(value(args, ++i, a)) / 1000.0;
+                    case "--frame-skip" -> o.frameSkip = Math.max(1, Integer.parseInt(value(args, ++i, a)));
+                    case "--broadphase" -> o.broadphase = BroadphaseConfig.parse(value(args, ++i, a));
+                    case "--fixed-base" -> o.fixedBase = true;
+                    case "--mesh-collision" -> o.meshCollision = meshMode(value(args, ++i, a));
+                    case "--seed" -> o.seed = Long.parseLong(value(args, ++i, a));
+                    case "-h", "--help" -> o.help = true;
+                    default -> throw new IllegalArgumentException("Unknown option: " + a);
+                }
+            }
+            if (!(o.seconds > 0) || !(o.step > 0)) throw new IllegalArgumentException("--seconds and --step must be > 0");
+            return o;
+        }
+
+        private static URDFPhysicsBuilder.MeshCollision meshMode(String name) {
+            try {
+                return URDFPhysicsBuilder.MeshCollision.valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown mesh collision mode: " + name);
+            }
+        }
+
+        private static String value(String[] args, int i, String name) {
+            if (i >= args.length) throw new IllegalArgumentException(name + " needs a value");
+            return args[i];
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.kAIS.KAIMyEntity.urdf.control;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * URDFMotion을 재생용 배열 구조로 컴파일한 불변 클립
+ * - 관절 이름 → 열 인덱스 (한 번만 계산)
+ * - 키 시간 float[], 포즈 값 float[key * joint] (없는 값은 NaN)
+ * - 여러 플레이어가 복사 없이 공유 (재생 상태는 플레이어 쪽에만 있음)
+ */
+public final class CompiledMotion implements MotionClip {
+    // 같은 URDFMotion 인스턴스는 한 번만 컴파일 (identity 기준, 모션이 버려지면 같이 해제)
+    private static final Map<URDFMotion, CompiledMotion> CACHE =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    public final String name;
+    public final boolean loop;
+    public final String[] jointNames;
+    public final float[] times;
+    public final float[] values;     // [keyIndex * jointCount + jointIndex]
+    public final boolean[] cubic;    // 키별 보간 방식 (이전 키에서 이 키로 들어오는 구간에 적용)
+    private final Map<String, Integer> jointIndex;
+
+    private CompiledMotion(String name, boolean loop, String[] jointNames,
+                           float[] times, float[] values, boolean[] cubic) {
+        this.name = name;
+        this.loop = loop;
+        this.jointNames = jointNames;
+        this.times = times;
+        this.values = values;
+        this.cubic = cubic;
+        Map<String, Integer> idx = new LinkedHashMap<>();
+        for (int i = 0; i < jointNames.length; i++) idx.put(jointNames[i], i);
+        this.jointIndex = Collections.unmodifiableMap(idx);
+    }
+
+    /**
+     * 모션을 컴파일 (캐시됨). 키는 시간순이라고 가정한다.
+     */
+    public static CompiledMotion of(URDFMotion motion) {
+        if (motion == null) return null;
+        return CACHE.computeIfAbsent(motion, CompiledMotion::compile);
+    }
+
+    private static CompiledMotion compile(URDFMotion motion) {
+        Map<String, Integer> columns = new LinkedHashMap<>();
+        for (URDFMotion.Key key : motion.keys) {
+            for (String joint : key.pose.keySet()) {
+                columns.putIfAbsent(joint, columns.size());
+            }
+        }
+
+        int keyCount = motion.keys.size();
+        int jointCount = columns.size();
+        String[] names = columns.keySet().toArray(new String[0]);
+        float[] times = new float[keyCount];
+        float[] values = new float[keyCount * jointCount];
+        boolean[] cubic = new boolean[keyCount];
+        Arrays.fill(values, Float.NaN);
+
+        for (int k = 0; k < keyCount; k++) {
+            URDFMotion.Key key = motion.keys.get(k);
+            times[k] = key.t;
+            cubic[k] = !"linear".equalsIgnoreCase(key.interp);
+            int base = k * jointCount;
+            for (Map.Entry<String, Float> e : key.pose.entrySet()) {
+                Float v = e.getValue();
+                if (v != null) values[base + columns.get(e.getKey())] = v;
+            }
+        }
+        return new CompiledMotion(motion.name, motion.loop, names, times, values, cubic);
+    }
+
+    @Override public String getName() { return name; }
+    @Override public boolean isLoop() { return loop; }
+    @Override public String[] getJointNames() { return jointNames; }
+    @Override public int getJointCount() { return jointNames.length; }
+    @Override public int getKeyCount() { return times.length; }
+
+    @Override
+    public float getDuration() {
+        return times.length == 0 ? 0f : times[times.length - 1];
+    }
+
+    /** 관절 이름 → 열 인덱스 (없으면 -1) */
+    public int indexOf(String jointName) {
+        Integer i = jointIndex.get(jointName);
+        return i != null ? i : -1;
+    }
+
+    /**
+     * t가 속한 구간의 시작 키 인덱스. hint(직전 결과)부터 앞으로 탐색하므로
+     * 순차 재생이면 O(1), 되감기/점프 시에만 이진 탐색.
+     */
+    public int findKey(float t, int hint) {
+        int n = times.length;
+        if (n == 0) return -1;
+        if (hint < 0 || hint >= n || times[hint] > t) {
+            int lo = 0, hi = n - 1;
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (times[mid] <= t) lo = mid; else hi = mid - 1;
+            }
+            return lo;
+        }
+        int k = hint;
+        while (k + 1 < n && times[k + 1] <= t) k++;
+        return k;
+    }
+
+    /**
+     * 시간 t의 포즈를 out[jointCount]에 기록
+     * - 구간 보간 방식은 다음 키의 interp (없으면 cubic)
+     * - 한쪽 키에만 있는 관절은 그 값을 유지, 두 키 모두에 없으면 NaN
+     * @return 사용한 키 인덱스 (다음 호출의 hint)
+     */
+    @Override
+    public int sample(float t, int hint, float[] out) {
+        int jc = jointNames.length;
+        int k = findKey(t, hint);
+        if (k < 0) {
+            Arrays.fill(out, 0, jc, Float.NaN);
+            return k;
+        }
+
+        int next = k + 1;
+        float alpha = 0f;
+        if (next < times.length && times[next] > times[k]) {
+            alpha = (t - times[k]) / (times[next] - times[k]);
+            if (alpha < 0f) alpha = 0f; else if (alpha > 1f) alpha = 1f;
+            if (cubic[next]) alpha = alpha * alpha * (3f - 2f * alpha);
+        } else {
+            next = -1;
+        }
+
+        int a = k * jc;
+        int b = next >= 0 ? next * jc : -1;
+        for (int j = 0; j < jc; j++) {
+            out[j] = b >= 0 ? MotionClip.blend(values[a + j], values[b + j], alpha) : values[a + j];
+        }
+        return k;
+    }
+}
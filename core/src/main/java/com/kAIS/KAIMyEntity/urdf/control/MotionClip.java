@@ -0,0 +1,39 @@
+package com.kAIS.KAIMyEntity.urdf.control;
+
+/**
+ * 재생 가능한 모션 클립 (플레이어가 시간 → 포즈 샘플링에 사용)
+ * - CompiledMotion: 전체 키를 메모리에 올린 불변 클립 (공유 가능)
+ * - VMDStreamingMotion: 파일을 매핑해 재생 위치 주변만 디코딩 (플레이어 1개 전용)
+ */
+public interface MotionClip {
+    String getName();
+    boolean isLoop();
+
+    /** 포즈 배열의 열 순서 */
+    String[] getJointNames();
+
+    int getKeyCount();
+    float getDuration();
+
+    /**
+     * 시간 t의 포즈를 out[jointCount]에 기록 (값 없음 = NaN)
+     * @param hint 직전 호출의 반환값 (순차 재생 가속용)
+     * @return 사용한 키 인덱스
+     */
+    int sample(float t, int hint, float[] out);
+
+    default int getJointCount() { return getJointNames().length; }
+
+    /**
+     * 두 키 사이 관절 값 (모든 클립이 같은 규칙으로 재생하도록 공유)
+     * 한쪽 키에만 있는 관절은 그 값을 유지, 두 키 모두에 없으면 NaN
+     */
+    static float blend(float from, float to, float alpha) {
+        if (Float.isNaN(from)) return to;
+        if (Float.isNaN(to)) return from;
+        return from + (to - from) * alpha;
+    }
+
+    /** 파일/스레드 등 자원 해제 (기본: 없음) */
+    default void close() {}
+}
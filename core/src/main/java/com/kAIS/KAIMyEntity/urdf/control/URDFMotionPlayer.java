@@ -0,0 +1,78 @@
+package com.kAIS.KAIMyEntity.urdf.control;
+
+/**
+ * 모델 하나에 붙는 재생 컴포넌트
+ * - 자기 시계(time)와 키 커서를 가짐 → 로봇마다 다른 클립/시점 재생 가능
+ * - 클립(CompiledMotion)은 불변이라 여러 플레이어가 복사 없이 공유
+ * - 스트리밍 클립(VMDStreamingMotion)도 같은 MotionClip 인터페이스로 재생
+ */
+public final class URDFMotionPlayer {
+    private URDFMotion motion;
+    private MotionClip clip;
+    private float time;
+    private boolean playing;
+
+    private int keyHint = 0;
+    private float[] pose = new float[0];
+
+    public void load(URDFMotion m) {
+        load(m, CompiledMotion.of(m));
+    }
+
+    /** 이미 준비된 클립(스트리밍 등) 로드. 이전 클립이 전용 자원을 가지면 해제 */
+    public void load(MotionClip c) {
+        load(null, c);
+    }
+
+    private void load(URDFMotion m, MotionClip c) {
+        if (this.clip != null && this.clip != c) this.clip.close();
+        this.motion = m;
+        this.clip = c;
+        this.time = 0f;
+        this.keyHint = 0;
+        if (clip != null && pose.length < clip.getJointCount()) {
+            pose = new float[clip.getJointCount()];
+        }
+        this.playing = (clip != null && clip.getKeyCount() > 0);
+    }
+
+    public void play(){ if (clip != null && clip.getKeyCount() > 0) playing = true; }
+    public void pause(){ playing = false; }
+    public void stop(){ playing = false; time = 0f; keyHint = 0; }
+    public boolean isPlaying(){ return playing; }
+    public float getTime(){ return time; }
+    public void setTime(float t){ this.time = Math.max(0f, t); }
+    public URDFMotion getMotion(){ return motion; }
+    public MotionClip getClip(){ return clip; }
+
+    /**
+     * 시계를 dt만큼 진행하고 현재 포즈를 내부 버퍼에 샘플링.
+     * @return 샘플이 갱신되었으면 true (정지/끝이면 false)
+     */
+    public boolean advance(float dt) {
+        if (!playing || clip == null || clip.getKeyCount() == 0) return false;
+        time += dt;
+
+        float end = clip.getDuration();
+        if (time > end) {
+            if (clip.isLoop()) time = (end > 1e-6f) ? (time % end) : 0f;
+            else { time = end; playing = false; return false; }
+        }
+
+        keyHint = clip.sample(time, keyHint, pose);
+        return true;
+    }
+
+    /** 마지막 advance()의 포즈 (clip.getJointNames() 순서, 값 없음 = NaN) */
+    public float[] getPose(){ return pose; }
+
+    /** dt마다 호출. setTarget(name, value)로 컨트롤러에 목표 전달 */
+    public void update(float dt, java.util.function.BiConsumer<String, Float> setTarget) {
+        if (!advance(dt)) return;
+        String[] names = clip.getJointNames();
+        for (int j = 0; j < names.length; j++) {
+            float p = pose[j];
+            if (!Float.isNaN(p)) setTarget.accept(names[j], p);
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package com.kAIS.KAIMyEntity.urdf.control;
 
 import com.kAIS.KAIMyEntity.urdf.URDFJoint;
-import net.minecraft.util.Mth;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -30,7 +29,7 @@ public final class URDFSimpleController {
         if (j.type == URDFJoint.JointType.CONTINUOUS) value = wrapToPi(value);
         if (j.type == URDFJoint.JointType.REVOLUTE || j.type == URDFJoint.JointType.PRISMATIC) {
             if (j.limit != null && j.limit.hasLimits()) {
-                value = Mth.clamp(value, j.limit.lower, j.limit.upper);
+                value = clamp(value, j.limit.lower, j.limit.upper);
             }
         }
         target.put(name, value);
@@ -52,7 +51,8 @@ public final class URDFSimpleController {
             float vel = j.currentVelocity;
 
             if (j.type == URDFJoint.JointType.CONTINUOUS) {
-                float d = (float)Math.atan2(Math.sin(tgt - pos), Math.cos(tgt - pos));
+                // StrictMath: JVM/CPU와 무관하게 같은 비트 (결정적 재생)
+                float d = (float)StrictMath.atan2(StrictMath.sin(tgt - pos), StrictMath.cos(tgt - pos));
                 tgt = pos + d;
             }
 
@@ -62,9 +62,9 @@ public final class URDFSimpleController {
             float maxVel = (j.limit != null && j.limit.velocity > 0f) ? j.limit.velocity : defaultMaxVel;
             float maxAcc = defaultMaxAcc;
 
-            acc = Mth.clamp(acc, -maxAcc, maxAcc);
+            acc = clamp(acc, -maxAcc, maxAcc);
             vel += acc * dt;
-            vel  = Mth.clamp(vel, -maxVel, maxVel);
+            vel  = clamp(vel, -maxVel, maxVel);
             pos += vel * dt;
 
             if (j.type == URDFJoint.JointType.REVOLUTE || j.type == URDFJoint.JointType.PRISMATIC) {
@@ -81,6 +81,11 @@ public final class URDFSimpleController {
         }
     }
 
+    // Mth.clamp와 같은 동작 (코어 모듈은 마인크래프트 없이)
+    private static float clamp(float v, float min, float max) {
+        return v < min ? min : Math.min(v, max);
+    }
+
     private static float wrapToPi(float a) {
         float twoPi = (float)(Math.PI * 2.0);
         a = (float)(a % twoPi);
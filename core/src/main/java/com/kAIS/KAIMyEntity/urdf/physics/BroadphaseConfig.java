@@ -0,0 +1,109 @@
+package com.kAIS.KAIMyEntity.urdf.physics;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.ode4j.math.DVector3;
+import org.ode4j.ode.DHashSpace;
+import org.ode4j.ode.DSapSpace;
+import org.ode4j.ode.DSpace;
+import org.ode4j.ode.OdeHelper;
+
+import java.util.Locale;
+
+/**
+ * 최상위 충돌 공간(broadphase) 선택 + 튜닝 (장면마다 다르게)
+ * - SIMPLE: 모든 쌍 검사 O(n²) → 로봇 몇 대까지만
+ * - HASH: 다단계 격자, 셀 크기 2^min ~ 2^max m (로봇 링크 크기에 맞춰 기본 2^-3 ~ 2^3)
+ * - SAP: sweep-and-prune (기본 XZY: 첫 축 x로 정렬, y-up이라 높이 축은 마지막) → 많은 로봇이 평면에 흩어진 장면
+ * - QUADTREE: 고정 영역(center, extents)을 depth 단계로 분할 → 영역이 정해진 경기장
+ *
+ * 로봇은 각자 SimpleSpace로 묶여 이 공간 안에 들어감 → broadphase는 로봇 단위 AABB만 다룸
+ */
+public final class BroadphaseConfig {
+    private static final Logger logger = LogManager.getLogger();
+
+    public enum Type { SIMPLE, HASH, SAP, QUADTREE }
+
+    private Type type = Type.HASH;
+    private int hashMinLevel = -3;
+    private int hashMaxLevel = 3;
+    private DSapSpace.AXES sapAxes = DSapSpace.AXES.XZY;
+    private final DVector3 quadCenter = new DVector3(0, 0, 0);
+    private final DVector3 quadExtents = new DVector3(64, 8, 64);
+    private int quadDepth = 6;
+
+    public BroadphaseConfig() {}
+
+    public BroadphaseConfig(Type type) {
+        this.type = type;
+    }
+
+    /**
+     * "hash", "sap", "quadtree", "simple" (대소문자 무관, 모르는 값이면 HASH)
+     */
+    public static BroadphaseConfig parse(String name) {
+        if (name == null || name.isBlank()) return new BroadphaseConfig();
+        try {
+            return new BroadphaseConfig(Type.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            logger.warn("⚠️ Unknown broadphase '{}', using HASH", name);
+            return new BroadphaseConfig();
+        }
+    }
+
+    // ========== 옵션 ==========
+
+    public BroadphaseConfig type(Type type) {
+        this.type = type;
+        return this;
+    }
+
+    /** HASH 셀 크기 범위 (2^min ~ 2^max m) */
+    public BroadphaseConfig hashLevels(int min, int max) {
+        this.hashMinLevel = Math.min(min, max);
+        this.hashMaxLevel = Math.max(min, max);
+        return this;
+    }
+
+    /** SAP 정렬 축 순서 */
+    public BroadphaseConfig sapAxes(DSapSpace.AXES axes) {
+        this.sapAxes = axes;
+        return this;
+    }
+
+    /** QUADTREE 영역 (중심, 반 크기) 과 분할 단계 */
+    public BroadphaseConfig quadTree(double cx, double cy, double cz, double ex, double ey, double ez, int depth) {
+        this.quadCenter.set(cx, cy, cz);
+        this.quadExtents.set(ex, ey, ez);
+        this.quadDepth = Math.max(1, Math.min(10, depth));
+        return this;
+    }
+
+    public Type getType() { return type; }
+
+    // ========== 생성 ==========
+
+    /** 설정대로 공간 생성 (parent = null이면 최상위) */
+    public DSpace create(DSpace parent) {
+        return switch (type) {
+            case SIMPLE -> OdeHelper.createSimpleSpace(parent);
+            case HASH -> {
+                DHashSpace hash = OdeHelper.createHashSpace(parent);
+                hash.setLevels(hashMinLevel, hashMaxLevel);
+                yield hash;
+            }
+            case SAP -> OdeHelper.createSapSpace(parent, sapAxes);
+            case QUADTREE -> OdeHelper.createQuadTreeSpace(parent, quadCenter, quadExtents, quadDepth);
+        };
+    }
+
+    @Override
+    public String toString() {
+        return switch (type) {
+            case HASH -> "HASH[" + hashMinLevel + ".." + hashMaxLevel + "]";
+            case SAP -> "SAP[" + sapAxes + "]";
+            case QUADTREE -> "QUADTREE[depth " + quadDepth + "]";
+            default -> type.name();
+        };
+    }
+}
@@ -0,0 +1,249 @@
+package com.kAIS.KAIMyEntity.urdf.physics;
+
+import org.ode4j.ode.DBody;
+import org.ode4j.ode.DContact;
+import org.ode4j.ode.DContactBuffer;
+import org.ode4j.ode.DContactGeomBuffer;
+import org.ode4j.ode.DContactJoint;
+import org.ode4j.ode.DGeom;
+import org.ode4j.ode.DJoint;
+import org.ode4j.ode.DJointGroup;
+import org.ode4j.ode.DSpace;
+import org.ode4j.ode.DWorld;
+import org.ode4j.ode.OdeConstants;
+import org.ode4j.ode.OdeHelper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * 충돌 처리 (스텝마다 collide → quickStep → empty)
+ * - near callback: 공간 쌍이면 안으로 내려가고(spaceCollide2), 지오메트리 쌍이면 접촉점 계산 → 접촉 관절
+ * - 접촉 관절은 전용 DJointGroup에 만들고 스텝이 끝나면 한 번에 비움
+ * - 접촉 데이터는 미리 만든 풀(DContactBuffer)에서 순서대로 꺼내 씀
+ *   ODE4J 접촉 관절은 DContact를 복사하지 않고 참조하므로 스텝 동안은 재사용 불가 → empty()에서 커서만 0으로
+ * - 거르는 쌍: 같은 바디(둘 다 정적인 쌍 포함), 잠든 바디끼리(또는 잠든 바디 ↔ 정적), 관절로 이어진 바디
+ * - 로봇은 각자 SimpleSpace → 최상위 collide는 로봇끼리/지면과의 쌍만 만듦
+ *   같은 로봇 안의 쌍은 selfCollision을 켠 로봇만 따로 검사 (인접 링크는 관절 연결로 걸러짐)
+ * - ordered(true): 쌍을 모았다가 지오메트리 번호(로봇 순서 → 링크 순서, 로봇 밖 = 0) 순으로 정렬 후 접촉 생성
+ *   broadphase 내부 순서(더러운 지오메트리를 앞으로 옮기는 목록 등)와 무관하게 접촉 관절 순서가 같음 → 재현 가능한 스텝
+ *
+ * 물리 스텝과 같은 스레드에서만 사용
+ */
+public final class ContactPipeline implements DGeom.DNearCallback {
+    public static final int DEFAULT_CAPACITY = 4096;  // 스텝당 최대 접촉점
+    public static final int MAX_CONTACTS_PER_PAIR = 8;
+
+    private final DWorld world;
+    private final DJointGroup contactGroup = OdeHelper.createJointGroup();
+    private final DContactBuffer pool;
+    private final DContactGeomBuffer[] views;         // 풀 오프셋별 collide 출력 뷰 (미리 생성)
+    private int used = 0;
+
+    // 정렬 모드: 걸러진 쌍을 모았다가 (작은 번호, 큰 번호, 도착 순서) 순으로 처리
+    private static final int ORDER_BITS = 21;
+    private static final long ORDER_MASK = (1L << ORDER_BITS) - 1;
+    private boolean ordered = false;
+    private final IdentityHashMap<DGeom, Integer> geomOrder = new IdentityHashMap<>();
+    private final List<DGeom> orderScratch = new ArrayList<>();
+    private DGeom[] pendingA = new DGeom[256], pendingB = new DGeom[256];
+    private long[] pendingKeys = new long[256];
+    private int pending = 0;
+
+    // 접촉 표면 (모든 쌍 공통)
+    private double mu = 1.0;
+    private double bounce = 0.0;
+    private double softErp = 0.2;
+    private double softCfm = 1e-5;
+
+    // 통계 (마지막 스텝 / 누적)
+    private int lastPairs, lastContacts, lastFiltered;
+    private int pairs, filtered;
+    private long overflowContacts = 0;
+    private long totalContacts = 0;
+
+    public ContactPipeline(DWorld world) {
+        this(world, DEFAULT_CAPACITY);
+    }
+
+    public ContactPipeline(DWorld world, int capacity) {
+        this.world = world;
+        this.pool = new DContactBuffer(Math.max(MAX_CONTACTS_PER_PAIR, capacity));
+        DContactGeomBuffer geoms = pool.getGeomBuffer();
+        int n = Math.max(MAX_CONTACTS_PER_PAIR, capacity);
+        this.views = new DContactGeomBuffer[n];
+        for (int i = 0; i < n; i++) views[i] = geoms.createView(i);
+    }
+
+    // ========== 표면 ==========
+
+    public ContactPipeline friction(double mu) {
+        this.mu = Math.max(0, mu);
+        return this;
+    }
+
+    public ContactPipeline bounce(double bounce) {
+        this.bounce = Math.max(0, Math.min(1, bounce));
+        return this;
+    }
+
+    /** 접촉 부드러움 (ERP: 침투 복원 비율, CFM: 제약 완화) */
+    public ContactPipeline softness(double erp, double cfm) {
+        this.softErp = erp;
+        this.softCfm = cfm;
+        return this;
+    }
+
+    /** 접촉 생성 순서를 broadphase와 무관하게 고정 (결정적 모드, 스텝마다 정렬 비용) */
+    public ContactPipeline ordered(boolean enable) {
+        this.ordered = enable;
+        return this;
+    }
+
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    // ========== 스텝 ==========
+
+    /** 공간 전체 + 자기 충돌 켠 로봇 내부 충돌 검사 → 접촉 관절 생성 (quickStep 직전) */
+    public void collide(DSpace space, Iterable<PhysicsRobot> robots) {
+        pairs = 0;
+        filtered = 0;
+        int before = used;
+        if (ordered) numberGeoms(robots);
+        space.collide(null, this);
+        for (PhysicsRobot robot : robots) {
+            if (robot.isSelfCollision()) robot.getSpace().collide(null, this);
+        }
+        if (ordered) flushOrdered();
+        lastPairs = pairs;
+        lastFiltered = filtered;
+        lastContacts = used - before;
+        totalContacts += lastContacts;
+    }
+
+    /** 접촉 관절 제거 + 풀 반환 (quickStep 직후) */
+    public void empty() {
+        contactGroup.empty();
+        used = 0;
+    }
+
+    @Override
+    public void call(Object data, DGeom o1, DGeom o2) {
+        if (o1 instanceof DSpace || o2 instanceof DSpace) {
+            // 로봇 공간끼리 / 로봇 공간 ↔ 지면: 안쪽 지오메트리 쌍으로
+            OdeHelper.spaceCollide2(o1, o2, data, this);
+            return;
+        }
+        pairs++;
+
+        DBody b1 = o1.getBody();
+        DBody b2 = o2.getBody();
+        if (b1 == b2
+                || (b1 != null && b2 != null && !b1.isEnabled() && !b2.isEnabled())
+                || (b1 == null && b2 != null && !b2.isEnabled())
+                || (b2 == null && b1 != null && !b1.isEnabled())
+                || (b1 != null && b2 != null && OdeHelper.areConnectedExcluding(b1, b2, DContactJoint.class))) {
+            filtered++;
+            return;
+        }
+        if (ordered) {
+            defer(o1, o2);
+            return;
+        }
+        generate(o1, o2, b1, b2);
+    }
+
+    private void generate(DGeom o1, DGeom o2, DBody b1, DBody b2) {
+        int room = Math.min(MAX_CONTACTS_PER_PAIR, views.length - used);
+        if (room <= 0) {
+            overflowContacts++;
+            return;
+        }
+        int n = OdeHelper.collide(o1, o2, room, views[used]);
+        for (int i = 0; i < n; i++) {
+            DContact c = pool.get(used + i);
+            c.surface.mode = OdeConstants.dContactApprox1 | OdeConstants.dContactSoftERP | OdeConstants.dContactSoftCFM
+                    | (bounce > 0 ? OdeConstants.dContactBounce : 0);
+            c.surface.mu = mu;
+            c.surface.bounce = bounce;
+            c.surface.bounce_vel = 0.1;
+            c.surface.soft_erp = softErp;
+            c.surface.soft_cfm = softCfm;
+            DJoint j = OdeHelper.createContactJoint(world, contactGroup, c);
+            j.attach(b1, b2);
+        }
+        used += n;
+    }
+
+    // ========== 정렬 모드 ==========
+
+    /** 로봇 순서 → 링크 순서로 지오메트리 번호 (1부터, 목록에 없는 지면 등은 0) */
+    private void numberGeoms(Iterable<PhysicsRobot> robots) {
+        geomOrder.clear();
+        int next = 1;
+        for (PhysicsRobot robot : robots) {
+            orderScratch.clear();
+            robot.collectGeoms(orderScratch);
+            for (DGeom g : orderScratch) geomOrder.put(g, next++);
+        }
+        orderScratch.clear();
+    }
+
+    private void defer(DGeom o1, DGeom o2) {
+        if (pending == pendingKeys.length) {
+            int n = pending * 2;
+            pendingA = Arrays.copyOf(pendingA, n);
+            pendingB = Arrays.copyOf(pendingB, n);
+            pendingKeys = Arrays.copyOf(pendingKeys, n);
+        }
+        long k1 = geomOrder.getOrDefault(o1, 0) & ORDER_MASK;
+        long k2 = geomOrder.getOrDefault(o2, 0) & ORDER_MASK;
+        // 번호가 작은 쪽을 먼저 (법선 방향/관절 바디 순서도 고정)
+        if (k1 > k2) {
+            DGeom t = o1; o1 = o2; o2 = t;
+            long tk = k1; k1 = k2; k2 = tk;
+        }
+        pendingA[pending] = o1;
+        pendingB[pending] = o2;
+        pendingKeys[pending] = (k1 << (2 * ORDER_BITS)) | (k2 << ORDER_BITS) | pending;
+        pending++;
+    }
+
+    private void flushOrdered() {
+        Arrays.sort(pendingKeys, 0, pending);
+        for (int i = 0; i < pending; i++) {
+            int idx = (int) (pendingKeys[i] & ORDER_MASK);
+            DGeom o1 = pendingA[idx], o2 = pendingB[idx];
+            generate(o1, o2, o1.getBody(), o2.getBody());
+        }
+        Arrays.fill(pendingA, 0, pending, null);
+        Arrays.fill(pendingB, 0, pending, null);
+        pending = 0;
+    }
+
+    // ========== 통계 ==========
+
+    /** 마지막 스텝에서 좁은 단계까지 간 지오메트리 쌍 */
+    public int getLastPairCount() { return lastPairs; }
+
+    public int getLastContactCount() { return lastContacts; }
+
+    /** 마지막 스텝에서 걸러낸 쌍 (같은 바디, 관절 연결, 잠든 바디) */
+    public int getLastFilteredCount() { return lastFiltered; }
+
+    /** 풀이 가득 차 버린 접촉 쌍 수 (누적) */
+    public long getOverflowCount() { return overflowContacts; }
+
+    public long getTotalContacts() { return totalContacts; }
+
+    public int getCapacity() { return views.length; }
+
+    public void destroy() {
+        contactGroup.destroy();
+        used = 0;
+    }
+}
@@ -0,0 +1,297 @@
+package com.kAIS.KAIMyEntity.urdf.physics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 3D 볼록 껍질 (점군 → 정점 + 바깥을 향하는 삼각형 면)
+ * - 점진적 quickhull: 보이는 면을 지우고 지평선 모서리마다 새 면
+ * - 정점 예산: 껍질 정점이 maxVertices를 넘으면 껍질 정점 중 최원점 샘플링으로 골라 다시 계산
+ *   (안쪽 근사 → 원래 껍질보다 약간 작음, 극점은 남음)
+ * - 점이 평면/직선 위에 있으면(얇은 판 메시) 가장 얇은 축으로 MIN_THICKNESS만큼 부풀림
+ *
+ * 불변 객체, 좌표는 메시 로컬 (ConvexHullCache가 만들고 URDFPhysicsBuilder가 DConvex로)
+ */
+public final class ConvexHull {
+    private static final double MIN_THICKNESS = 1e-3;
+
+    /** 정점 xyz */
+    private final double[] points;
+    /** 삼각형 면 정점 인덱스 (바깥에서 볼 때 반시계) */
+    private final int[] faces;
+
+    ConvexHull(double[] points, int[] faces) {
+        this.points = points;
+        this.faces = faces;
+    }
+
+    public int getVertexCount() { return points.length / 3; }
+
+    public int getFaceCount() { return faces.length / 3; }
+
+    public double[] getPoints() { return points.clone(); }
+
+    public int[] getFaces() { return faces.clone(); }
+
+    double[] points() { return points; }
+
+    int[] faces() { return faces; }
+
+    /** 부피 (무게중심 기준 사면체 합) */
+    public double volume() {
+        double cx = 0, cy = 0, cz = 0;
+        int n = getVertexCount();
+        for (int i = 0; i < n; i++) { cx += points[i * 3]; cy += points[i * 3 + 1]; cz += points[i * 3 + 2]; }
+        cx /= n; cy /= n; cz /= n;
+        double v = 0;
+        for (int f = 0; f < faces.length; f += 3) {
+            int a = faces[f] * 3, b = faces[f + 1] * 3, c = faces[f + 2] * 3;
+            double ax = points[a] - cx, ay = points[a + 1] - cy, az = points[a + 2] - cz;
+            double bx = points[b] - cx, by = points[b + 1] - cy, bz = points[b + 2] - cz;
+            double qx = points[c] - cx, qy = points[c + 1] - cy, qz = points[c + 2] - cz;
+            v += ax * (by * qz - bz * qy) - ay * (bx * qz - bz * qx) + az * (bx * qy - by * qx);
+        }
+        return Math.abs(v) / 6.0;
+    }
+
+    // ========== 생성 ==========
+
+    /**
+     * 점군 xyz(count개)의 볼록 껍질, 정점은 최대 maxVertices개 (4 이상)
+     * @return 점이 4개 미만이면 null
+     */
+    public static ConvexHull build(double[] xyz, int count, int maxVertices) {
+        double[] pts = dedupe(xyz, count);
+        if (pts.length < 12) return null;
+        pts = inflateIfFlat(pts);
+        ConvexHull hull = quickHull(pts);
+        if (hull == null) return null;
+        int budget = Math.max(4, maxVertices);
+        if (hull.getVertexCount() > budget) {
+            ConvexHull reduced = quickHull(farthestPointSample(hull.points, budget));
+            if (reduced != null) hull = reduced;
+        }
+        return hull;
+    }
+
+    private static double[] dedupe(double[] xyz, int count) {
+        Map<List<Double>, Boolean> seen = new HashMap<>();
+        double[] out = new double[count * 3];
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            double x = xyz[i * 3], y = xyz[i * 3 + 1], z = xyz[i * 3 + 2];
+            if (seen.putIfAbsent(List.of(x, y, z), Boolean.TRUE) != null) continue;
+            out[n * 3] = x; out[n * 3 + 1] = y; out[n * 3 + 2] = z;
+            n++;
+        }
+        return Arrays.copyOf(out, n * 3);
+    }
+
+    /** 경계 상자 한 축이 MIN_THICKNESS보다 얇으면 그 축으로 ± 복제 (판/선 메시도 부피를 가지게) */
+    private static double[] inflateIfFlat(double[] pts) {
+        double[] min = {Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE};
+        double[] max = {-Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE};
+        int n = pts.length / 3;
+        for (int i = 0; i < n; i++) {
+            for (int a = 0; a < 3; a++) {
+                min[a] = Math.min(min[a], pts[i * 3 + a]);
+                max[a] = Math.max(max[a], pts[i * 3 + a]);
+            }
+        }
+        double[] out = pts;
+        for (int a = 0; a < 3; a++) {
+            if (max[a] - min[a] >= MIN_THICKNESS) continue;
+            int m = out.length / 3;
+            double[] grown = new double[m * 6];
+            for (int i = 0; i < m; i++) {
+                for (int k = 0; k < 3; k++) {
+                    grown[i * 3 + k] = out[i * 3 + k];
+                    grown[(m + i) * 3 + k] = out[i * 3 + k];
+                }
+                grown[i * 3 + a] -= MIN_THICKNESS / 2;
+                grown[(m + i) * 3 + a] += MIN_THICKNESS / 2;
+            }
+            out = grown;
+        }
+        return out;
+    }
+
+    /** 극점 6개에서 시작해 이미 고른 점들에서 가장 먼 점을 차례로 추가 */
+    private static double[] farthestPointSample(double[] pts, int k) {
+        int n = pts.length / 3;
+        double[] dist = new double[n];
+        Arrays.fill(dist, Double.MAX_VALUE);
+        boolean[] taken = new boolean[n];
+        double[] out = new double[k * 3];
+        int m = 0;
+        for (int a = 0; a < 3 && m < k; a++) {
+            int lo = 0, hi = 0;
+            for (int i = 1; i < n; i++) {
+                if (pts[i * 3 + a] < pts[lo * 3 + a]) lo = i;
+                if (pts[i * 3 + a] > pts[hi * 3 + a]) hi = i;
+            }
+            for (int i : new int[] {lo, hi}) {
+                if (m < k && !taken[i]) m = take(pts, i, taken, dist, out, m);
+            }
+        }
+        while (m < k) {
+            int best = -1;
+            for (int i = 0; i < n; i++) if (!taken[i] && (best < 0 || dist[i] > dist[best])) best = i;
+            if (best < 0) break;
+            m = take(pts, best, taken, dist, out, m);
+        }
+        return Arrays.copyOf(out, m * 3);
+    }
+
+    private static int take(double[] pts, int i, boolean[] taken, double[] dist, double[] out, int m) {
+        taken[i] = true;
+        double x = pts[i * 3], y = pts[i * 3 + 1], z = pts[i * 3 + 2];
+        out[m * 3] = x; out[m * 3 + 1] = y; out[m * 3 + 2] = z;
+        for (int j = 0; j < dist.length; j++) {
+            double dx = pts[j * 3] - x, dy = pts[j * 3 + 1] - y, dz = pts[j * 3 + 2] - z;
+            dist[j] = Math.min(dist[j], dx * dx + dy * dy + dz * dz);
+        }
+        return m + 1;
+    }
+
+    // ========== quickhull ==========
+
+    private static final class Face {
+        final int a, b, c;
+        final double nx, ny, nz, d;  // 바깥 법선 (단위), n·p = d
+        boolean dead;
+
+        Face(double[] p, int a, int b, int c) {
+            this.a = a; this.b = b; this.c = c;
+            double ux = p[b * 3] - p[a * 3], uy = p[b * 3 + 1] - p[a * 3 + 1], uz = p[b * 3 + 2] - p[a * 3 + 2];
+            double vx = p[c * 3] - p[a * 3], vy = p[c * 3 + 1] - p[a * 3 + 1], vz = p[c * 3 + 2] - p[a * 3 + 2];
+            double x = uy * vz - uz * vy, y = uz * vx - ux * vz, z = ux * vy - uy * vx;
+            double len = Math.sqrt(x * x + y * y + z * z);
+            if (len > 0) { x /= len; y /= len; z /= len; }
+            nx = x; ny = y; nz = z;
+            d = nx * p[a * 3] + ny * p[a * 3 + 1] + nz * p[a * 3 + 2];
+        }
+
+        double distance(double[] p, int i) {
+            return nx * p[i * 3] + ny * p[i * 3 + 1] + nz * p[i * 3 + 2] - d;
+        }
+    }
+
+    private static ConvexHull quickHull(double[] p) {
+        int n = p.length / 3;
+        if (n < 4) return null;
+        double eps = 1e-9 * Math.max(1.0, extent(p));
+
+        // 초기 사면체: x 극점 두 개 → 그 직선에서 가장 먼 점 → 그 평면에서 가장 먼 점
+        int i0 = 0, i1 = 0;
+        for (int i = 1; i < n; i++) {
+            if (p[i * 3] < p[i0 * 3]) i0 = i;
+            if (p[i * 3] > p[i1 * 3]) i1 = i;
+        }
+        if (i0 == i1) i1 = (i0 + 1) % n;
+        int i2 = -1;
+        double best = eps;
+        for (int i = 0; i < n; i++) {
+            double dd = lineDistance2(p, i0, i1, i);
+            if (dd > best) { best = dd; i2 = i; }
+        }
+        if (i2 < 0) return null;
+        Face base = new Face(p, i0, i1, i2);
+        int i3 = -1;
+        best = eps;
+        for (int i = 0; i < n; i++) {
+            double dd = Math.abs(base.distance(p, i));
+            if (dd > best) { best = dd; i3 = i; }
+        }
+        if (i3 < 0) return null;
+
+        List<Face> faces = new ArrayList<>();
+        if (base.distance(p, i3) > 0) {
+            // i3가 앞쪽 → 바닥 면을 뒤집어 바깥을 향하게
+            faces.add(new Face(p, i0, i2, i1));
+            faces.add(new Face(p, i0, i1, i3));
+            faces.add(new Face(p, i1, i2, i3));
+            faces.add(new Face(p, i2, i0, i3));
+        } else {
+            faces.add(new Face(p, i0, i1, i2));
+            faces.add(new Face(p, i1, i0, i3));
+            faces.add(new Face(p, i2, i1, i3));
+            faces.add(new Face(p, i0, i2, i3));
+        }
+
+        boolean[] used = new boolean[n];
+        used[i0] = used[i1] = used[i2] = used[i3] = true;
+        Map<Long, Face> edgeOwner = new HashMap<>();
+        List<int[]> horizon = new ArrayList<>();
+
+        for (int pi = 0; pi < n; pi++) {
+            if (used[pi]) continue;
+            boolean visible = false;
+            for (Face f : faces) {
+                if (f.distance(p, pi) > eps) { visible = true; break; }
+            }
+            if (!visible) continue; // 안쪽 점
+            used[pi] = true;
+
+            // 보이는 면 제거, 지평선 = 보이는 면의 모서리 중 반대 방향 모서리가 보이지 않는 면에 있는 것
+            edgeOwner.clear();
+            for (Face f : faces) {
+                if (f.distance(p, pi) > eps) f.dead = true;
+                else {
+                    edgeOwner.put(edge(f.a, f.b), f);
+                    edgeOwner.put(edge(f.b, f.c), f);
+                    edgeOwner.put(edge(f.c, f.a), f);
+                }
+            }
+            horizon.clear();
+            for (Face f : faces) {
+                if (!f.dead) continue;
+                if (edgeOwner.containsKey(edge(f.b, f.a))) horizon.add(new int[] {f.a, f.b});
+                if (edgeOwner.containsKey(edge(f.c, f.b))) horizon.add(new int[] {f.b, f.c});
+                if (edgeOwner.containsKey(edge(f.a, f.c))) horizon.add(new int[] {f.c, f.a});
+            }
+            faces.removeIf(f -> f.dead);
+            for (int[] e : horizon) faces.add(new Face(p, e[0], e[1], pi));
+        }
+
+        // 사용된 정점만 남기고 인덱스 다시 매김
+        int[] remap = new int[n];
+        Arrays.fill(remap, -1);
+        int m = 0;
+        for (Face f : faces) for (int v : new int[] {f.a, f.b, f.c}) if (remap[v] < 0) remap[v] = m++;
+        double[] outPts = new double[m * 3];
+        for (int i = 0; i < n; i++) {
+            if (remap[i] < 0) continue;
+            System.arraycopy(p, i * 3, outPts, remap[i] * 3, 3);
+        }
+        int[] outFaces = new int[faces.size() * 3];
+        int k = 0;
+        for (Face f : faces) {
+            outFaces[k++] = remap[f.a];
+            outFaces[k++] = remap[f.b];
+            outFaces[k++] = remap[f.c];
+        }
+        return new ConvexHull(outPts, outFaces);
+    }
+
+    private static long edge(int from, int to) {
+        return ((long) from << 32) | (to & 0xffffffffL);
+    }
+
+    private static double extent(double[] p) {
+        double e = 0;
+        for (double v : p) e = Math.max(e, Math.abs(v));
+        return e;
+    }
+
+    private static double lineDistance2(double[] p, int a, int b, int i) {
+        double ux = p[b * 3] - p[a * 3], uy = p[b * 3 + 1] - p[a * 3 + 1], uz = p[b * 3 + 2] - p[a * 3 + 2];
+        double vx = p[i * 3] - p[a * 3], vy = p[i * 3 + 1] - p[a * 3 + 1], vz = p[i * 3 + 2] - p[a * 3 + 2];
+        double x = uy * vz - uz * vy, y = uz * vx - ux * vz, z = ux * vy - uy * vx;
+        double len2 = ux * ux + uy * uy + uz * uz;
+        return len2 > 0 ? (x * x + y * y + z * z) / len2 : 0;
+    }
+}
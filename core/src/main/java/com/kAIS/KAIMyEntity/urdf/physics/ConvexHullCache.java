@@ -0,0 +1,231 @@
+package com.kAIS.KAIMyEntity.urdf.physics;
+
+import com.kAIS.KAIMyEntity.urdf.STLLoader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.joml.Vector3f;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * STL 충돌 메시 → 근사 볼록 분해 (볼록 껍질 여러 개) 캐시
+ * - 분해: 메시 전체 껍질에서 시작, 삼각형 무게중심을 가장 긴 축의 중앙값으로 둘로 나눠
+ *   부피가 가장 많이 줄어드는 조각부터 나눔 → maxHulls개 또는 더 나눠도 전체 껍질 부피의 5% 미만으로 줄면 멈춤
+ * - 껍질마다 정점 최대 maxVertices개 (ConvexHull.build)
+ * - 디스크 캐시: STL 옆 "<파일>.hulls" (STL 크기/수정 시각/예산이 같으면 재사용, 쓰기 실패하면 메모리만)
+ * - 메모리 캐시: 같은 STL + 예산은 프로세스에서 한 번만 (EnvPool 환경 수천 개가 같은 껍질 공유)
+ *
+ * 오프라인 생성 (개발용, 테스트 소스): ./gradlew :core:convexHulls --args="<urdf> [maxHulls] [maxVertices]"
+ */
+public final class ConvexHullCache {
+    private static final Logger logger = LogManager.getLogger();
+
+    public static final int DEFAULT_MAX_HULLS = 8;
+    public static final int DEFAULT_MAX_VERTICES = 32;
+    public static final String EXTENSION = ".hulls";
+
+    private static final int MAGIC = 0x4B48_554C; // "KHUL"
+    private static final int VERSION = 1;
+    private static final double MIN_SPLIT_GAIN = 0.05;  // 전체 껍질 부피 대비
+    private static final int MIN_PART_TRIANGLES = 8;
+
+    private static final Map<String, List<ConvexHull>> memory = new ConcurrentHashMap<>();
+
+    private ConvexHullCache() {}
+
+    /**
+     * STL 파일의 볼록 분해 (메모리 → 디스크 → 새로 계산 순)
+     * @return 메시를 읽지 못했으면 빈 목록
+     */
+    public static List<ConvexHull> get(String stlPath, int maxHulls, int maxVertices) {
+        File stl = new File(stlPath);
+        if (!stl.isFile()) return List.of();
+        String key = stl.getAbsolutePath() + '|' + stl.length() + '|' + stl.lastModified() + '|' + maxHulls + '|' + maxVertices;
+        return memory.computeIfAbsent(key, k -> loadOrBuild(stl, maxHulls, maxVertices));
+    }
+
+    /** 메모리 캐시 비우기 (STL을 바꾼 뒤 다시 읽게) */
+    public static void clearMemory() {
+        memory.clear();
+    }
+
+    private static List<ConvexHull> loadOrBuild(File stl, int maxHulls, int maxVertices) {
+        File cache = new File(stl.getPath() + EXTENSION);
+        if (cache.isFile()) {
+            try {
+                List<ConvexHull> hulls = read(cache, stl, maxHulls, maxVertices);
+                if (hulls != null) return List.copyOf(hulls);
+            } catch (IOException e) {
+                logger.warn("⚠️ Ignoring unreadable hull cache {}: {}", cache.getName(), e.getMessage());
+            }
+        }
+
+        STLLoader.STLMesh mesh = STLLoader.load(stl.getPath());
+        if (mesh == null || mesh.getTriangleCount() == 0) return List.of();
+        long t0 = System.nanoTime();
+        List<ConvexHull> hulls = decompose(mesh, maxHulls, maxVertices);
+        logger.info("✅ Convex decomposition {}: {} triangles → {} hulls ({} vertices) in {} ms",
+                stl.getName(), mesh.getTriangleCount(), hulls.size(),
+                hulls.stream().mapToInt(ConvexHull::getVertexCount).sum(), (System.nanoTime() - t0) / 1_000_000);
+        try {
+            write(cache, stl, maxHulls, maxVertices, hulls);
+        } catch (IOException e) {
+            logger.debug("Hull cache not written ({}), keeping it in memory only", e.getMessage());
+        }
+        return List.copyOf(hulls);
+    }
+
+    // ========== 분해 ==========
+
+    private static final class Part {
+        final int[] tris;
+        final ConvexHull hull;
+        Part left, right;
+        double gain = -1;   // 나눴을 때 줄어드는 부피 (나눌 수 없으면 -1)
+
+        Part(int[] tris, ConvexHull hull) {
+            this.tris = tris;
+            this.hull = hull;
+        }
+    }
+
+    /** 메시 → 볼록 껍질 최대 maxHulls개 (메시 로컬 좌표, 스케일 전) */
+    public static List<ConvexHull> decompose(STLLoader.STLMesh mesh, int maxHulls, int maxVertices) {
+        int n = mesh.getTriangleCount();
+        double[] verts = new double[n * 9];
+        double[] centroids = new double[n * 3];
+        for (int t = 0; t < n; t++) {
+            Vector3f[] v = mesh.triangles.get(t).vertices;
+            for (int k = 0; k < 3; k++) {
+                verts[t * 9 + k * 3] = v[k].x;
+                verts[t * 9 + k * 3 + 1] = v[k].y;
+                verts[t * 9 + k * 3 + 2] = v[k].z;
+                centroids[t * 3 + k] = (v[0].get(k) + v[1].get(k) + v[2].get(k)) / 3.0;
+            }
+        }
+
+        int[] all = new int[n];
+        for (int t = 0; t < n; t++) all[t] = t;
+        ConvexHull rootHull = hullOf(verts, all, maxVertices);
+        if (rootHull == null) return List.of();
+        Part root = new Part(all, rootHull);
+        double minGain = MIN_SPLIT_GAIN * rootHull.volume();
+
+        List<Part> parts = new ArrayList<>();
+        parts.add(root);
+        split(root, verts, centroids, maxVertices);
+        while (parts.size() < Math.max(1, maxHulls)) {
+            Part best = null;
+            for (Part p : parts) if (p.left != null && (best == null || p.gain > best.gain)) best = p;
+            if (best == null || best.gain < minGain) break;
+            int at = parts.indexOf(best);
+            parts.set(at, best.left);
+            parts.add(at + 1, best.right);
+            split(best.left, verts, centroids, maxVertices);
+            split(best.right, verts, centroids, maxVertices);
+        }
+
+        List<ConvexHull> out = new ArrayList<>(parts.size());
+        for (Part p : parts) out.add(p.hull);
+        return out;
+    }
+
+    private static void split(Part part, double[] verts, double[] centroids, int maxVertices) {
+        if (part.tris.length < MIN_PART_TRIANGLES * 2) return;
+        // 무게중심 경계 상자에서 가장 긴 축
+        double[] min = {Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE};
+        double[] max = {-Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE};
+        for (int t : part.tris) {
+            for (int a = 0; a < 3; a++) {
+                min[a] = Math.min(min[a], centroids[t * 3 + a]);
+                max[a] = Math.max(max[a], centroids[t * 3 + a]);
+            }
+        }
+        int axis = 0;
+        for (int a = 1; a < 3; a++) if (max[a] - min[a] > max[axis] - min[axis]) axis = a;
+        if (max[axis] - min[axis] <= 0) return;
+
+        final int ax = axis;
+        Integer[] order = Arrays.stream(part.tris).boxed().toArray(Integer[]::new);
+        Arrays.sort(order, Comparator.comparingDouble((Integer t) -> centroids[t * 3 + ax]).thenComparingInt(t -> t));
+        int half = order.length / 2;
+        int[] l = new int[half], r = new int[order.length - half];
+        for (int i = 0; i < order.length; i++) {
+            if (i < half) l[i] = order[i];
+            else r[i - half] = order[i];
+        }
+        ConvexHull hl = hullOf(verts, l, maxVertices);
+        ConvexHull hr = hullOf(verts, r, maxVertices);
+        if (hl == null || hr == null) return;
+        part.left = new Part(l, hl);
+        part.right = new Part(r, hr);
+        part.gain = part.hull.volume() - hl.volume() - hr.volume();
+    }
+
+    private static ConvexHull hullOf(double[] verts, int[] tris, int maxVertices) {
+        double[] xyz = new double[tris.length * 9];
+        for (int i = 0; i < tris.length; i++) System.arraycopy(verts, tris[i] * 9, xyz, i * 9, 9);
+        return ConvexHull.build(xyz, tris.length * 3, maxVertices);
+    }
+
+    // ========== 디스크 ==========
+
+    private static List<ConvexHull> read(File cache, File stl, int maxHulls, int maxVertices) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cache)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return null;
+            if (in.readLong() != stl.length() || in.readLong() != stl.lastModified()) return null; // STL이 바뀜
+            if (in.readInt() != maxHulls || in.readInt() != maxVertices) return null;
+            int count = in.readInt();
+            List<ConvexHull> hulls = new ArrayList<>(count);
+            for (int h = 0; h < count; h++) {
+                double[] pts = new double[in.readInt() * 3];
+                for (int i = 0; i < pts.length; i++) pts[i] = in.readDouble();
+                int[] faces = new int[in.readInt() * 3];
+                for (int i = 0; i < faces.length; i++) faces[i] = in.readInt();
+                hulls.add(new ConvexHull(pts, faces));
+            }
+            return hulls;
+        }
+    }
+
+    private static void write(File cache, File stl, int maxHulls, int maxVertices, List<ConvexHull> hulls) throws IOException {
+        File tmp = new File(cache.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(stl.length());
+            out.writeLong(stl.lastModified());
+            out.writeInt(maxHulls);
+            out.writeInt(maxVertices);
+            out.writeInt(hulls.size());
+            for (ConvexHull h : hulls) {
+                double[] pts = h.points();
+                int[] faces = h.faces();
+                out.writeInt(pts.length / 3);
+                for (double v : pts) out.writeDouble(v);
+                out.writeInt(faces.length / 3);
+                for (int i : faces) out.writeInt(i);
+            }
+        }
+        if (!tmp.renameTo(cache)) {
+            cache.delete();
+            if (!tmp.renameTo(cache)) {
+                tmp.delete();
+                throw new IOException("cannot replace " + cache.getName());
+            }
+        }
+    }
+}
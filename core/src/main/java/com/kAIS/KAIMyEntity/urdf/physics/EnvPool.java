@@ -0,0 +1,394 @@
+package com.kAIS.KAIMyEntity.urdf.physics;
+
+import com.kAIS.KAIMyEntity.urdf.URDFRobotModel;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.ode4j.math.DQuaternionC;
+import org.ode4j.math.DVector3C;
+import org.ode4j.ode.DBody;
+import org.ode4j.ode.DGeom;
+import org.ode4j.ode.DSpace;
+import org.ode4j.ode.DWorld;
+import org.ode4j.ode.OdeHelper;
+import org.ode4j.ode.internal.Misc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * RL용 병렬 환경 묶음 (PhysicsManager 싱글톤과 별개)
+ * - 환경 N개 = 각자 독립된 ODE 월드/공간/접촉 처리/지면 + 로봇 인스턴스 (공유 상태 없음 → 락 없이 병렬 스텝)
+ * - 환경은 작업자 수만큼 연속 구간으로 나눠 고정 배정, 호출 스레드도 첫 구간을 맡음
+ * - step() 한 번 = 작업자 깨우기 → 각 구간 frameSkip 스텝 → 완료 카운트가 0이 되면 반환 (스텝당 배리어 1번)
+ *
+ * 배열은 전부 평평한 float[] (행 = 환경, row-major):
+ *   actions[N * dof]  : 구동 관절 목표 위치 (NaN = 해제)
+ *   obs[N * obsSize]  : 관절 위치[dof], 관절 속도[dof], 루트 위치[3], 루트 쿼터니언 wxyz[4], 루트 선속도[3], 루트 각속도[3]
+ *
+ * step()/reset()은 한 스레드에서만 호출
+ *
+ * deterministic(seed): 환경마다 따로 난수 상태를 두고 스텝 전후로 ODE 전역 난수를 바꿔 끼움 + 접촉 정렬
+ *   → 환경 하나의 궤적이 다른 환경/스레드 배치와 무관하게 재현됨 (전역 난수라 이 모드에서는 스레드 1개)
+ */
+public final class EnvPool implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger();
+
+    public static final double DEFAULT_STEP = 0.002;
+    public static final int DEFAULT_FRAME_SKIP = 10;  // 행동 하나 = 20 ms (50 Hz 제어)
+    private static final int ROOT_OBS = 13;
+    private static final long SPIN_NANOS = 50_000L;
+
+    private final Env[] envs;
+    private final int dof;
+    private final int obsSize;
+    private final int[] actuated;       // 행동 열 → robot.joints 인덱스
+    private final String[] actionNames;
+    private final double stepSize;
+    private final int frameSkip;
+    private final boolean deterministic;
+
+    // 작업자 (구간 0 = 호출 스레드)
+    private final int[] chunkStart;
+    private final Thread[] workers;
+    private volatile long generation = 0;
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile Thread waiter;
+    private volatile boolean running = true;
+    private volatile float[] stepActions;
+    private volatile float[] stepObs;
+    private volatile RuntimeException workerError;
+
+    private long steps = 0;
+
+    public static Builder builder(URDFRobotModel model) {
+        return new Builder(model);
+    }
+
+    private EnvPool(Builder b) {
+        OdeHelper.initODE2(0);
+        if (b.model.rootLinkName == null) b.model.buildHierarchy(); // 병렬 빌드 전에 한 번만
+        this.stepSize = b.stepSize;
+        this.frameSkip = b.frameSkip;
+        this.deterministic = b.deterministic;
+        this.envs = new Env[b.envCount];
+        for (int i = 0; i < envs.length; i++) envs[i] = new Env(b, i);
+
+        PhysicsRobot first = envs[0].robot;
+        List<Integer> cols = new ArrayList<>();
+        for (int j = 0; j < first.getJointCount(); j++) if (first.isActuated(j)) cols.add(j);
+        this.dof = cols.size();
+        this.actuated = cols.stream().mapToInt(Integer::intValue).toArray();
+        this.actionNames = new String[dof];
+        for (int c = 0; c < dof; c++) actionNames[c] = b.model.joints.get(actuated[c]).name;
+        this.obsSize = 2 * dof + ROOT_OBS;
+
+        int threads = deterministic ? 1 : Math.max(1, Math.min(b.threads, envs.length));
+        this.chunkStart = new int[threads + 1];
+        for (int t = 0; t <= threads; t++) chunkStart[t] = (int) ((long) envs.length * t / threads);
+        this.workers = new Thread[threads - 1];
+        for (int w = 0; w < workers.length; w++) {
+            final int chunk = w + 1;
+            Thread t = new Thread(() -> workerLoop(chunk), "EnvPool-Worker-" + chunk);
+            t.setDaemon(true);
+            workers[w] = t;
+            t.start();
+        }
+        logger.info("✅ EnvPool: {} envs x {} ({} dof, obs {}), {} threads, {} x {} ms per step{}",
+                envs.length, b.model.name, dof, obsSize, threads, frameSkip, stepSize * 1000,
+                deterministic ? ", deterministic (seed " + b.seed + ")" : "");
+    }
+
+    // ========== 조회 ==========
+
+    public int getEnvCount() { return envs.length; }
+
+    /** 행동 차원 = 구동 관절 수 */
+    public int getActionSize() { return dof; }
+
+    public int getObservationSize() { return obsSize; }
+
+    public String[] getActionNames() { return actionNames.clone(); }
+
+    public int getThreadCount() { return workers.length + 1; }
+
+    /** 환경 스텝(행동) 수 */
+    public long getStepCount() { return steps; }
+
+    /** 환경 하나의 로봇 (디버그/렌더용, 스텝 중에는 만지지 말 것) */
+    public PhysicsRobot getRobot(int env) { return envs[env].robot; }
+
+    // ========== 스텝 ==========
+
+    /**
+     * 모든 환경에 행동 적용 → frameSkip 스텝 → 관측
+     * @param actions N * dof (null이면 목표 유지)
+     * @param obs     N * obsSize (출력)
+     */
+    public void step(float[] actions, float[] obs) {
+        if (actions != null && actions.length < envs.length * dof) {
+            throw new IllegalArgumentException("actions length " + actions.length + " < " + envs.length * dof);
+        }
+        if (obs.length < envs.length * obsSize) {
+            throw new IllegalArgumentException("obs length " + obs.length + " < " + envs.length * obsSize);
+        }
+        stepActions = actions;
+        stepObs = obs;
+        workerError = null;
+
+        waiter = Thread.currentThread();
+        pending.set(workers.length);
+        generation++; // volatile 쓰기 → 배열/행동 참조가 작업자에게 보임
+        for (Thread t : workers) LockSupport.unpark(t);
+
+        runChunk(0, actions, obs);
+
+        // 배리어: 모든 구간 완료까지 (짧게 spin → park)
+        long spinUntil = System.nanoTime() + SPIN_NANOS;
+        while (pending.get() > 0) {
+            if (System.nanoTime() < spinUntil) Thread.onSpinWait();
+            else LockSupport.parkNanos(this, 1_000_000L);
+        }
+        steps++;
+        RuntimeException e = workerError;
+        if (e != null) throw e;
+    }
+
+    /** 모든 환경을 초기 자세로 + 관측 */
+    public void reset(float[] obs) {
+        for (int i = 0; i < envs.length; i++) reset(i, obs);
+    }
+
+    /** 환경 하나를 초기 자세로 (에피소드 종료 시), obs가 있으면 그 행만 갱신 */
+    public void reset(int env, float[] obs) {
+        envs[env].reset();
+        if (obs != null) envs[env].observe(obs, env * obsSize);
+    }
+
+    /** 환경 하나의 상태를 dst에 저장 (분기 재생, 좋은 상태에서 여러 환경 시작 등) */
+    public PhysicsSnapshot saveSnapshot(int env, PhysicsSnapshot dst) {
+        dst.capture(envs[env].robots);
+        dst.step = steps;
+        dst.randomSeed = envs[env].random;
+        return dst;
+    }
+
+    /**
+     * 저장한 상태를 환경 하나에 복원 (같은 모델이면 다른 환경에서 저장한 것도 됨), obs가 있으면 그 행만 갱신
+     * @return 모양이 달라 복원하지 않았으면 false
+     */
+    public boolean restoreSnapshot(int env, PhysicsSnapshot src, float[] obs) {
+        if (!src.restore(envs[env].robots)) return false;
+        if (deterministic) envs[env].random = src.randomSeed;
+        if (obs != null) envs[env].observe(obs, env * obsSize);
+        return true;
+    }
+
+    private void runChunk(int chunk, float[] actions, float[] obs) {
+        for (int i = chunkStart[chunk]; i < chunkStart[chunk + 1]; i++) {
+            Env env = envs[i];
+            if (actions != null) env.act(actions, i * dof);
+            if (deterministic) Misc.dRandSetSeed(env.random);
+            for (int s = 0; s < frameSkip; s++) env.step();
+            if (deterministic) env.random = Misc.dRandGetSeed();
+            env.observe(obs, i * obsSize);
+        }
+    }
+
+    private void workerLoop(int chunk) {
+        long seen = 0;
+        while (running) {
+            long g = generation;
+            if (g == seen) {
+                LockSupport.park(this);
+                continue;
+            }
+            seen = g;
+            try {
+                runChunk(chunk, stepActions, stepObs);
+            } catch (RuntimeException e) {
+                workerError = e;
+                logger.error("EnvPool worker {} failed", chunk, e);
+            }
+            if (pending.decrementAndGet() == 0) LockSupport.unpark(waiter);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        for (Thread t : workers) {
+            LockSupport.unpark(t);
+            try {
+                t.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (Env env : envs) env.destroy();
+        OdeHelper.closeODE();
+    }
+
+    // ========== 환경 하나 ==========
+
+    private final class Env {
+        final DWorld world;
+        final DSpace space;
+        final ContactPipeline contacts;
+        final List<PhysicsRobot> robots;
+        final PhysicsRobot robot;
+        final DBody root;
+        final PhysicsSnapshot initial = new PhysicsSnapshot(); // 생성 직후 상태 (reset)
+        final long initialRandom;   // 결정적 모드: 환경별 난수 시작 상태
+        long random;
+
+        Env(Builder b, int index) {
+            world = OdeHelper.createWorld();
+            world.setGravity(0, -9.81, 0);
+            world.setContactSurfaceLayer(0.001);
+            world.setContactMaxCorrectingVel(1.0);
+            space = b.broadphase.create(null);
+            DGeom ground = OdeHelper.createPlane(space, 0, 1, 0, 0);
+            ground.setData("ground");
+            contacts = new ContactPipeline(world).ordered(b.deterministic);
+            initialRandom = b.seed + index * 0x9E3779B97F4A7C15L;
+            random = initialRandom;
+            robot = new URDFPhysicsBuilder()
+                    .position(b.x, b.y, b.z)
+                    .fixedBase(b.fixedBase)
+                    .meshCollision(b.meshCollision)
+                    .build(b.model, world, space);
+            robots = List.of(robot);
+            root = robot.getBody(b.model.rootLinkName);
+            initial.capture(robots);
+        }
+
+        void act(float[] actions, int offset) {
+            for (int c = 0; c < dof; c++) robot.setJointTarget(actuated[c], actions[offset + c]);
+        }
+
+        void step() {
+            robot.applyControls();
+            contacts.collide(space, robots);
+            world.quickStep(stepSize);
+            contacts.empty();
+        }
+
+        void observe(float[] obs, int o) {
+            for (int c = 0; c < dof; c++) {
+                obs[o + c] = robot.getJointPosition(actuated[c]);
+                obs[o + dof + c] = robot.getJointVelocity(actuated[c]);
+            }
+            o += 2 * dof;
+            if (root == null) {
+                Arrays.fill(obs, o, o + ROOT_OBS, 0f);
+                return;
+            }
+            DVector3C p = root.getPosition();
+            DQuaternionC q = root.getQuaternion();
+            DVector3C v = root.getLinearVel();
+            DVector3C w = root.getAngularVel();
+            obs[o] = (float) p.get0(); obs[o + 1] = (float) p.get1(); obs[o + 2] = (float) p.get2();
+            obs[o + 3] = (float) q.get0(); obs[o + 4] = (float) q.get1(); obs[o + 5] = (float) q.get2(); obs[o + 6] = (float) q.get3();
+            obs[o + 7] = (float) v.get0(); obs[o + 8] = (float) v.get1(); obs[o + 9] = (float) v.get2();
+            obs[o + 10] = (float) w.get0(); obs[o + 11] = (float) w.get1(); obs[o + 12] = (float) w.get2();
+        }
+
+        /** 생성 직후 상태로 (초기 자세, 속도 0, 목표 해제) */
+        void reset() {
+            initial.restore(robots);
+            random = initialRandom;
+        }
+
+        void destroy() {
+            robot.destroy();
+            contacts.destroy();
+            space.destroy();
+            world.destroy();
+        }
+    }
+
+    // ========== 빌더 ==========
+
+    public static final class Builder {
+        private final URDFRobotModel model;
+        private int envCount = 16;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private double stepSize = DEFAULT_STEP;
+        private int frameSkip = DEFAULT_FRAME_SKIP;
+        private BroadphaseConfig broadphase = new BroadphaseConfig(BroadphaseConfig.Type.SIMPLE); // 로봇 1대 + 지면
+        private double x = 0, y = 1, z = 0;
+        private boolean fixedBase = false;
+        private URDFPhysicsBuilder.MeshCollision meshCollision = URDFPhysicsBuilder.MeshCollision.CONVEX;
+        private boolean deterministic = false;
+        private long seed = 0;
+
+        private Builder(URDFRobotModel model) {
+            this.model = model;
+        }
+
+        public Builder envs(int n) {
+            this.envCount = Math.max(1, n);
+            return this;
+        }
+
+        /** 작업 스레드 수 (호출 스레드 포함, 기본 = 코어 수) */
+        public Builder threads(int n) {
+            this.threads = Math.max(1, n);
+            return this;
+        }
+
+        /** 물리 스텝 크기 (초) */
+        public Builder stepSize(double seconds) {
+            this.stepSize = Math.max(0.0005, Math.min(0.02, seconds));
+            return this;
+        }
+
+        /** 행동 하나당 물리 스텝 수 */
+        public Builder frameSkip(int n) {
+            this.frameSkip = Math.max(1, n);
+            return this;
+        }
+
+        public Builder broadphase(BroadphaseConfig config) {
+            this.broadphase = config;
+            return this;
+        }
+
+        /** 로봇 초기 루트 위치 (환경마다 같은 자리, 월드가 따로라 겹치지 않음) */
+        public Builder position(double x, double y, double z) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            return this;
+        }
+
+        public Builder fixedBase(boolean enable) {
+            this.fixedBase = enable;
+            return this;
+        }
+
+        /** STL 메시 충돌체 (true = 볼록 분해, false = 경계 상자) */
+        public Builder meshCollision(boolean enable) {
+            return meshCollision(enable ? URDFPhysicsBuilder.MeshCollision.CONVEX : URDFPhysicsBuilder.MeshCollision.BOX);
+        }
+
+        public Builder meshCollision(URDFPhysicsBuilder.MeshCollision mode) {
+            this.meshCollision = mode;
+            return this;
+        }
+
+        /** 환경별 재현 가능한 스텝 (시드 + 환경 번호로 난수 시작, 스레드 1개로 고정) */
+        public Builder deterministic(long seed) {
+            this.deterministic = true;
+            this.seed = seed;
+            return this;
+        }
+
+        public EnvPool build() {
+            return new EnvPool(this);
+        }
+    }
+}
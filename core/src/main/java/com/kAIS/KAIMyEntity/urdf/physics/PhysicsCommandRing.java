@@ -0,0 +1,99 @@
+package com.kAIS.KAIMyEntity.urdf.physics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 관절 명령 링 버퍼 (single-producer / single-consumer, lock-free)
+ * - 생산자 = 클라이언트(렌더) 스레드 1개: offer()
+ * - 소비자 = 물리 스레드 1개: drain() (스텝 직전에 한 번)
+ * - 가득 차면 새 명령을 버리고 rejected 카운트 (클라이언트 스레드는 절대 기다리지 않음)
+ *
+ * 명령 = (op, 로봇, 관절 인덱스, 값). 슬롯은 고정 크기 병렬 배열 → 명령마다 할당 없음.
+ * tail은 생산자만, head는 소비자만 씀 → release/acquire 순서만으로 충분 (CAS 없음).
+ */
+public final class PhysicsCommandRing {
+    public static final int OP_TARGET = 0;        // 관절 목표 위치 (NaN = 해제)
+    public static final int OP_CLEAR_TARGETS = 1; // 로봇의 모든 목표 해제
+    public static final int OP_SERVO_GAIN = 2;    // 서보 P 게인
+
+    /** drain 콜백 (소비자 스레드에서 호출) */
+    @FunctionalInterface
+    public interface Sink {
+        void accept(int op, PhysicsRobot robot, int index, float value);
+    }
+
+    private final int capacity;
+    private final int mask;
+    private final int[] ops;
+    private final PhysicsRobot[] robots;
+    private final int[] indices;
+    private final float[] values;
+
+    private final AtomicLong head = new AtomicLong(); // 다음에 읽을 위치 (소비자)
+    private final AtomicLong tail = new AtomicLong(); // 다음에 쓸 위치 (생산자)
+    private long headCache = 0;                       // 생산자가 본 head (가득 찼을 때만 다시 읽음)
+    private final AtomicLong rejected = new AtomicLong();
+
+    /** capacity는 2의 거듭제곱으로 올림 */
+    public PhysicsCommandRing(int capacity) {
+        int c = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.capacity = c;
+        this.mask = c - 1;
+        this.ops = new int[c];
+        this.robots = new PhysicsRobot[c];
+        this.indices = new int[c];
+        this.values = new float[c];
+    }
+
+    public int capacity() { return capacity; }
+
+    /**
+     * 명령 추가 (생산자 스레드 전용)
+     * @return 가득 차서 버렸으면 false
+     */
+    public boolean offer(int op, PhysicsRobot robot, int index, float value) {
+        long t = tail.getPlain();
+        if (t - headCache >= capacity) {
+            headCache = head.getAcquire();
+            if (t - headCache >= capacity) {
+                rejected.incrementAndGet();
+                return false;
+            }
+        }
+        int s = (int) (t & mask);
+        ops[s] = op;
+        robots[s] = robot;
+        indices[s] = index;
+        values[s] = value;
+        tail.setRelease(t + 1); // 슬롯 내용이 tail보다 먼저 보이도록
+        return true;
+    }
+
+    /**
+     * 쌓인 명령을 순서대로 sink에 전달 (소비자 스레드 전용)
+     * @return 꺼낸 명령 수
+     */
+    public int drain(Sink sink) {
+        long h = head.getPlain();
+        long t = tail.getAcquire();
+        if (h == t) return 0;
+        for (long i = h; i < t; i++) {
+            int s = (int) (i & mask);
+            PhysicsRobot robot = robots[s];
+            robots[s] = null; // 제거된 로봇을 붙잡아 두지 않도록
+            sink.accept(ops[s], robot, indices[s], values[s]);
+        }
+        head.setRelease(t);
+        return (int) (t - h);
+    }
+
+    /** 대기 중인 명령 수 (근사치, 통계용) */
+    public int size() {
+        return (int) Math.max(0, tail.getAcquire() - head.getAcquire());
+    }
+
+    /** 가득 차서 버린 명령 수 */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+}
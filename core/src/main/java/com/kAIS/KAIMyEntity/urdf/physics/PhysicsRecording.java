@@ -0,0 +1,128 @@
+package com.kAIS.KAIMyEntity.urdf.physics;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * 결정적 모드 에피소드 기록 (PhysicsManager.startRecording → stopRecording → replay)
+ * - 담는 것: 시드, 관절 명령(스텝 번호, 종류, 로봇 순번, 관절, 값), 스텝마다 상태 해시
+ * - 상태 자체는 담지 않음 → 같은 장면/시작 상태(리셋 지점 등)에서 명령만 다시 넣어 재생하고 해시로 검증
+ * - 스텝 번호는 기록 시작 기준 (0 = 시작 후 첫 스텝 직전에 적용)
+ *
+ * 파일 형식: MAGIC, 버전, 시드, 시작 해시, 명령 수 + 명령들, 스텝 수 + 해시들 (DataOutputStream, 빅엔디언)
+ */
+public final class PhysicsRecording {
+    private static final int MAGIC = 0x4B50_5243; // "KPRC"
+    private static final int VERSION = 1;
+
+    private final long seed;
+    private final long startHash;
+
+    private int commandCount = 0;
+    private long[] commandSteps = new long[64];
+    private byte[] ops = new byte[64];
+    private int[] robotIndices = new int[64];
+    private int[] jointIndices = new int[64];
+    private float[] values = new float[64];
+
+    private int stepCount = 0;
+    private long[] hashes = new long[1024];
+
+    public PhysicsRecording(long seed, long startHash) {
+        this.seed = seed;
+        this.startHash = startHash;
+    }
+
+    // ========== 기록 (물리 스텝 스레드) ==========
+
+    public void addCommand(long step, int op, int robot, int joint, float value) {
+        if (commandCount == ops.length) {
+            int n = commandCount * 2;
+            commandSteps = Arrays.copyOf(commandSteps, n);
+            ops = Arrays.copyOf(ops, n);
+            robotIndices = Arrays.copyOf(robotIndices, n);
+            jointIndices = Arrays.copyOf(jointIndices, n);
+            values = Arrays.copyOf(values, n);
+        }
+        commandSteps[commandCount] = step;
+        ops[commandCount] = (byte) op;
+        robotIndices[commandCount] = robot;
+        jointIndices[commandCount] = joint;
+        values[commandCount] = value;
+        commandCount++;
+    }
+
+    public void addStep(long hash) {
+        if (stepCount == hashes.length) hashes = Arrays.copyOf(hashes, stepCount * 2);
+        hashes[stepCount++] = hash;
+    }
+
+    // ========== 조회 ==========
+
+    public long getSeed() { return seed; }
+
+    /** 기록 시작 시점 상태 해시 (재생 전 시작 상태 확인용) */
+    public long getStartHash() { return startHash; }
+
+    public int getStepCount() { return stepCount; }
+
+    public int getCommandCount() { return commandCount; }
+
+    /** step번째 스텝 직후 상태 해시 (0부터) */
+    public long getHash(int step) { return hashes[step]; }
+
+    public long getCommandStep(int i) { return commandSteps[i]; }
+
+    public int getCommandOp(int i) { return ops[i]; }
+
+    public int getCommandRobot(int i) { return robotIndices[i]; }
+
+    public int getCommandJoint(int i) { return jointIndices[i]; }
+
+    public float getCommandValue(int i) { return values[i]; }
+
+    // ========== 저장/로드 ==========
+
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream d = new DataOutputStream(out);
+        d.writeInt(MAGIC);
+        d.writeInt(VERSION);
+        d.writeLong(seed);
+        d.writeLong(startHash);
+        d.writeInt(commandCount);
+        for (int i = 0; i < commandCount; i++) {
+            d.writeLong(commandSteps[i]);
+            d.writeByte(ops[i]);
+            d.writeInt(robotIndices[i]);
+            d.writeInt(jointIndices[i]);
+            d.writeFloat(values[i]);
+        }
+        d.writeInt(stepCount);
+        for (int i = 0; i < stepCount; i++) d.writeLong(hashes[i]);
+        d.flush();
+    }
+
+    public static PhysicsRecording read(InputStream in) throws IOException {
+        DataInputStream d = new DataInputStream(in);
+        if (d.readInt() != MAGIC) throw new IOException("Not a physics recording");
+        int version = d.readInt();
+        if (version != VERSION) throw new IOException("Unsupported physics recording version " + version);
+        PhysicsRecording r = new PhysicsRecording(d.readLong(), d.readLong());
+        int commands = d.readInt();
+        for (int i = 0; i < commands; i++) {
+            r.addCommand(d.readLong(), d.readByte(), d.readInt(), d.readInt(), d.readFloat());
+        }
+        int steps = d.readInt();
+        for (int i = 0; i < steps; i++) r.addStep(d.readLong());
+        return r;
+    }
+
+    @Override
+    public String toString() {
+        return "PhysicsRecording[seed=" + seed + ", steps=" + stepCount + ", commands=" + commandCount + "]";
+    }
+}
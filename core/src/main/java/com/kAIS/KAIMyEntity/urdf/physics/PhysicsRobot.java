@@ -0,0 +1,638 @@
+package com.kAIS.KAIMyEntity.urdf.physics;
+
+import com.kAIS.KAIMyEntity.urdf.URDFJoint;
+import com.kAIS.KAIMyEntity.urdf.URDFRobotModel;
+import org.joml.Quaterniond;
+import org.joml.Vector3d;
+import org.ode4j.math.DQuaternion;
+import org.ode4j.math.DMatrix3C;
+import org.ode4j.math.DQuaternionC;
+import org.ode4j.math.DVector3C;
+import org.ode4j.ode.DBody;
+import org.ode4j.ode.DGeom;
+import org.ode4j.ode.DHingeJoint;
+import org.ode4j.ode.DJoint;
+import org.ode4j.ode.DSliderJoint;
+import org.ode4j.ode.DSpace;
+import org.ode4j.ode.DUniversalJoint;
+import org.ode4j.ode.DWorld;
+import org.ode4j.ode.internal.DxBody;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ODE 월드 안의 URDF 로봇 하나 (URDFPhysicsBuilder가 생성)
+ * - 관절 배열은 robot.joints 인덱스 순서 (고정/합쳐진 관절은 KIND_NONE 또는 KIND_FIXED)
+ * - 목표 위치 → 관절 모터 속도 서보 (P 제어, 속도/토크 한계 = URDF limit)
+ * - URDF dynamics: damping = 속도 비례 역토크, friction = 목표 없을 때 모터 정지 마찰
+ * - 스텝마다 captureState()로 이전/현재 상태를 보관 → 렌더는 두 스텝 사이를 보간
+ * - publishState()로 상태를 PhysicsStateBuffer에 게시 → 다른 스레드는 readState()/syncFromSnapshot()
+ * - saveSnapshot()/restoreSnapshot()으로 상태 전체를 double[]에 저장/복원 (PhysicsSnapshot, 에피소드 리셋)
+ * - 자동 잠들기(setAutoSleep): 바디가 일정 스텝 동안 거의 안 움직이면 ODE가 섬(island) 단위로 비활성
+ *   → 잠든 동안 제어/상태 기록/게시를 건너뜀, 목표/게인이 바뀌면 깨움
+ *
+ * 물리 스텝과 같은 스레드에서만 호출할 것 (ODE 객체는 스레드 안전하지 않음)
+ * 예외: readState(), syncFromSnapshot(), getBodyLinks()는 아무 스레드에서나 (게시된 상태만 읽음)
+ */
+public class PhysicsRobot {
+    static final int KIND_NONE = 0;
+    static final int KIND_HINGE = 1;
+    static final int KIND_SLIDER = 2;
+    static final int KIND_FIXED = 3;
+    static final int KIND_UNIVERSAL_1 = 4; // DUniversalJoint 축 1
+    static final int KIND_UNIVERSAL_2 = 5; // DUniversalJoint 축 2
+
+    /** 서보 P 게인 (1/s): 속도 = gain * 위치 오차 */
+    public static final float DEFAULT_SERVO_GAIN = 20f;
+    /** URDF effort가 없을 때 모터 최대 토크/힘 */
+    public static final float DEFAULT_EFFORT = 10f;
+    /** URDF velocity가 없을 때 최대 속도 */
+    public static final float DEFAULT_MAX_VELOCITY = 6f;
+
+    private final URDFRobotModel model;
+    private final DWorld world;
+    private final DSpace space;                  // 이 로봇 전용 SimpleSpace (빌더가 생성, destroy에서 제거)
+    private boolean selfCollision = false;
+
+    private final Map<String, DBody> bodies = new LinkedHashMap<>();   // 바디를 가진 링크 → 바디
+    private final Map<String, String> linkOwner = new HashMap<>();     // 합쳐진 링크 → 바디 링크
+    private final Map<String, List<DGeom>> geoms = new LinkedHashMap<>();
+    private DJoint baseAnchor;
+
+    // robot.joints 순서
+    private final DJoint[] joints;
+    private final int[] kind;
+    private final float[] damping, friction, effort, maxVelocity;
+    private final float[] target;                // NaN = 목표 없음
+    private float servoGain = DEFAULT_SERVO_GAIN;
+    private final Map<String, Integer> jointIndex = new HashMap<>();
+
+    // 보간용 상태 (이전/현재 스텝, 스텝마다 두 배열을 바꿔 씀)
+    private static final int BODY_STRIDE = PhysicsState.BODY_STRIDE;
+    private DBody[] bodyArray = new DBody[0];
+    private volatile String[] bodyLinks = new String[0];
+    private double[] prevBodies = new double[0], curBodies = new double[0];
+    private float[] prevJoints, curJoints;
+
+    // 다른 스레드용 게시 상태 (물리 스레드 → 렌더러/RL)
+    private final PhysicsStateBuffer stateBuffer = new PhysicsStateBuffer();
+    private final PhysicsState renderState = new PhysicsState(); // syncFromSnapshot 전용
+
+    // 자동 잠들기 (ODE auto-disable): 속도 임계값 아래로 idleSteps 스텝 → 비활성
+    public static final double DEFAULT_SLEEP_LINEAR = 0.02;   // m/s (quickStep 잔떨림보다 조금 위)
+    public static final double DEFAULT_SLEEP_ANGULAR = 0.1;   // rad/s
+    public static final int DEFAULT_SLEEP_STEPS = 250;        // 2 ms 스텝이면 0.5초
+    private boolean autoSleep = false;
+    private boolean sleeping = false;     // 마지막 스텝 기준 모든 바디가 비활성
+    private int enabledBodies = 0;        // 마지막 스텝 기준 활성 바디 수
+    private boolean changed = false;      // 마지막 게시 이후 상태가 바뀜 (consumeChanged)
+    private long sleepCount = 0;
+
+    // 스냅샷: 바디마다 위치 3 + 쿼터니언 wxyz 4 + 회전 행렬 9 + 선속도 3 + 각속도 3 + 활성 1
+    public static final int SNAPSHOT_BODY_STRIDE = 23;
+    private final DQuaternion scratchQ = new DQuaternion();
+
+    PhysicsRobot(URDFRobotModel model, DWorld world, DSpace space) {
+        this.model = model;
+        this.world = world;
+        this.space = space;
+        int n = model.joints.size();
+        this.joints = new DJoint[n];
+        this.kind = new int[n];
+        this.damping = new float[n];
+        this.friction = new float[n];
+        this.effort = new float[n];
+        this.maxVelocity = new float[n];
+        this.target = new float[n];
+        Arrays.fill(target, Float.NaN);
+        for (int i = 0; i < n; i++) jointIndex.put(model.joints.get(i).name, i);
+        this.prevJoints = new float[n];
+        this.curJoints = new float[n];
+    }
+
+    // ========== 빌더용 ==========
+
+    void addBody(String link, DBody body) {
+        bodies.put(link, body);
+    }
+
+    void mapLink(String link, String ownerLink) {
+        linkOwner.put(link, ownerLink);
+    }
+
+    void addGeom(String link, DGeom geom) {
+        geoms.computeIfAbsent(link, k -> new ArrayList<>()).add(geom);
+    }
+
+    void setBaseAnchor(DJoint anchor) {
+        this.baseAnchor = anchor;
+    }
+
+    void addJoint(int index, DJoint joint, int jointKind, URDFJoint urdf) {
+        joints[index] = joint;
+        kind[index] = jointKind;
+        if (urdf.dynamics != null) {
+            damping[index] = Math.max(0f, urdf.dynamics.damping);
+            friction[index] = Math.max(0f, urdf.dynamics.friction);
+        }
+        effort[index] = urdf.limit != null && urdf.limit.effort > 0 ? urdf.limit.effort : DEFAULT_EFFORT;
+        maxVelocity[index] = urdf.limit != null && urdf.limit.velocity > 0 ? urdf.limit.velocity : DEFAULT_MAX_VELOCITY;
+        applyMotor(index, 0f, friction[index]); // 초기: 정지 마찰만
+    }
+
+    // ========== 조회 ==========
+
+    public URDFRobotModel getModel() { return model; }
+    public DWorld getWorld() { return world; }
+    public DSpace getSpace() { return space; }
+
+    /** 같은 로봇 링크끼리 충돌 검사 여부 (ContactPipeline) */
+    public boolean isSelfCollision() { return selfCollision; }
+
+    public void setSelfCollision(boolean enable) {
+        this.selfCollision = enable;
+    }
+
+    /** 링크의 바디 (합쳐진 링크면 합쳐진 바디, 없으면 null) */
+    public DBody getBody(String link) {
+        DBody b = bodies.get(link);
+        if (b != null) return b;
+        String owner = linkOwner.get(link);
+        return owner != null ? bodies.get(owner) : null;
+    }
+
+    public Map<String, DBody> getBodies() {
+        return Collections.unmodifiableMap(bodies);
+    }
+
+    public List<DGeom> getGeoms(String link) {
+        List<DGeom> list = geoms.get(link);
+        return list != null ? Collections.unmodifiableList(list) : List.of();
+    }
+
+    /** 지오메트리 전체를 링크 순서, 링크 안에서는 생성 순서로 (ContactPipeline 정렬 모드) */
+    void collectGeoms(List<DGeom> out) {
+        for (List<DGeom> list : geoms.values()) out.addAll(list);
+    }
+
+    public int getGeomCount() {
+        int n = 0;
+        for (List<DGeom> list : geoms.values()) n += list.size();
+        return n;
+    }
+
+    /** 생성된 ODE 관절 수 (유니버설은 하나로) */
+    public int getOdeJointCount() {
+        Set<DJoint> set = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (DJoint j : joints) if (j != null) set.add(j);
+        return set.size();
+    }
+
+    public int getJointCount() { return joints.length; }
+
+    /** 이름 → robot.joints 인덱스 (없으면 -1) */
+    public int indexOf(String jointName) {
+        Integer i = jointIndex.get(jointName);
+        return i != null ? i : -1;
+    }
+
+    /** 이 관절이 시뮬레이션에서 움직이는지 (힌지/슬라이더/유니버설 축) */
+    public boolean isActuated(int index) {
+        int k = kind[index];
+        return k != KIND_NONE && k != KIND_FIXED;
+    }
+
+    public double getTotalMass() {
+        double m = 0;
+        for (DBody b : bodies.values()) m += b.getMass().getMass();
+        return m;
+    }
+
+    /** 관절 위치 (rad 또는 m, 구동 관절이 아니면 0) */
+    public float getJointPosition(int index) {
+        DJoint j = joints[index];
+        return switch (kind[index]) {
+            case KIND_HINGE -> (float) ((DHingeJoint) j).getAngle();
+            case KIND_SLIDER -> (float) ((DSliderJoint) j).getPosition();
+            case KIND_UNIVERSAL_1 -> (float) ((DUniversalJoint) j).getAngle1();
+            case KIND_UNIVERSAL_2 -> (float) ((DUniversalJoint) j).getAngle2();
+            default -> 0f;
+        };
+    }
+
+    public float getJointVelocity(int index) {
+        DJoint j = joints[index];
+        return switch (kind[index]) {
+            case KIND_HINGE -> (float) ((DHingeJoint) j).getAngleRate();
+            case KIND_SLIDER -> (float) ((DSliderJoint) j).getPositionRate();
+            case KIND_UNIVERSAL_1 -> (float) ((DUniversalJoint) j).getAngle1Rate();
+            case KIND_UNIVERSAL_2 -> (float) ((DUniversalJoint) j).getAngle2Rate();
+            default -> 0f;
+        };
+    }
+
+    // ========== 제어 ==========
+
+    public void setServoGain(float gain) {
+        float g = Math.max(0f, gain);
+        if (g != servoGain) wake();
+        this.servoGain = g;
+    }
+
+    /** 목표 위치 (NaN = 목표 해제 → 마찰만), 값이 바뀌면 잠든 로봇을 깨움 */
+    public void setJointTarget(int index, float position) {
+        if (index < 0 || index >= target.length) return;
+        if (Float.floatToIntBits(target[index]) != Float.floatToIntBits(position)) wake();
+        target[index] = position;
+    }
+
+    public boolean setJointTarget(String jointName, float position) {
+        int i = indexOf(jointName);
+        if (i < 0 || !isActuated(i)) return false;
+        setJointTarget(i, position);
+        return true;
+    }
+
+    public float getJointTarget(int index) {
+        return target[index];
+    }
+
+    public void clearJointTargets() {
+        for (int i = 0; i < target.length; i++) {
+            if (!Float.isNaN(target[i])) {
+                wake();
+                break;
+            }
+        }
+        Arrays.fill(target, Float.NaN);
+    }
+
+    // ========== 잠들기 ==========
+
+    /** 자동 잠들기 (기본 임계값) */
+    public void setAutoSleep(boolean enable) {
+        setAutoSleep(enable, DEFAULT_SLEEP_LINEAR, DEFAULT_SLEEP_ANGULAR, DEFAULT_SLEEP_STEPS);
+    }
+
+    /**
+     * 자동 잠들기: 모든 바디의 선/각속도가 임계값 아래로 idleSteps 스텝 이어지면 비활성
+     * (ODE는 관절/접촉으로 이어진 섬 전체가 조용해야 재움, 다른 물체가 부딪히면 섬째로 깨움)
+     * 평균 표본은 1개 (ODE 평균 버퍼는 enable()로 초기화되지 않음 → 스냅샷 복원 후 재현성)
+     */
+    public void setAutoSleep(boolean enable, double linearThreshold, double angularThreshold, int idleSteps) {
+        autoSleep = enable;
+        for (DBody b : bodies.values()) {
+            b.setAutoDisableFlag(enable);
+            b.setAutoDisableLinearThreshold(linearThreshold);
+            b.setAutoDisableAngularThreshold(angularThreshold);
+            b.setAutoDisableSteps(Math.max(1, idleSteps));
+            b.setAutoDisableTime(0);
+            b.setAutoDisableAverageSamplesCount(1);
+        }
+        if (!enable) wake();
+    }
+
+    public boolean isAutoSleep() {
+        return autoSleep;
+    }
+
+    /** 잠든 로봇 깨우기 (바디 전부 활성, 다음 스텝부터 제어/게시 재개) */
+    public void wake() {
+        if (!sleeping) return;
+        for (DBody b : bodies.values()) b.enable();
+        sleeping = false;
+    }
+
+    /** 깨어 있는 바디의 잠들기 카운터를 처음으로 (스냅샷 복원 직후와 같은 상태로 맞출 때) */
+    public void resetSleepTimers() {
+        for (DBody b : bodies.values()) if (b.isEnabled()) b.enable();
+    }
+
+    /** 마지막 스텝 기준 모든 바디가 잠듦 */
+    public boolean isSleeping() {
+        return sleeping;
+    }
+
+    /** 마지막 스텝 기준 활성 바디 수 */
+    public int getEnabledBodyCount() {
+        return enabledBodies;
+    }
+
+    public int getBodyCount() {
+        return bodies.size();
+    }
+
+    /** 잠든 횟수 (누적) */
+    public long getSleepCount() {
+        return sleepCount;
+    }
+
+    /**
+     * 스텝 직후 captureState 대신: 잠든 로봇은 보간 상태를 건드리지 않음
+     * 방금 잠들었으면 이전 = 현재로 고정 (멈춘 뒤 보간이 미세하게 흔들리지 않도록)
+     */
+    public void captureIfAwake() {
+        ensureBodyArray();
+        int enabled = 0;
+        for (DBody b : bodyArray) if (b.isEnabled()) enabled++;
+        enabledBodies = enabled;
+        if (enabled == 0 && bodyArray.length > 0) {
+            if (sleeping) return;
+            sleeping = true;
+            sleepCount++;
+            resetState();
+        } else {
+            sleeping = false;
+            captureState();
+        }
+        changed = true;
+    }
+
+    /** 마지막 호출 이후 captureIfAwake/복원으로 상태가 바뀌었는지 (게시/모델 반영 여부) */
+    public boolean consumeChanged() {
+        boolean c = changed;
+        changed = false;
+        return c;
+    }
+
+    /**
+     * 스텝 직전 호출: 서보 모터 속도/토크 갱신 + 감쇠 토크
+     */
+    public void applyControls() {
+        for (int i = 0; i < joints.length; i++) {
+            if (!isActuated(i)) continue;
+            float t = target[i];
+            if (Float.isNaN(t)) {
+                applyMotor(i, 0f, friction[i]);
+            } else {
+                float v = servoGain * (t - getJointPosition(i));
+                v = Math.max(-maxVelocity[i], Math.min(maxVelocity[i], v));
+                applyMotor(i, v, effort[i]);
+            }
+            if (damping[i] > 0f) {
+                applyEffort(i, -damping[i] * getJointVelocity(i));
+            }
+        }
+    }
+
+    private void applyMotor(int index, float velocity, float fmax) {
+        DJoint j = joints[index];
+        switch (kind[index]) {
+            case KIND_HINGE, KIND_SLIDER, KIND_UNIVERSAL_1 -> {
+                j.setParam(DJoint.PARAM_N.dParamVel1, velocity);
+                j.setParam(DJoint.PARAM_N.dParamFMax1, fmax);
+            }
+            case KIND_UNIVERSAL_2 -> {
+                j.setParam(DJoint.PARAM_N.dParamVel2, velocity);
+                j.setParam(DJoint.PARAM_N.dParamFMax2, fmax);
+            }
+            default -> {}
+        }
+    }
+
+    private void applyEffort(int index, float value) {
+        DJoint j = joints[index];
+        switch (kind[index]) {
+            case KIND_HINGE -> ((DHingeJoint) j).addTorque(value);
+            case KIND_SLIDER -> ((DSliderJoint) j).addForce(value);
+            case KIND_UNIVERSAL_1 -> ((DUniversalJoint) j).addTorques(value, 0);
+            case KIND_UNIVERSAL_2 -> ((DUniversalJoint) j).addTorques(0, value);
+            default -> {}
+        }
+    }
+
+    // ========== 상태 (보간) ==========
+
+    /**
+     * 스텝 직후 호출: 현재 → 이전, 시뮬레이션 상태 → 현재
+     */
+    public void captureState() {
+        ensureBodyArray();
+        double[] tb = prevBodies; prevBodies = curBodies; curBodies = tb;
+        float[] tj = prevJoints; prevJoints = curJoints; curJoints = tj;
+
+        for (int b = 0, o = 0; b < bodyArray.length; b++, o += BODY_STRIDE) {
+            DVector3C p = bodyArray[b].getPosition();
+            DQuaternionC q = bodyArray[b].getQuaternion();
+            curBodies[o] = p.get0();
+            curBodies[o + 1] = p.get1();
+            curBodies[o + 2] = p.get2();
+            curBodies[o + 3] = q.get0();
+            curBodies[o + 4] = q.get1();
+            curBodies[o + 5] = q.get2();
+            curBodies[o + 6] = q.get3();
+        }
+        for (int i = 0; i < joints.length; i++) {
+            curJoints[i] = isActuated(i) ? getJointPosition(i) : 0f;
+        }
+    }
+
+    private void ensureBodyArray() {
+        if (bodyArray.length != bodies.size()) {
+            bodyArray = bodies.values().toArray(new DBody[0]);
+            bodyLinks = bodies.keySet().toArray(new String[0]);
+            prevBodies = new double[bodyArray.length * BODY_STRIDE];
+            curBodies = new double[bodyArray.length * BODY_STRIDE];
+        }
+    }
+
+    /** 이전 = 현재 = 지금 상태 (생성/순간 이동 직후) */
+    public void resetState() {
+        captureState();
+        captureState();
+    }
+
+    /** 이전/현재 스텝 사이 관절 위치 (alpha 0 = 이전, 1 = 현재) */
+    public float getInterpolatedJointPosition(int index, float alpha) {
+        float a = prevJoints[index], b = curJoints[index];
+        return a + (b - a) * alpha;
+    }
+
+    /**
+     * 이전/현재 스텝 사이 바디 자세 (위치 선형, 회전 slerp)
+     * @return 바디가 없으면 false
+     */
+    public boolean getInterpolatedBodyPose(String link, float alpha, Vector3d pos, Quaterniond rot) {
+        DBody body = getBody(link);
+        if (body == null) return false;
+        int b = -1;
+        for (int i = 0; i < bodyArray.length; i++) {
+            if (bodyArray[i] == body) { b = i; break; }
+        }
+        if (b < 0) return false;
+        int o = b * BODY_STRIDE;
+        pos.set(prevBodies[o], prevBodies[o + 1], prevBodies[o + 2])
+                .lerp(new Vector3d(curBodies[o], curBodies[o + 1], curBodies[o + 2]), alpha);
+        rot.set(prevBodies[o + 4], prevBodies[o + 5], prevBodies[o + 6], prevBodies[o + 3])
+                .slerp(new Quaterniond(curBodies[o + 4], curBodies[o + 5], curBodies[o + 6], curBodies[o + 3]), alpha);
+        return true;
+    }
+
+    /**
+     * 시뮬레이션 관절 상태 → URDFJoint.currentPosition/currentVelocity (렌더러가 그대로 그림)
+     */
+    public void syncToModel() {
+        syncToModel(1f);
+    }
+
+    /** 보간된 관절 위치를 URDF 모델로 (속도는 현재 스텝 값) */
+    public void syncToModel(float alpha) {
+        for (int i = 0; i < joints.length; i++) {
+            if (!isActuated(i)) continue;
+            URDFJoint j = model.joints.get(i);
+            j.currentPosition = getInterpolatedJointPosition(i, alpha);
+            j.currentVelocity = getJointVelocity(i);
+        }
+    }
+
+    // ========== 게시 상태 (스레드 간) ==========
+
+    /**
+     * 물리 스레드: 현재 스텝 상태를 게시 (captureState 이후)
+     */
+    public void publishState(double simTime, long step) {
+        PhysicsState s = stateBuffer.beginWrite();
+        try {
+            s.ensureCapacity(bodyArray.length, joints.length);
+            System.arraycopy(curBodies, 0, s.bodies, 0, bodyArray.length * BODY_STRIDE);
+            System.arraycopy(curJoints, 0, s.positions, 0, joints.length);
+            for (int i = 0; i < joints.length; i++) {
+                s.velocities[i] = isActuated(i) ? getJointVelocity(i) : 0f;
+            }
+            s.simTime = simTime;
+            s.step = step;
+            s.publishedNanos = System.nanoTime();
+        } finally {
+            stateBuffer.endWrite();
+        }
+    }
+
+    /** 최신 게시 상태를 dst로 (아무 스레드, 락 없음) */
+    public boolean readState(PhysicsState dst) {
+        return stateBuffer.read(dst);
+    }
+
+    public PhysicsStateBuffer getStateBuffer() {
+        return stateBuffer;
+    }
+
+    /** PhysicsState.bodies 순서의 링크 이름 */
+    public String[] getBodyLinks() {
+        return bodyLinks.clone();
+    }
+
+    /**
+     * 렌더 스레드: 게시된 관절 상태 → URDFJoint.currentPosition/currentVelocity
+     * (물리 스레드가 따로 돌 때 syncToModel 대신, 렌더 스레드 한 곳에서만 호출)
+     * @return 게시된 상태가 있어 반영했으면 true
+     */
+    public boolean syncFromSnapshot() {
+        if (!stateBuffer.read(renderState)) return false;
+        int n = Math.min(renderState.jointCount, model.joints.size());
+        for (int i = 0; i < n; i++) {
+            if (!isActuated(i)) continue;
+            URDFJoint j = model.joints.get(i);
+            j.currentPosition = renderState.positions[i];
+            j.currentVelocity = renderState.velocities[i];
+        }
+        return true;
+    }
+
+    // ========== 스냅샷 (저장/복원) ==========
+
+    /** saveSnapshot()이 쓰는 double 개수: 서보 게인 1 + 관절 목표 n + 바디마다 SNAPSHOT_BODY_STRIDE */
+    public int getSnapshotSize() {
+        return 1 + target.length + bodies.size() * SNAPSHOT_BODY_STRIDE;
+    }
+
+    /**
+     * 상태 → buf[off..] (관절 상태는 바디 자세/속도로 결정되므로 바디만 저장)
+     * @return 다음 오프셋
+     */
+    public int saveSnapshot(double[] buf, int off) {
+        ensureBodyArray();
+        buf[off++] = servoGain;
+        for (float t : target) buf[off++] = t;
+        for (DBody b : bodyArray) {
+            DVector3C p = b.getPosition();
+            DQuaternionC q = b.getQuaternion();
+            DVector3C v = b.getLinearVel();
+            DVector3C w = b.getAngularVel();
+            DMatrix3C r = b.getRotation();
+            buf[off] = p.get0(); buf[off + 1] = p.get1(); buf[off + 2] = p.get2();
+            buf[off + 3] = q.get0(); buf[off + 4] = q.get1(); buf[off + 5] = q.get2(); buf[off + 6] = q.get3();
+            for (int k = 0; k < 9; k++) buf[off + 7 + k] = r.get(k / 3, k % 3);
+            buf[off + 16] = v.get0(); buf[off + 17] = v.get1(); buf[off + 18] = v.get2();
+            buf[off + 19] = w.get0(); buf[off + 20] = w.get1(); buf[off + 21] = w.get2();
+            buf[off + 22] = b.isEnabled() ? 1 : 0;
+            off += SNAPSHOT_BODY_STRIDE;
+        }
+        return off;
+    }
+
+    /**
+     * buf[off..] → 상태 (바디/관절은 그대로 두고 값만, 누적 힘 0, 보간 상태도 복원 시점으로)
+     * ODE는 스텝에서 쿼터니언과 회전 행렬을 따로 적분하는데 공개 setter는 한쪽에서 다른 쪽을 다시 계산함
+     * → setQuaternion으로 지오메트리 갱신을 걸고 두 값은 DxBody 필드에 그대로 써서 비트 단위로 같게
+     * @return 다음 오프셋
+     */
+    public int restoreSnapshot(double[] buf, int off) {
+        ensureBodyArray();
+        servoGain = (float) buf[off++];
+        for (int i = 0; i < target.length; i++) target[i] = (float) buf[off++];
+        for (DBody b : bodyArray) {
+            b.setPosition(buf[off], buf[off + 1], buf[off + 2]);
+            scratchQ.set(buf[off + 3], buf[off + 4], buf[off + 5], buf[off + 6]);
+            b.setQuaternion(scratchQ);
+            if (b instanceof DxBody dx) {
+                dx._q.set(scratchQ);
+                for (int k = 0; k < 9; k++) dx._posr.Rw().set(k / 3, k % 3, buf[off + 7 + k]);
+            }
+            b.setLinearVel(buf[off + 16], buf[off + 17], buf[off + 18]);
+            b.setAngularVel(buf[off + 19], buf[off + 20], buf[off + 21]);
+            b.setForce(0, 0, 0);
+            b.setTorque(0, 0, 0);
+            if (buf[off + 22] != 0) b.enable();
+            else b.disable();
+            off += SNAPSHOT_BODY_STRIDE;
+        }
+        int enabled = 0;
+        for (DBody b : bodyArray) if (b.isEnabled()) enabled++;
+        enabledBodies = enabled;
+        sleeping = enabled == 0 && bodyArray.length > 0;
+        resetState();
+        changed = true;
+        return off;
+    }
+
+    // ========== 정리 ==========
+
+    public void destroy() {
+        for (List<DGeom> list : geoms.values()) for (DGeom g : list) g.destroy();
+        geoms.clear();
+        Set<DJoint> destroyed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (DJoint j : joints) {
+            if (j != null && destroyed.add(j)) j.destroy();
+        }
+        Arrays.fill(joints, null);
+        Arrays.fill(kind, KIND_NONE);
+        if (baseAnchor != null) {
+            baseAnchor.destroy();
+            baseAnchor = null;
+        }
+        for (DBody b : bodies.values()) b.destroy();
+        bodies.clear();
+        if (space.getData() == this) {
+            space.setData(null); // 두 번 destroy 방지
+            space.destroy();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.kAIS.KAIMyEntity.urdf.physics;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 월드 전체 상태 스냅샷 (에피소드 리셋, 분기 재생)
+ * - 로봇마다 PhysicsRobot.saveSnapshot() 구간을 double[] 하나에 이어 붙임 → 객체 없이 원시 배열만
+ * - layout = 로봇별 구간 길이: 같은 모양의 로봇 목록이면 복원 가능 (다른 월드/환경으로 복사도 됨)
+ * - 가변 객체: 하나 만들어 두고 계속 덮어써서 재사용 (배열은 커질 때만 새로 할당)
+ * - 바디/관절은 새로 만들지 않고 값만 되돌림 → 리셋 한 번이 수 µs
+ *
+ * 담지 않는 것: 이번 스텝 접촉(스텝마다 새로 만듦), 자동 비활성 카운터, 아직 적용 안 된 명령 링
+ */
+public final class PhysicsSnapshot {
+    public double simTime;          // 시뮬레이션 시간 (초)
+    public long step;               // 물리 스텝 번호
+    public double accumulator;      // 고정 스텝 누적기 잔여 시간 (PhysicsManager)
+    public long randomSeed;         // ODE 전역 난수 상태 (quickStep 제약 순서 섞기)
+
+    private int robotCount;
+    private int[] layout = new int[0];
+    private double[] data = new double[0];
+    private int size;
+
+    public int getRobotCount() {
+        return robotCount;
+    }
+
+    /** 사용 중인 double 개수 */
+    public int getSize() {
+        return size;
+    }
+
+    /** 같은 모양(로봇 수, 로봇별 구간 길이)인지 */
+    public boolean matches(List<PhysicsRobot> robots) {
+        if (robots.size() != robotCount) return false;
+        for (int r = 0; r < robotCount; r++) {
+            if (robots.get(r).getSnapshotSize() != layout[r]) return false;
+        }
+        return true;
+    }
+
+    /** 로봇 상태 → 배열 (같은 스레드에서 스텝과 겹치지 않게) */
+    public void capture(List<PhysicsRobot> robots) {
+        int n = robots.size();
+        if (layout.length < n) layout = new int[n];
+        int total = 0;
+        for (int r = 0; r < n; r++) {
+            layout[r] = robots.get(r).getSnapshotSize();
+            total += layout[r];
+        }
+        if (data.length < total) data = new double[total];
+        robotCount = n;
+        size = total;
+
+        int off = 0;
+        for (int r = 0; r < n; r++) off = robots.get(r).saveSnapshot(data, off);
+    }
+
+    /**
+     * 배열 → 로봇 상태 (바디 자세/속도, 목표, 서보 게인)
+     * @return 모양이 달라 복원하지 않았으면 false
+     */
+    public boolean restore(List<PhysicsRobot> robots) {
+        if (!matches(robots)) return false;
+        int off = 0;
+        for (int r = 0; r < robotCount; r++) off = robots.get(r).restoreSnapshot(data, off);
+        return true;
+    }
+
+    /** 다른 스냅샷 복사 (배열 재사용) */
+    public void copyFrom(PhysicsSnapshot o) {
+        simTime = o.simTime;
+        step = o.step;
+        accumulator = o.accumulator;
+        randomSeed = o.randomSeed;
+        if (layout.length < o.robotCount) layout = new int[o.robotCount];
+        if (data.length < o.size) data = new double[o.size];
+        System.arraycopy(o.layout, 0, layout, 0, o.robotCount);
+        System.arraycopy(o.data, 0, data, 0, o.size);
+        robotCount = o.robotCount;
+        size = o.size;
+    }
+
+    /**
+     * 상태 해시 (FNV-1a 64비트, double 비트 그대로 → 값 하나가 1 ulp만 달라도 다름)
+     * 로봇 상태 + 난수 상태만 (시간/스텝 번호는 제외 → 다른 시점에서 시작한 재생과도 비교 가능)
+     */
+    public long hash() {
+        long h = FNV_OFFSET;
+        h = mix(h, randomSeed);
+        for (int i = 0; i < size; i++) h = mix(h, Double.doubleToRawLongBits(data[i]));
+        return h;
+    }
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static long mix(long h, long v) {
+        for (int b = 0; b < 64; b += 8) {
+            h ^= (v >>> b) & 0xff;
+            h *= FNV_PRIME;
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return "PhysicsSnapshot[step=" + step + ", t=" + simTime + ", robots="
+                + Arrays.toString(Arrays.copyOf(layout, robotCount)) + "]";
+    }
+}
@@ -0,0 +1,62 @@
+package com.kAIS.KAIMyEntity.urdf.physics;
+
+/**
+ * 물리 로봇 상태 한 스텝 (바디 자세, 관절 위치/속도)
+ * - 가변 객체: 읽는 쪽이 하나 만들어 두고 PhysicsStateBuffer.read()로 계속 덮어써서 재사용
+ * - 바디 순서 = PhysicsRobot.getBodyLinks(), 관절 순서 = robot.joints 인덱스
+ * - 배열은 크기가 바뀔 때만 새로 할당
+ */
+public final class PhysicsState {
+    public static final int BODY_STRIDE = 7; // 위치 xyz + 쿼터니언 wxyz
+
+    public double simTime;          // 시뮬레이션 시간 (초)
+    public long step;               // 물리 스텝 번호
+    public long publishedNanos;     // 게시 시각 (System.nanoTime)
+
+    public int bodyCount;
+    public double[] bodies = new double[0];
+
+    public int jointCount;
+    public float[] positions = new float[0];
+    public float[] velocities = new float[0];
+
+    void ensureCapacity(int bodyCount, int jointCount) {
+        if (bodies.length < bodyCount * BODY_STRIDE) bodies = new double[bodyCount * BODY_STRIDE];
+        if (positions.length < jointCount) {
+            positions = new float[jointCount];
+            velocities = new float[jointCount];
+        }
+        this.bodyCount = bodyCount;
+        this.jointCount = jointCount;
+    }
+
+    public float getJointPosition(int index) {
+        return index >= 0 && index < jointCount ? positions[index] : 0f;
+    }
+
+    public float getJointVelocity(int index) {
+        return index >= 0 && index < jointCount ? velocities[index] : 0f;
+    }
+
+    /** 게시 후 경과 시간 (ms, 게시 전이면 -1) */
+    public double ageMillis() {
+        return publishedNanos == 0 ? -1 : (System.nanoTime() - publishedNanos) / 1e6;
+    }
+
+    /**
+     * 다른 상태 복사 (쓰기와 겹쳐 개수/배열이 어긋나도 예외 없이 짧은 쪽까지만 → 버전 재확인으로 걸러짐)
+     */
+    public void copyFrom(PhysicsState o) {
+        simTime = o.simTime;
+        step = o.step;
+        publishedNanos = o.publishedNanos;
+        double[] ob = o.bodies;
+        float[] op = o.positions, ov = o.velocities;
+        int nb = Math.max(0, Math.min(o.bodyCount, ob.length / BODY_STRIDE));
+        int nj = Math.max(0, Math.min(o.jointCount, Math.min(op.length, ov.length)));
+        ensureCapacity(nb, nj);
+        System.arraycopy(ob, 0, bodies, 0, nb * BODY_STRIDE);
+        System.arraycopy(op, 0, positions, 0, nj);
+        System.arraycopy(ov, 0, velocities, 0, nj);
+    }
+}
@@ -0,0 +1,68 @@
+package com.kAIS.KAIMyEntity.urdf.physics;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 최신 물리 상태를 게시하는 더블 버퍼 (lock-free)
+ * - 쓰는 쪽은 물리 스레드 1개: beginWrite() → 채우기 → endWrite()
+ *   항상 뒤 슬롯에 쓰고, 다 쓰면 앞뒤를 바꿈 → 읽는 쪽이 보는 앞 슬롯은 그동안 건드리지 않음
+ * - 읽는 쪽은 여러 스레드 가능 (렌더러, RL): read()는 락/대기 없이 앞 슬롯을 복사만 함
+ *   복사 도중 두 번 게시되어 같은 슬롯이 다시 쓰였으면 슬롯 버전(seqlock)으로 알아채고 다시 시도
+ *
+ * 슬롯 버전이 홀수인 동안은 쓰는 중. getPublishCount() = 지금까지 게시된 상태 수.
+ */
+public final class PhysicsStateBuffer {
+    private static final int READ_ATTEMPTS = 8;
+
+    private final PhysicsState[] slots = { new PhysicsState(), new PhysicsState() };
+    private final AtomicLongArray slotVersion = new AtomicLongArray(2);
+    private final AtomicLong published = new AtomicLong(); // 앞 슬롯 = (published - 1) & 1
+    private int writing = -1;
+
+    /** 물리 스레드 전용: 뒤 슬롯을 쓰기 시작 (반환된 객체를 채운 뒤 endWrite) */
+    public PhysicsState beginWrite() {
+        int back = (int) (published.get() & 1);
+        long v = slotVersion.get(back);
+        slotVersion.set(back, v + 1);
+        VarHandle.storeStoreFence(); // 홀수 표시가 데이터보다 먼저 보이도록
+        writing = back;
+        return slots[back];
+    }
+
+    /** 물리 스레드 전용: 쓰기 완료 → 뒤 슬롯을 앞으로 */
+    public void endWrite() {
+        int back = writing;
+        if (back < 0) return;
+        writing = -1;
+        slotVersion.set(back, slotVersion.get(back) + 1);
+        published.incrementAndGet();
+    }
+
+    /**
+     * 최신 상태를 dst에 복사
+     * @return 게시된 상태가 있고 일관된 복사에 성공하면 true (실패 시 dst는 부분적으로 덮였을 수 있음)
+     */
+    public boolean read(PhysicsState dst) {
+        for (int attempt = 0; attempt < READ_ATTEMPTS; attempt++) {
+            long n = published.get();
+            if (n == 0) return false;
+            int front = (int) ((n - 1) & 1);
+            long v = slotVersion.get(front);
+            if ((v & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            dst.copyFrom(slots[front]);
+            VarHandle.loadLoadFence(); // 복사가 버전 재확인보다 먼저 끝나도록
+            if (slotVersion.get(front) == v) return true;
+        }
+        return false;
+    }
+
+    /** 지금까지 게시된 상태 수 (새 상태 도착 여부 확인용) */
+    public long getPublishCount() {
+        return published.get();
+    }
+}
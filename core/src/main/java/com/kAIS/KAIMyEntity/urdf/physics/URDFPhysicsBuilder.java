@@ -0,0 +1,592 @@
+package com.kAIS.KAIMyEntity.urdf.physics;
+
+import com.kAIS.KAIMyEntity.urdf.STLLoader;
+import com.kAIS.KAIMyEntity.urdf.URDFJoint;
+import com.kAIS.KAIMyEntity.urdf.URDFLink;
+import com.kAIS.KAIMyEntity.urdf.URDFRobotModel;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.joml.Matrix3d;
+import org.joml.Quaterniond;
+import org.joml.Vector3d;
+import org.joml.Vector3f;
+import org.ode4j.math.DMatrix3;
+import org.ode4j.math.DQuaternion;
+import org.ode4j.math.DVector3;
+import org.ode4j.math.DVector3C;
+import org.ode4j.ode.DBody;
+import org.ode4j.ode.DFixedJoint;
+import org.ode4j.ode.DGeom;
+import org.ode4j.ode.DHingeJoint;
+import org.ode4j.ode.DJoint;
+import org.ode4j.ode.DMass;
+import org.ode4j.ode.DSliderJoint;
+import org.ode4j.ode.DSpace;
+import org.ode4j.ode.DTriMeshData;
+import org.ode4j.ode.DUniversalJoint;
+import org.ode4j.ode.DWorld;
+import org.ode4j.ode.OdeHelper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * URDFRobotModel → ODE4J 관절체 (DBody/DJoint/DGeom)
+ *
+ * - 링크 inertial → DBody 질량/관성 (바디 원점 = 질량 중심, 바디 축 = 링크 축)
+ * - 관절 타입 → revolute/continuous = 힌지, prismatic = 슬라이더, fixed = 고정,
+ *   질량 없는 중간 링크를 사이에 둔 직교 회전 관절 두 개 = 유니버설
+ * - limit → 정지각(LoStop/HiStop), effort/velocity → 서보 모터 한계, dynamics → 감쇠/마찰 (PhysicsRobot.applyControls)
+ * - collision → DGeom (box/sphere/cylinder, STL 메시는 기본으로 볼록 분해 = DConvex 여러 개), 바디 기준 오프셋
+ *   로봇마다 SimpleSpace 하나에 모음 (주어진 공간의 하위 공간) → 로봇 내부 쌍은 selfCollision일 때만 검사
+ * - URDF는 z-up → 기본으로 y-up(마인크래프트, PhysicsManager 중력 -y)으로 회전해서 배치
+ *
+ * 질량 없는 링크는 ODE 바디가 될 수 없으므로 부모 바디에 합친다 (고정 관절 자식, 센서 프레임 등).
+ */
+public class URDFPhysicsBuilder {
+    private static final Logger logger = LogManager.getLogger();
+
+    /** 질량 없는 루트/움직이는 링크에 쓰는 최소 질량 (kg) */
+    static final double MIN_MASS = 1e-3;
+    private static final double MIN_INERTIA_RADIUS = 0.01;
+    private static final double UNIVERSAL_ANCHOR_EPS = 1e-4;
+    private static final double UNIVERSAL_AXIS_EPS = 1e-3;
+
+    private final Vector3d basePosition = new Vector3d();
+    private final Quaterniond baseRotation = new Quaterniond();
+    private boolean zUpToYUp = true;
+    private boolean mergeFixedLinks = false;
+    private boolean fixedBase = false;
+    private MeshCollision meshMode = MeshCollision.CONVEX;
+    private int maxHulls = ConvexHullCache.DEFAULT_MAX_HULLS;
+    private int maxHullVertices = ConvexHullCache.DEFAULT_MAX_VERTICES;
+    private boolean selfCollision = false;
+
+    // BOX 메시 충돌체의 중심 (충돌 원점 기준, 스케일 적용) → 바디 오프셋에 더함 (build 중에만 사용)
+    private final Map<DGeom, Vector3f> boxCenters = new HashMap<>();
+
+    /** STL 메시 충돌체 종류 */
+    public enum MeshCollision {
+        /** 경계 상자 하나 (가장 빠름, 가장 거침) */
+        BOX,
+        /** 근사 볼록 분해 (ConvexHullCache, 껍질 수/정점 예산) */
+        CONVEX,
+        /** 원본 삼각 메시 (정확하지만 접촉 계산이 매우 느림) */
+        TRIMESH
+    }
+
+    // ========== 옵션 ==========
+
+    /** 루트 링크 위치 (월드, m) */
+    public URDFPhysicsBuilder position(double x, double y, double z) {
+        basePosition.set(x, y, z);
+        return this;
+    }
+
+    /** 루트 링크 추가 회전 (z-up → y-up 변환 뒤에 적용되지 않고, 변환된 좌표계 기준) */
+    public URDFPhysicsBuilder rotation(Quaterniond q) {
+        baseRotation.set(q);
+        return this;
+    }
+
+    /** URDF(z-up) → y-up 변환 여부 (기본 true) */
+    public URDFPhysicsBuilder zUpToYUp(boolean enable) {
+        this.zUpToYUp = enable;
+        return this;
+    }
+
+    /** 질량 있는 링크도 고정 관절이면 부모 바디에 합침 (관절 수 감소 → 더 안정적, 기본 false) */
+    public URDFPhysicsBuilder mergeFixedLinks(boolean enable) {
+        this.mergeFixedLinks = enable;
+        return this;
+    }
+
+    /** 루트를 월드에 고정 (거치대 위 로봇 등) */
+    public URDFPhysicsBuilder fixedBase(boolean enable) {
+        this.fixedBase = enable;
+        return this;
+    }
+
+    /** STL 메시 충돌체 사용 (true = 볼록 분해, false = 경계 상자) */
+    public URDFPhysicsBuilder meshCollision(boolean enable) {
+        this.meshMode = enable ? MeshCollision.CONVEX : MeshCollision.BOX;
+        return this;
+    }
+
+    public URDFPhysicsBuilder meshCollision(MeshCollision mode) {
+        this.meshMode = mode;
+        return this;
+    }
+
+    /** 볼록 분해 예산: 메시당 껍질 수, 껍질당 정점 수 (기본 8, 32) */
+    public URDFPhysicsBuilder convexBudget(int maxHulls, int maxVertices) {
+        this.maxHulls = Math.max(1, maxHulls);
+        this.maxHullVertices = Math.max(4, maxVertices);
+        return this;
+    }
+
+    /** 같은 로봇 링크끼리 충돌 (인접 링크는 항상 제외, 기본 false) */
+    public URDFPhysicsBuilder selfCollision(boolean enable) {
+        this.selfCollision = enable;
+        return this;
+    }
+
+    // ========== 빌드 ==========
+
+    public PhysicsRobot build(URDFRobotModel model, DWorld world, DSpace space) {
+        if (model.rootLinkName == null) model.buildHierarchy();
+        if (model.rootLinkName == null) throw new IllegalArgumentException("URDF model has no links: " + model.name);
+
+        // 1) 링크 월드 프레임 (관절 위치 0 기준)
+        Quaterniond rootRot = new Quaterniond();
+        if (zUpToYUp) rootRot.rotateX(-Math.PI / 2); // z → y, y → -z
+        rootRot.premul(baseRotation);
+        Map<String, Frame> linkFrames = new LinkedHashMap<>();
+        Map<String, Frame> jointFrames = new HashMap<>();
+        computeFrames(model, model.rootLinkName, new Frame(new Vector3d(basePosition), rootRot), linkFrames, jointFrames);
+
+        // 2) 링크 → 바디 소유자 결정 (유니버설 관절 쌍 포함)
+        Map<String, String> owner = new HashMap<>();          // 링크 → 바디를 가진 링크
+        Map<URDFJoint, URDFJoint> universalPairs = new HashMap<>(); // 첫 관절 → 둘째 관절
+        assignOwners(model, model.rootLinkName, null, owner, universalPairs);
+
+        DSpace robotSpace = OdeHelper.createSimpleSpace(space);
+        PhysicsRobot robot = new PhysicsRobot(model, world, robotSpace);
+        robotSpace.setData(robot);
+        robot.setSelfCollision(selfCollision);
+
+        // 3) 바디 생성 (질량 합산, 원점 = 질량 중심)
+        Map<String, DBody> bodies = new LinkedHashMap<>();
+        for (URDFLink link : model.links) {
+            if (!linkFrames.containsKey(link.name)) continue; // 트리에 연결되지 않은 링크
+            if (!link.name.equals(owner.get(link.name))) continue;
+            bodies.put(link.name, createBody(model, world, link, owner, linkFrames));
+        }
+        for (Map.Entry<String, DBody> e : bodies.entrySet()) robot.addBody(e.getKey(), e.getValue());
+        for (Map.Entry<String, String> e : owner.entrySet()) {
+            if (!e.getKey().equals(e.getValue())) robot.mapLink(e.getKey(), e.getValue());
+        }
+
+        // 4) 관절
+        int universal = 0, merged = 0;
+        for (int i = 0; i < model.joints.size(); i++) {
+            URDFJoint j = model.joints.get(i);
+            if (!jointFrames.containsKey(j.name)) continue;
+            DBody parent = bodies.get(owner.get(j.parentLinkName));
+
+            URDFJoint second = universalPairs.get(j);
+            if (second != null) {
+                DBody child = bodies.get(owner.get(second.childLinkName));
+                createUniversal(robot, world, parent, child, i, j, model.joints.indexOf(second), second,
+                        jointFrames.get(j.name), jointFrames.get(second.name));
+                universal++;
+                continue;
+            }
+            if (universalPairs.containsValue(j)) continue; // 유니버설의 둘째 축 (위에서 처리)
+
+            String childOwner = owner.get(j.childLinkName);
+            if (!j.childLinkName.equals(childOwner)) {
+                merged++; // 부모 바디에 합쳐진 링크 (관절 없음)
+                continue;
+            }
+            createJoint(robot, world, parent, bodies.get(childOwner), i, j, jointFrames.get(j.name));
+        }
+
+        if (fixedBase) {
+            DFixedJoint anchor = OdeHelper.createFixedJoint(world);
+            anchor.attach(bodies.get(model.rootLinkName), null);
+            anchor.setFixed();
+            robot.setBaseAnchor(anchor);
+        }
+
+        // 5) 충돌체
+        int geoms = 0;
+        for (URDFLink link : model.links) {
+            if (link.collision == null || link.collision.geometry == null) continue;
+            Frame linkFrame = linkFrames.get(link.name);
+            if (linkFrame == null) continue;
+            DBody body = bodies.get(owner.get(link.name));
+            Frame f = linkFrame.mul(link.collision.origin.xyz, link.collision.origin.rpy);
+            for (DGeom g : createGeoms(robotSpace, link)) {
+                Vector3f center = boxCenters.remove(g);
+                Frame gf = center != null ? f.mul(center, new Vector3f()) : f;
+                g.setBody(body);
+                g.setOffsetWorldPosition(gf.pos.x, gf.pos.y, gf.pos.z);
+                g.setOffsetWorldQuaternion(toDQuat(gf.rot));
+                g.setData(link.name);
+                robot.addGeom(link.name, g);
+                geoms++;
+            }
+        }
+
+        logger.info("✅ ODE robot built: {} ({} bodies, {} joints, {} universal, {} merged links, {} geoms, {} kg)",
+                model.name, bodies.size(), robot.getOdeJointCount(), universal, merged, geoms,
+                String.format("%.3f", robot.getTotalMass()));
+        return robot;
+    }
+
+    // ========== 프레임 ==========
+
+    /** 위치 + 회전 (월드) */
+    static final class Frame {
+        final Vector3d pos;
+        final Quaterniond rot;
+
+        Frame(Vector3d pos, Quaterniond rot) {
+            this.pos = pos;
+            this.rot = rot;
+        }
+
+        /** this * (xyz, rpy) */
+        Frame mul(Vector3f xyz, Vector3f rpy) {
+            Vector3d p = rot.transform(new Vector3d(xyz.x, xyz.y, xyz.z)).add(pos);
+            Quaterniond q = new Quaterniond(rot).mul(rpyQuat(rpy));
+            return new Frame(p, q);
+        }
+
+        Vector3d axis(Vector3f local) {
+            return rot.transform(new Vector3d(local.x, local.y, local.z)).normalize();
+        }
+    }
+
+    /** URDF rpy (고정축 X→Y→Z) = Rz * Ry * Rx */
+    static Quaterniond rpyQuat(Vector3f rpy) {
+        return new Quaterniond().rotateZ(rpy.z).rotateY(rpy.y).rotateX(rpy.x);
+    }
+
+    private static void computeFrames(URDFRobotModel model, String link, Frame frame,
+                                      Map<String, Frame> linkFrames, Map<String, Frame> jointFrames) {
+        if (linkFrames.put(link, frame) != null) {
+            logger.warn("Link '{}' reached twice (cycle in URDF?)", link);
+            return;
+        }
+        for (URDFJoint j : model.getChildJoints(link)) {
+            Frame jf = frame.mul(j.origin.xyz, j.origin.rpy);
+            jointFrames.put(j.name, jf);
+            computeFrames(model, j.childLinkName, jf, linkFrames, jointFrames);
+        }
+    }
+
+    // ========== 바디 소유자 ==========
+
+    private static boolean hasMass(URDFLink link) {
+        return link != null && link.inertial != null && link.inertial.mass != null && link.inertial.mass.value > 0f;
+    }
+
+    private void assignOwners(URDFRobotModel model, String link, URDFJoint parentJoint,
+                              Map<String, String> owner, Map<URDFJoint, URDFJoint> universalPairs) {
+        if (!owner.containsKey(link)) {
+            if (parentJoint == null) {
+                owner.put(link, link); // 루트는 항상 바디
+            } else {
+                String parentOwner = owner.get(parentJoint.parentLinkName);
+                URDFLink l = model.getLink(link);
+                if (parentJoint.type == URDFJoint.JointType.FIXED) {
+                    owner.put(link, (!hasMass(l) || mergeFixedLinks) ? parentOwner : link);
+                } else if (hasMass(l)) {
+                    owner.put(link, link);
+                } else {
+                    URDFJoint second = universalSecond(model, link, parentJoint);
+                    if (second != null) {
+                        // 질량 없는 중간 링크: 자기 바디 없이 부모에 붙고, 두 관절은 유니버설 하나로
+                        universalPairs.put(parentJoint, second);
+                        owner.put(link, parentOwner);
+                    } else {
+                        logger.warn("Link '{}' has no mass but moves (joint '{}'), using {} kg", link, parentJoint.name, MIN_MASS);
+                        owner.put(link, link);
+                    }
+                }
+            }
+        }
+        for (URDFJoint j : model.getChildJoints(link)) {
+            assignOwners(model, j.childLinkName, j, owner, universalPairs);
+        }
+    }
+
+    /**
+     * 질량 없는 링크 아래에 회전 관절이 하나뿐이고, 위 관절과 원점이 같고 축이 직교하면 그 관절
+     */
+    private static URDFJoint universalSecond(URDFRobotModel model, String link, URDFJoint first) {
+        if (!isRevolute(first)) return null;
+        List<URDFJoint> children = model.getChildJoints(link);
+        if (children.size() != 1) return null;
+        URDFJoint second = children.get(0);
+        if (!isRevolute(second)) return null;
+        if (second.origin.xyz.length() > UNIVERSAL_ANCHOR_EPS) return null;
+        // 둘째 축을 첫 관절 프레임으로 옮겨 직교 확인
+        Vector3d a1 = new Vector3d(first.axis.xyz.x, first.axis.xyz.y, first.axis.xyz.z).normalize();
+        Vector3d a2 = rpyQuat(second.origin.rpy)
+                .transform(new Vector3d(second.axis.xyz.x, second.axis.xyz.y, second.axis.xyz.z)).normalize();
+        return Math.abs(a1.dot(a2)) < UNIVERSAL_AXIS_EPS ? second : null;
+    }
+
+    private static boolean isRevolute(URDFJoint j) {
+        return j.type == URDFJoint.JointType.REVOLUTE || j.type == URDFJoint.JointType.CONTINUOUS;
+    }
+
+    // ========== 바디 ==========
+
+    private DBody createBody(URDFRobotModel model, DWorld world, URDFLink ownerLink,
+                             Map<String, String> owner, Map<String, Frame> linkFrames) {
+        Frame bodyFrame = linkFrames.get(ownerLink.name);
+        Quaterniond invBodyRot = new Quaterniond(bodyFrame.rot).conjugate();
+
+        DMass total = OdeHelper.createMass();
+        total.setZero();
+        for (URDFLink link : model.links) {
+            if (!ownerLink.name.equals(owner.get(link.name)) || !hasMass(link)) continue;
+            DMass m = linkMass(link);
+            Frame inertialFrame = linkFrames.get(link.name).mul(link.inertial.origin.xyz, link.inertial.origin.rpy);
+            // 관성 프레임 → 바디 프레임
+            m.rotate(toDMatrix(new Quaterniond(invBodyRot).mul(inertialFrame.rot)));
+            Vector3d offset = invBodyRot.transform(new Vector3d(inertialFrame.pos).sub(bodyFrame.pos));
+            m.translate(offset.x, offset.y, offset.z);
+            total.add(m);
+        }
+        if (total.getMass() <= 0) {
+            double i = 0.4 * MIN_MASS * MIN_INERTIA_RADIUS * MIN_INERTIA_RADIUS;
+            total.setParameters(MIN_MASS, 0, 0, 0, i, i, i, 0, 0, 0);
+        }
+
+        // ODE 바디 원점은 질량 중심이어야 함 → 바디를 질량 중심으로 옮기고 질량을 되돌림
+        DVector3C c = total.getC();
+        Vector3d com = bodyFrame.rot.transform(new Vector3d(c.get0(), c.get1(), c.get2())).add(bodyFrame.pos);
+        total.translate(-c.get0(), -c.get1(), -c.get2());
+
+        DBody body = OdeHelper.createBody(world);
+        body.setPosition(com.x, com.y, com.z);
+        body.setQuaternion(toDQuat(bodyFrame.rot));
+        body.setMass(total);
+        body.setData(ownerLink.name);
+        return body;
+    }
+
+    private static DMass linkMass(URDFLink link) {
+        URDFLink.Inertial in = link.inertial;
+        double mass = in.mass.value;
+        DMass m = OdeHelper.createMass();
+        if (in.inertia != null) {
+            URDFLink.Inertial.Inertia I = in.inertia;
+            m.setParameters(mass, 0, 0, 0, I.ixx, I.iyy, I.izz, I.ixy, I.ixz, I.iyz);
+            if (m.check()) return m;
+            logger.warn("Link '{}' has an invalid inertia tensor, using a sphere", link.name);
+        }
+        double r = MIN_INERTIA_RADIUS * 5;
+        double i = 0.4 * mass * r * r;
+        m.setParameters(mass, 0, 0, 0, i, i, i, 0, 0, 0);
+        return m;
+    }
+
+    // ========== 관절 ==========
+
+    private void createJoint(PhysicsRobot robot, DWorld world, DBody parent, DBody child,
+                             int index, URDFJoint j, Frame jf) {
+        Vector3d axis = jf.axis(j.axis.xyz);
+        switch (j.type) {
+            case REVOLUTE, CONTINUOUS -> {
+                DHingeJoint h = OdeHelper.createHingeJoint(world);
+                h.attach(child, parent);
+                h.setAnchor(jf.pos.x, jf.pos.y, jf.pos.z);
+                h.setAxis(axis.x, axis.y, axis.z);
+                if (j.type == URDFJoint.JointType.REVOLUTE && j.limit != null && j.limit.hasLimits()) {
+                    // ODE 힌지 정지각은 [-π, π] 안이어야 함
+                    h.setParamLoStop(Math.max(-Math.PI, j.limit.lower));
+                    h.setParamHiStop(Math.min(Math.PI, j.limit.upper));
+                }
+                robot.addJoint(index, h, PhysicsRobot.KIND_HINGE, j);
+            }
+            case PRISMATIC -> {
+                DSliderJoint s = OdeHelper.createSliderJoint(world);
+                s.attach(child, parent);
+                s.setAxis(axis.x, axis.y, axis.z);
+                if (j.limit != null && j.limit.hasLimits()) {
+                    s.setParamLoStop(j.limit.lower);
+                    s.setParamHiStop(j.limit.upper);
+                }
+                robot.addJoint(index, s, PhysicsRobot.KIND_SLIDER, j);
+            }
+            case FIXED -> {
+                DFixedJoint f = OdeHelper.createFixedJoint(world);
+                f.attach(child, parent);
+                f.setFixed();
+                robot.addJoint(index, f, PhysicsRobot.KIND_FIXED, j);
+            }
+            case FLOATING -> {
+                // 6자유도: 구속 없음
+            }
+            case PLANAR -> logger.warn("Joint '{}': planar joints are not supported, leaving the link free", j.name);
+        }
+    }
+
+    private void createUniversal(PhysicsRobot robot, DWorld world, DBody parent, DBody child,
+                                 int index1, URDFJoint j1, int index2, URDFJoint j2, Frame jf1, Frame jf2) {
+        DUniversalJoint u = OdeHelper.createUniversalJoint(world);
+        u.attach(child, parent);
+        u.setAnchor(jf2.pos.x, jf2.pos.y, jf2.pos.z);
+        Vector3d a1 = jf1.axis(j1.axis.xyz);
+        Vector3d a2 = jf2.axis(j2.axis.xyz);
+        // ODE 유니버설: axis1은 body1(child), axis2는 body2(parent)에 붙음
+        u.setAxis1(a2.x, a2.y, a2.z);
+        u.setAxis2(a1.x, a1.y, a1.z);
+        setStops(u, DJoint.PARAM_N.dParamLoStop1, DJoint.PARAM_N.dParamHiStop1, j2);
+        setStops(u, DJoint.PARAM_N.dParamLoStop2, DJoint.PARAM_N.dParamHiStop2, j1);
+        robot.addJoint(index2, u, PhysicsRobot.KIND_UNIVERSAL_1, j2);
+        robot.addJoint(index1, u, PhysicsRobot.KIND_UNIVERSAL_2, j1);
+    }
+
+    private static void setStops(DJoint joint, DJoint.PARAM_N lo, DJoint.PARAM_N hi, URDFJoint j) {
+        if (j.type != URDFJoint.JointType.REVOLUTE || j.limit == null || !j.limit.hasLimits()) return;
+        joint.setParam(lo, Math.max(-Math.PI, j.limit.lower));
+        joint.setParam(hi, Math.min(Math.PI, j.limit.upper));
+    }
+
+    // ========== 충돌체 ==========
+
+    /** 링크 충돌체 (메시 볼록 분해면 여러 개, 만들 수 없으면 빈 목록) */
+    private List<DGeom> createGeoms(DSpace space, URDFLink link) {
+        URDFLink.Geometry g = link.collision.geometry;
+        if (g.type == null) return List.of();
+        if (g.type == URDFLink.Geometry.GeometryType.MESH && meshMode == MeshCollision.CONVEX) {
+            return createConvexGeoms(space, link, g);
+        }
+        DGeom geom = switch (g.type) {
+            case BOX -> g.boxSize != null ? OdeHelper.createBox(space, g.boxSize.x, g.boxSize.y, g.boxSize.z) : null;
+            case SPHERE -> OdeHelper.createSphere(space, g.sphereRadius);
+            case CYLINDER -> OdeHelper.createCylinder(space, g.cylinderRadius, g.cylinderLength); // URDF/ODE 모두 로컬 z축
+            case MESH -> createMeshGeom(space, link, g);
+        };
+        return geom != null ? List.of(geom) : List.of();
+    }
+
+    private List<DGeom> createConvexGeoms(DSpace space, URDFLink link, URDFLink.Geometry g) {
+        if (g.meshFilename == null) return List.of();
+        List<ConvexHull> hulls = ConvexHullCache.get(g.meshFilename, maxHulls, maxHullVertices);
+        if (hulls.isEmpty()) {
+            logger.warn("Link '{}': collision mesh not loaded: {}", link.name, g.meshFilename);
+            return List.of();
+        }
+        Vector3f s = g.scale != null ? g.scale : new Vector3f(1, 1, 1);
+        List<DGeom> out = new ArrayList<>(hulls.size());
+        for (ConvexHull hull : hulls) out.add(createConvex(space, hull, s));
+        return out;
+    }
+
+    /**
+     * 껍질 → DConvex (스케일 적용 후 면 평면 다시 계산)
+     * 음수 스케일(거울)이면 면 방향이 뒤집히므로 무게중심 기준으로 바깥을 향하게 맞춤
+     */
+    private static DGeom createConvex(DSpace space, ConvexHull hull, Vector3f s) {
+        double[] src = hull.points();
+        int n = src.length / 3;
+        double[] pts = new double[n * 3];
+        double cx = 0, cy = 0, cz = 0;
+        for (int i = 0; i < n; i++) {
+            pts[i * 3] = src[i * 3] * s.x;
+            pts[i * 3 + 1] = src[i * 3 + 1] * s.y;
+            pts[i * 3 + 2] = src[i * 3 + 2] * s.z;
+            cx += pts[i * 3]; cy += pts[i * 3 + 1]; cz += pts[i * 3 + 2];
+        }
+        cx /= n; cy /= n; cz /= n;
+
+        int[] faces = hull.faces();
+        int fc = faces.length / 3;
+        double[] planes = new double[fc * 4];
+        int[] polygons = new int[fc * 4];   // 면마다 [정점 수, 인덱스...]
+        for (int f = 0; f < fc; f++) {
+            int a = faces[f * 3], b = faces[f * 3 + 1], c = faces[f * 3 + 2];
+            double ux = pts[b * 3] - pts[a * 3], uy = pts[b * 3 + 1] - pts[a * 3 + 1], uz = pts[b * 3 + 2] - pts[a * 3 + 2];
+            double vx = pts[c * 3] - pts[a * 3], vy = pts[c * 3 + 1] - pts[a * 3 + 1], vz = pts[c * 3 + 2] - pts[a * 3 + 2];
+            double nx = uy * vz - uz * vy, ny = uz * vx - ux * vz, nz = ux * vy - uy * vx;
+            double len = Math.sqrt(nx * nx + ny * ny + nz * nz);
+            if (len > 0) { nx /= len; ny /= len; nz /= len; }
+            if (nx * (pts[a * 3] - cx) + ny * (pts[a * 3 + 1] - cy) + nz * (pts[a * 3 + 2] - cz) < 0) {
+                nx = -nx; ny = -ny; nz = -nz;
+                int t = b; b = c; c = t;
+            }
+            planes[f * 4] = nx;
+            planes[f * 4 + 1] = ny;
+            planes[f * 4 + 2] = nz;
+            planes[f * 4 + 3] = nx * pts[a * 3] + ny * pts[a * 3 + 1] + nz * pts[a * 3 + 2];
+            polygons[f * 4] = 3;
+            polygons[f * 4 + 1] = a;
+            polygons[f * 4 + 2] = b;
+            polygons[f * 4 + 3] = c;
+        }
+        return OdeHelper.createConvex(space, planes, fc, pts, n, polygons);
+    }
+
+    /** 경계 상자 또는 원본 삼각 메시 (MeshCollision.BOX / TRIMESH) */
+    private DGeom createMeshGeom(DSpace space, URDFLink link, URDFLink.Geometry g) {
+        if (g.meshFilename == null) return null;
+        STLLoader.STLMesh mesh = STLLoader.load(g.meshFilename);
+        if (mesh == null || mesh.getTriangleCount() == 0) {
+            logger.warn("Link '{}': collision mesh not loaded: {}", link.name, g.meshFilename);
+            return null;
+        }
+        Vector3f s = g.scale != null ? g.scale : new Vector3f(1, 1, 1);
+
+        if (meshMode == MeshCollision.BOX) {
+            mesh.computeBounds();
+            Vector3f size = mesh.getSize();
+            DGeom box = OdeHelper.createBox(space, Math.max(1e-3, size.x * Math.abs(s.x)),
+                    Math.max(1e-3, size.y * Math.abs(s.y)), Math.max(1e-3, size.z * Math.abs(s.z)));
+            // 메시 원점이 경계 상자 중심이 아닐 수 있음 (발 메시 등) → 중심만큼 옮김
+            boxCenters.put(box, mesh.getCenter().mul(s));
+            return box;
+        }
+
+        // 정점 공유 (STL은 삼각형마다 정점이 따로 있음)
+        Map<Vector3f, Integer> index = new HashMap<>();
+        List<Vector3f> verts = new ArrayList<>();
+        int[] indices = new int[mesh.getTriangleCount() * 3];
+        int k = 0;
+        for (STLLoader.Triangle t : mesh.triangles) {
+            for (Vector3f v : t.vertices) {
+                Vector3f sv = new Vector3f(v.x * s.x, v.y * s.y, v.z * s.z);
+                Integer idx = index.get(sv);
+                if (idx == null) {
+                    idx = verts.size();
+                    verts.add(sv);
+                    index.put(sv, idx);
+                }
+                indices[k++] = idx;
+            }
+        }
+        float[] vertices = new float[verts.size() * 3];
+        for (int i = 0; i < verts.size(); i++) {
+            Vector3f v = verts.get(i);
+            vertices[i * 3] = v.x;
+            vertices[i * 3 + 1] = v.y;
+            vertices[i * 3 + 2] = v.z;
+        }
+        DTriMeshData data = OdeHelper.createTriMeshData();
+        data.build(vertices, indices);
+        return OdeHelper.createTriMesh(space, data, null, null, null);
+    }
+
+    // ========== 변환 ==========
+
+    static DQuaternion toDQuat(Quaterniond q) {
+        return new DQuaternion(q.w, q.x, q.y, q.z); // ODE는 w가 먼저
+    }
+
+    static DMatrix3 toDMatrix(Quaterniond q) {
+        Matrix3d m = new Matrix3d().set(q);
+        // ODE DMatrix3는 행 우선, JOML get(column, row)
+        return new DMatrix3(
+                m.get(0, 0), m.get(1, 0), m.get(2, 0),
+                m.get(0, 1), m.get(1, 1), m.get(2, 1),
+                m.get(0, 2), m.get(1, 2), m.get(2, 2));
+    }
+
+    static Vector3d toVector(DVector3C v) {
+        return new Vector3d(v.get0(), v.get1(), v.get2());
+    }
+
+    static DVector3 toDVector(Vector3d v) {
+        return new DVector3(v.x, v.y, v.z);
+    }
+}
@@ -0,0 +1,69 @@
+package com.kAIS.KAIMyEntity.urdf.retarget;
+
+import com.kAIS.KAIMyEntity.urdf.URDFJoint;
+import com.kAIS.KAIMyEntity.urdf.URDFRobotModel;
+
+/**
+ * 로봇×클립 한 쌍에 대해 컴파일된 리타깃 결과
+ * - 클립 열 c → 로봇 관절 (없으면 -1)
+ * - 재생 중에는 배열 → 배열 복사만 (이름 조회/스캔 없음)
+ */
+public final class RetargetMap {
+    private final URDFRobotModel robot;
+    private final String[] sourceNames;
+    private final int[] jointIndex;
+    private final URDFJoint[] targets;
+    private final int mappedCount;
+
+    RetargetMap(URDFRobotModel robot, String[] sourceNames, int[] jointIndex) {
+        this.robot = robot;
+        this.sourceNames = sourceNames;
+        this.jointIndex = jointIndex;
+        this.targets = new URDFJoint[jointIndex.length];
+        int mapped = 0;
+        for (int c = 0; c < jointIndex.length; c++) {
+            if (jointIndex[c] >= 0) {
+                targets[c] = robot.joints.get(jointIndex[c]);
+                mapped++;
+            }
+        }
+        this.mappedCount = mapped;
+    }
+
+    /** 같은 로봇, 같은 열 배열(클립)로 컴파일된 맵인지 */
+    public boolean isFor(URDFRobotModel robot, String[] sourceNames) {
+        return this.robot == robot && this.sourceNames == sourceNames;
+    }
+
+    public int getMappedCount() { return mappedCount; }
+
+    /** 열 c의 로봇 관절 인덱스 (robot.joints 순서, 없으면 -1) */
+    public int jointIndexOf(int column) { return jointIndex[column]; }
+
+    /**
+     * 포즈 배열(클립 열 순서, NaN = 값 없음) → 관절 currentPosition
+     * @return 적용된 관절 수
+     */
+    public int apply(float[] pose) {
+        int applied = 0;
+        for (int c = 0; c < targets.length; c++) {
+            URDFJoint j = targets[c];
+            float v = pose[c];
+            if (j == null || Float.isNaN(v)) continue;
+            j.currentPosition = v;
+            applied++;
+        }
+        return applied;
+    }
+
+    /**
+     * 포즈 배열 → 관절 위치 배열 (robot.joints 순서). 값 없는 관절은 그대로 둔다.
+     */
+    public void apply(float[] pose, float[] jointPositions) {
+        for (int c = 0; c < jointIndex.length; c++) {
+            int j = jointIndex[c];
+            float v = pose[c];
+            if (j >= 0 && !Float.isNaN(v)) jointPositions[j] = v;
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.kAIS.KAIMyEntity.urdf.retarget;
+
+import com.kAIS.KAIMyEntity.urdf.URDFJoint;
+import com.kAIS.KAIMyEntity.urdf.URDFRobotModel;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 선언형 리타깃 프로파일 (파일 기반)
+ * - [bones]  VMD 본 이름 → 후보 관절 + 각도 변환 규칙(축, 부호, 오프셋, abs)
+ * - [joints] 관절 이름 별칭 → 후보 관절
+ *
+ * 이름 해석은 로봇/클립마다 compile()에서 한 번만 하고,
+ * 재생 중에는 RetargetMap의 배열 인덱스만 사용한다.
+ *
+ * 기본 프로파일: assets/kaimyentity/retarget/default.retarget
+ * 모델별 덮어쓰기: <모델 폴더>/retarget.profile
+ */
+public final class RetargetProfile {
+    private static final Logger logger = LogManager.getLogger();
+
+    public static final String DEFAULT_RESOURCE = "/assets/kaimyentity/retarget/default.retarget";
+    public static final String MODEL_FILE_NAME = "retarget.profile";
+
+    private static volatile RetargetProfile defaultProfile;
+
+    /**
+     * 본 회전 → 관절 각도 규칙: sign * (abs ? |e[axis]| : e[axis]) + offset
+     */
+    public static final class BoneRule {
+        public final String bone;
+        public final String[] candidates;
+        public final int axis;       // 0=x, 1=y, 2=z (Euler XYZ)
+        public final float sign;
+        public final float offset;   // 라디안
+        public final boolean abs;
+
+        BoneRule(String bone, String[] candidates, int axis, float sign, float offset, boolean abs) {
+            this.bone = bone;
+            this.candidates = candidates;
+            this.axis = axis;
+            this.sign = sign;
+            this.offset = offset;
+            this.abs = abs;
+        }
+
+        public float apply(float ex, float ey, float ez) {
+            float v = axis == 0 ? ex : (axis == 1 ? ey : ez);
+            if (abs) v = Math.abs(v);
+            return sign * v + offset;
+        }
+    }
+
+    private final String name;
+    private final Map<String, BoneRule> bones;
+    private final Map<String, String[]> aliases;
+
+    private RetargetProfile(String name, Map<String, BoneRule> bones, Map<String, String[]> aliases) {
+        this.name = name;
+        this.bones = Collections.unmodifiableMap(bones);
+        this.aliases = Collections.unmodifiableMap(aliases);
+    }
+
+    // ========== 로드 ==========
+
+    /** 내장 기본 프로파일 (한 번만 읽음) */
+    public static RetargetProfile getDefault() {
+        RetargetProfile p = defaultProfile;
+        if (p == null) {
+            synchronized (RetargetProfile.class) {
+                p = defaultProfile;
+                if (p == null) {
+                    p = loadDefault();
+                    defaultProfile = p;
+                }
+            }
+        }
+        return p;
+    }
+
+    /**
+     * 모델 폴더의 retarget.profile, 없거나 읽기 실패하면 기본 프로파일
+     */
+    public static RetargetProfile forModelDir(String modelDir) {
+        if (modelDir != null) {
+            File f = new File(modelDir, MODEL_FILE_NAME);
+            if (f.isFile()) {
+                try {
+                    RetargetProfile p = load(f);
+                    logger.info("✅ Retarget profile loaded: {} ({} bones, {} aliases)",
+                            f.getPath(), p.bones.size(), p.aliases.size());
+                    return p;
+                } catch (IOException | IllegalArgumentException e) {
+                    logger.error("Failed to load retarget profile {}, using default", f.getPath(), e);
+                }
+            }
+        }
+        return getDefault();
+    }
+
+    public static RetargetProfile load(File file) throws IOException {
+        try (Reader r = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            return parse(file.getName(), r);
+        }
+    }
+
+    private static RetargetProfile loadDefault() {
+        try (InputStream in = RetargetProfile.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+            if (in == null) {
+                logger.error("Default retarget profile missing: {}", DEFAULT_RESOURCE);
+                return new RetargetProfile("empty", new LinkedHashMap<>(), new LinkedHashMap<>());
+            }
+            return parse("default", new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.error("Failed to read default retarget profile", e);
+            return new RetargetProfile("empty", new LinkedHashMap<>(), new LinkedHashMap<>());
+        }
+    }
+
+    /**
+     * 프로파일 텍스트 파싱. 형식은 default.retarget 주석 참고.
+     */
+    public static RetargetProfile parse(String name, Reader reader) throws IOException {
+        Map<String, BoneRule> bones = new LinkedHashMap<>();
+        Map<String, String[]> aliases = new LinkedHashMap<>();
+        String section = "";
+
+        BufferedReader br = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        String line;
+        int lineNo = 0;
+        while ((line = br.readLine()) != null) {
+            lineNo++;
+            int hash = line.indexOf('#');
+            if (hash >= 0) line = line.substring(0, hash);
+            line = line.strip();
+            if (line.isEmpty()) continue;
+
+            if (line.startsWith("[") && line.endsWith("]")) {
+                section = line.substring(1, line.length() - 1).strip().toLowerCase(Locale.ROOT);
+                continue;
+            }
+
+            int eq = line.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException(name + ":" + lineNo + ": expected 'name = candidates'");
+            String key = line.substring(0, eq).strip();
+            String rest = line.substring(eq + 1);
+            String spec = "";
+            int semi = rest.indexOf(';');
+            if (semi >= 0) {
+                spec = rest.substring(semi + 1).strip();
+                rest = rest.substring(0, semi);
+            }
+            String[] candidates = splitCandidates(rest);
+            if (candidates.length == 0) {
+                throw new IllegalArgumentException(name + ":" + lineNo + ": no candidate joints for '" + key + "'");
+            }
+
+            switch (section) {
+                case "bones" -> bones.put(key, parseRule(name, lineNo, key, candidates, spec));
+                case "joints" -> aliases.put(key, candidates);
+                default -> throw new IllegalArgumentException(name + ":" + lineNo + ": entry outside [bones]/[joints]");
+            }
+        }
+        return new RetargetProfile(name, bones, aliases);
+    }
+
+    private static String[] splitCandidates(String s) {
+        return Arrays.stream(s.split("\\|"))
+                .map(String::strip)
+                .filter(c -> !c.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    private static BoneRule parseRule(String name, int lineNo, String bone, String[] candidates, String spec) {
+        int axis = 2;
+        float sign = 1f;
+        float offset = 0f;
+        boolean abs = false;
+
+        if (!spec.isEmpty()) {
+            String[] tokens = spec.split("\\s+");
+            String ax = tokens[0].toLowerCase(Locale.ROOT);
+            if (ax.length() != 2 || (ax.charAt(0) != '+' && ax.charAt(0) != '-') || "xyz".indexOf(ax.charAt(1)) < 0) {
+                throw new IllegalArgumentException(name + ":" + lineNo + ": bad axis '" + tokens[0] + "' (use +x/-x/+y/-y/+z/-z)");
+            }
+            sign = ax.charAt(0) == '-' ? -1f : 1f;
+            axis = ax.charAt(1) - 'x';
+            for (int i = 1; i < tokens.length; i++) {
+                if (tokens[i].equalsIgnoreCase("abs")) {
+                    abs = true;
+                } else {
+                    try {
+                        offset = (float) Math.toRadians(Double.parseDouble(tokens[i]));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException(name + ":" + lineNo + ": bad token '" + tokens[i] + "'");
+                    }
+                }
+            }
+        }
+        return new BoneRule(bone, candidates, axis, sign, offset, abs);
+    }
+
+    // ========== 조회 ==========
+
+    public String getName() { return name; }
+
+    /** VMD 본 규칙 (없으면 null) */
+    public BoneRule getBoneRule(String bone) { return bones.get(bone); }
+
+    public Map<String, String[]> getAliases() { return aliases; }
+
+    /**
+     * VMD 본 → 출력 관절 이름 (매핑 없으면 null)
+     * - knownJoints에 있는 후보 우선(대소문자 무시), 없으면 첫 번째 후보
+     */
+    public String resolveBone(String bone, Set<String> knownJoints) {
+        BoneRule rule = bones.get(bone);
+        if (rule == null) return null;
+        if (knownJoints != null && !knownJoints.isEmpty()) {
+            for (String c : rule.candidates) {
+                if (knownJoints.contains(c)) return c;
+                for (String k : knownJoints) {
+                    if (k.equalsIgnoreCase(c)) return k;
+                }
+            }
+        }
+        return rule.candidates[0];
+    }
+
+    /**
+     * 이름 → 로봇 관절 인덱스 (robot.joints 순서, 없으면 -1)
+     * 순서: 정확히 일치 → [joints] 별칭 후보 → [bones] 후보 → 대소문자 무시
+     * 로봇×이름마다 한 번만 호출하도록 결과를 캐시해서 쓸 것.
+     */
+    public int resolveJoint(URDFRobotModel robot, String source) {
+        if (robot == null || source == null) return -1;
+
+        int idx = indexOf(robot, source, false);
+        if (idx >= 0) return idx;
+
+        String[] alias = aliases.get(source);
+        if (alias != null) {
+            idx = firstCandidate(robot, alias);
+            if (idx >= 0) return idx;
+        }
+
+        BoneRule rule = bones.get(source);
+        if (rule != null) {
+            idx = firstCandidate(robot, rule.candidates);
+            if (idx >= 0) return idx;
+        }
+
+        return indexOf(robot, source, true);
+    }
+
+    /**
+     * 클립 열 이름들을 로봇 관절 인덱스 배열로 컴파일
+     */
+    public RetargetMap compile(URDFRobotModel robot, String[] sourceNames) {
+        int[] index = new int[sourceNames.length];
+        int mapped = 0;
+        StringBuilder missing = null;
+        for (int c = 0; c < sourceNames.length; c++) {
+            index[c] = resolveJoint(robot, sourceNames[c]);
+            if (index[c] >= 0) {
+                mapped++;
+            } else {
+                if (missing == null) missing = new StringBuilder();
+                else missing.append(", ");
+                missing.append(sourceNames[c]);
+            }
+        }
+        logger.info("Retarget [{}] {}: {}/{} columns mapped{}", name, robot != null ? robot.name : "?",
+                mapped, sourceNames.length, missing != null ? " (unmapped: " + missing + ")" : "");
+        return new RetargetMap(robot, sourceNames, index);
+    }
+
+    private static int firstCandidate(URDFRobotModel robot, String[] candidates) {
+        for (String c : candidates) {
+            int idx = indexOf(robot, c, false);
+            if (idx >= 0) return idx;
+        }
+        for (String c : candidates) {
+            int idx = indexOf(robot, c, true);
+            if (idx >= 0) return idx;
+        }
+        return -1;
+    }
+
+    private static int indexOf(URDFRobotModel robot, String name, boolean ignoreCase) {
+        if (!ignoreCase) {
+            URDFJoint j = robot.getJoint(name);
+            return j != null ? robot.joints.indexOf(j) : -1;
+        }
+        for (int i = 0; i < robot.joints.size(); i++) {
+            if (name.equalsIgnoreCase(robot.joints.get(i).name)) return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,118 @@
+package com.kAIS.KAIMyEntity.urdf.vmd;
+
+import com.kAIS.KAIMyEntity.urdf.retarget.RetargetProfile;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * VMD 본 이름 인터닝 테이블
+ * - 키 = 레코드의 본 이름 원본 15바이트 (long 2개로 패킹해서 비교)
+ * - 처음 보는 이름만 Shift-JIS 디코딩 + URDF 관절 매핑 + 각도 변환 규칙 결정 (리타깃 프로파일)
+ * - 이후 같은 이름은 해시 조회만 (문자열/배열 할당 없음)
+ *
+ * 관절 매핑은 생성자로 받은 프로파일/대상 관절 이름 기준 → 파싱 1회(파일 1개)마다 새로 만든다.
+ * 스레드 안전하지 않음.
+ */
+final class VMDBoneTable {
+    static final int NAME_LENGTH = 15;
+
+    static final class Bone {
+        final int id;          // 테이블 등록 순서 (0부터)
+        final String name;     // 디코딩된 본 이름
+        final String joint;    // URDF 관절 이름 (매핑 없으면 null)
+        final RetargetProfile.BoneRule rule; // 각도 변환 규칙 (매핑 없으면 null)
+
+        private final long lo, hi;
+        private final int hash;
+
+        private Bone(int id, String name, String joint, RetargetProfile.BoneRule rule, long lo, long hi, int hash) {
+            this.id = id;
+            this.name = name;
+            this.joint = joint;
+            this.rule = rule;
+            this.lo = lo;
+            this.hi = hi;
+            this.hash = hash;
+        }
+
+        boolean isMapped() { return joint != null; }
+    }
+
+    private final RetargetProfile profile;   // null = 이름만 인터닝 (매핑 없음)
+    private final Set<String> knownJoints;
+    private Bone[] slots = new Bone[64]; // 크기는 항상 2의 거듭제곱
+    private final List<Bone> bones = new ArrayList<>();
+
+    /** 이름만 인터닝 (모프 이름 등, 모든 항목이 매핑 없음) */
+    VMDBoneTable() {
+        this(null, Set.of());
+    }
+
+    /**
+     * @param profile     본 → 관절 후보/각도 규칙
+     * @param knownJoints 대상 URDF의 관절 이름 (이 중에 있는 후보 우선, 비어 있으면 첫 후보)
+     */
+    VMDBoneTable(RetargetProfile profile, Set<String> knownJoints) {
+        this.profile = profile;
+        this.knownJoints = knownJoints;
+    }
+
+    /**
+     * buffer[offset .. offset+15) 의 본 이름에 해당하는 항목 (없으면 등록)
+     * buffer는 LITTLE_ENDIAN이어야 한다.
+     */
+    Bone lookup(ByteBuffer buffer, int offset) {
+        long lo = buffer.getLong(offset);
+        long hi = (buffer.getInt(offset + 8) & 0xFFFFFFFFL)
+                | ((buffer.getShort(offset + 12) & 0xFFFFL) << 32)
+                | ((buffer.get(offset + 14) & 0xFFL) << 48);
+        int h = hash(lo, hi);
+
+        int mask = slots.length - 1;
+        for (int i = h & mask; ; i = (i + 1) & mask) {
+            Bone b = slots[i];
+            if (b == null) return insert(buffer, offset, lo, hi, h);
+            if (b.hash == h && b.lo == lo && b.hi == hi) return b;
+        }
+    }
+
+    int size() { return bones.size(); }
+
+    Bone get(int id) { return bones.get(id); }
+
+    private Bone insert(ByteBuffer buffer, int offset, long lo, long hi, int h) {
+        String name = VMDParser.decodeName(buffer, offset, NAME_LENGTH);
+        String joint = profile != null ? profile.resolveBone(name, knownJoints) : null;
+        RetargetProfile.BoneRule rule = joint != null ? profile.getBoneRule(name) : null;
+        Bone b = new Bone(bones.size(), name, joint, rule, lo, hi, h);
+        bones.add(b);
+
+        // 적재율 50% 넘으면 확장
+        if (bones.size() * 2 > slots.length) {
+            Bone[] old = slots;
+            slots = new Bone[old.length * 2];
+            for (Bone o : old) {
+                if (o != null) place(o);
+            }
+        }
+        place(b);
+        return b;
+    }
+
+    private void place(Bone b) {
+        int mask = slots.length - 1;
+        int i = b.hash & mask;
+        while (slots[i] != null) i = (i + 1) & mask;
+        slots[i] = b;
+    }
+
+    private static int hash(long lo, long hi) {
+        long x = lo * 0x9E3779B97F4A7C15L ^ hi;
+        x ^= x >>> 31;
+        x *= 0xBF58476D1CE4E5B9L;
+        return (int) (x ^ (x >>> 32));
+    }
+}
@@ -0,0 +1,324 @@
+package com.kAIS.KAIMyEntity.urdf.vmd;
+
+import com.kAIS.KAIMyEntity.urdf.retarget.RetargetProfile;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.joml.Vector3f;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * VMD 전체 섹션 인덱스 리더
+ * - 열 때 한 번 훑어서 섹션별 (시작 오프셋, 개수)만 기록
+ *   본 → 모프 → 카메라 → 조명 → 셀프섀도 → IK 표시/활성 순서
+ * - 각 섹션은 처음 요청될 때 디코딩하고 캐시 (안 쓰는 섹션은 비용 0)
+ * - 오래된 VMD는 뒤쪽 섹션이 없을 수 있음 → 개수 0
+ *
+ * 본 모션만 필요하면 지금처럼 VMDLoader/VMDParser를 쓰면 된다.
+ */
+public final class VMDFile {
+    private static final Logger logger = LogManager.getLogger();
+
+    // 고정 길이 레코드 크기
+    static final int MORPH_RECORD_SIZE = 15 + 4 + 4;
+    static final int CAMERA_RECORD_SIZE = 4 + 4 + 12 + 12 + 24 + 4 + 1;
+    static final int LIGHT_RECORD_SIZE = 4 + 12 + 12;
+    static final int SELF_SHADOW_RECORD_SIZE = 4 + 1 + 4;
+    // IK 레코드는 가변: 프레임 4 + 표시 1 + 개수 4 + 개수 × (이름 20 + 활성 1)
+    private static final int IK_NAME_LENGTH = 20;
+
+    public enum Section { BONE, MORPH, CAMERA, LIGHT, SELF_SHADOW, IK }
+
+    public static final class MorphFrame {
+        public String name;
+        public int frame;
+        public float weight;
+    }
+
+    public static final class CameraFrame {
+        public int frame;
+        public float distance;
+        public final Vector3f position = new Vector3f();
+        public final Vector3f rotation = new Vector3f(); // 라디안
+        public final byte[] interpolation = new byte[24];
+        public int viewAngle;                            // 도
+        public boolean perspective;
+    }
+
+    public static final class LightFrame {
+        public int frame;
+        public final Vector3f color = new Vector3f();
+        public final Vector3f direction = new Vector3f();
+    }
+
+    public static final class SelfShadowFrame {
+        public int frame;
+        public int mode;        // 0: 없음, 1: 모드1, 2: 모드2
+        public float distance;
+    }
+
+    public static final class IKFrame {
+        public int frame;
+        public boolean show;
+        public final Map<String, Boolean> enabled = new LinkedHashMap<>(); // IK 본 이름 → 활성
+
+        @Override
+        public String toString() {
+            return "IK#" + frame + (show ? " show " : " hide ") + enabled;
+        }
+    }
+
+    private final String name;
+    private final String modelName;
+    private final ByteBuffer data;
+    private final int[] sectionOffset = new int[Section.values().length];
+    private final int[] sectionCount = new int[Section.values().length];
+
+    // 지연 디코딩 캐시
+    private List<VMDParser.VMDFrame> bones;
+    private List<MorphFrame> morphs;
+    private List<CameraFrame> cameras;
+    private List<LightFrame> lights;
+    private List<SelfShadowFrame> selfShadows;
+    private List<IKFrame> iks;
+
+    private VMDFile(String name, ByteBuffer data) throws IOException {
+        this.name = name;
+        this.data = data.order(ByteOrder.LITTLE_ENDIAN);
+
+        String magic = VMDParser.decodeName(data, 0, 30);
+        if (!magic.startsWith("Vocaloid Motion Data")) {
+            throw new IOException("Not a valid VMD file: " + magic);
+        }
+        this.modelName = VMDParser.decodeName(data, 30, 20);
+        index();
+    }
+
+    /** 파일을 읽기 전용으로 매핑 (힙 복사 없음) */
+    public static VMDFile open(File vmdFile) throws IOException {
+        try (FileChannel ch = FileChannel.open(vmdFile.toPath(), StandardOpenOption.READ)) {
+            return new VMDFile(vmdFile.getName(), ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    public static VMDFile wrap(String name, byte[] vmdData) throws IOException {
+        return new VMDFile(name, ByteBuffer.wrap(vmdData));
+    }
+
+    /**
+     * 1패스 섹션 인덱싱 (레코드 내용은 읽지 않음, IK만 레코드 길이 때문에 개수 필드를 따라감)
+     */
+    private void index() throws IOException {
+        int limit = data.limit();
+        int pos = VMDParser.HEADER_SIZE - 4;
+
+        int[] fixedSize = {
+                VMDParser.BONE_RECORD_SIZE, MORPH_RECORD_SIZE, CAMERA_RECORD_SIZE,
+                LIGHT_RECORD_SIZE, SELF_SHADOW_RECORD_SIZE
+        };
+        for (int s = 0; s < fixedSize.length; s++) {
+            if (pos + 4 > limit) return; // 이 섹션부터 없음 (구버전 파일)
+            int count = data.getInt(pos);
+            long end = (long) pos + 4 + (long) count * fixedSize[s];
+            if (count < 0 || end > limit) {
+                if (s == 0) throw new IOException("Invalid bone motion count: " + count);
+                logger.warn("VMD {}: {} section truncated ({} records), ignoring the rest", name, Section.values()[s], count);
+                return;
+            }
+            sectionOffset[s] = pos + 4;
+            sectionCount[s] = count;
+            pos = (int) end;
+        }
+
+        // IK 섹션: 레코드 길이가 가변이라 개수만 따라가며 건너뜀
+        if (pos + 4 > limit) return;
+        int count = data.getInt(pos);
+        int start = pos + 4;
+        int p = start;
+        for (int i = 0; i < count; i++) {
+            if (p + 9 > limit) {
+                logger.warn("VMD {}: IK section truncated at record {}/{}", name, i, count);
+                count = i;
+                break;
+            }
+            int n = data.getInt(p + 5);
+            long next = (long) p + 9 + (long) n * (IK_NAME_LENGTH + 1);
+            if (n < 0 || next > limit) {
+                logger.warn("VMD {}: IK section truncated at record {}/{}", name, i, count);
+                count = i;
+                break;
+            }
+            p = (int) next;
+        }
+        sectionOffset[Section.IK.ordinal()] = start;
+        sectionCount[Section.IK.ordinal()] = Math.max(0, count);
+    }
+
+    public String getName() { return name; }
+    public String getModelName() { return modelName; }
+
+    public int getCount(Section section) { return sectionCount[section.ordinal()]; }
+
+    /** 섹션 첫 레코드의 바이트 오프셋 (없으면 0) */
+    public int getOffset(Section section) { return sectionOffset[section.ordinal()]; }
+
+    // ========== 섹션별 지연 디코딩 ==========
+
+    /** 본 모션 (기본 리타깃 프로파일, VMDParser.parse(byte[])와 같은 결과, 캐시됨) */
+    public synchronized List<VMDParser.VMDFrame> getBoneFrames() {
+        if (bones == null) {
+            bones = Collections.unmodifiableList(getBoneFrames(RetargetProfile.getDefault(), Set.of()));
+        }
+        return bones;
+    }
+
+    /** 본 모션 (로봇별 프로파일/관절 이름, 캐시 안 함) */
+    public List<VMDParser.VMDFrame> getBoneFrames(RetargetProfile profile, Set<String> knownJoints) {
+        return VMDParser.parse(data, sectionOffset[0], sectionCount[0], profile, knownJoints);
+    }
+
+    public synchronized List<MorphFrame> getMorphFrames() {
+        if (morphs == null) {
+            int base = getOffset(Section.MORPH), n = getCount(Section.MORPH);
+            MorphFrame[] out = new MorphFrame[n];
+            VMDBoneTable names = new VMDBoneTable(); // 모프 이름도 15바이트 → 같은 인터닝 사용
+            for (int i = 0; i < n; i++) {
+                int off = base + i * MORPH_RECORD_SIZE;
+                MorphFrame m = new MorphFrame();
+                m.name = names.lookup(data, off).name;
+                m.frame = data.getInt(off + 15);
+                m.weight = data.getFloat(off + 19);
+                out[i] = m;
+            }
+            morphs = sortedByFrame(out, m -> m.frame);
+        }
+        return morphs;
+    }
+
+    public synchronized List<CameraFrame> getCameraFrames() {
+        if (cameras == null) {
+            int base = getOffset(Section.CAMERA), n = getCount(Section.CAMERA);
+            CameraFrame[] out = new CameraFrame[n];
+            for (int i = 0; i < n; i++) {
+                int off = base + i * CAMERA_RECORD_SIZE;
+                CameraFrame c = new CameraFrame();
+                c.frame = data.getInt(off);
+                c.distance = data.getFloat(off + 4);
+                readVec(off + 8, c.position);
+                readVec(off + 20, c.rotation);
+                data.get(off + 32, c.interpolation);
+                c.viewAngle = data.getInt(off + 56);
+                // 파일 값 0 = 원근 ON
+                c.perspective = data.get(off + 60) == 0;
+                out[i] = c;
+            }
+            cameras = sortedByFrame(out, c -> c.frame);
+        }
+        return cameras;
+    }
+
+    public synchronized List<LightFrame> getLightFrames() {
+        if (lights == null) {
+            int base = getOffset(Section.LIGHT), n = getCount(Section.LIGHT);
+            LightFrame[] out = new LightFrame[n];
+            for (int i = 0; i < n; i++) {
+                int off = base + i * LIGHT_RECORD_SIZE;
+                LightFrame l = new LightFrame();
+                l.frame = data.getInt(off);
+                readVec(off + 4, l.color);
+                readVec(off + 16, l.direction);
+                out[i] = l;
+            }
+            lights = sortedByFrame(out, l -> l.frame);
+        }
+        return lights;
+    }
+
+    public synchronized List<SelfShadowFrame> getSelfShadowFrames() {
+        if (selfShadows == null) {
+            int base = getOffset(Section.SELF_SHADOW), n = getCount(Section.SELF_SHADOW);
+            SelfShadowFrame[] out = new SelfShadowFrame[n];
+            for (int i = 0; i < n; i++) {
+                int off = base + i * SELF_SHADOW_RECORD_SIZE;
+                SelfShadowFrame s = new SelfShadowFrame();
+                s.frame = data.getInt(off);
+                s.mode = data.get(off + 4) & 0xFF;
+                s.distance = data.getFloat(off + 5);
+                out[i] = s;
+            }
+            selfShadows = sortedByFrame(out, s -> s.frame);
+        }
+        return selfShadows;
+    }
+
+    public synchronized List<IKFrame> getIKFrames() {
+        if (iks == null) {
+            int p = getOffset(Section.IK), n = getCount(Section.IK);
+            IKFrame[] out = new IKFrame[n];
+            for (int i = 0; i < n; i++) {
+                IKFrame f = new IKFrame();
+                f.frame = data.getInt(p);
+                f.show = data.get(p + 4) != 0;
+                int count = data.getInt(p + 5);
+                p += 9;
+                for (int k = 0; k < count; k++, p += IK_NAME_LENGTH + 1) {
+                    f.enabled.put(VMDParser.decodeName(data, p, IK_NAME_LENGTH), data.get(p + IK_NAME_LENGTH) != 0);
+                }
+                out[i] = f;
+            }
+            iks = sortedByFrame(out, f -> f.frame);
+        }
+        return iks;
+    }
+
+    /**
+     * frame 시점의 IK 본 활성 여부 (그 이전 마지막 IK 키 기준, 키가 없으면 활성)
+     */
+    public boolean isIKEnabled(String ikBoneName, int frame) {
+        List<IKFrame> list = getIKFrames();
+        int lo = 0, hi = list.size() - 1, found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (list.get(mid).frame <= frame) { found = mid; lo = mid + 1; } else hi = mid - 1;
+        }
+        for (int i = found; i >= 0; i--) {
+            Boolean e = list.get(i).enabled.get(ikBoneName);
+            if (e != null) return e;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("VMD ").append(name).append(" [").append(modelName).append("]");
+        for (Section s : Section.values()) {
+            sb.append(' ').append(s.name().toLowerCase()).append('=').append(getCount(s));
+        }
+        return sb.toString();
+    }
+
+    // ========== 내부 ==========
+
+    private void readVec(int off, Vector3f out) {
+        out.set(data.getFloat(off), data.getFloat(off + 4), data.getFloat(off + 8));
+    }
+
+    private static <T> List<T> sortedByFrame(T[] records, ToIntFunction<T> frame) {
+        // 파일 순서는 보통 이름/본별로 묶여 있음 → 프레임 순서로 (같은 프레임은 파일 순서 유지)
+        Arrays.sort(records, Comparator.comparingInt(frame));
+        return Collections.unmodifiableList(Arrays.asList(records));
+    }
+}
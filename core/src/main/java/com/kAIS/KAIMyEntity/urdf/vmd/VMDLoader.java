@@ -0,0 +1,138 @@
+package com.kAIS.KAIMyEntity.urdf.vmd;
+
+import com.kAIS.KAIMyEntity.urdf.URDFJoint;
+import com.kAIS.KAIMyEntity.urdf.URDFRobotModel;
+import com.kAIS.KAIMyEntity.urdf.control.URDFMotion;
+import com.kAIS.KAIMyEntity.urdf.retarget.RetargetProfile;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Set;
+
+public class VMDLoader {
+    private static final Logger logger = LogManager.getLogger();
+
+    // 이보다 큰 파일은 전체 로드 대신 스트리밍 (메모리 매핑 + 윈도우 디코딩)
+    public static final long STREAMING_THRESHOLD_BYTES = 16L * 1024 * 1024;
+
+    public static URDFMotion load(File vmdFile) {
+        return load(vmdFile, null);
+    }
+
+    /**
+     * VMD 파일을 URDFMotion으로 변환 (URDF 모델 참조)
+     */
+    public static URDFMotion load(File vmdFile, URDFRobotModel robotModel) {
+        return load(vmdFile, robotModel, RetargetProfile.getDefault());
+    }
+
+    /**
+     * VMD 파일을 URDFMotion으로 변환 (본 → 관절 매핑/각도 규칙은 profile 사용)
+     */
+    public static URDFMotion load(File vmdFile, URDFRobotModel robotModel, RetargetProfile profile) {
+        try {
+            byte[] vmdData = Files.readAllBytes(vmdFile.toPath());
+            VMDParser.BoneTrack track = VMDParser.parseTrack(vmdData, orDefault(profile), knownJoints(robotModel));
+
+            if (track.getKeyCount() == 0) {
+                logger.error("No frames parsed from VMD: {}", vmdFile.getName());
+                return null;
+            }
+
+            URDFMotion motion = new URDFMotion();
+            motion.name = vmdFile.getName();
+            motion.fps = 30f;
+            motion.loop = true;
+
+            // 트랙 표에서 키를 바로 만듦 (값 없는 칸은 포즈에 넣지 않음)
+            for (int k = 0; k < track.getKeyCount(); k++) {
+                URDFMotion.Key key = new URDFMotion.Key();
+                key.t = track.frames[k] / 30f;
+                for (int j = 0; j < track.joints.length; j++) {
+                    float angle = track.get(k, j);
+                    if (!Float.isNaN(angle)) key.pose.put(track.joints[j], angle);
+                }
+                key.interp = "cubic";
+                motion.keys.add(key);
+            }
+
+            if (motion.keys.isEmpty()) {
+                logger.error("No valid keyframes in VMD: {}", vmdFile.getName());
+                return null;
+            }
+
+            logger.info("✅ Loaded VMD: {} ({} keyframes)", vmdFile.getName(), motion.keys.size());
+            logUnplayedSections(vmdFile.getName(), vmdData);
+            return motion;
+
+        } catch (Exception e) {
+            logger.error("Failed to load VMD: {}", vmdFile.getName(), e);
+            return null;
+        }
+    }
+
+    public static boolean shouldStream(File vmdFile) {
+        return vmdFile.length() > STREAMING_THRESHOLD_BYTES;
+    }
+
+    /**
+     * 긴 VMD 파일을 스트리밍 클립으로 연다 (프레임 전체를 메모리에 만들지 않음)
+     */
+    public static VMDStreamingMotion openStreaming(File vmdFile, URDFRobotModel robotModel) {
+        return openStreaming(vmdFile, robotModel, RetargetProfile.getDefault());
+    }
+
+    public static VMDStreamingMotion openStreaming(File vmdFile, URDFRobotModel robotModel, RetargetProfile profile) {
+        try {
+            VMDStreamingMotion clip = VMDStreamingMotion.open(vmdFile, VMDStreamingMotion.DEFAULT_WINDOW_KEYS,
+                    orDefault(profile), knownJoints(robotModel));
+            if (clip.getKeyCount() == 0) {
+                logger.error("No valid keyframes in VMD: {}", vmdFile.getName());
+                return null;
+            }
+            return clip;
+        } catch (Exception e) {
+            logger.error("Failed to open VMD stream: {}", vmdFile.getName(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 본 모션 외 섹션(모프/카메라/조명/셀프섀도/IK)은 재생하지 않음 → 있으면 개수만 알려 줌
+     * VMDFile 섹션 인덱스만 사용 (레코드 내용은 디코딩 안 함)
+     */
+    private static void logUnplayedSections(String name, byte[] vmdData) {
+        try {
+            VMDFile file = VMDFile.wrap(name, vmdData);
+            StringBuilder sb = new StringBuilder();
+            for (VMDFile.Section s : VMDFile.Section.values()) {
+                if (s == VMDFile.Section.BONE || file.getCount(s) == 0) continue;
+                if (sb.length() > 0) sb.append(", ");
+                sb.append(s.name().toLowerCase()).append('=').append(file.getCount(s));
+            }
+            if (sb.length() > 0) {
+                logger.info("VMD {}: sections not played ({})", name, sb);
+            }
+        } catch (Exception e) {
+            logger.debug("VMD {}: section index failed", name, e);
+        }
+    }
+
+    private static RetargetProfile orDefault(RetargetProfile profile) {
+        return profile != null ? profile : RetargetProfile.getDefault();
+    }
+
+    // URDF 관절 이름 (VMD 본 → 실제 관절 이름 선택용, 로드마다 따로 넘김)
+    private static Set<String> knownJoints(URDFRobotModel robotModel) {
+        if (robotModel == null) return Set.of();
+        Set<String> jointNames = new HashSet<>();
+        for (URDFJoint j : robotModel.joints) {
+            jointNames.add(j.name);
+        }
+        logger.info("URDF joints for VMD mapping: {}", jointNames);
+        return jointNames;
+    }
+}
@@ -0,0 +1,231 @@
+package com.kAIS.KAIMyEntity.urdf.vmd;
+
+import com.kAIS.KAIMyEntity.urdf.retarget.RetargetProfile;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.util.*;
+
+public class VMDParser {
+    private static final Logger logger = LogManager.getLogger();
+
+    // 본 키프레임 레코드: 이름 15 + 프레임 4 + 위치 12 + 회전 16 + 보간 64
+    static final int HEADER_SIZE = 30 + 20 + 4;
+    static final int BONE_RECORD_SIZE = 15 + 4 + 12 + 16 + 64;
+    static final int ROTATION_OFFSET = 15 + 4 + 12;
+
+    private static final Charset SHIFT_JIS = Charset.forName("Shift-JIS");
+
+    public static class VMDFrame {
+        public int frameNum;
+        public Map<String, Float> jointAngles = new HashMap<>();
+
+        @Override
+        public String toString() {
+            return "Frame#" + frameNum + ": " + jointAngles;
+        }
+    }
+
+    /**
+     * 본 트랙: 키(프레임) × 관절 표를 primitive 배열 하나로 (VMDLoader가 URDFMotion을 한 번에 만듦)
+     * 한 키에 값이 없는 관절 칸은 NaN
+     */
+    static final class BoneTrack {
+        final String[] joints;   // 열 순서 = 처음 나온 순서
+        final int[] frames;      // 키 프레임 번호 (오름차순, 중복 없음)
+        final float[] values;    // [key * joints.length + column]
+
+        BoneTrack(String[] joints, int[] frames, float[] values) {
+            this.joints = joints;
+            this.frames = frames;
+            this.values = values;
+        }
+
+        int getKeyCount() {
+            return frames.length;
+        }
+
+        float get(int key, int column) {
+            return values[key * joints.length + column];
+        }
+    }
+
+    /** 기본 리타깃 프로파일, 대상 관절 이름 없이 (본마다 첫 번째 후보 관절) */
+    public static List<VMDFrame> parse(byte[] vmdData) {
+        return parse(vmdData, RetargetProfile.getDefault(), Set.of());
+    }
+
+    /**
+     * VMD 본 모션 파싱 (매핑 설정은 호출마다 넘김 → 여러 로봇의 모션을 동시에 로드해도 섞이지 않음)
+     * @param profile     VMD 본 이름 → URDF 관절 이름/각도 규칙
+     * @param knownJoints 대상 URDF의 관절 이름 (이 중에 있는 후보 우선)
+     */
+    public static List<VMDFrame> parse(byte[] vmdData, RetargetProfile profile, Set<String> knownJoints) {
+        return toFrames(parseTrack(vmdData, profile, knownJoints));
+    }
+
+    /** 헤더 검증 + 본 모션 섹션 → 본 트랙 */
+    static BoneTrack parseTrack(byte[] vmdData, RetargetProfile profile, Set<String> knownJoints) {
+        ByteBuffer buffer = ByteBuffer.wrap(vmdData).order(ByteOrder.LITTLE_ENDIAN);
+
+        try {
+            // 1. VMD 헤더 검증
+            byte[] magic = new byte[30];
+            buffer.get(magic);
+            String magicStr = new String(magic, SHIFT_JIS)
+                    .replace("\0", "").trim();
+
+            logger.info("VMD Magic: '{}'", magicStr);
+
+            if (!magicStr.startsWith("Vocaloid Motion Data")) {
+                throw new IllegalArgumentException("Not a valid VMD file: " + magicStr);
+            }
+
+            // 모델 이름
+            byte[] modelName = new byte[20];
+            buffer.get(modelName);
+            String modelNameStr = new String(modelName, SHIFT_JIS)
+                    .replace("\0", "").trim();
+            logger.info("VMD Model: '{}'", modelNameStr);
+
+            // 2. 모션 프레임 개수
+            int motionCount = buffer.getInt();
+            logger.info("VMD Motion count: {}", motionCount);
+
+            if (motionCount <= 0 || motionCount > 1000000) {
+                throw new IllegalArgumentException("Invalid motion count: " + motionCount);
+            }
+
+            long needed = (long) buffer.position() + (long) motionCount * BONE_RECORD_SIZE;
+            if (needed > buffer.limit()) {
+                throw new IllegalArgumentException("Truncated VMD: " + motionCount + " records need " + needed + " bytes");
+            }
+
+            BoneTrack track = parseTrack(buffer, buffer.position(), motionCount, profile, knownJoints);
+            buffer.position((int) needed);
+            return track;
+
+        } catch (Exception e) {
+            logger.error("VMD parse error at position: {}", buffer.position(), e);
+            throw new RuntimeException("Failed to parse VMD", e);
+        }
+    }
+
+    /**
+     * 본 모션 섹션만 파싱 (VMDFile 등 섹션 오프셋을 이미 아는 경우)
+     * @param offset 첫 레코드 바이트 오프셋
+     * @param motionCount 레코드 수 (0이면 빈 목록)
+     */
+    static List<VMDFrame> parse(ByteBuffer buffer, int offset, int motionCount,
+                                RetargetProfile profile, Set<String> knownJoints) {
+        return toFrames(parseTrack(buffer, offset, motionCount, profile, knownJoints));
+    }
+
+    /**
+     * 본 모션 섹션 → 본 트랙
+     * - 레코드 루프는 미리 잡은 primitive 배열(레코드당 12바이트)에 프레임/본/각도만 기록 → 레코드당 객체 할당/박싱 없음
+     * - 끝에서 키 프레임 정렬 후 표를 한 번에 채움 (같은 본/프레임이 여러 번이면 파일에서 뒤 레코드가 이김)
+     */
+    static BoneTrack parseTrack(ByteBuffer buffer, int offset, int motionCount,
+                                RetargetProfile profile, Set<String> knownJoints) {
+        int[] recFrame = new int[motionCount];
+        int[] recBone = new int[motionCount];
+        float[] recAngle = new float[motionCount];
+        int mappedBones = 0;
+
+        // 본 이름은 원본 바이트로 인터닝 → 이름별로 디코딩/매핑 1회
+        VMDBoneTable bones = new VMDBoneTable(profile, knownJoints);
+        Quaternionf q = new Quaternionf();
+        Vector3f euler = new Vector3f();
+
+        // 3. 각 모션 프레임 파싱 (절대 위치 읽기)
+        int off = offset;
+        for (int i = 0; i < motionCount; i++, off += BONE_RECORD_SIZE) {
+            // 본 이름 (15바이트)
+            VMDBoneTable.Bone bone = bones.lookup(buffer, off);
+            if (!bone.isMapped()) continue;
+
+            // 회전 (Quaternion) → Euler → URDF 각도 (위치 12바이트, 보간 파라미터 64바이트는 사용 안 함)
+            int rot = off + ROTATION_OFFSET;
+            q.set(buffer.getFloat(rot), buffer.getFloat(rot + 4),
+                  buffer.getFloat(rot + 8), buffer.getFloat(rot + 12));
+            q.getEulerAnglesXYZ(euler);
+
+            recFrame[mappedBones] = buffer.getInt(off + 15);
+            recBone[mappedBones] = bone.id;
+            recAngle[mappedBones] = bone.rule.apply(euler.x, euler.y, euler.z);
+            mappedBones++;
+        }
+
+        // 본 → 열 (관절 이름 기준, 여러 본이 같은 관절이면 같은 열)
+        Map<String, Integer> columns = new LinkedHashMap<>();
+        int[] boneColumn = new int[bones.size()];
+        Set<String> unmappedNames = new HashSet<>();
+        for (int b = 0; b < bones.size(); b++) {
+            VMDBoneTable.Bone bone = bones.get(b);
+            if (bone.isMapped()) {
+                boneColumn[b] = columns.computeIfAbsent(bone.joint, k -> columns.size());
+            } else {
+                boneColumn[b] = -1;
+                unmappedNames.add(bone.name);
+            }
+        }
+
+        logger.info("✅ Mapped bones: {}, Unmapped: {}", mappedBones, unmappedNames.size());
+        logger.info("✅ Mapped joint names: {}", columns.keySet());
+        if (!unmappedNames.isEmpty()) {
+            logger.debug("Unmapped bone names: {}", unmappedNames);
+        }
+
+        // 키 프레임 = 정렬 + 중복 제거
+        int[] frames = Arrays.copyOf(recFrame, mappedBones);
+        Arrays.sort(frames);
+        int keys = 0;
+        for (int i = 0; i < frames.length; i++) {
+            if (keys == 0 || frames[keys - 1] != frames[i]) frames[keys++] = frames[i];
+        }
+        frames = Arrays.copyOf(frames, keys);
+
+        int jc = columns.size();
+        float[] values = new float[keys * jc];
+        Arrays.fill(values, Float.NaN);
+        for (int i = 0; i < mappedBones; i++) {
+            int k = Arrays.binarySearch(frames, recFrame[i]);
+            values[k * jc + boneColumn[recBone[i]]] = recAngle[i];
+        }
+
+        logger.info("Total unique frames: {}", keys);
+        return new BoneTrack(columns.keySet().toArray(new String[0]), frames, values);
+    }
+
+    /** 본 트랙 → 프레임 목록 (VMDFile 등 맵 형태가 필요한 호출용) */
+    static List<VMDFrame> toFrames(BoneTrack track) {
+        List<VMDFrame> frames = new ArrayList<>(track.getKeyCount());
+        for (int k = 0; k < track.getKeyCount(); k++) {
+            VMDFrame frame = new VMDFrame();
+            frame.frameNum = track.frames[k];
+            for (int j = 0; j < track.joints.length; j++) {
+                float angle = track.get(k, j);
+                if (!Float.isNaN(angle)) frame.jointAngles.put(track.joints[j], angle);
+            }
+            frames.add(frame);
+        }
+        return frames;
+    }
+
+    /**
+     * 고정 길이 Shift-JIS 필드 디코딩 (NUL 이후 무시)
+     */
+    static String decodeName(ByteBuffer buffer, int offset, int length) {
+        byte[] raw = new byte[length];
+        buffer.get(offset, raw);
+        int len = 0;
+        while (len < length && raw[len] != 0) len++;
+        return new String(raw, 0, len, SHIFT_JIS).trim();
+    }
+}
@@ -0,0 +1,318 @@
+package com.kAIS.KAIMyEntity.urdf.vmd;
+
+import com.kAIS.KAIMyEntity.urdf.control.MotionClip;
+import com.kAIS.KAIMyEntity.urdf.retarget.RetargetProfile;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 긴 VMD 파일용 스트리밍 클립
+ * - 파일을 메모리 매핑 (힙에 전체 복사하지 않음)
+ * - 두 번 훑어서 키(프레임)마다 프레임 번호 + 레코드 구간(처음/마지막 레코드 번호)만 인덱싱
+ *   (레코드별 배열 없음 → 인덱스 12바이트/키, 열기 중 임시 메모리도 프레임 범위 비트셋뿐)
+ * - 재생 위치 앞쪽 키 윈도우를 백그라운드 스레드에서 미리 디코딩
+ *   (윈도우 키들의 레코드 구간을 매핑에서 다시 훑고 본 이름은 본 테이블로 다시 인터닝)
+ * - 디코딩된 포즈 메모리 = 윈도우 2개 분량으로 고정
+ *
+ * 윈도우 디코딩 시간은 그 구간의 레코드 수에 비례: 프레임 순서 파일이면 윈도우 분량,
+ * 본 순서 파일(MMD 기본 저장 순서)이면 구간이 파일 대부분이라 윈도우마다 거의 전체를 훑음.
+ *
+ * 재생 상태(윈도우)를 가지므로 플레이어 하나에서만 사용할 것.
+ */
+public final class VMDStreamingMotion implements MotionClip {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final int HEADER_SIZE = VMDParser.HEADER_SIZE;
+    private static final int BONE_RECORD_SIZE = VMDParser.BONE_RECORD_SIZE;
+    private static final int ROTATION_OFFSET = VMDParser.ROTATION_OFFSET;
+    private static final float FPS = 30f;
+    // 프레임 번호 상한 (30fps 24시간, 열 때 쓰는 비트셋 최대 ~330KB)
+    static final int MAX_FRAME = 30 * 60 * 60 * 24;
+
+    public static final int DEFAULT_WINDOW_KEYS = 512;
+
+    private static final ExecutorService decoder = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "VMD-Stream");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final String name;
+    private final MappedByteBuffer data;
+    private final String[] jointNames;
+
+    // 본 테이블 + 본 id별 열 (매핑 없는 본은 -1)
+    // 열 때 모든 이름을 등록해 두므로 이후 lookup은 읽기만 함 → 디코딩 스레드에서 같이 써도 됨
+    private final VMDBoneTable bones;
+    private final int[] boneColumn;
+
+    // 시크 인덱스: 키 k = 프레임 keyFrames[k], 레코드는 [keyFirst[k], keyLast[k]] 안에 흩어져 있음
+    // (레코드 번호 n의 파일 오프셋 = HEADER_SIZE + n * BONE_RECORD_SIZE)
+    private final int[] keyFrames;
+    private final int[] keyFirst;
+    private final int[] keyLast;
+
+    private final int windowKeys;
+    private volatile Window current;
+    private volatile CompletableFuture<Window> ahead;
+    private volatile boolean closed;
+
+    private VMDStreamingMotion(String name, MappedByteBuffer data, String[] jointNames, VMDBoneTable bones,
+                               int[] boneColumn, int[] keyFrames, int[] keyFirst, int[] keyLast, int windowKeys) {
+        this.name = name;
+        this.data = data;
+        this.jointNames = jointNames;
+        this.bones = bones;
+        this.boneColumn = boneColumn;
+        this.keyFrames = keyFrames;
+        this.keyFirst = keyFirst;
+        this.keyLast = keyLast;
+        this.windowKeys = windowKeys;
+    }
+
+    public static VMDStreamingMotion open(File vmdFile) throws IOException {
+        return open(vmdFile, DEFAULT_WINDOW_KEYS, RetargetProfile.getDefault(), Set.of());
+    }
+
+    /**
+     * 파일을 매핑하고 시크 인덱스를 만든다.
+     * @param profile     VMD 본 이름 → URDF 관절 이름/각도 규칙
+     * @param knownJoints 대상 URDF의 관절 이름 (이 중에 있는 후보 우선)
+     */
+    public static VMDStreamingMotion open(File vmdFile, int windowKeys, RetargetProfile profile,
+                                          Set<String> knownJoints) throws IOException {
+        MappedByteBuffer data;
+        try (FileChannel ch = FileChannel.open(vmdFile.toPath(), StandardOpenOption.READ)) {
+            data = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+        }
+        data.order(ByteOrder.LITTLE_ENDIAN);
+
+        String magic = VMDParser.decodeName(data, 0, 30);
+        if (!magic.startsWith("Vocaloid Motion Data")) {
+            throw new IOException("Not a valid VMD file: " + magic);
+        }
+        int motionCount = data.getInt(30 + 20);
+        long needed = HEADER_SIZE + (long) motionCount * BONE_RECORD_SIZE;
+        if (motionCount < 0 || needed > data.capacity()) {
+            throw new IOException("Invalid motion count: " + motionCount);
+        }
+
+        // 1패스: 본 이름(원본 바이트 인터닝) → 본 테이블/열, 매핑된 레코드의 프레임 번호 → 비트셋
+        VMDBoneTable bones = new VMDBoneTable(profile, knownJoints);
+        Map<String, Integer> columns = new LinkedHashMap<>();
+        BitSet frameSet = new BitSet();
+        int mapped = 0;
+
+        for (int i = 0; i < motionCount; i++) {
+            int off = HEADER_SIZE + i * BONE_RECORD_SIZE;
+            VMDBoneTable.Bone bone = bones.lookup(data, off);
+            if (!bone.isMapped()) continue;
+            columns.computeIfAbsent(bone.joint, k -> columns.size());
+
+            int frame = data.getInt(off + 15);
+            if (frame < 0 || frame > MAX_FRAME) {
+                throw new IOException("Frame number out of range at record " + i + ": " + frame);
+            }
+            frameSet.set(frame);
+            mapped++;
+        }
+
+        int keys = frameSet.cardinality();
+        int[] keyFrames = new int[keys];
+        for (int k = 0, f = frameSet.nextSetBit(0); f >= 0; f = frameSet.nextSetBit(f + 1)) keyFrames[k++] = f;
+
+        // 2패스: 키마다 처음/마지막 레코드 번호
+        int[] keyFirst = new int[keys];
+        int[] keyLast = new int[keys];
+        Arrays.fill(keyFirst, Integer.MAX_VALUE);
+        for (int i = 0; i < motionCount; i++) {
+            int off = HEADER_SIZE + i * BONE_RECORD_SIZE;
+            if (!bones.lookup(data, off).isMapped()) continue;
+            int k = Arrays.binarySearch(keyFrames, data.getInt(off + 15));
+            if (keyFirst[k] == Integer.MAX_VALUE) keyFirst[k] = i;
+            keyLast[k] = i;
+        }
+
+        int[] boneColumn = new int[bones.size()];
+        for (int b = 0; b < bones.size(); b++) {
+            VMDBoneTable.Bone bone = bones.get(b);
+            boneColumn[b] = bone.isMapped() ? columns.get(bone.joint) : -1;
+        }
+
+        logger.info("✅ VMD stream opened: {} ({} records, {} mapped, {} keys, {} joints)",
+                vmdFile.getName(), motionCount, mapped, keys, columns.size());
+
+        return new VMDStreamingMotion(vmdFile.getName(), data, columns.keySet().toArray(new String[0]),
+                bones, boneColumn, keyFrames, keyFirst, keyLast, Math.max(2, windowKeys));
+    }
+
+    // ========== MotionClip ==========
+
+    @Override public String getName() { return name; }
+    @Override public boolean isLoop() { return true; }
+    @Override public String[] getJointNames() { return jointNames; }
+    @Override public int getKeyCount() { return keyFrames.length; }
+
+    @Override
+    public float getDuration() {
+        return keyFrames.length == 0 ? 0f : keyFrames[keyFrames.length - 1] / FPS;
+    }
+
+    @Override
+    public int sample(float t, int hint, float[] out) {
+        int jc = jointNames.length;
+        int k = findKey(t, hint);
+        if (k < 0) {
+            Arrays.fill(out, 0, jc, Float.NaN);
+            return k;
+        }
+
+        Window w = windowFor(k);
+        float tk = keyFrames[k] / FPS;
+        int next = k + 1 < keyFrames.length ? k + 1 : -1;
+        float alpha = 0f;
+        if (next >= 0) {
+            float tn = keyFrames[next] / FPS;
+            alpha = tn > tk ? (t - tk) / (tn - tk) : 0f;
+            if (alpha < 0f) alpha = 0f; else if (alpha > 1f) alpha = 1f;
+            alpha = alpha * alpha * (3f - 2f * alpha); // VMDLoader와 같은 cubic
+        }
+
+        int a = (k - w.firstKey) * jc;
+        int b = next >= 0 ? (next - w.firstKey) * jc : -1;
+        for (int j = 0; j < jc; j++) {
+            out[j] = b >= 0 ? MotionClip.blend(w.values[a + j], w.values[b + j], alpha) : w.values[a + j];
+        }
+
+        // 윈도우 절반을 지나면 다음 윈도우를 미리 디코딩
+        if (k - w.firstKey >= windowKeys / 2) prefetch(w.firstKey + windowKeys);
+        return k;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        current = null;
+        ahead = null;
+    }
+
+    // ========== 윈도우 관리 ==========
+
+    private int findKey(float t, int hint) {
+        int n = keyFrames.length;
+        if (n == 0) return -1;
+        // 키 시간은 CompiledMotion(VMDLoader.load)과 같은 frame / FPS 로 비교 → 경계에서도 같은 키
+        if (hint >= 0 && hint < n && keyFrames[hint] / FPS <= t) {
+            int k = hint;
+            while (k + 1 < n && keyFrames[k + 1] / FPS <= t) k++;
+            return k;
+        }
+        int lo = 0, hi = n - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (keyFrames[mid] / FPS <= t) lo = mid; else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    /** 키 k와 k+1을 모두 담은 윈도우 */
+    private Window windowFor(int k) {
+        Window w = current;
+        if (w != null && w.contains(k)) return w;
+
+        CompletableFuture<Window> f = ahead;
+        if (f != null) {
+            Window next = f.join();
+            if (next.contains(k)) {
+                current = next;
+                ahead = null;
+                return next;
+            }
+        }
+
+        // 점프/되감기: 동기 디코딩 (재생 중에는 드묾)
+        w = decode(k);
+        current = w;
+        ahead = null;
+        return w;
+    }
+
+    private void prefetch(int firstKey) {
+        if (closed || ahead != null) return;
+        int start = firstKey < keyFrames.length - 1 ? firstKey : 0; // 루프 시 처음으로
+        ahead = CompletableFuture.supplyAsync(() -> decode(start), decoder);
+    }
+
+    /**
+     * 키 [firstKey, firstKey + windowKeys] 디코딩 (다음 윈도우 첫 키까지 1개 겹침)
+     * 윈도우 키들의 레코드 구간을 파일 순서로 훑음 (같은 본/프레임이면 뒤 레코드가 앞을 덮어씀)
+     */
+    private Window decode(int firstKey) {
+        int jc = jointNames.length;
+        int last = Math.min(keyFrames.length - 1, firstKey + windowKeys);
+        int count = last - firstKey + 1;
+        float[] values = new float[count * jc];
+        Arrays.fill(values, Float.NaN);
+        Quaternionf q = new Quaternionf();
+        Vector3f euler = new Vector3f();
+
+        int from = Integer.MAX_VALUE, to = -1;
+        for (int k = firstKey; k <= last; k++) {
+            from = Math.min(from, keyFirst[k]);
+            to = Math.max(to, keyLast[k]);
+        }
+        int lowFrame = keyFrames[firstKey], highFrame = keyFrames[last];
+
+        for (int i = from; i <= to; i++) {
+            int off = HEADER_SIZE + i * BONE_RECORD_SIZE;
+            int frame = data.getInt(off + 15);
+            if (frame < lowFrame || frame > highFrame) continue;
+            VMDBoneTable.Bone bone = bones.lookup(data, off);
+            if (!bone.isMapped()) continue;
+            int k = Arrays.binarySearch(keyFrames, firstKey, last + 1, frame);
+
+            int rot = off + ROTATION_OFFSET;
+            q.set(data.getFloat(rot), data.getFloat(rot + 4), data.getFloat(rot + 8), data.getFloat(rot + 12));
+            q.getEulerAnglesXYZ(euler);
+            values[(k - firstKey) * jc + boneColumn[bone.id]] = bone.rule.apply(euler.x, euler.y, euler.z);
+        }
+        return new Window(firstKey, count, last == keyFrames.length - 1, values);
+    }
+
+    private static final class Window {
+        final int firstKey;
+        final int count;
+        final boolean endOfClip;
+        final float[] values;
+
+        Window(int firstKey, int count, boolean endOfClip, float[] values) {
+            this.firstKey = firstKey;
+            this.count = count;
+            this.endOfClip = endOfClip;
+            this.values = values;
+        }
+
+        boolean contains(int k) {
+            int lastKey = firstKey + count - 1;
+            // 보간하려면 k+1도 있어야 함 (클립 마지막 키는 예외)
+            return k >= firstKey && (k < lastKey || (k == lastKey && endOfClip));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.kAIS.KAIMyEntity.webots;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 지연 시간 히스토그램 (HDR 방식 로그-선형 버킷, lock-free)
+ * - 2의 거듭제곱 구간마다 16개 하위 버킷 → 상대 오차 약 6% 이내
+ * - 0 ~ 2^40 ns (약 18분), 그 이상은 마지막 버킷
+ * - record()는 여러 스레드에서 동시 호출 가능 (원자적 카운터만 증가, 할당 없음)
+ * - 백분위는 호출 시점의 카운터를 읽어 계산 (기록과 겹치면 근사치)
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int MAX_EXP = 40;
+    private static final int BUCKETS = (MAX_EXP - SUB_BITS + 2) * SUB_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /** 값 기록 (ns, 음수는 0) */
+    public void record(long nanos) {
+        long v = Math.max(0L, nanos);
+        counts.incrementAndGet(indexOf(v));
+        total.incrementAndGet();
+        sum.addAndGet(v);
+        max.accumulateAndGet(v, Math::max);
+    }
+
+    public long getCount() { return total.get(); }
+    public long getMaxNanos() { return max.get(); }
+
+    public double getMeanNanos() {
+        long n = total.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    /**
+     * 백분위 값 (ns, 해당 버킷의 상한 → 실제보다 약간 크게 나옴)
+     * @param p 0 ~ 100
+     */
+    public long percentile(double p) {
+        long n = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            n += snapshot[i];
+        }
+        if (n == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) return Math.min(upperBound(i), max.get());
+        }
+        return max.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        total.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    /** "p50 0.12 | p90 0.31 | p99 1.05 | max 2.40 ms (n=1234)" */
+    public String summary() {
+        return String.format(Locale.ROOT, "p50 %.3f | p90 %.3f | p99 %.3f | max %.3f ms (n=%d)",
+                percentile(50) / 1e6, percentile(90) / 1e6, percentile(99) / 1e6, getMaxNanos() / 1e6, getCount());
+    }
+
+    // ========== 버킷 ==========
+
+    static int indexOf(long v) {
+        if (v < SUB_COUNT) return (int) v;
+        int exp = 63 - Long.numberOfLeadingZeros(v);
+        if (exp > MAX_EXP) return BUCKETS - 1;
+        int sub = (int) (v >>> (exp - SUB_BITS)) & (SUB_COUNT - 1);
+        return (exp - SUB_BITS + 1) * SUB_COUNT + sub;
+    }
+
+    /** 버킷 i에 들어가는 가장 큰 값 */
+    static long upperBound(int i) {
+        if (i < SUB_COUNT) return i;
+        int exp = i / SUB_COUNT + SUB_BITS - 1;
+        int sub = i % SUB_COUNT;
+        long lower = (1L << exp) | ((long) sub << (exp - SUB_BITS));
+        return lower + (1L << (exp - SUB_BITS)) - 1;
+    }
+}
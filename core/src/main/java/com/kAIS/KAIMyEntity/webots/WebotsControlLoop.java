@@ -0,0 +1,112 @@
+package com.kAIS.KAIMyEntity.webots;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 고정 주기 제어 스레드 (마인크래프트 20 Hz 틱과 별개)
+ * - 절대 기한(start + k·period) 기준으로 깨어남 → 실행 시간/깨어남 오차가 누적되지 않음 (드리프트 보정)
+ * - 기한 직전까지 parkNanos, 마지막 SPIN_NANOS 동안만 바쁜 대기 → 수십 µs 단위 정확도
+ * - 한 주기 이상 밀리면 놓친 틱은 몰아서 실행하지 않고 건너뜀 (overrun 카운트)
+ * - 깨어난 시각 - 기한(jitter)과 틱 실행 시간을 히스토그램으로 기록
+ */
+public final class WebotsControlLoop {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final long SPIN_NANOS = 150_000L;
+
+    private final String name;
+    private final int rateHz;
+    private final long periodNanos;
+    private final Runnable tick;
+
+    private final LatencyHistogram jitter = new LatencyHistogram();
+    private final LatencyHistogram tickTime = new LatencyHistogram();
+    private volatile long ticks = 0;
+    private volatile long overruns = 0;
+
+    private volatile boolean running = false;
+    private Thread thread;
+
+    public WebotsControlLoop(String name, int rateHz, Runnable tick) {
+        this.name = name;
+        this.rateHz = Math.max(1, rateHz);
+        this.periodNanos = 1_000_000_000L / this.rateHz;
+        this.tick = tick;
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+        LOGGER.info("✅ Control loop '{}' started at {} Hz", name, rateHz);
+    }
+
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    public boolean isRunning() { return running; }
+    public int getRateHz() { return rateHz; }
+    public long getPeriodNanos() { return periodNanos; }
+    public long getTickCount() { return ticks; }
+    public long getOverrunCount() { return overruns; }
+
+    /** 깨어난 시각 - 예정 기한 (ns) */
+    public LatencyHistogram getJitter() { return jitter; }
+
+    /** 틱 한 번 실행 시간 (ns) */
+    public LatencyHistogram getTickTime() { return tickTime; }
+
+    private void run() {
+        long next = System.nanoTime();
+        while (running) {
+            next += periodNanos;
+            waitUntil(next);
+            if (!running) break;
+
+            long woke = System.nanoTime();
+            jitter.record(woke - next);
+            try {
+                tick.run();
+            } catch (Throwable t) {
+                LOGGER.error("Control loop '{}' tick failed", name, t);
+            }
+            long done = System.nanoTime();
+            tickTime.record(done - woke);
+            ticks++;
+
+            // 한 주기 이상 밀림 → 놓친 기한은 건너뛰고 다음 기한부터
+            long late = done - next;
+            if (late >= periodNanos) {
+                overruns++;
+                next += (late / periodNanos) * periodNanos;
+            }
+        }
+    }
+
+    private void waitUntil(long deadline) {
+        while (running) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) return;
+            if (remaining > SPIN_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
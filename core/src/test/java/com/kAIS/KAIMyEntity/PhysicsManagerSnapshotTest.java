@@ -0,0 +1,125 @@
+package com.kAIS.KAIMyEntity;
+
+import com.kAIS.KAIMyEntity.urdf.URDFParser;
+import com.kAIS.KAIMyEntity.urdf.URDFRobotModel;
+import com.kAIS.KAIMyEntity.urdf.physics.PhysicsRecording;
+import com.kAIS.KAIMyEntity.urdf.physics.PhysicsRobot;
+import com.kAIS.KAIMyEntity.urdf.physics.PhysicsSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PhysicsManager 스냅샷/리셋 지점 재현성 (자동 잠들기 켜짐, 잠든 로봇에서 저장 → 재생/분기 궤적이 같아야 함)
+ */
+class PhysicsManagerSnapshotTest {
+    private static final String INERTIAL = """
+            <inertial><mass value="1"/><inertia ixx="0.01" iyy="0.01" izz="0.01" ixy="0" ixz="0" iyz="0"/></inertial>
+            <collision><geometry><box size="0.1 0.1 0.1"/></geometry></collision>""";
+
+    // 바디 4개: base -회전- thigh -유니버설(질량 없는 cross)- shin -직선- foot -고정- toe(질량 없음 → foot에 붙음)
+    private static final String ROBOT = """
+            <robot name="sleeper">
+              <link name="base">%1$s</link>
+              <link name="thigh">%1$s</link>
+              <link name="cross"/>
+              <link name="shin">%1$s</link>
+              <link name="foot">%1$s</link>
+              <link name="toe"><collision><geometry><sphere radius="0.03"/></geometry></collision></link>
+              <joint name="hip" type="revolute"><parent link="base"/><child link="thigh"/>
+                <origin xyz="0 0 -0.2"/><axis xyz="1 0 0"/><limit lower="-1" upper="1" effort="10" velocity="2"/></joint>
+              <joint name="knee_pitch" type="revolute"><parent link="thigh"/><child link="cross"/>
+                <origin xyz="0 0 -0.2"/><axis xyz="0 1 0"/><limit lower="-1" upper="1" effort="10" velocity="2"/></joint>
+              <joint name="knee_yaw" type="revolute"><parent link="cross"/><child link="shin"/>
+                <origin xyz="0 0 0"/><axis xyz="0 0 1"/><limit lower="-1" upper="1" effort="10" velocity="2"/></joint>
+              <joint name="ankle" type="prismatic"><parent link="shin"/><child link="foot"/>
+                <origin xyz="0 0 -0.2"/><axis xyz="0 0 1"/><limit lower="-0.05" upper="0.05" effort="10" velocity="1"/></joint>
+              <joint name="toe_fix" type="fixed"><parent link="foot"/><child link="toe"/>
+                <origin xyz="0.1 0 0"/></joint>
+            </robot>
+            """;
+
+    @TempDir
+    Path dir;
+
+    private PhysicsManager pm;
+    private PhysicsRobot robot;
+
+    @BeforeEach
+    void start() throws Exception {
+        File urdf = dir.resolve("sleeper.urdf").toFile();
+        Files.writeString(urdf.toPath(), String.format(ROBOT, INERTIAL), StandardCharsets.UTF_8);
+        URDFRobotModel model = URDFParser.parse(urdf);
+        assertNotNull(model);
+
+        pm = PhysicsManager.GetInst();
+        pm.setAutoSleep(true);
+        robot = pm.spawnRobot(model, 0, 0.75, 0);
+        assertEquals(4, robot.getBodyCount());
+
+        // 떨어져서 가라앉을 때까지
+        for (int s = 0; s < 3000; s++) pm.update(pm.getFixedStep());
+        assertTrue(robot.isSleeping(), "robot never fell asleep");
+    }
+
+    @AfterEach
+    void stop() {
+        pm.stopRecording();
+        pm.removeRobot(robot);
+        pm.setDeterministic(false, 0);
+    }
+
+    /** 프레임마다 모든 구동 관절에 목표 + 0.01초 진행 */
+    private void drive(int frames) {
+        for (int i = 0; i < frames; i++) {
+            for (int j = 0; j < robot.getJointCount(); j++) {
+                if (robot.isActuated(j)) pm.submitJointTarget(robot, j, (float) Math.sin(i * 0.05 + j) * 0.5f);
+            }
+            pm.update(0.01);
+        }
+    }
+
+    @Test
+    void resetPointCapturedWhileAsleepReplays() {
+        pm.saveResetPoint();
+        pm.startRecording(11);
+        drive(100);
+        PhysicsRecording rec = pm.stopRecording();
+        assertTrue(rec.getStepCount() > 0);
+
+        assertTrue(pm.resetToSavedPoint());
+        assertTrue(robot.isSleeping());
+        assertEquals(-1, pm.replay(rec));
+    }
+
+    @Test
+    void snapshotTakenAsleepDoesNotDependOnLaterHistory() {
+        pm.setDeterministic(true, 5);
+        PhysicsSnapshot snap = pm.captureSnapshot();
+        long asleep = pm.stateHash();
+
+        // 같은 스냅샷에서 같은 명령 두 번, 사이에 다른 이력 (깨어 움직이다 다시 잠듦)
+        long[][] hashes = new long[2][150];
+        for (int run = 0; run < 2; run++) {
+            assertTrue(pm.restoreSnapshot(snap));
+            assertEquals(asleep, pm.stateHash(), "run " + run + " restored state");
+            for (int i = 0; i < hashes[run].length; i++) {
+                drive(1);
+                hashes[run][i] = pm.stateHash();
+            }
+            drive(200 + 300 * run);
+            for (int s = 0; s < 3000; s++) pm.update(pm.getFixedStep());
+        }
+        for (int i = 0; i < hashes[0].length; i++) {
+            assertEquals(hashes[0][i], hashes[1][i], "frame " + i);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.kAIS.KAIMyEntity;
+
+import com.kAIS.KAIMyEntity.urdf.URDFParser;
+import com.kAIS.KAIMyEntity.urdf.URDFRobotModel;
+import com.kAIS.KAIMyEntity.urdf.physics.PhysicsRobot;
+import com.kAIS.KAIMyEntity.urdf.physics.PhysicsState;
+import com.kAIS.KAIMyEntity.urdf.physics.URDFPhysicsBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 물리 스레드 경로: 명령은 링 버퍼로 넣고, 스레드가 스텝하는 동안 게시 상태(readState)로 읽음
+ */
+class PhysicsManagerThreadTest {
+    // 고정 베이스 + 회전 관절 하나 (팔은 중력 부하를 받음)
+    private static final String ROBOT = """
+            <robot name="arm">
+              <link name="base">
+                <inertial><mass value="1"/><inertia ixx="0.01" iyy="0.01" izz="0.01" ixy="0" ixz="0" iyz="0"/></inertial>
+              </link>
+              <link name="arm">
+                <inertial><origin xyz="0 0 -0.1"/><mass value="0.5"/><inertia ixx="0.01" iyy="0.01" izz="0.01" ixy="0" ixz="0" iyz="0"/></inertial>
+                <collision><origin xyz="0 0 -0.1"/><geometry><box size="0.05 0.05 0.2"/></geometry></collision>
+              </link>
+              <joint name="shoulder" type="revolute"><parent link="base"/><child link="arm"/>
+                <origin xyz="0 0 0"/><axis xyz="1 0 0"/><limit lower="-1.5" upper="1.5" effort="10" velocity="2"/></joint>
+            </robot>
+            """;
+    private static final float TARGET = 0.8f;
+
+    @TempDir
+    Path dir;
+
+    private PhysicsManager pm;
+    private PhysicsRobot robot;
+
+    @BeforeEach
+    void start() throws Exception {
+        File urdf = dir.resolve("arm.urdf").toFile();
+        Files.writeString(urdf.toPath(), ROBOT, StandardCharsets.UTF_8);
+        URDFRobotModel model = URDFParser.parse(urdf);
+        assertNotNull(model);
+
+        pm = PhysicsManager.GetInst();
+        robot = pm.spawnRobot(model, new URDFPhysicsBuilder().position(0, 2, 0).fixedBase(true));
+        assertTrue(robot.isActuated(0));
+    }
+
+    @AfterEach
+    void stop() {
+        pm.stopThread();
+        pm.removeRobot(robot);
+    }
+
+    @Test
+    void threadStepsRingCommandsAndPublishesState() throws Exception {
+        pm.startThread();
+        assertTrue(pm.isThreaded());
+        assertEquals(0, pm.update(0.05), "update() must not step while the thread owns the world");
+
+        PhysicsState state = new PhysicsState();
+        assertTrue(robot.readState(state));
+        long firstStep = state.step;
+
+        assertTrue(pm.submitJointTarget(robot, 0, TARGET));
+
+        // 테스트 스레드는 게시 상태만 읽음 (스텝 중에도 락 없이)
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        long lastStep = firstStep;
+        int reads = 0;
+        while (System.nanoTime() < deadline) {
+            assertTrue(robot.readState(state));
+            assertTrue(state.step >= lastStep, "published steps go forward");
+            lastStep = state.step;
+            reads++;
+            if (Math.abs(state.getJointPosition(0) - TARGET) < 0.05f && state.step > firstStep + 50) break;
+            Thread.sleep(2);
+        }
+        assertEquals(TARGET, state.getJointPosition(0), 0.05f, "servo reached the ring target (" + reads + " reads)");
+        assertTrue(pm.getStepLoop().getTickCount() > 0);
+
+        // 렌더 쪽: 게시 상태 → 모델
+        pm.syncRenderState();
+        assertEquals(TARGET, robot.getModel().joints.get(0).currentPosition, 0.05f);
+
+        // 스레드를 멈추면 다시 호출한 쪽 스레드에서 스텝 (대체 경로)
+        pm.stopThread();
+        assertFalse(pm.isThreaded());
+        assertTrue(pm.update(0.05) > 0);
+    }
+}
@@ -0,0 +1,43 @@
+package com.kAIS.KAIMyEntity.urdf.physics;
+
+import com.kAIS.KAIMyEntity.urdf.URDFLink;
+import com.kAIS.KAIMyEntity.urdf.URDFParser;
+import com.kAIS.KAIMyEntity.urdf.URDFRobotModel;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * 볼록 분해 캐시 오프라인 생성 (개발용 테스트 소스, jar에 포함 안 됨)
+ * - URDF의 메시 충돌체마다 ConvexHullCache.get → STL 옆에 "<파일>.hulls" 기록
+ * - 배포 전에 돌려 두면 실행 중에는 분해 없이 캐시만 읽음
+ *
+ * 실행: ./gradlew :core:convexHulls --args="<urdf> [maxHulls] [maxVertices]"
+ */
+public final class ConvexHullTool {
+
+    private ConvexHullTool() {}
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: ConvexHullTool <urdf> [maxHulls] [maxVertices]");
+            return;
+        }
+        int maxHulls = args.length > 1 ? Integer.parseInt(args[1]) : ConvexHullCache.DEFAULT_MAX_HULLS;
+        int maxVertices = args.length > 2 ? Integer.parseInt(args[2]) : ConvexHullCache.DEFAULT_MAX_VERTICES;
+        URDFRobotModel model = URDFParser.parse(new File(args[0]));
+        if (model == null) {
+            System.err.println("❌ Failed to parse URDF: " + args[0]);
+            System.exit(1);
+            return;
+        }
+        for (URDFLink link : model.links) {
+            if (link.collision == null || link.collision.geometry == null) continue;
+            URDFLink.Geometry g = link.collision.geometry;
+            if (g.type != URDFLink.Geometry.GeometryType.MESH || g.meshFilename == null) continue;
+            List<ConvexHull> hulls = ConvexHullCache.get(g.meshFilename, maxHulls, maxVertices);
+            System.out.printf("%-24s %-40s %2d hulls, %4d vertices%n", link.name, new File(g.meshFilename).getName(),
+                    hulls.size(), hulls.stream().mapToInt(ConvexHull::getVertexCount).sum());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.kAIS.KAIMyEntity.urdf.physics;
+
+import com.kAIS.KAIMyEntity.sim.HeadlessSimulator;
+import com.kAIS.KAIMyEntity.urdf.URDFRobotModel;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * EnvPool 처리량 벤치마크 (개발용 테스트 소스, jar에 포함 안 됨)
+ * - 같은 환경 수로 스레드 수만 바꿔 초당 환경 스텝(행동 수)과 1 스레드 대비 배율 측정
+ * - 행동 = 관절 범위 안의 무작위 목표 (매 스텝 새로), 에피소드 길이마다 전체 reset
+ *
+ * 실행: ./gradlew :core:envPoolBenchmark --args="[urdf|-] [envs] [threads,..] [steps]"
+ *   예: --args="- 64 1,2,4,8 500"
+ */
+public final class EnvPoolBenchmark {
+    private static final int EPISODE_STEPS = 250;
+
+    private EnvPoolBenchmark() {}
+
+    public static void main(String[] args) throws IOException {
+        URDFRobotModel model = HeadlessSimulator.loadModel(args.length > 0 ? args[0] : "-");
+        int envs = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        String threadList = args.length > 2 ? args[2] : defaultThreads();
+        int steps = args.length > 3 ? Integer.parseInt(args[3]) : 500;
+
+        System.out.printf("Model '%s', %d envs, %d steps (%d cores)%n",
+                model.name, envs, steps, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%8s %14s %14s %10s%n", "threads", "env steps/s", "phys steps/s", "speedup");
+
+        double base = 0;
+        for (String t : threadList.split(",")) {
+            int threads = Integer.parseInt(t.trim());
+            try (EnvPool pool = EnvPool.builder(model).envs(envs).threads(threads).meshCollision(false).build()) {
+                double rate = run(pool, steps);
+                if (base == 0) base = rate;
+                System.out.printf("%8d %14.0f %14.0f %9.2fx%n", threads, rate, rate * EnvPool.DEFAULT_FRAME_SKIP, rate / base);
+            }
+        }
+    }
+
+    /** 초당 환경 스텝 (워밍업 50 스텝 제외) */
+    static double run(EnvPool pool, int steps) {
+        int n = pool.getEnvCount(), dof = pool.getActionSize();
+        float[] actions = new float[n * dof];
+        float[] obs = new float[n * pool.getObservationSize()];
+        Random rnd = new Random(1);
+        pool.reset(obs);
+
+        long t0 = 0;
+        for (int s = 0; s < steps + 50; s++) {
+            if (s == 50) t0 = System.nanoTime();
+            for (int i = 0; i < actions.length; i++) actions[i] = (rnd.nextFloat() - 0.5f) * 2f;
+            pool.step(actions, obs);
+            if (s % EPISODE_STEPS == EPISODE_STEPS - 1) pool.reset(obs);
+        }
+        return (double) steps * n / ((System.nanoTime() - t0) / 1e9);
+    }
+
+    private static String defaultThreads() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        StringBuilder sb = new StringBuilder("1");
+        for (int t = 2; t <= cores; t *= 2) sb.append(',').append(t);
+        if (Integer.bitCount(cores) != 1 && cores > 1) sb.append(',').append(cores);
+        return sb.toString();
+    }
+}
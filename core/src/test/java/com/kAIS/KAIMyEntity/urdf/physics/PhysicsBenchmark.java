@@ -0,0 +1,105 @@
+package com.kAIS.KAIMyEntity.urdf.physics;
+
+import com.kAIS.KAIMyEntity.sim.HeadlessSimulator;
+import com.kAIS.KAIMyEntity.urdf.URDFRobotModel;
+import org.ode4j.ode.DSpace;
+import org.ode4j.ode.DWorld;
+import org.ode4j.ode.OdeHelper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * broadphase 비교 벤치마크 (개발용 테스트 소스, jar에 포함 안 됨)
+ * - 로봇 N대를 격자로 세우고 지면에 떨어뜨림 → 스텝마다 collide + quickStep
+ * - broadphase(SIMPLE/HASH/SAP/QUADTREE)마다 새 월드에서 같은 장면을 돌려 collide 시간, 스텝 시간, 쌍/접촉 수 비교
+ * - URDF를 주지 않으면 내장 합성 로봇 (HeadlessSimulator.loadModel)
+ *
+ * 실행: ./gradlew :core:physicsBenchmark --args="[urdf|-] [robots,..] [steps]"
+ *   예: --args="- 1,16,64,256 2000"
+ */
+public final class PhysicsBenchmark {
+    private static final double STEP = 0.002;
+    private static final double SPACING = 1.2;   // 로봇 간격 (m)
+    private static final int WARMUP_STEPS = 200;
+
+    private PhysicsBenchmark() {}
+
+    public static void main(String[] args) throws IOException {
+        URDFRobotModel model = HeadlessSimulator.loadModel(args.length > 0 ? args[0] : "-");
+        int[] counts = parseCounts(args.length > 1 ? args[1] : "1,16,64,256");
+        int steps = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+
+        OdeHelper.initODE2(0);
+        System.out.printf("Model '%s': %d links, %d joints | %d steps of %.1f ms%n",
+                model.name, model.links.size(), model.joints.size(), steps, STEP * 1000);
+        System.out.printf("%-10s %6s %12s %12s %10s %10s%n", "broadphase", "robots", "collide ms", "step ms", "pairs", "contacts");
+
+        for (int n : counts) {
+            for (BroadphaseConfig.Type type : BroadphaseConfig.Type.values()) {
+                if (type == BroadphaseConfig.Type.SIMPLE && n > 64) continue; // O(n²) → 너무 오래 걸림
+                Result r = run(model, new BroadphaseConfig(type).quadTree(0, 0, 0, extent(n), 4, extent(n), 6), n, steps);
+                System.out.printf("%-10s %6d %12.4f %12.4f %10.1f %10.1f%n",
+                        type, n, r.collideMs, r.stepMs, r.pairs, r.contacts);
+            }
+        }
+        OdeHelper.closeODE();
+    }
+
+    /** 장면 한 번: 새 월드 + 지면 + 로봇 n대 → 워밍업 후 steps 스텝 측정 (스텝당 평균) */
+    static Result run(URDFRobotModel model, BroadphaseConfig config, int n, int steps) {
+        DWorld world = OdeHelper.createWorld();
+        world.setGravity(0, -9.81, 0);
+        world.setContactSurfaceLayer(0.001);
+        world.setContactMaxCorrectingVel(1.0);
+        DSpace space = config.create(null);
+        OdeHelper.createPlane(space, 0, 1, 0, 0);
+        ContactPipeline contacts = new ContactPipeline(world, ContactPipeline.DEFAULT_CAPACITY * 4);
+
+        List<PhysicsRobot> robots = new ArrayList<>(n);
+        int side = (int) Math.ceil(Math.sqrt(n));
+        double origin = -(side - 1) * SPACING / 2;
+        for (int i = 0; i < n; i++) {
+            double x = origin + (i % side) * SPACING;
+            double z = origin + (i / side) * SPACING;
+            robots.add(new URDFPhysicsBuilder().position(x, 0.75, z).meshCollision(false).build(model, world, space));
+        }
+
+        long collideNanos = 0, stepNanos = 0, pairs = 0, contactCount = 0;
+        for (int s = 0; s < WARMUP_STEPS + steps; s++) {
+            long t0 = System.nanoTime();
+            contacts.collide(space, robots);
+            long t1 = System.nanoTime();
+            world.quickStep(STEP);
+            contacts.empty();
+            long t2 = System.nanoTime();
+            if (s >= WARMUP_STEPS) {
+                collideNanos += t1 - t0;
+                stepNanos += t2 - t0;
+                pairs += contacts.getLastPairCount();
+                contactCount += contacts.getLastContactCount();
+            }
+        }
+
+        for (PhysicsRobot robot : robots) robot.destroy();
+        contacts.destroy();
+        space.destroy();
+        world.destroy();
+        return new Result(collideNanos / 1e6 / steps, stepNanos / 1e6 / steps,
+                (double) pairs / steps, (double) contactCount / steps);
+    }
+
+    record Result(double collideMs, double stepMs, double pairs, double contacts) {}
+
+    private static double extent(int n) {
+        return Math.max(4, Math.ceil(Math.sqrt(n)) * SPACING);
+    }
+
+    private static int[] parseCounts(String csv) {
+        String[] parts = csv.split(",");
+        int[] out = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) out[i] = Math.max(1, Integer.parseInt(parts[i].trim()));
+        return out;
+    }
+}
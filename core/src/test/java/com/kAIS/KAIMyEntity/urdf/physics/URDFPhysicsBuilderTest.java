@@ -0,0 +1,121 @@
+package com.kAIS.KAIMyEntity.urdf.physics;
+
+import com.kAIS.KAIMyEntity.urdf.URDFParser;
+import com.kAIS.KAIMyEntity.urdf.URDFRobotModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.ode4j.math.DVector3;
+import org.ode4j.ode.DBox;
+import org.ode4j.ode.DGeom;
+import org.ode4j.ode.DSpace;
+import org.ode4j.ode.DWorld;
+import org.ode4j.ode.OdeHelper;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * URDFPhysicsBuilder 충돌체 배치
+ */
+class URDFPhysicsBuilderTest {
+    // 원점에서 떨어진 사면체: 경계 x 0.5~0.7, y 0~0.2, z 0~0.2 → 중심 (0.6, 0.1, 0.1)
+    private static final String OFFSET_STL = """
+            solid offset
+              facet normal 0 0 -1
+                outer loop
+                  vertex 0.5 0 0
+                  vertex 0.5 0.2 0
+                  vertex 0.7 0 0
+                endloop
+              endfacet
+              facet normal 0 -1 0
+                outer loop
+                  vertex 0.5 0 0
+                  vertex 0.7 0 0
+                  vertex 0.5 0 0.2
+                endloop
+              endfacet
+              facet normal -1 0 0
+                outer loop
+                  vertex 0.5 0 0
+                  vertex 0.5 0 0.2
+                  vertex 0.5 0.2 0
+                endloop
+              endfacet
+              facet normal 1 1 1
+                outer loop
+                  vertex 0.7 0 0
+                  vertex 0.5 0.2 0
+                  vertex 0.5 0 0.2
+                endloop
+              endfacet
+            endsolid offset
+            """;
+
+    private static final String ROBOT = """
+            <robot name="%s">
+              <link name="base">
+                <inertial><mass value="1"/><inertia ixx="0.01" iyy="0.01" izz="0.01" ixy="0" ixz="0" iyz="0"/></inertial>
+                <collision><origin xyz="0 0 0.1" rpy="0 0 0.5"/><geometry>%s</geometry></collision>
+              </link>
+            </robot>
+            """;
+
+    @TempDir
+    Path dir;
+
+    private DWorld world;
+    private DSpace space;
+
+    @BeforeEach
+    void start() {
+        OdeHelper.initODE2(0);
+        world = OdeHelper.createWorld();
+        space = OdeHelper.createSimpleSpace();
+    }
+
+    @AfterEach
+    void stop() {
+        space.destroy();
+        world.destroy();
+    }
+
+    private URDFRobotModel model(String name, String geometry) throws Exception {
+        File urdf = dir.resolve(name + ".urdf").toFile();
+        Files.writeString(urdf.toPath(), String.format(ROBOT, name, geometry), StandardCharsets.UTF_8);
+        URDFRobotModel model = URDFParser.parse(urdf);
+        assertNotNull(model);
+        return model;
+    }
+
+    @Test
+    void boundingBoxIsCenteredOnMesh() throws Exception {
+        Path stl = dir.resolve("offset.stl");
+        Files.writeString(stl, OFFSET_STL, StandardCharsets.US_ASCII);
+
+        // 메시(스케일 2) 경계 상자 ≡ 원점을 스케일된 중심 (1.2, 0.2, 0.2)으로 옮긴 같은 크기 상자
+        PhysicsRobot mesh = new URDFPhysicsBuilder()
+                .meshCollision(URDFPhysicsBuilder.MeshCollision.BOX)
+                .build(model("mesh", "<mesh filename=\"" + stl.toAbsolutePath() + "\" scale=\"2 2 2\"/>"), world, space);
+        PhysicsRobot box = new URDFPhysicsBuilder()
+                .build(model("box", "<box size=\"0.4 0.4 0.4\"/>"), world, space);
+
+        DGeom meshGeom = mesh.getGeoms("base").get(0);
+        DGeom boxGeom = box.getGeoms("base").get(0);
+
+        // 기준: 충돌 원점 (0 0 0.1, yaw 0.5) 프레임에서 본 스케일된 중심
+        DVector3 expected = new DVector3();
+        boxGeom.getRelPointPos(1.2, 0.2, 0.2, expected);
+
+        assertEquals(0.4, ((DBox) meshGeom).getLengths().get0(), 1e-6);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(expected.get(i), meshGeom.getPosition().get(i), 1e-6, "axis " + i);
+        }
+    }
+}
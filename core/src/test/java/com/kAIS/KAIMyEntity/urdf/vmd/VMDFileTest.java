@@ -0,0 +1,157 @@
+package com.kAIS.KAIMyEntity.urdf.vmd;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * VMDFile 섹션 인덱스 + 지연 디코딩 (합성 VMD: 본 + 모프/카메라/조명/셀프섀도/IK)
+ */
+class VMDFileTest {
+    private static final Charset SJIS = Charset.forName("Shift-JIS");
+    private static final int BONE_RECORDS = VMDParserBenchmark.BONES.length * 4;
+
+    /** VMDParserBenchmark 본 섹션 뒤에 나머지 섹션을 붙인 파일 (레코드는 일부러 프레임 역순) */
+    private static byte[] fullFile() {
+        byte[] bones = VMDParserBenchmark.generate(BONE_RECORDS, 5L);
+        ByteBuffer buf = ByteBuffer.allocate(bones.length + 1024).order(ByteOrder.LITTLE_ENDIAN);
+        buf.put(bones, 0, bones.length - 4 * 4); // 생성기가 붙인 빈 섹션 개수 4개는 버림
+
+        // 모프 2개
+        buf.putInt(2);
+        buf.put(fixed("まばたき", 15)).putInt(10).putFloat(0.5f);
+        buf.put(fixed("あ", 15)).putInt(5).putFloat(1f);
+
+        // 카메라 1개
+        buf.putInt(1);
+        buf.putInt(3).putFloat(-45f);
+        buf.putFloat(0f).putFloat(10f).putFloat(0f);
+        buf.putFloat(0.1f).putFloat(0.2f).putFloat(0.3f);
+        for (int i = 0; i < 24; i++) buf.put((byte) i);
+        buf.putInt(30).put((byte) 0);
+
+        // 조명 1개
+        buf.putInt(1);
+        buf.putInt(0);
+        buf.putFloat(0.6f).putFloat(0.6f).putFloat(0.6f);
+        buf.putFloat(-0.5f).putFloat(-1f).putFloat(0.5f);
+
+        // 셀프섀도 1개
+        buf.putInt(1);
+        buf.putInt(7).put((byte) 1).putFloat(0.01f);
+
+        // IK 2개 (가변 길이)
+        buf.putInt(2);
+        buf.putInt(20).put((byte) 0).putInt(1);
+        buf.put(fixed("左足ＩＫ", 20)).put((byte) 0);
+        buf.putInt(0).put((byte) 1).putInt(2);
+        buf.put(fixed("左足ＩＫ", 20)).put((byte) 1);
+        buf.put(fixed("右足ＩＫ", 20)).put((byte) 1);
+
+        byte[] out = new byte[buf.position()];
+        buf.flip().get(out);
+        return out;
+    }
+
+    private static byte[] fixed(String s, int length) {
+        byte[] src = s.getBytes(SJIS);
+        byte[] out = new byte[length];
+        System.arraycopy(src, 0, out, 0, Math.min(length, src.length));
+        return out;
+    }
+
+    @Test
+    void indexesAndDecodesEverySection() throws Exception {
+        VMDFile file = VMDFile.wrap("full.vmd", fullFile());
+
+        assertEquals("benchmark", file.getModelName());
+        assertEquals(BONE_RECORDS, file.getCount(VMDFile.Section.BONE));
+        assertEquals(2, file.getCount(VMDFile.Section.MORPH));
+        assertEquals(1, file.getCount(VMDFile.Section.CAMERA));
+        assertEquals(1, file.getCount(VMDFile.Section.LIGHT));
+        assertEquals(1, file.getCount(VMDFile.Section.SELF_SHADOW));
+        assertEquals(2, file.getCount(VMDFile.Section.IK));
+
+        List<VMDFile.MorphFrame> morphs = file.getMorphFrames();
+        assertEquals("あ", morphs.get(0).name);
+        assertEquals(5, morphs.get(0).frame);
+        assertEquals(1f, morphs.get(0).weight);
+        assertEquals("まばたき", morphs.get(1).name);
+        assertEquals(10, morphs.get(1).frame);
+        assertEquals(0.5f, morphs.get(1).weight);
+
+        VMDFile.CameraFrame camera = file.getCameraFrames().get(0);
+        assertEquals(3, camera.frame);
+        assertEquals(-45f, camera.distance);
+        assertEquals(10f, camera.position.y);
+        assertEquals(0.3f, camera.rotation.z);
+        assertEquals(23, camera.interpolation[23]);
+        assertEquals(30, camera.viewAngle);
+        assertTrue(camera.perspective);
+
+        VMDFile.LightFrame light = file.getLightFrames().get(0);
+        assertEquals(0.6f, light.color.x);
+        assertEquals(-1f, light.direction.y);
+
+        VMDFile.SelfShadowFrame shadow = file.getSelfShadowFrames().get(0);
+        assertEquals(7, shadow.frame);
+        assertEquals(1, shadow.mode);
+        assertEquals(0.01f, shadow.distance);
+
+        List<VMDFile.IKFrame> iks = file.getIKFrames();
+        assertEquals(0, iks.get(0).frame);
+        assertTrue(iks.get(0).show);
+        assertEquals(Map.of("左足ＩＫ", true, "右足ＩＫ", true), iks.get(0).enabled);
+        assertEquals(20, iks.get(1).frame);
+        assertFalse(iks.get(1).show);
+
+        assertTrue(file.isIKEnabled("左足ＩＫ", 19));
+        assertFalse(file.isIKEnabled("左足ＩＫ", 20));
+        assertTrue(file.isIKEnabled("右足ＩＫ", 30)); // 마지막 키에 없으면 그 이전 키 값
+        assertTrue(file.isIKEnabled("つま先ＩＫ", 30)); // 키 없음 → 활성
+    }
+
+    @Test
+    void boneLoadingLeavesLaterSectionsUndecoded() throws Exception {
+        byte[] data = fullFile();
+        VMDFile file = VMDFile.wrap("full.vmd", data); // wrap은 배열을 복사하지 않음
+
+        List<VMDParser.VMDFrame> frames = file.getBoneFrames();
+        List<VMDParser.VMDFrame> expected = VMDParser.parse(data);
+        assertEquals(expected.size(), frames.size());
+        for (int i = 0; i < frames.size(); i++) {
+            assertEquals(expected.get(i).frameNum, frames.get(i).frameNum);
+            assertEquals(expected.get(i).jointAngles, frames.get(i).jointAngles);
+        }
+
+        // 본만 읽은 뒤 뒤쪽 섹션 값을 바꿈 → 이미 디코딩돼 있었다면 바뀐 값이 안 보임
+        ByteBuffer buf = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putFloat(file.getOffset(VMDFile.Section.MORPH) + 19, 0.25f);
+        buf.putFloat(file.getOffset(VMDFile.Section.CAMERA) + 4, -10f);
+        buf.putInt(file.getOffset(VMDFile.Section.IK), 40);
+
+        assertEquals(0.25f, file.getMorphFrames().get(1).weight);
+        assertEquals(-10f, file.getCameraFrames().get(0).distance);
+        assertEquals(40, file.getIKFrames().get(1).frame);
+    }
+
+    @Test
+    void olderFileWithoutLaterSectionsHasZeroCounts() throws Exception {
+        byte[] boneOnly = VMDParserBenchmark.generate(BONE_RECORDS, 6L);
+        VMDFile file = VMDFile.wrap("old.vmd", boneOnly);
+
+        assertEquals(BONE_RECORDS, file.getCount(VMDFile.Section.BONE));
+        for (VMDFile.Section s : List.of(VMDFile.Section.MORPH, VMDFile.Section.CAMERA, VMDFile.Section.LIGHT,
+                VMDFile.Section.SELF_SHADOW, VMDFile.Section.IK)) {
+            assertEquals(0, file.getCount(s), s.name());
+        }
+        assertTrue(file.getIKFrames().isEmpty());
+        assertTrue(file.isIKEnabled("左足ＩＫ", 0));
+    }
+}
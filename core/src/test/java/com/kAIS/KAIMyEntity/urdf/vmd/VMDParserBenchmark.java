@@ -0,0 +1,139 @@
+package com.kAIS.KAIMyEntity.urdf.vmd;
+
+import com.kAIS.KAIMyEntity.urdf.retarget.RetargetProfile;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * VMDParser 본 이름 디코딩 벤치마크 (개발용 테스트 소스, jar에 포함 안 됨)
+ * - 100만 레코드 합성 VMD를 메모리에 생성
+ * - 이전 방식(레코드마다 Shift-JIS 디코딩 + 매핑 조회) vs 원본 바이트 인터닝 비교
+ * - VMDParser.parseTrack(VMDLoader.load 경로) 전체 시간도 측정
+ *
+ * 실행: ./gradlew :core:vmdBenchmark --args="[records] [rounds]"
+ * 합성 VMD 생성기(generate)는 VMDParserTest도 사용
+ */
+public final class VMDParserBenchmark {
+    static final String[] BONES = {
+            "センター", "下半身", "上半身", "上半身2", "首", "頭",
+            "左肩", "左腕", "左ひじ", "左手首", "右肩", "右腕", "右ひじ", "右手首",
+            "左足", "左ひざ", "左足首", "右足", "右ひざ", "右足首",
+            "左足ＩＫ", "右足ＩＫ", "両目", "グルーブ", "左親指１", "右親指１"
+    };
+
+    private VMDParserBenchmark() {}
+
+    public static void main(String[] args) {
+        int records = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        byte[] vmd = generate(records, 42L);
+        System.out.printf("Synthetic VMD: %d records, %.1f MB%n", records, vmd.length / (1024.0 * 1024.0));
+
+        // 워밍업 (JIT)
+        for (int i = 0; i < 2; i++) {
+            legacyNames(vmd, records);
+            internedNames(vmd, records);
+        }
+
+        for (int r = 1; r <= rounds; r++) {
+            long t0 = System.nanoTime();
+            int a = legacyNames(vmd, records);
+            long t1 = System.nanoTime();
+            int b = internedNames(vmd, records);
+            long t2 = System.nanoTime();
+            VMDParser.BoneTrack track = VMDParser.parseTrack(vmd, RetargetProfile.getDefault(), Set.of());
+            long t3 = System.nanoTime();
+
+            System.out.printf("round %d: names legacy %.1f ms, interned %.1f ms (x%.1f) | parse %.1f ms, %d keys%s%n",
+                    r, ms(t1 - t0), ms(t2 - t1), (double) (t1 - t0) / Math.max(1, t2 - t1),
+                    ms(t3 - t2), track.getKeyCount(), a == b ? "" : " (MISMATCH " + a + " vs " + b + ")");
+        }
+    }
+
+    /** 이전 parse 루프의 이름 처리 (레코드마다 배열/문자열 할당) */
+    private static int legacyNames(byte[] vmd, int records) {
+        ByteBuffer buffer = ByteBuffer.wrap(vmd).order(ByteOrder.LITTLE_ENDIAN);
+        RetargetProfile profile = RetargetProfile.getDefault();
+        int mapped = 0;
+        for (int i = 0; i < records; i++) {
+            buffer.position(VMDParser.HEADER_SIZE + i * VMDParser.BONE_RECORD_SIZE);
+            byte[] nameBytes = new byte[15];
+            buffer.get(nameBytes);
+            String boneName = new String(nameBytes, Charset.forName("Shift-JIS"))
+                    .replace("\0", "").trim();
+            if (profile.resolveBone(boneName, Set.of()) != null) mapped++;
+        }
+        return mapped;
+    }
+
+    private static int internedNames(byte[] vmd, int records) {
+        ByteBuffer buffer = ByteBuffer.wrap(vmd).order(ByteOrder.LITTLE_ENDIAN);
+        VMDBoneTable table = new VMDBoneTable(RetargetProfile.getDefault(), Set.of());
+        int mapped = 0;
+        for (int i = 0; i < records; i++) {
+            if (table.lookup(buffer, VMDParser.HEADER_SIZE + i * VMDParser.BONE_RECORD_SIZE).isMapped()) mapped++;
+        }
+        return mapped;
+    }
+
+    /**
+     * 본 키프레임만 있는 VMD 바이트 생성 (본마다 프레임 번호 증가, 임의 회전)
+     */
+    static byte[] generate(int records, long seed) {
+        int[] bone = new int[records];
+        int[] frame = new int[records];
+        for (int i = 0; i < records; i++) {
+            bone[i] = i % BONES.length;
+            frame[i] = i / BONES.length;
+        }
+        return generate(bone, frame, seed);
+    }
+
+    /**
+     * 레코드 i = (BONES[bone[i]], frame[i]), 파일 순서 그대로, 임의 회전
+     */
+    static byte[] generate(int[] bone, int[] frame, long seed) {
+        Charset sjis = Charset.forName("Shift-JIS");
+        byte[][] names = new byte[BONES.length][];
+        for (int b = 0; b < BONES.length; b++) {
+            names[b] = BONES[b].getBytes(sjis);
+        }
+
+        int records = bone.length;
+        ByteBuffer buf = ByteBuffer.allocate(VMDParser.HEADER_SIZE + records * VMDParser.BONE_RECORD_SIZE + 4 * 4)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buf.put(fixed("Vocaloid Motion Data 0002".getBytes(sjis), 30));
+        buf.put(fixed("benchmark".getBytes(sjis), 20));
+        buf.putInt(records);
+
+        Random rnd = new Random(seed);
+        for (int i = 0; i < records; i++) {
+            buf.put(fixed(names[bone[i]], 15));
+            buf.putInt(frame[i]);
+            buf.putFloat(0f).putFloat(0f).putFloat(0f);
+
+            float x = rnd.nextFloat() - 0.5f, y = rnd.nextFloat() - 0.5f, z = rnd.nextFloat() - 0.5f, w = 1f;
+            float len = (float) Math.sqrt(x * x + y * y + z * z + w * w);
+            buf.putFloat(x / len).putFloat(y / len).putFloat(z / len).putFloat(w / len);
+            buf.position(buf.position() + 64);
+        }
+        // 모프/카메라/조명/셀프섀도 개수 = 0
+        buf.putInt(0).putInt(0).putInt(0).putInt(0);
+        return buf.array();
+    }
+
+    private static byte[] fixed(byte[] src, int length) {
+        byte[] out = new byte[length];
+        System.arraycopy(src, 0, out, 0, Math.min(length, src.length));
+        return out;
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,95 @@
+package com.kAIS.KAIMyEntity.urdf.vmd;
+
+import com.kAIS.KAIMyEntity.urdf.retarget.RetargetProfile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * VMDParser 본 레코드 파싱 (합성 VMD: VMDParserBenchmark.generate)
+ */
+class VMDParserTest {
+
+    /** 이름 문자열로 프로파일을 직접 조회해서 구한 매핑 관절 집합 */
+    private static Set<String> expectedJoints(RetargetProfile profile, Set<String> knownJoints) {
+        Set<String> joints = new HashSet<>();
+        for (String bone : VMDParserBenchmark.BONES) {
+            String joint = profile.resolveBone(bone, knownJoints);
+            if (joint != null) joints.add(joint);
+        }
+        return joints;
+    }
+
+    @Test
+    void parsesEveryFrameWithMappedJoints() {
+        int frameCount = 10;
+        byte[] vmd = VMDParserBenchmark.generate(VMDParserBenchmark.BONES.length * frameCount, 1L);
+
+        List<VMDParser.VMDFrame> frames = VMDParser.parse(vmd);
+
+        Set<String> expected = expectedJoints(RetargetProfile.getDefault(), Set.of());
+        assertFalse(expected.isEmpty(), "default profile should map some test bones");
+        assertEquals(frameCount, frames.size());
+        for (int f = 0; f < frameCount; f++) {
+            VMDParser.VMDFrame frame = frames.get(f);
+            assertEquals(f, frame.frameNum);
+            assertEquals(expected, frame.jointAngles.keySet());
+            for (float angle : frame.jointAngles.values()) assertTrue(Float.isFinite(angle));
+        }
+    }
+
+    @Test
+    void internsEachBoneNameOnce() {
+        int records = VMDParserBenchmark.BONES.length * 3;
+        ByteBuffer buffer = ByteBuffer.wrap(VMDParserBenchmark.generate(records, 2L)).order(ByteOrder.LITTLE_ENDIAN);
+        RetargetProfile profile = RetargetProfile.getDefault();
+        VMDBoneTable table = new VMDBoneTable(profile, Set.of());
+
+        VMDBoneTable.Bone[] first = new VMDBoneTable.Bone[VMDParserBenchmark.BONES.length];
+        for (int i = 0; i < records; i++) {
+            VMDBoneTable.Bone bone = table.lookup(buffer, VMDParser.HEADER_SIZE + i * VMDParser.BONE_RECORD_SIZE);
+            int b = i % first.length;
+            if (first[b] == null) {
+                first[b] = bone;
+                assertEquals(VMDParserBenchmark.BONES[b], bone.name);
+                assertEquals(profile.resolveBone(bone.name, Set.of()), bone.joint);
+            } else {
+                assertSame(first[b], bone);
+            }
+        }
+        assertEquals(VMDParserBenchmark.BONES.length, table.size());
+    }
+
+    @Test
+    void mappingFollowsPerCallJointNames() throws Exception {
+        // 같은 파일을 관절 이름이 다른 두 로봇용으로 동시에 파싱 → 서로의 설정이 섞이지 않아야 함
+        byte[] vmd = VMDParserBenchmark.generate(VMDParserBenchmark.BONES.length * 50, 4L);
+        RetargetProfile profile = RetargetProfile.getDefault();
+        Set<String> robotA = Set.of("Neck", "Head");
+        Set<String> robotB = Set.of("head_yaw", "head_pitch");
+
+        for (int round = 0; round < 20; round++) {
+            var a = CompletableFuture.supplyAsync(() -> VMDParser.parse(vmd, profile, robotA));
+            var b = CompletableFuture.supplyAsync(() -> VMDParser.parse(vmd, profile, robotB));
+            assertEquals(expectedJoints(profile, robotA), a.get().get(0).jointAngles.keySet());
+            assertEquals(expectedJoints(profile, robotB), b.get().get(0).jointAngles.keySet());
+        }
+        assertTrue(expectedJoints(profile, robotA).contains("Neck"));
+        assertTrue(expectedJoints(profile, robotB).contains("head_yaw"));
+    }
+
+    @Test
+    void rejectsTruncatedFile() {
+        byte[] vmd = VMDParserBenchmark.generate(100, 3L);
+        byte[] truncated = Arrays.copyOf(vmd, vmd.length - VMDParser.BONE_RECORD_SIZE * 2);
+        assertThrows(RuntimeException.class, () -> VMDParser.parse(truncated));
+    }
+}
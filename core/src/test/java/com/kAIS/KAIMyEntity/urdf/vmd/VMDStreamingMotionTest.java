@@ -0,0 +1,134 @@
+package com.kAIS.KAIMyEntity.urdf.vmd;
+
+import com.kAIS.KAIMyEntity.urdf.control.CompiledMotion;
+import com.kAIS.KAIMyEntity.urdf.control.MotionClip;
+import com.kAIS.KAIMyEntity.urdf.control.URDFMotion;
+import com.kAIS.KAIMyEntity.urdf.retarget.RetargetProfile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * VMDStreamingMotion (큰 파일) ↔ VMDLoader.load + CompiledMotion (작은 파일) 재생 결과 비교
+ */
+class VMDStreamingMotionTest {
+    private static final int LAST_FRAME = 60;
+
+    @TempDir
+    Path dir;
+
+    /** 기본 프로파일로 서로 다른 관절에 매핑되는 본 n개 (BONES 인덱스) */
+    private static int[] mappedBones(int n) {
+        RetargetProfile profile = RetargetProfile.getDefault();
+        Set<String> joints = new HashSet<>();
+        int[] out = new int[n];
+        int found = 0;
+        for (int b = 0; b < VMDParserBenchmark.BONES.length && found < n; b++) {
+            String joint = profile.resolveBone(VMDParserBenchmark.BONES[b], Set.of());
+            if (joint != null && joints.add(joint)) out[found++] = b;
+        }
+        assertEquals(n, found, "default profile should map enough test bones");
+        return out;
+    }
+
+    /**
+     * 본마다 키가 다른 파일 (본 순서로 기록, 실제 VMD처럼 한 키의 레코드가 흩어져 있음)
+     * - 0: 매 프레임 / 1: 20프레임마다 / 2: 30프레임부터 / 3: 10프레임까지
+     */
+    private File sparseFile() throws Exception {
+        int[] bones = mappedBones(4);
+        List<int[]> records = new ArrayList<>();
+        for (int f = 0; f <= LAST_FRAME; f++) records.add(new int[]{bones[0], f});
+        for (int f = 0; f <= LAST_FRAME; f += 20) records.add(new int[]{bones[1], f});
+        for (int f = 30; f <= LAST_FRAME; f++) records.add(new int[]{bones[2], f});
+        for (int f = 0; f <= 10; f++) records.add(new int[]{bones[3], f});
+
+        int[] bone = new int[records.size()];
+        int[] frame = new int[records.size()];
+        for (int i = 0; i < bone.length; i++) {
+            bone[i] = records.get(i)[0];
+            frame[i] = records.get(i)[1];
+        }
+        File file = dir.resolve("sparse.vmd").toFile();
+        Files.write(file.toPath(), VMDParserBenchmark.generate(bone, frame, 7L));
+        return file;
+    }
+
+    /** 다른 쪽 클립의 열 순서로 out을 다시 배열 */
+    private static int[] columnMap(MotionClip from, MotionClip to) {
+        List<String> names = Arrays.asList(from.getJointNames());
+        int[] map = new int[to.getJointCount()];
+        for (int j = 0; j < map.length; j++) map[j] = names.indexOf(to.getJointNames()[j]);
+        return map;
+    }
+
+    @Test
+    void streamingAndFullLoadPlayTheSamePose() throws Exception {
+        File file = sparseFile();
+        URDFMotion motion = VMDLoader.load(file);
+        assertNotNull(motion);
+        CompiledMotion full = CompiledMotion.of(motion);
+
+        // 윈도우를 작게 → 재생 중 윈도우 교체/미리 디코딩도 거침
+        VMDStreamingMotion stream = VMDStreamingMotion.open(file, 4, RetargetProfile.getDefault(), Set.of());
+        try {
+            assertEquals(full.getKeyCount(), stream.getKeyCount());
+            assertEquals(full.getDuration(), stream.getDuration());
+            assertEquals(Set.of(full.getJointNames()), Set.of(stream.getJointNames()));
+
+            int[] map = columnMap(full, stream);
+            float[] a = new float[full.getJointCount()];
+            float[] b = new float[stream.getJointCount()];
+            int ha = -1, hb = -1;
+            int nanChecked = 0;
+            for (int i = 0; i <= LAST_FRAME * 4 + 8; i++) {
+                float t = i / 120f; // 키 시각(1/30초)과 그 사이
+                ha = full.sample(t, ha, a);
+                hb = stream.sample(t, hb, b);
+                assertEquals(ha, hb, "key at t=" + t);
+                for (int j = 0; j < b.length; j++) {
+                    float expected = a[map[j]];
+                    if (Float.isNaN(expected)) nanChecked++;
+                    assertEquals(expected, b[j], 1e-6f, stream.getJointNames()[j] + " at t=" + t);
+                }
+            }
+            assertTrue(nanChecked > 0, "bone keyed only up to frame 10 should be NaN afterwards");
+
+            // 되감기 (동기 디코딩 경로)
+            full.sample(0.5f, -1, a);
+            stream.sample(0.5f, -1, b);
+            for (int j = 0; j < b.length; j++) assertEquals(a[map[j]], b[j], 1e-6f);
+        } finally {
+            stream.close();
+        }
+    }
+
+    @Test
+    void keyWithoutPreviousValueTakesNextValue() throws Exception {
+        File file = sparseFile();
+        VMDStreamingMotion stream = VMDStreamingMotion.open(file, 4, RetargetProfile.getDefault(), Set.of());
+        try {
+            String late = RetargetProfile.getDefault().resolveBone(VMDParserBenchmark.BONES[mappedBones(4)[2]], Set.of());
+            int col = Arrays.asList(stream.getJointNames()).indexOf(late);
+
+            float[] before = new float[stream.getJointCount()];
+            float[] at = new float[stream.getJointCount()];
+            stream.sample(29.5f / 30f, -1, before); // 키 29(값 없음) → 키 30
+            stream.sample(30f / 30f, -1, at);
+            assertFalse(Float.isNaN(before[col]));
+            assertEquals(at[col], before[col], 0f);
+        } finally {
+            stream.close();
+        }
+    }
+}
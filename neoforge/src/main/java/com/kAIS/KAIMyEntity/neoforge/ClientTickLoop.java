@@ -1,8 +1,9 @@
 // neoforge/src/main/java/com/kAIS/KAIMyEntity/neoforge/ClientTickLoop.java
 package com.kAIS.KAIMyEntity.neoforge;
 
+import com.kAIS.KAIMyEntity.PhysicsManager;
 import com.kAIS.KAIMyEntity.urdf.URDFModelOpenGLWithSTL;
-import com.kAIS.KAIMyEntity.urdf.control.MotionEditorScreen;
+import com.kAIS.KAIMyEntity.urdf.control.MotionPlayerScheduler;
 import com.kAIS.KAIMyEntity.webots.WebotsController; // ✅ 추가
 
 import net.neoforged.api.distmarker.Dist;
@@ -17,7 +18,9 @@ import java.util.List;
  * 네오포지용 클라이언트 틱 루프
  * - 매 틱(20Hz)마다 URDF 모델 업데이트
  * - URDFModelOpenGLWithSTL.tickUpdate(dt) 호출
- * - VMC 데이터 처리 (MotionEditorScreen.tick)
+ * - 모델별 모션 재생 (MotionPlayerScheduler.tickAll)
+ * - 물리: 물리를 켠 모델(setPhysicsEnabled, 기본 꺼짐)만 ODE 관절체, 재생 포즈를 서보 목표로
+ *   → PhysicsManager 스텝 → 시뮬레이션 관절값으로 그림
  * 
  * ✅ 2025.11.21 Webots 연동 추가
  * - URDF 업데이트 후 자동으로 Webots 전송
@@ -31,6 +34,12 @@ public final class ClientTickLoop {
 
     public static URDFModelOpenGLWithSTL renderer;              // 단일 모델
     public static final List<URDFModelOpenGLWithSTL> renderers = new ArrayList<>();
+
+    // 틱마다 재사용하는 갱신 대상 목록 (renderer + renderers)
+    private static final List<URDFModelOpenGLWithSTL> tickTargets = new ArrayList<>();
+
+    // ✅ 물리 시뮬레이션 전역 스위치 (false = 어떤 모델도 스텝하지 않음, 모델별로는 setPhysicsEnabled로 켬)
+    public static boolean physicsEnabled = true;
     
     // ✅ Webots 컨트롤러 (지연 초기화)
     private static WebotsController webots;
@@ -44,20 +53,28 @@ public final class ClientTickLoop {
     public static void onClientTick(ClientTickEvent.Post event) {
         float dt = 1.0f / 20.0f;
 
-        // ✅ 기존 로직: URDF 업데이트 + VMC 처리
+        // ✅ URDF 업데이트
+        tickTargets.clear();
         if (renderer != null) {
             renderer.tickUpdate(dt);
-            MotionEditorScreen.tick(renderer); // ★ VMC 데이터 처리
+            tickTargets.add(renderer);
         }
         
         for (URDFModelOpenGLWithSTL r : renderers) {
             r.tickUpdate(dt);
-            MotionEditorScreen.tick(r); // ★ VMC 데이터 처리
+            tickTargets.add(r);
+        }
+
+        // ★ 모델별 모션 재생 (모델마다 자기 시계, 틱당 1회, 많으면 병렬)
+        MotionPlayerScheduler.tickAll(tickTargets, dt);
+
+        // ✅ 물리 (재생 포즈 = 서보 목표 → 스텝 → 모델 관절값 갱신)
+        if (physicsEnabled && !tickTargets.isEmpty()) {
+            tickPhysics(dt);
         }
         
-        // ✅ 추가 로직: Webots 전송 (기존 로직에 영향 없음)
-        // 참고: MotionEditorScreen.tick() 내부에서 이미 sendToWebots() 호출됨
-        // 여기서는 추가로 직접 제어하는 경우에만 사용
+        // ✅ Webots 전송은 WebotsController 제어 스레드가 담당 (control_rate_hz, 기본 100 Hz)
+        // 재생 중인 VMDPlayer는 play() 때 제어 소스로 등록되어 제어 주기마다 샘플링됨
         
         // 통계 출력 (5초마다)
         if (++tickCount >= STATS_INTERVAL) {
@@ -66,6 +83,36 @@ public final class ClientTickLoop {
         }
     }
     
+    /**
+     * 물리를 켠 모델마다 관절체 (켠 뒤 첫 틱에 생성, 끄면 제거) → 이번 틱에 바뀐 관절값을 목표로 → 스텝
+     * 관절 명령은 이 스레드(클라이언트) 하나만 넣음 (PhysicsCommandRing은 단일 생산자)
+     */
+    private static void tickPhysics(float dt) {
+        PhysicsManager physics = PhysicsManager.GetInst();
+        boolean any = false;
+        for (URDFModelOpenGLWithSTL r : tickTargets) {
+            if (!r.isPhysicsEnabled()) {
+                r.disablePhysics();
+                continue;
+            }
+            r.enablePhysics(physics);
+            r.pushPhysicsTargets(physics);
+            any = true;
+        }
+        if (!any) {                  // 물리를 켠 모델이 없으면 스텝하지 않음
+            physics.stopThread();
+            return;
+        }
+        // 스텝은 전용 물리 스레드 (고정 스텝 주기, 틱당 수십 서브스텝이 클라이언트 틱을 먹지 않도록)
+        // 스레드를 못 띄우면 update()가 이 스레드에서 스텝 + 모델 동기화 (스레드가 돌면 0 스텝)
+        physics.startThread();
+        physics.update(dt);
+        physics.syncRenderState();   // 물리 스레드의 최신 게시 상태 → 모델
+        for (URDFModelOpenGLWithSTL r : tickTargets) {
+            r.markPhysicsSynced();
+        }
+    }
+
     // ✅ 새로운 메서드: Webots 컨트롤러 초기화 (지연 로딩)
     /**
      * Webots 컨트롤러를 지연 초기화
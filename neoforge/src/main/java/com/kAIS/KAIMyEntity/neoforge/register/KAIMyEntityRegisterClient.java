@@ -1,5 +1,6 @@
 package com.kAIS.KAIMyEntity.neoforge.register;
 
+import com.kAIS.KAIMyEntity.PhysicsManager;
 import com.kAIS.KAIMyEntity.renderer.KAIMyEntityRendererPlayerHelper;
 import com.kAIS.KAIMyEntity.renderer.MMDModelManager;
 
@@ -106,11 +107,7 @@ class KAIMyEntityKeyHandler {
 
         // ==== G: 조인트 에디터 / Ctrl+G: 리로드 ====
         if (KAIMyEntityRegisterClient.keyMotionGuiOrReload.consumeClick()) {
-            long win = MC.getWindow().getWindow();
-            boolean ctrl = org.lwjgl.glfw.GLFW.glfwGetKey(win, GLFW.GLFW_KEY_LEFT_CONTROL)  == GLFW.GLFW_PRESS
-                    || org.lwjgl.glfw.GLFW.glfwGetKey(win, GLFW.GLFW_KEY_RIGHT_CONTROL) == GLFW.GLFW_PRESS;
-
-            if (ctrl) {
+            if (isCtrlDown(MC)) {
                 // Ctrl+G → 리로드
                 try {
                     MMDModelManager.ReloadModel();
@@ -140,8 +137,10 @@ class KAIMyEntityKeyHandler {
             }
         }
 
-        // ==== H: 물리 리셋 ====
-        if (KAIMyEntityRegisterClient.keyResetPhysics.isDown()) {
+        // ==== H: 물리 리셋 / Ctrl+H: 활성 모델 물리 켜기/끄기 ====
+        if (KAIMyEntityRegisterClient.keyResetPhysics.consumeClick() && isCtrlDown(MC)) {
+            togglePhysics(MC);
+        } else if (KAIMyEntityRegisterClient.keyResetPhysics.isDown()) {
             var m = MMDModelManager.GetModel("EntityPlayer_" + player.getName().getString());
             if (m != null) {
                 KAIMyEntityRendererPlayerHelper.ResetPhysics(player);
@@ -164,6 +163,14 @@ class KAIMyEntityKeyHandler {
             } catch (Exception e) {
                 MC.gui.getChat().addMessage(Component.literal("§c[Webots] Error: " + e.getMessage()));
             }
+            // 물리를 켠 모델이 있으면 물리 통계도 (활성/잠든 바디 수)
+            if (PhysicsManager.isInitialized() && !PhysicsManager.GetInst().getRobots().isEmpty()) {
+                PhysicsManager pm = PhysicsManager.GetInst();
+                pm.printStats();
+                MC.gui.getChat().addMessage(Component.literal("§a[Physics] " + pm.getActiveBodyCount() + " active / "
+                        + pm.getSleepingBodyCount() + " sleeping bodies, " + pm.getSleepingRobotCount() + "/"
+                        + pm.getRobots().size() + " robots asleep"));
+            }
         }
 
         // ==== Y: Webots 테스트 자세 ====
@@ -177,6 +184,26 @@ class KAIMyEntityKeyHandler {
         }
     }
 
+    private static boolean isCtrlDown(Minecraft mc) {
+        long win = mc.getWindow().getWindow();
+        return org.lwjgl.glfw.GLFW.glfwGetKey(win, GLFW.GLFW_KEY_LEFT_CONTROL)  == GLFW.GLFW_PRESS
+                || org.lwjgl.glfw.GLFW.glfwGetKey(win, GLFW.GLFW_KEY_RIGHT_CONTROL) == GLFW.GLFW_PRESS;
+    }
+
+    // === 활성 모델 물리 켜기/끄기 (관절체 생성/제거는 다음 틱에 ClientTickLoop가 처리) ===
+    private static void togglePhysics(Minecraft mc) {
+        if (ClientTickLoop.renderer == null) ensureActiveRenderer(mc);
+        var r = ClientTickLoop.renderer;
+        if (r == null) {
+            mc.gui.getChat().addMessage(Component.literal("[URDF] No active renderer. Put a *.urdf under ./KAIMyEntity or ./config and press Ctrl+H again."));
+            return;
+        }
+        boolean on = !r.isPhysicsEnabled();
+        r.setPhysicsEnabled(on);
+        mc.gui.getChat().addMessage(Component.literal(on ? "§a[URDF] physics ON" : "§e[URDF] physics OFF"));
+        logger.info("URDF physics {} for {}", on ? "enabled" : "disabled", r.getRobotModel().name);
+    }
+
     // === 커스텀 애니메이션 처리 ===
     private static void handleCustomAnim(LocalPlayer player) {
         var m = MMDModelManager.GetModel("EntityPlayer_" + player.getName().getString());
@@ -221,27 +248,22 @@ class KAIMyEntityKeyHandler {
             }
 
             // VMD 로드
-            URDFMotion motion = VMDLoader.load(vmdFile);
+            URDFMotion motion = VMDLoader.load(vmdFile, ClientTickLoop.renderer.getRobotModel(),
+                    ClientTickLoop.renderer.getRetargetProfile());
             if (motion == null) {
                 mc.gui.getChat().addMessage(Component.literal("§c[VMD] Failed to parse file: " + vmdFile.getName()));
                 return;
             }
 
-            // 모션 재생 (렌더러에 적용하는 방식은 프로젝트 구조에 따라 다를 수 있음)
-            // 방법 1: 렌더러에 직접 모션 설정
+            // 모션 재생: 활성 렌더러의 모델별 플레이어에 로드 후 재생
             try {
-                // ClientTickLoop.renderer.setMotion(motion); // 이런 메서드가 있다면
-                // 또는
-                // ClientTickLoop.renderer.getMotionPlayer().load(motion);
-                // ClientTickLoop.renderer.getMotionPlayer().play();
-                
-                // 일단 로드 성공 메시지만 표시
+                var player = ClientTickLoop.renderer.getMotionPlayer();
+                player.loadMotion(motion);
+                player.play();
+
                 mc.gui.getChat().addMessage(Component.literal("§a✓ VMD loaded: " + vmdFile.getName() + " (" + motion.keys.size() + " keyframes)"));
                 logger.info("VMD loaded successfully: {} with {} keyframes", vmdFile.getName(), motion.keys.size());
                 
-                // TODO: 실제 모션 재생 로직은 URDFModelOpenGLWithSTL의 API에 따라 구현 필요
-                mc.gui.getChat().addMessage(Component.literal("§e[VMD] Motion playback API not yet connected"));
-                
             } catch (Exception e) {
                 mc.gui.getChat().addMessage(Component.literal("§c[VMD] Playback failed: " + e.getMessage()));
                 logger.error("VMD playback error", e);